@@ -0,0 +1,104 @@
+package com.example;
+
+import com.example.connector.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Footprint benchmark for crawl state at 10M / 100M URLs.
+ *
+ * Feeds synthetic URLs (spread over 10,000 hosts, one in four a repeat) through
+ * DiskCrawlState.markSeen and push, prints heap after GC and the state's off-heap and disk sizes at
+ * every tenth of the run, then drains the frontier. Pass --hashset to measure a HashSet<String> visited
+ * set over the same URLs for comparison.
+ *
+ * Usage: CrawlStateBenchmark [urls=10000000] [directory=tmp] [--hashset]
+ * Run with a small fixed heap (e.g. -Xmx256m) to show the state does not depend on it.
+ */
+public class CrawlStateBenchmark {
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    
+    public static void main(String[] args) throws Exception {
+        long count = args.length > 0 && !args[0].startsWith("--") ? Long.parseLong(args[0]) : 10_000_000L;
+        boolean hashSet = args.length > 0 && args[args.length - 1].equals("--hashset");
+        System.out.printf("URLs: %,d  max heap: %,d MB%n", count, MEMORY.getHeapMemoryUsage().getMax() >> 20);
+        if (hashSet) {
+            benchmarkHashSet(count);
+            return;
+        }
+        Path directory = args.length > 1 && !args[1].startsWith("--")
+            ? Paths.get(args[1]) : Files.createTempDirectory("crawl-state-benchmark");
+        System.out.println("State directory: " + directory);
+        benchmarkDiskState(count, directory);
+    }
+    
+    private static void benchmarkDiskState(long count, Path directory) throws ConnectorException {
+        try (DiskCrawlState state = DiskCrawlState.builder()
+                .directory(directory)
+                .expectedUrls(count)
+                .build()) {
+            System.out.println("  progress      heap MB   bloom MB  visited MB  frontier MB   URLs/s");
+            long start = System.nanoTime();
+            long step = Math.max(1, count / 10);
+            long fresh = 0;
+            for (long i = 0; i < count; i++) {
+                String url = urlFor(i);
+                if (state.markSeen(url)) {
+                    state.push(url, (int) (i % 5));
+                    fresh++;
+                }
+                if ((i + 1) % step == 0) {
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    System.out.printf("  %5.0f%%  %12d %10d %11d %12d %9.0f%n", (i + 1) * 100.0 / count, heapMb(),
+                        state.getBloomFilterBytes() >> 20, state.getVisitedSetDiskBytes() >> 20,
+                        state.getFrontierSpilledBytes() >> 20, (i + 1) / seconds);
+                }
+            }
+            System.out.printf("Unique URLs: %,d  Bloom hits: %,d  Bloom false positives: %,d%n",
+                fresh, state.getBloomHits(), state.getBloomFalsePositives());
+            
+            long drainStart = System.nanoTime();
+            long drained = 0;
+            while (state.poll() != null) {
+                drained++;
+            }
+            double seconds = (System.nanoTime() - drainStart) / 1e9;
+            System.out.printf("Drained frontier: %,d URLs in %.1f s (%,.0f URLs/s), heap %d MB%n",
+                drained, seconds, drained / seconds, heapMb());
+        }
+    }
+    
+    private static void benchmarkHashSet(long count) {
+        Set<String> seen = new HashSet<>();
+        long start = System.nanoTime();
+        long step = Math.max(1, count / 10);
+        System.out.println("  progress      heap MB   URLs/s");
+        for (long i = 0; i < count; i++) {
+            seen.add(urlFor(i));
+            if ((i + 1) % step == 0) {
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("  %5.0f%%  %12d %9.0f%n", (i + 1) * 100.0 / count, heapMb(), (i + 1) / seconds);
+            }
+        }
+        System.out.printf("Unique URLs: %,d%n", seen.size());
+    }
+    
+    /**
+     * Deterministic URL for step i; every fourth step repeats an earlier URL
+     */
+    private static String urlFor(long i) {
+        long n = i % 4 == 3 ? i / 2 : i;
+        return "https://docs" + (n % 10_000) + ".example.com/knowledge/articles/" + n / 10_000
+            + "/page-" + Long.toHexString(n * 0x9E3779B97F4A7C15L) + ".html";
+    }
+    
+    private static long heapMb() {
+        System.gc();
+        return MEMORY.getHeapMemoryUsage().getUsed() >> 20;
+    }
+}
\ No newline at end of file
@@ -12,7 +12,11 @@ public class Main {
     
     public static void main(String[] args) {
         // Note: Authentication will be overridden in target repository
-        BedrockAgentClient client = BedrockAgentClient.builder().build();
+        BedrockClientProvider clientProvider = new BedrockClientProvider(ClientProvisioningConfig.builder()
+            .maxConnections(50)
+            .prewarmConnections(4)
+            .build());
+        BedrockAgentClient client = clientProvider.getClient(null);
         
         try {
             // Example 1: Knowledge Base Management
@@ -34,7 +38,7 @@ public class Main {
             System.err.println("Unexpected Error: " + e.getMessage());
             e.printStackTrace();
         } finally {
-            client.close();
+            clientProvider.close();
         }
     }
     
@@ -96,8 +100,11 @@ public class Main {
         String jobId = ingestionResponse.ingestionJob().ingestionJobId();
         System.out.println("Started ingestion job: " + jobId);
         
-        // Monitor ingestion status
-        GetIngestionJobResponse jobStatus = s3Connector.getIngestionJob(dataSourceId, jobId);
+        // Wait for the job to finish; polling adapts to the job's progress
+        GetIngestionJobResponse jobStatus = s3Connector.waitForIngestion(dataSourceId, jobId,
+            IngestionWaitOptions.builder()
+                .maxWaitMs(30 * 60 * 1000)
+                .build());
         System.out.println("Ingestion status: " + jobStatus.ingestionJob().status());
     }
     
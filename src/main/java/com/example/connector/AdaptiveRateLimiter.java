@@ -0,0 +1,316 @@
+package com.example.connector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side rate limiter for Bedrock Agent control-plane operations.
+ *
+ * Each API operation gets its own token bucket whose rate adapts AIMD-style:
+ * a throttling response halves the rate (at most once per cooldown window) and every
+ * success adds a small increment, so the rate converges just under the account quota
+ * instead of oscillating between bursts and throttles.
+ *
+ * When an operation is saturated, waiting callers are admitted by weighted fair queuing
+ * over tenant keys (connectors use their knowledge base ID), so one busy tenant cannot
+ * starve the others. Waiting is non-blocking; {@link #acquire} simply parks on the future.
+ */
+public class AdaptiveRateLimiter {
+    private final Map<String, OperationBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Double> tenantWeights = new ConcurrentHashMap<>();
+    private final Map<String, double[]> operationRates;
+    private final double initialRate;
+    private final double minRate;
+    private final double maxRate;
+    private final double decreaseFactor;
+    private final double additiveIncrease;
+    private final long cooldownNanos;
+    private final ScheduledExecutorService scheduler;
+    
+    private AdaptiveRateLimiter(Builder builder) {
+        this.operationRates = new HashMap<>(builder.operationRates);
+        this.initialRate = builder.initialRate;
+        this.minRate = builder.minRate;
+        this.maxRate = builder.maxRate;
+        this.decreaseFactor = builder.decreaseFactor;
+        this.additiveIncrease = builder.additiveIncrease;
+        this.cooldownNanos = TimeUnit.MILLISECONDS.toNanos(builder.cooldownMs);
+        this.scheduler = ConnectorExecutors.scheduler();
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * Limiter seeded with the default per-account Bedrock Agent API quotas
+     */
+    public static AdaptiveRateLimiter defaultLimiter() {
+        return builder()
+            .operationRate("StartIngestionJob", 0.1, 0.1)
+            .operationRate("CreateDataSource", 2, 2)
+            .operationRate("UpdateDataSource", 2, 2)
+            .operationRate("DeleteDataSource", 2, 2)
+            .operationRate("CreateKnowledgeBase", 2, 2)
+            .operationRate("DeleteKnowledgeBase", 2, 2)
+            .initialRate(10)
+            .maxRate(10)
+            .build();
+    }
+    
+    /**
+     * Wait for a permit to call {@code operation} on behalf of {@code tenant}
+     */
+    public void acquire(String operation, String tenant) throws InterruptedException {
+        CompletableFuture<Void> permit = acquireAsync(operation, tenant);
+        try {
+            permit.get();
+        } catch (InterruptedException e) {
+            permit.cancel(false);
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rate limiter permit failed", e.getCause());
+        }
+    }
+    
+    /**
+     * Future that completes when a permit is granted; cancelling it gives the slot back
+     */
+    public CompletableFuture<Void> acquireAsync(String operation, String tenant) {
+        return bucket(operation).acquire(tenant != null ? tenant : "", getWeight(tenant));
+    }
+    
+    /**
+     * Feed back a successful call (additive increase)
+     */
+    public void onSuccess(String operation) {
+        bucket(operation).onSuccess();
+    }
+    
+    /**
+     * Feed back a throttling response (multiplicative decrease)
+     */
+    public void onThrottle(String operation) {
+        bucket(operation).onThrottle();
+    }
+    
+    /**
+     * Give a tenant a larger or smaller share of every saturated operation (default 1.0)
+     */
+    public void setWeight(String tenant, double weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Weight must be positive: " + weight);
+        }
+        tenantWeights.put(tenant, weight);
+    }
+    
+    public double getWeight(String tenant) {
+        return tenant != null ? tenantWeights.getOrDefault(tenant, 1.0) : 1.0;
+    }
+    
+    /**
+     * Current adapted rate (calls per second) for an operation
+     */
+    public double getCurrentRate(String operation) {
+        return bucket(operation).currentRate();
+    }
+    
+    private OperationBucket bucket(String operation) {
+        return buckets.computeIfAbsent(operation, op -> {
+            double[] rates = operationRates.get(op);
+            return rates != null
+                ? new OperationBucket(rates[0], rates[1])
+                : new OperationBucket(initialRate, maxRate);
+        });
+    }
+    
+    private static final class Waiter implements Comparable<Waiter> {
+        private final double virtualFinish;
+        private final long sequence;
+        private final CompletableFuture<Void> permit = new CompletableFuture<>();
+        
+        Waiter(double virtualFinish, long sequence) {
+            this.virtualFinish = virtualFinish;
+            this.sequence = sequence;
+        }
+        
+        @Override
+        public int compareTo(Waiter other) {
+            int byFinish = Double.compare(virtualFinish, other.virtualFinish);
+            return byFinish != 0 ? byFinish : Long.compare(sequence, other.sequence);
+        }
+    }
+    
+    private final class OperationBucket {
+        private final double ceilingRate;
+        private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+        private final Map<String, Double> tenantFinish = new HashMap<>();
+        private double rate;
+        private double tokens;
+        private long lastRefillNanos = System.nanoTime();
+        private long lastDecreaseNanos = System.nanoTime() - cooldownNanos;
+        private double virtualTime;
+        private long sequence;
+        private boolean drainScheduled;
+        
+        OperationBucket(double initial, double ceiling) {
+            this.ceilingRate = Math.max(minRate, ceiling);
+            this.rate = Math.min(this.ceilingRate, Math.max(minRate, initial));
+            this.tokens = Math.max(1.0, rate);
+        }
+        
+        synchronized CompletableFuture<Void> acquire(String tenant, double weight) {
+            refill();
+            if (waiters.isEmpty() && tokens >= 1.0) {
+                tokens -= 1.0;
+                return CompletableFuture.completedFuture(null);
+            }
+            // Weighted fair queuing: each permit costs 1/weight of virtual time for its tenant
+            double start = Math.max(virtualTime, tenantFinish.getOrDefault(tenant, 0.0));
+            double finish = start + 1.0 / weight;
+            tenantFinish.put(tenant, finish);
+            if (tenantFinish.size() > 1024) {
+                tenantFinish.values().removeIf(f -> f <= virtualTime);
+            }
+            Waiter waiter = new Waiter(finish, sequence++);
+            waiters.add(waiter);
+            scheduleDrain();
+            return waiter.permit;
+        }
+        
+        void drain() {
+            List<CompletableFuture<Void>> granted = new ArrayList<>();
+            synchronized (this) {
+                drainScheduled = false;
+                refill();
+                while (!waiters.isEmpty() && tokens >= 1.0) {
+                    Waiter waiter = waiters.poll();
+                    if (waiter.permit.isDone()) {
+                        continue;
+                    }
+                    tokens -= 1.0;
+                    virtualTime = Math.max(virtualTime, waiter.virtualFinish);
+                    granted.add(waiter.permit);
+                }
+                if (!waiters.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+            for (CompletableFuture<Void> permit : granted) {
+                permit.complete(null);
+            }
+        }
+        
+        synchronized void onSuccess() {
+            // Roughly +additiveIncrease calls/second for every second of saturated traffic
+            rate = Math.min(ceilingRate, rate + additiveIncrease / Math.max(1.0, rate));
+        }
+        
+        synchronized void onThrottle() {
+            long now = System.nanoTime();
+            if (now - lastDecreaseNanos < cooldownNanos) {
+                return;
+            }
+            lastDecreaseNanos = now;
+            refill();
+            rate = Math.max(minRate, rate * decreaseFactor);
+            tokens = Math.min(tokens, 0.0);
+        }
+        
+        synchronized double currentRate() {
+            return rate;
+        }
+        
+        private void scheduleDrain() {
+            if (drainScheduled) {
+                return;
+            }
+            drainScheduled = true;
+            double missing = Math.max(0.0, 1.0 - tokens);
+            long delayNanos = (long) Math.ceil(missing / rate * 1_000_000_000L);
+            scheduler.schedule(this::drain, delayNanos, TimeUnit.NANOSECONDS);
+        }
+        
+        private void refill() {
+            long now = System.nanoTime();
+            double burst = Math.max(1.0, rate);
+            tokens = Math.min(burst, tokens + (now - lastRefillNanos) / 1_000_000_000.0 * rate);
+            lastRefillNanos = now;
+        }
+    }
+    
+    public static class Builder {
+        private final Map<String, double[]> operationRates = new HashMap<>();
+        private double initialRate = 5.0;
+        private double minRate = 0.05;
+        private double maxRate = 20.0;
+        private double decreaseFactor = 0.5;
+        private double additiveIncrease = 0.5;
+        private long cooldownMs = 1000;
+        
+        /**
+         * Starting rate for operations without an explicit setting
+         */
+        public Builder initialRate(double callsPerSecond) {
+            this.initialRate = callsPerSecond;
+            return this;
+        }
+        
+        public Builder minRate(double callsPerSecond) {
+            this.minRate = callsPerSecond;
+            return this;
+        }
+        
+        /**
+         * Default ceiling; set it at or slightly above the account quota
+         */
+        public Builder maxRate(double callsPerSecond) {
+            this.maxRate = callsPerSecond;
+            return this;
+        }
+        
+        /**
+         * Starting rate and ceiling for one API operation, e.g. ("StartIngestionJob", 0.1, 0.2)
+         */
+        public Builder operationRate(String operation, double initialCallsPerSecond, double maxCallsPerSecond) {
+            this.operationRates.put(operation, new double[] {initialCallsPerSecond, maxCallsPerSecond});
+            return this;
+        }
+        
+        public Builder decreaseFactor(double factor) {
+            this.decreaseFactor = factor;
+            return this;
+        }
+        
+        public Builder additiveIncrease(double callsPerSecond) {
+            this.additiveIncrease = callsPerSecond;
+            return this;
+        }
+        
+        /**
+         * Minimum time between two decreases, so one burst of throttles counts once
+         */
+        public Builder cooldownMs(long cooldownMs) {
+            this.cooldownMs = cooldownMs;
+            return this;
+        }
+        
+        public AdaptiveRateLimiter build() {
+            if (decreaseFactor <= 0 || decreaseFactor >= 1) {
+                throw new IllegalArgumentException("Decrease factor must be between 0 and 1");
+            }
+            if (minRate <= 0 || maxRate < minRate) {
+                throw new IllegalArgumentException("Rates must satisfy 0 < minRate <= maxRate");
+            }
+            return new AdaptiveRateLimiter(this);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.example.connector;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Helpers for adapting async SDK calls to the connector error model
+ */
+final class AsyncCalls {
+    
+    private AsyncCalls() {
+    }
+    
+    /**
+     * Invoke an async SDK call and map any failure to a ConnectorException.
+     * Cancelling the returned future cancels the underlying SDK future.
+     */
+    static <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> call, String errorMessage) {
+        CompletableFuture<T> sdkFuture;
+        try {
+            sdkFuture = call.get();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new ConnectorException(errorMessage, e));
+        }
+        
+        CompletableFuture<T> result = new CompletableFuture<>();
+        sdkFuture.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(new ConnectorException(errorMessage, unwrap(error)));
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                sdkFuture.cancel(true);
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Strip the CompletionException/ExecutionException wrappers added by future composition
+     */
+    static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+}
\ No newline at end of file
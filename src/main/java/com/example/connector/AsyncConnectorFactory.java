@@ -0,0 +1,49 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.BedrockAgentAsyncClient;
+
+/**
+ * Factory class for creating non-blocking Knowledge Base data source connectors
+ */
+public class AsyncConnectorFactory {
+    
+    /**
+     * Create an async data source connector with default configuration
+     */
+    public static AsyncDataSourceConnector createConnector(ConnectorFactory.ConnectorType type,
+                                                           BedrockAgentAsyncClient client,
+                                                           String knowledgeBaseId) {
+        return createConnector(type, client, knowledgeBaseId, ConnectorConfig.defaultConfig());
+    }
+    
+    /**
+     * Create an async data source connector with custom configuration
+     */
+    public static AsyncDataSourceConnector createConnector(ConnectorFactory.ConnectorType type,
+                                                           BedrockAgentAsyncClient client,
+                                                           String knowledgeBaseId,
+                                                           ConnectorConfig config) {
+        if (type == null) {
+            throw new IllegalArgumentException("Unsupported connector type: null");
+        }
+        AsyncDataSourceConnector connector = new AsyncDataSourceConnector(client, type, knowledgeBaseId, config);
+        connector.setRateLimiter(ConnectorFactory.getSharedRateLimiter());
+        return connector;
+    }
+    
+    /**
+     * Create an async knowledge base manager sharing the same client
+     */
+    public static AsyncKnowledgeBaseManager createKnowledgeBaseManager(BedrockAgentAsyncClient client) {
+        AsyncKnowledgeBaseManager manager = new AsyncKnowledgeBaseManager(client);
+        manager.setRateLimiter(ConnectorFactory.getSharedRateLimiter());
+        return manager;
+    }
+    
+    /**
+     * Get available connector types
+     */
+    public static ConnectorFactory.ConnectorType[] getAvailableTypes() {
+        return ConnectorFactory.getAvailableTypes();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,209 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.BedrockAgentAsyncClient;
+import software.amazon.awssdk.services.bedrockagent.model.*;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of DataSourceConnector built on BedrockAgentAsyncClient.
+ * Every operation returns a CompletableFuture that completes exceptionally with a
+ * ConnectorException, so calls can be composed without parking a thread per request.
+ */
+public class AsyncDataSourceConnector {
+    protected final BedrockAgentAsyncClient bedrockClient;
+    protected final ConnectorFactory.ConnectorType type;
+    protected final String knowledgeBaseId;
+    protected final ConnectorConfig config;
+    protected final ControlPlaneInvoker invoker;
+    
+    public AsyncDataSourceConnector(BedrockAgentAsyncClient client,
+                                    ConnectorFactory.ConnectorType type,
+                                    String knowledgeBaseId,
+                                    ConnectorConfig config) {
+        this.bedrockClient = client;
+        this.type = type;
+        this.knowledgeBaseId = knowledgeBaseId;
+        this.config = config;
+        this.invoker = new ControlPlaneInvoker(config);
+    }
+    
+    /**
+     * Pace calls through a shared rate limiter, sharing it fairly with other knowledge bases
+     */
+    public void setRateLimiter(AdaptiveRateLimiter rateLimiter) {
+        invoker.setRateLimiter(rateLimiter, knowledgeBaseId);
+    }
+    
+    /**
+     * Create a new data source with validation
+     */
+    public CompletableFuture<CreateDataSourceResponse> createDataSource(String name,
+                                                                        DataSourceConfiguration dataConfig) {
+        if (config.isValidationEnabled() && !validateConfiguration(dataConfig)) {
+            return invalidConfiguration();
+        }
+        
+        CreateDataSourceRequest request = CreateDataSourceRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .name(name)
+            .dataSourceConfiguration(dataConfig)
+            .clientToken(UUID.randomUUID().toString())
+            .build();
+        return invoker.invokeAsync("CreateDataSource", () -> bedrockClient.createDataSource(request),
+            "Failed to create " + type.getDisplayName() + " data source: " + name);
+    }
+    
+    /**
+     * Update existing data source
+     */
+    public CompletableFuture<UpdateDataSourceResponse> updateDataSource(String dataSourceId,
+                                                                        DataSourceConfiguration dataConfig) {
+        if (config.isValidationEnabled() && !validateConfiguration(dataConfig)) {
+            return invalidConfiguration();
+        }
+        
+        UpdateDataSourceRequest request = UpdateDataSourceRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .dataSourceConfiguration(dataConfig)
+            .build();
+        return invoker.invokeAsync("UpdateDataSource", () -> bedrockClient.updateDataSource(request),
+            "Failed to update " + type.getDisplayName() + " data source: " + dataSourceId);
+    }
+    
+    /**
+     * Delete data source
+     */
+    public CompletableFuture<DeleteDataSourceResponse> deleteDataSource(String dataSourceId) {
+        DeleteDataSourceRequest request = DeleteDataSourceRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .build();
+        return invoker.invokeAsync("DeleteDataSource", () -> bedrockClient.deleteDataSource(request),
+            "Failed to delete " + type.getDisplayName() + " data source: " + dataSourceId);
+    }
+    
+    /**
+     * List data sources for the knowledge base
+     */
+    public CompletableFuture<ListDataSourcesResponse> listDataSources() {
+        ListDataSourcesRequest request = ListDataSourcesRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .maxResults(config.getMaxResults())
+            .build();
+        return invoker.invokeAsync("ListDataSources", () -> bedrockClient.listDataSources(request),
+            "Failed to list data sources");
+    }
+    
+    /**
+     * Get data source details
+     */
+    public CompletableFuture<GetDataSourceResponse> getDataSource(String dataSourceId) {
+        GetDataSourceRequest request = GetDataSourceRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .build();
+        return invoker.invokeAsync("GetDataSource", () -> bedrockClient.getDataSource(request),
+            "Failed to get data source: " + dataSourceId);
+    }
+    
+    /**
+     * Start ingestion job
+     */
+    public CompletableFuture<StartIngestionJobResponse> startIngestion(String dataSourceId, String clientToken) {
+        StartIngestionJobRequest request = StartIngestionJobRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .clientToken(clientToken != null ? clientToken : UUID.randomUUID().toString())
+            .build();
+        return invoker.invokeAsync("StartIngestionJob", () -> bedrockClient.startIngestionJob(request),
+            "Failed to start ingestion for data source: " + dataSourceId);
+    }
+    
+    /**
+     * Get ingestion job status
+     */
+    public CompletableFuture<GetIngestionJobResponse> getIngestionJob(String dataSourceId, String ingestionJobId) {
+        GetIngestionJobRequest request = GetIngestionJobRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .ingestionJobId(ingestionJobId)
+            .build();
+        return invoker.invokeAsync("GetIngestionJob", () -> bedrockClient.getIngestionJob(request),
+            "Failed to get ingestion job status");
+    }
+    
+    /**
+     * List ingestion jobs for a data source
+     */
+    public CompletableFuture<ListIngestionJobsResponse> listIngestionJobs(String dataSourceId) {
+        ListIngestionJobsRequest request = ListIngestionJobsRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .maxResults(config.getMaxResults())
+            .build();
+        return invoker.invokeAsync("ListIngestionJobs", () -> bedrockClient.listIngestionJobs(request),
+            "Failed to list ingestion jobs");
+    }
+    
+    /**
+     * Check if data source exists; never completes exceptionally
+     */
+    public CompletableFuture<Boolean> dataSourceExists(String dataSourceId) {
+        return getDataSource(dataSourceId).handle((response, error) -> error == null);
+    }
+    
+    /**
+     * Validate data source configuration using the rules of the matching sync connector
+     */
+    protected boolean validateConfiguration(DataSourceConfiguration dataConfig) {
+        switch (type) {
+            case S3:
+                return S3DataSourceConnector.isValidConfiguration(dataConfig);
+            case WEB_CRAWLER:
+                return WebCrawlerDataSourceConnector.isValidConfiguration(dataConfig);
+            case SHAREPOINT:
+                return SharePointDataSourceConnector.isValidConfiguration(dataConfig);
+            case CONFLUENCE:
+                return ConfluenceDataSourceConnector.isValidConfiguration(dataConfig);
+            case KMS_LIGHTHOUSE:
+                return KmsLighthouseConnector.isValidConfiguration(dataConfig);
+            default:
+                return false;
+        }
+    }
+    
+    private <T> CompletableFuture<T> invalidConfiguration() {
+        return CompletableFuture.failedFuture(
+            new ConnectorException("Invalid " + type.getDisplayName() + " data source configuration"));
+    }
+    
+    /**
+     * Circuit breaker state of one operation, e.g. getCircuitState("GetDataSource")
+     */
+    public CircuitBreaker.State getCircuitState(String operation) {
+        return invoker.getCircuitState(operation);
+    }
+    
+    /**
+     * Circuit breakers of every operation this connector has called
+     */
+    public Map<String, CircuitBreaker> getCircuitBreakers() {
+        return invoker.getCircuitBreakers();
+    }
+    
+    // Getters
+    public ConnectorFactory.ConnectorType getType() {
+        return type;
+    }
+    
+    public String getKnowledgeBaseId() {
+        return knowledgeBaseId;
+    }
+    
+    public ConnectorConfig getConfig() {
+        return config;
+    }
+}
\ No newline at end of file
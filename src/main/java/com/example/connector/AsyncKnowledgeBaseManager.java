@@ -0,0 +1,111 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.BedrockAgentAsyncClient;
+import software.amazon.awssdk.services.bedrockagent.model.*;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of KnowledgeBaseManager built on BedrockAgentAsyncClient
+ */
+public class AsyncKnowledgeBaseManager {
+    private final BedrockAgentAsyncClient bedrockClient;
+    private final ConnectorConfig config;
+    private final ControlPlaneInvoker invoker;
+    
+    public AsyncKnowledgeBaseManager(BedrockAgentAsyncClient client) {
+        this(client, ConnectorConfig.defaultConfig());
+    }
+    
+    public AsyncKnowledgeBaseManager(BedrockAgentAsyncClient client, ConnectorConfig config) {
+        this.bedrockClient = client;
+        this.config = config;
+        this.invoker = new ControlPlaneInvoker(config);
+    }
+    
+    /**
+     * Pace calls through a shared rate limiter
+     */
+    public void setRateLimiter(AdaptiveRateLimiter rateLimiter) {
+        invoker.setRateLimiter(rateLimiter, KnowledgeBaseManager.ACCOUNT_TENANT);
+    }
+    
+    /**
+     * Create a new Knowledge Base
+     */
+    public CompletableFuture<CreateKnowledgeBaseResponse> createKnowledgeBase(String name, String description,
+                                                                              String roleArn,
+                                                                              KnowledgeBaseConfiguration config,
+                                                                              StorageConfiguration storageConfig) {
+        CreateKnowledgeBaseRequest request = CreateKnowledgeBaseRequest.builder()
+            .name(name)
+            .description(description)
+            .roleArn(roleArn)
+            .knowledgeBaseConfiguration(config)
+            .storageConfiguration(storageConfig)
+            .clientToken(UUID.randomUUID().toString())
+            .build();
+        return invoker.invokeAsync("CreateKnowledgeBase", () -> bedrockClient.createKnowledgeBase(request),
+            "Failed to create knowledge base: " + name);
+    }
+    
+    /**
+     * Get Knowledge Base details
+     */
+    public CompletableFuture<GetKnowledgeBaseResponse> getKnowledgeBase(String knowledgeBaseId) {
+        GetKnowledgeBaseRequest request = GetKnowledgeBaseRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .build();
+        return invoker.invokeAsync("GetKnowledgeBase", () -> bedrockClient.getKnowledgeBase(request),
+            "Failed to get knowledge base: " + knowledgeBaseId);
+    }
+    
+    /**
+     * List Knowledge Bases
+     */
+    public CompletableFuture<ListKnowledgeBasesResponse> listKnowledgeBases() {
+        ListKnowledgeBasesRequest request = ListKnowledgeBasesRequest.builder()
+            .maxResults(config.getMaxResults())
+            .build();
+        return invoker.invokeAsync("ListKnowledgeBases", () -> bedrockClient.listKnowledgeBases(request),
+            "Failed to list knowledge bases");
+    }
+    
+    /**
+     * Delete Knowledge Base
+     */
+    public CompletableFuture<DeleteKnowledgeBaseResponse> deleteKnowledgeBase(String knowledgeBaseId) {
+        DeleteKnowledgeBaseRequest request = DeleteKnowledgeBaseRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .build();
+        return invoker.invokeAsync("DeleteKnowledgeBase", () -> bedrockClient.deleteKnowledgeBase(request),
+            "Failed to delete knowledge base: " + knowledgeBaseId);
+    }
+    
+    /**
+     * Circuit breaker state of one operation, e.g. getCircuitState("GetDataSource")
+     */
+    public CircuitBreaker.State getCircuitState(String operation) {
+        return invoker.getCircuitState(operation);
+    }
+    
+    /**
+     * Circuit breakers of every operation this manager has called
+     */
+    public Map<String, CircuitBreaker> getCircuitBreakers() {
+        return invoker.getCircuitBreakers();
+    }
+    
+    /**
+     * Create default OpenSearch Serverless storage configuration
+     */
+    public StorageConfiguration createOpenSearchServerlessConfig(String collectionArn,
+                                                                 String vectorIndexName,
+                                                                 String textField,
+                                                                 String vectorField,
+                                                                 String metadataField) {
+        return KnowledgeBaseManager.openSearchServerlessConfig(
+            collectionArn, vectorIndexName, textField, vectorField, metadataField);
+    }
+}
\ No newline at end of file
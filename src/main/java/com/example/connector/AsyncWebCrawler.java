@@ -0,0 +1,942 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.model.SeedUrl;
+import software.amazon.awssdk.services.bedrockagent.model.UrlConfiguration;
+import software.amazon.awssdk.services.bedrockagent.model.WebCrawlerConfiguration;
+import software.amazon.awssdk.services.bedrockagent.model.WebDataSourceConfiguration;
+import software.amazon.awssdk.services.bedrockagent.model.WebScopeType;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-process web crawler for sources where Bedrock's managed crawler is too slow or too coarse.
+ *
+ * Takes the seed URLs, inclusion/exclusion filters, scope and rate limit of a Bedrock web data source
+ * configuration and streams every fetched page into a CrawlSink, e.g. a StagingCrawlSink feeding an
+ * S3 data source. All fetches use HttpClient.sendAsync, so no thread waits on the network: one
+ * dispatcher starts requests as hosts become eligible and completions feed it more work. Each host
+ * has its own queue with a concurrency cap and a minimum delay between request starts (the rate
+ * limit, or a longer robots.txt Crawl-delay), while maxInFlight bounds the whole crawl. Throughput
+ * therefore grows with the number of hosts, not with threads.
+ *
+ * robots.txt is fetched once per host before its first page and cached for robotsTtl across crawls;
+ * expired entries are swept as the cache grows.
+ * Redirects are not followed by the client; their targets are queued like links, so they pass the
+ * same scope, filter, robots and politeness checks. Hosts answering 429 or 503 are backed off and the
+ * page retried. Links are taken from HTML pages only.
+ *
+ * The visited set and the frontier are a CrawlState: in memory by default, or a DiskCrawlState for
+ * crawls too large for the heap. It is read and written outside the crawl's lock, so its disk I/O
+ * never stalls dispatch. Only maxBufferedUrls URLs at a time are moved from the frontier into the
+ * per-host queues, and idle hosts are dropped once their politeness delay has passed.
+ */
+public class AsyncWebCrawler {
+    private static final int MAX_ROBOTS_BYTES = 512 * 1024;
+    private static final int MAX_ROBOTS_REDIRECTS = 5;
+    private static final int MAX_RETRIES = 2;
+    private static final int MIN_SWEEP_SIZE = 1024;
+    
+    private final List<String> seedUrls;
+    private final List<String> scopePrefixes;
+    private final Set<String> seedHosts;
+    private final Set<String> seedDomains;
+    private final WebScopeType scope;
+    private final List<Pattern> inclusionFilters;
+    private final List<Pattern> exclusionFilters;
+    private final CrawlSink sink;
+    private final HttpClient httpClient;
+    private final String userAgent;
+    private final long hostDelayNanos;
+    private final long maxCrawlDelayNanos;
+    private final int maxConcurrencyPerHost;
+    private final int maxInFlight;
+    private final int maxDepth;
+    private final long maxPages;
+    private final int maxPageSize;
+    private final int maxBufferedUrls;
+    private final Duration requestTimeout;
+    private final long robotsTtlNanos;
+    private final Map<String, CachedRobots> robotsCache = new ConcurrentHashMap<>();
+    private volatile int robotsSweepSize = MIN_SWEEP_SIZE;
+    
+    private AsyncWebCrawler(Builder builder) {
+        this.seedUrls = new ArrayList<>(builder.seedUrls);
+        this.scope = builder.scope;
+        this.inclusionFilters = compile(builder.inclusionFilters);
+        this.exclusionFilters = compile(builder.exclusionFilters);
+        this.sink = builder.sink;
+        this.httpClient = builder.httpClient != null ? builder.httpClient : HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(builder.requestTimeout)
+            .build();
+        this.userAgent = builder.userAgent;
+        this.hostDelayNanos = TimeUnit.MINUTES.toNanos(1) / builder.rateLimit;
+        this.maxCrawlDelayNanos = builder.maxCrawlDelay.toNanos();
+        this.maxConcurrencyPerHost = builder.maxConcurrencyPerHost;
+        this.maxInFlight = builder.maxInFlight;
+        this.maxDepth = builder.maxDepth;
+        this.maxPages = builder.maxPages;
+        this.maxPageSize = builder.maxPageSize;
+        this.maxBufferedUrls = builder.maxBufferedUrls;
+        this.requestTimeout = builder.requestTimeout;
+        this.robotsTtlNanos = builder.robotsTtl.toNanos();
+        
+        List<String> prefixes = new ArrayList<>();
+        Set<String> hosts = new HashSet<>();
+        Set<String> domains = new HashSet<>();
+        for (String seed : seedUrls) {
+            URI uri = URI.create(seed);
+            String path = uri.getRawPath();
+            prefixes.add(hostKey(seed) + path.substring(0, path.lastIndexOf('/') + 1));
+            hosts.add(uri.getHost());
+            domains.add(primaryDomain(uri.getHost()));
+        }
+        this.scopePrefixes = prefixes;
+        this.seedHosts = hosts;
+        this.seedDomains = domains;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * Crawl with an InMemoryCrawlState
+     */
+    public CompletableFuture<CrawlResult> crawl() {
+        CrawlState state = new InMemoryCrawlState();
+        CompletableFuture<CrawlResult> result = crawl(state);
+        result.whenComplete((value, error) -> state.close());
+        return result;
+    }
+    
+    /**
+     * Crawl from the seed URLs until no eligible URL is left or maxPages is reached. The future
+     * completes once every fetched page has been through the sink, or with a ConnectorException if
+     * the crawl state fails; cancelling it stops the crawl after the requests already in flight.
+     *
+     * @param state fresh visited set and frontier for this crawl, closed by the caller afterwards
+     */
+    public CompletableFuture<CrawlResult> crawl(CrawlState state) {
+        Run run = new Run(state);
+        run.start();
+        return run.result;
+    }
+    
+    /**
+     * Scope check as Bedrock applies it: HOST_ONLY keeps the seed hosts, SUBDOMAINS the seeds'
+     * primary domains, and no scope the seed host and the seed URL's path
+     */
+    boolean isInScope(String url) {
+        if (scope == WebScopeType.HOST_ONLY) {
+            return seedHosts.contains(URI.create(url).getHost());
+        }
+        if (scope == WebScopeType.SUBDOMAINS) {
+            String host = URI.create(url).getHost();
+            return seedDomains.stream().anyMatch(domain -> host.equals(domain) || host.endsWith("." + domain));
+        }
+        return scopePrefixes.stream().anyMatch(url::startsWith);
+    }
+    
+    /**
+     * Inclusion/exclusion filters; an exclusion match wins over an inclusion match
+     */
+    boolean passesFilters(String url) {
+        if (!inclusionFilters.isEmpty() && inclusionFilters.stream().noneMatch(p -> p.matcher(url).matches())) {
+            return false;
+        }
+        return exclusionFilters.stream().noneMatch(p -> p.matcher(url).matches());
+    }
+    
+    /**
+     * "scheme://host[:port]" of a normalised URL
+     */
+    static String hostKey(String url) {
+        int slash = url.indexOf('/', url.indexOf("://") + 3);
+        return slash >= 0 ? url.substring(0, slash) : url;
+    }
+    
+    private static String pathAndQuery(String url) {
+        int slash = url.indexOf('/', url.indexOf("://") + 3);
+        return slash >= 0 ? url.substring(slash) : "/";
+    }
+    
+    /**
+     * Last two labels of the host; multi-label public suffixes (e.g. co.uk) are not special-cased
+     */
+    private static String primaryDomain(String host) {
+        int last = host.lastIndexOf('.');
+        int previous = last > 0 ? host.lastIndexOf('.', last - 1) : -1;
+        return previous >= 0 ? host.substring(previous + 1) : host;
+    }
+    
+    private static String mediaType(HttpResponse<?> response) {
+        return response.headers().firstValue("Content-Type")
+            .map(value -> value.split(";")[0].trim().toLowerCase(Locale.ROOT))
+            .orElse(null);
+    }
+    
+    private static Charset charsetOf(HttpResponse<?> response) {
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (index >= 0) {
+            try {
+                return Charset.forName(contentType.substring(index + 8).split(";")[0].trim().replace("\"", ""));
+            } catch (IllegalArgumentException e) {
+                // fall back to UTF-8
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+    
+    /**
+     * Cache a host's robots.txt, sweeping out expired entries whenever the cache has doubled
+     */
+    private void cacheRobots(String hostKey, RobotsRules rules) {
+        long now = System.nanoTime();
+        robotsCache.put(hostKey, new CachedRobots(rules, now + robotsTtlNanos));
+        if (robotsCache.size() > robotsSweepSize) {
+            robotsCache.values().removeIf(cached -> now - cached.expiresAtNanos >= 0);
+            robotsSweepSize = Math.max(MIN_SWEEP_SIZE, robotsCache.size() * 2);
+        }
+    }
+    
+    private static List<Pattern> compile(List<String> patterns) {
+        return patterns.stream().map(Pattern::compile).collect(Collectors.toList());
+    }
+    
+    /**
+     * State of one crawl. All fields are guarded by the Run's monitor; network I/O, link extraction,
+     * crawl state access and sink calls happen outside it.
+     */
+    private final class Run {
+        private final CompletableFuture<CrawlResult> result = new CompletableFuture<>();
+        private final Map<String, Host> hosts = new HashMap<>();
+        private final PriorityQueue<Host> ready = new PriorityQueue<>(
+            Comparator.comparingLong((Host host) -> host.nextStartNanos));
+        private final CrawlState state;
+        private final AtomicLong stored = new AtomicLong();
+        private final AtomicLong sinkFailures = new AtomicLong();
+        private final AtomicLong admitted = new AtomicLong();
+        // pushed to the crawl state and not yet polled back
+        private final AtomicLong frontierSize = new AtomicLong();
+        private final long startNanos = System.nanoTime();
+        private int inFlight;
+        private long queued;
+        private boolean refilling;
+        private boolean pageLimitReached;
+        private boolean wakeupScheduled;
+        private long wakeupAtNanos;
+        private long fetched;
+        private long fetchErrors;
+        private long disallowed;
+        private long filtered;
+        private long bytes;
+        private int hostsContacted;
+        private int hostSweepSize = MIN_SWEEP_SIZE;
+        private RuntimeException stateFailure;
+        
+        Run(CrawlState state) {
+            this.state = state;
+        }
+        
+        void start() {
+            admit(seedUrls, 0);
+            dispatch();
+        }
+        
+        /**
+         * Start every request whose host is due, within the per-host and global limits, topping up
+         * the host queues from the frontier as they drain
+         */
+        private void dispatch() {
+            boolean again;
+            do {
+                refill();
+                List<Runnable> starts = new ArrayList<>();
+                CrawlResult done = null;
+                RuntimeException failure;
+                synchronized (this) {
+                    if (result.isDone()) {
+                        return;
+                    }
+                    long now = System.nanoTime();
+                    while (stateFailure == null && inFlight < maxInFlight && !ready.isEmpty()
+                            && ready.peek().nextStartNanos - now <= 0) {
+                        Host host = ready.poll();
+                        host.inReady = false;
+                        if (host.robots == null) {
+                            host.robotsLoading = true;
+                            host.inFlight++;
+                            inFlight++;
+                            host.nextStartNanos = now + hostDelayNanos;
+                            starts.add(() -> fetchRobots(host, URI.create(host.key + "/robots.txt"), 0));
+                            continue;
+                        }
+                        Task task = host.queue.poll();
+                        queued--;
+                        if (!host.robots.isAllowed(pathAndQuery(task.url))) {
+                            disallowed++;
+                            makeReady(host);
+                            continue;
+                        }
+                        host.inFlight++;
+                        inFlight++;
+                        host.nextStartNanos = now + host.delayNanos;
+                        makeReady(host);
+                        starts.add(() -> fetch(host, task));
+                    }
+                    failure = stateFailure;
+                    boolean frontierEmpty = !refilling && frontierSize.get() <= 0;
+                    if (failure == null && inFlight == 0 && queued == 0 && frontierEmpty) {
+                        done = snapshot();
+                    } else if (failure == null && !ready.isEmpty() && inFlight < maxInFlight) {
+                        scheduleWakeup(ready.peek().nextStartNanos);
+                    }
+                    again = failure == null && done == null && !refilling && queued < maxBufferedUrls
+                        && frontierSize.get() > 0;
+                }
+                if (failure != null) {
+                    result.completeExceptionally(new ConnectorException("Crawl state failed", failure));
+                    return;
+                }
+                if (done != null) {
+                    result.complete(done);
+                }
+                starts.forEach(Runnable::run);
+            } while (again);
+        }
+        
+        /**
+         * Add new URLs to the crawl state within the page limit. Runs without the Run's monitor;
+         * callers other than start() hold an inFlight slot meanwhile, so the crawl cannot finish
+         * before the URLs are in the frontier.
+         */
+        private void admit(List<String> urls, int depth) {
+            try {
+                for (String url : urls) {
+                    if (!state.markSeen(url)) {
+                        continue;
+                    }
+                    if (admitted.getAndUpdate(n -> n < maxPages ? n + 1 : n) >= maxPages) {
+                        synchronized (this) {
+                            pageLimitReached = true;
+                        }
+                        continue;
+                    }
+                    state.push(url, depth);
+                    frontierSize.incrementAndGet();
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    if (stateFailure == null) {
+                        stateFailure = e;
+                    }
+                }
+            }
+        }
+        
+        /**
+         * Move URLs from the frontier into their hosts' queues, up to maxBufferedUrls. One thread
+         * polls at a time, without the Run's monitor.
+         */
+        private void refill() {
+            long wanted;
+            synchronized (this) {
+                wanted = Math.min(maxBufferedUrls - queued, frontierSize.get());
+                if (refilling || stateFailure != null || result.isDone() || wanted <= 0) {
+                    return;
+                }
+                refilling = true;
+            }
+            List<FrontierEntry> entries = new ArrayList<>();
+            RuntimeException failure = null;
+            try {
+                while (entries.size() < wanted) {
+                    FrontierEntry entry = state.poll();
+                    if (entry == null) {
+                        break;
+                    }
+                    entries.add(entry);
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            synchronized (this) {
+                for (FrontierEntry entry : entries) {
+                    addToHost(entry.getUrl(), entry.getDepth());
+                }
+                frontierSize.addAndGet(-entries.size());
+                refilling = false;
+                if (failure != null && stateFailure == null) {
+                    stateFailure = failure;
+                }
+            }
+        }
+        
+        private void addToHost(String url, int depth) {
+            String key = hostKey(url);
+            Host host = hosts.get(key);
+            if (host == null) {
+                if (hosts.size() >= hostSweepSize) {
+                    sweepHosts();
+                }
+                host = new Host(key);
+                CachedRobots cached = robotsCache.get(key);
+                if (cached != null && System.nanoTime() - cached.expiresAtNanos < 0) {
+                    host.setRobots(cached.rules);
+                } else if (cached != null) {
+                    robotsCache.remove(key, cached);
+                }
+                hosts.put(key, host);
+                hostsContacted++;
+            }
+            host.queue.add(new Task(url, depth, 0));
+            queued++;
+            makeReady(host);
+        }
+        
+        /**
+         * Drop hosts with nothing queued or running whose politeness delay has passed, whenever the
+         * host map has doubled. A dropped host is recreated if its URLs come back, taking its
+         * robots.txt from robotsCache (or fetching it again when the file was unreachable).
+         */
+        private void sweepHosts() {
+            long now = System.nanoTime();
+            hosts.values().removeIf(host -> host.queue.isEmpty() && host.inFlight == 0 && !host.inReady
+                && !host.robotsLoading && now - host.nextStartNanos >= 0);
+            hostSweepSize = Math.max(MIN_SWEEP_SIZE, hosts.size() * 2);
+        }
+        
+        /**
+         * Whether a discovered link or redirect target is within depth, scope and filters
+         */
+        private boolean accepts(String url, int depth) {
+            if (depth > maxDepth || !isInScope(url) || !passesFilters(url)) {
+                filtered++;
+                return false;
+            }
+            return true;
+        }
+        
+        private void makeReady(Host host) {
+            if (!host.inReady && !host.robotsLoading && !host.queue.isEmpty()
+                    && host.inFlight < maxConcurrencyPerHost) {
+                ready.add(host);
+                host.inReady = true;
+            }
+        }
+        
+        /**
+         * Push the host's next start back, e.g. after a 429
+         */
+        private void postpone(Host host, long delayNanos) {
+            if (host.inReady) {
+                ready.remove(host);
+                host.inReady = false;
+            }
+            long until = System.nanoTime() + delayNanos;
+            if (until - host.nextStartNanos > 0) {
+                host.nextStartNanos = until;
+            }
+            makeReady(host);
+        }
+        
+        private void scheduleWakeup(long atNanos) {
+            if (wakeupScheduled && wakeupAtNanos - atNanos <= 0) {
+                return;
+            }
+            wakeupScheduled = true;
+            wakeupAtNanos = atNanos;
+            ConnectorExecutors.scheduler().schedule(
+                () -> ConnectorExecutors.background().execute(this::wakeup),
+                Math.max(0, atNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        
+        private void wakeup() {
+            synchronized (this) {
+                wakeupScheduled = false;
+            }
+            dispatch();
+        }
+        
+        private void fetch(Host host, Task task) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(task.url))
+                .timeout(requestTimeout)
+                .header("User-Agent", userAgent)
+                .GET()
+                .build();
+            httpClient.sendAsync(request, info -> info.statusCode() / 100 == 2
+                        && info.headers().firstValueAsLong("Content-Length").orElse(0L) <= maxPageSize
+                    ? new LimitedBodySubscriber(maxPageSize, false)
+                    : HttpResponse.BodySubscribers.replacing((byte[]) null))
+                .whenComplete((response, error) -> fetched(host, task, response, error));
+        }
+        
+        private void fetched(Host host, Task task, HttpResponse<byte[]> response, Throwable error) {
+            CrawledPage page = null;
+            String redirect = null;
+            long retryDelayNanos = -1;
+            if (error == null) {
+                int status = response.statusCode();
+                if (status / 100 == 2 && response.body() != null) {
+                    String contentType = mediaType(response);
+                    byte[] body = response.body();
+                    List<String> links = "text/html".equals(contentType) || "application/xhtml+xml".equals(contentType)
+                        ? LinkExtractor.extract(new String(body, charsetOf(response)), URI.create(task.url))
+                        : Collections.emptyList();
+                    page = new CrawledPage(task.url, task.depth, contentType, body, links, Instant.now());
+                } else if (status / 100 == 3) {
+                    redirect = response.headers().firstValue("Location")
+                        .map(location -> LinkExtractor.absolute(URI.create(task.url), location))
+                        .orElse(null);
+                } else if ((status == 429 || status == 503) && task.attempts < MAX_RETRIES) {
+                    long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(-1L);
+                    retryDelayNanos = retryAfter >= 0
+                        ? Math.min(TimeUnit.SECONDS.toNanos(retryAfter), maxCrawlDelayNanos)
+                        : TimeUnit.SECONDS.toNanos(1L << task.attempts);
+                }
+            }
+            List<String> accepted = new ArrayList<>();
+            int linkDepth = page != null ? task.depth + 1 : task.depth;
+            synchronized (this) {
+                host.inFlight--;
+                if (page != null) {
+                    fetched++;
+                    bytes += page.getContentLength();
+                    for (String link : page.getLinks()) {
+                        if (accepts(link, linkDepth)) {
+                            accepted.add(link);
+                        }
+                    }
+                } else if (redirect != null) {
+                    if (accepts(redirect, linkDepth)) {
+                        accepted.add(redirect);
+                    }
+                } else if (retryDelayNanos >= 0) {
+                    host.queue.addFirst(new Task(task.url, task.depth, task.attempts + 1));
+                    queued++;
+                    postpone(host, retryDelayNanos);
+                } else {
+                    fetchErrors++;
+                }
+                makeReady(host);
+            }
+            // the crawl keeps this fetch's slot until its links are in the crawl state
+            admit(accepted, linkDepth);
+            if (page != null) {
+                // the sink delivery holds the slot until the sink returns
+                deliver(page);
+            } else {
+                synchronized (this) {
+                    inFlight--;
+                }
+            }
+            dispatch();
+        }
+        
+        private void deliver(CrawledPage page) {
+            ConnectorExecutors.background().execute(() -> {
+                try {
+                    if (!result.isDone()) {
+                        sink.accept(page);
+                        stored.incrementAndGet();
+                    }
+                } catch (ConnectorException | RuntimeException e) {
+                    sinkFailures.incrementAndGet();
+                } finally {
+                    synchronized (this) {
+                        inFlight--;
+                    }
+                    dispatch();
+                }
+            });
+        }
+        
+        /**
+         * Fetch robots.txt, following up to five redirects. Per RFC 9309 a 4xx allows everything and
+         * an unreachable file (5xx, network error) disallows everything for this crawl.
+         */
+        private void fetchRobots(Host host, URI uri, int redirects) {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("User-Agent", userAgent)
+                .GET()
+                .build();
+            httpClient.sendAsync(request, info -> info.statusCode() / 100 == 2
+                        ? new LimitedBodySubscriber(MAX_ROBOTS_BYTES, true)
+                        : HttpResponse.BodySubscribers.replacing((byte[]) null))
+                .whenComplete((response, error) -> {
+                    int status = error == null ? response.statusCode() : 0;
+                    if (status / 100 == 3 && redirects < MAX_ROBOTS_REDIRECTS) {
+                        String location = response.headers().firstValue("Location")
+                            .map(value -> LinkExtractor.absolute(uri, value))
+                            .orElse(null);
+                        if (location != null) {
+                            fetchRobots(host, URI.create(location), redirects + 1);
+                            return;
+                        }
+                    }
+                    RobotsRules rules;
+                    if (status / 100 == 2) {
+                        rules = RobotsRules.parse(new String(response.body(), StandardCharsets.UTF_8), userAgent);
+                    } else if ((status / 100 == 4 && status != 429) || status / 100 == 3) {
+                        rules = RobotsRules.allowAll();
+                    } else {
+                        robotsLoaded(host, RobotsRules.disallowAll());
+                        return;
+                    }
+                    cacheRobots(host.key, rules);
+                    robotsLoaded(host, rules);
+                });
+        }
+        
+        private void robotsLoaded(Host host, RobotsRules rules) {
+            synchronized (this) {
+                host.setRobots(rules);
+                host.robotsLoading = false;
+                host.inFlight--;
+                inFlight--;
+                // the robots.txt request was spaced by the default delay; a Crawl-delay stretches that gap
+                long delayed = host.nextStartNanos - hostDelayNanos + host.delayNanos;
+                if (delayed - host.nextStartNanos > 0) {
+                    host.nextStartNanos = delayed;
+                }
+                makeReady(host);
+            }
+            dispatch();
+        }
+        
+        private CrawlResult snapshot() {
+            return new CrawlResult(fetched, stored.get(), sinkFailures.get(), fetchErrors, disallowed, filtered,
+                bytes, hostsContacted, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                pageLimitReached);
+        }
+    }
+    
+    /**
+     * Politeness state of one host within a crawl
+     */
+    private final class Host {
+        private final String key;
+        private final ArrayDeque<Task> queue = new ArrayDeque<>();
+        private RobotsRules robots;
+        private boolean robotsLoading;
+        private boolean inReady;
+        private int inFlight;
+        private long nextStartNanos = System.nanoTime();
+        private long delayNanos = hostDelayNanos;
+        
+        Host(String key) {
+            this.key = key;
+        }
+        
+        void setRobots(RobotsRules rules) {
+            robots = rules;
+            long crawlDelay = Math.min(TimeUnit.MILLISECONDS.toNanos(rules.getCrawlDelayMillis()), maxCrawlDelayNanos);
+            delayNanos = Math.max(hostDelayNanos, crawlDelay);
+        }
+    }
+    
+    private static final class Task {
+        private final String url;
+        private final int depth;
+        private final int attempts;
+        
+        Task(String url, int depth, int attempts) {
+            this.url = url;
+            this.depth = depth;
+            this.attempts = attempts;
+        }
+    }
+    
+    private static final class CachedRobots {
+        private final RobotsRules rules;
+        private final long expiresAtNanos;
+        
+        CachedRobots(RobotsRules rules, long expiresAtNanos) {
+            this.rules = rules;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+    
+    /**
+     * Collects a body up to a limit. Past the limit the download is cancelled and the body is null,
+     * or, when truncating, the bytes read so far.
+     */
+    private static final class LimitedBodySubscriber implements HttpResponse.BodySubscriber<byte[]> {
+        private final int limit;
+        private final boolean truncate;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final CompletableFuture<byte[]> body = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+        
+        LimitedBodySubscriber(int limit, boolean truncate) {
+            this.limit = limit;
+            this.truncate = truncate;
+        }
+        
+        @Override
+        public CompletionStage<byte[]> getBody() {
+            return body;
+        }
+        
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+        
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            if (body.isDone()) {
+                return;
+            }
+            for (ByteBuffer item : items) {
+                int room = limit - buffer.size();
+                if (item.remaining() > room) {
+                    byte[] head = new byte[room];
+                    item.get(head);
+                    buffer.write(head, 0, room);
+                    subscription.cancel();
+                    body.complete(truncate ? buffer.toByteArray() : null);
+                    return;
+                }
+                byte[] bytes = new byte[item.remaining()];
+                item.get(bytes);
+                buffer.write(bytes, 0, bytes.length);
+            }
+        }
+        
+        @Override
+        public void onError(Throwable error) {
+            body.completeExceptionally(error);
+        }
+        
+        @Override
+        public void onComplete() {
+            body.complete(buffer.toByteArray());
+        }
+    }
+    
+    public static class Builder {
+        private final Set<String> seedUrls = new LinkedHashSet<>();
+        private final List<String> inclusionFilters = new ArrayList<>();
+        private final List<String> exclusionFilters = new ArrayList<>();
+        private WebScopeType scope;
+        private CrawlSink sink;
+        private HttpClient httpClient;
+        private String userAgent = "bedrock-data-connector-crawler/1.0";
+        private int rateLimit = 100;
+        private Duration maxCrawlDelay = Duration.ofSeconds(60);
+        private int maxConcurrencyPerHost = 2;
+        private int maxInFlight = 256;
+        private int maxDepth = Integer.MAX_VALUE;
+        private long maxPages = Long.MAX_VALUE;
+        private int maxPageSize = 10 * 1024 * 1024;
+        private int maxBufferedUrls = 10_000;
+        private Duration requestTimeout = Duration.ofSeconds(30);
+        private Duration robotsTtl = Duration.ofHours(24);
+        
+        /**
+         * Seed URLs, filters, scope and rate limit of a Bedrock web data source configuration
+         */
+        public Builder configuration(WebDataSourceConfiguration webConfig) {
+            UrlConfiguration urls = webConfig.sourceConfiguration() != null
+                ? webConfig.sourceConfiguration().urlConfiguration() : null;
+            if (urls != null) {
+                if (urls.seedUrls() != null) {
+                    urls.seedUrls().stream().map(SeedUrl::url).forEach(this::seedUrl);
+                }
+                addAll(inclusionFilters, urls.inclusionFilters());
+                addAll(exclusionFilters, urls.exclusionFilters());
+            }
+            WebCrawlerConfiguration crawler = webConfig.crawlerConfiguration();
+            if (crawler != null) {
+                addAll(inclusionFilters, crawler.inclusionFilters());
+                addAll(exclusionFilters, crawler.exclusionFilters());
+                scope = crawler.scope();
+                if (crawler.crawlerLimits() != null && crawler.crawlerLimits().rateLimit() != null) {
+                    rateLimit = crawler.crawlerLimits().rateLimit();
+                }
+            }
+            return this;
+        }
+        
+        private static void addAll(List<String> target, List<String> patterns) {
+            if (patterns != null) {
+                target.addAll(patterns);
+            }
+        }
+        
+        public Builder seedUrl(String seedUrl) {
+            String normalized = LinkExtractor.normalize(URI.create(seedUrl));
+            if (normalized == null) {
+                throw new IllegalArgumentException("Seed URL must be http(s): " + seedUrl);
+            }
+            this.seedUrls.add(normalized);
+            return this;
+        }
+        
+        /**
+         * Regex a discovered URL must match entirely (any of them, when several are set)
+         */
+        public Builder inclusionFilter(String pattern) {
+            this.inclusionFilters.add(pattern);
+            return this;
+        }
+        
+        /**
+         * Regex that rejects a discovered URL; wins over inclusion filters
+         */
+        public Builder exclusionFilter(String pattern) {
+            this.exclusionFilters.add(pattern);
+            return this;
+        }
+        
+        /**
+         * HOST_ONLY, SUBDOMAINS, or null for the seed host and path
+         */
+        public Builder scope(WebScopeType scope) {
+            this.scope = scope;
+            return this;
+        }
+        
+        public Builder sink(CrawlSink sink) {
+            this.sink = sink;
+            return this;
+        }
+        
+        /**
+         * Client used for all requests; it should not follow redirects itself
+         */
+        public Builder httpClient(HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+        
+        /**
+         * User-Agent header; its product token selects the robots.txt group
+         */
+        public Builder userAgent(String userAgent) {
+            this.userAgent = userAgent;
+            return this;
+        }
+        
+        /**
+         * Pages per minute per host, as in WebCrawlerLimits (default 100)
+         */
+        public Builder rateLimit(int rateLimit) {
+            this.rateLimit = rateLimit;
+            return this;
+        }
+        
+        /**
+         * Upper bound applied to robots.txt Crawl-delay and Retry-After values
+         */
+        public Builder maxCrawlDelay(Duration maxCrawlDelay) {
+            this.maxCrawlDelay = maxCrawlDelay;
+            return this;
+        }
+        
+        public Builder maxConcurrencyPerHost(int maxConcurrencyPerHost) {
+            this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+            return this;
+        }
+        
+        /**
+         * Requests and sink deliveries in flight across all hosts
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+        
+        /**
+         * Link hops followed from the seeds (default unlimited)
+         */
+        public Builder maxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+            return this;
+        }
+        
+        /**
+         * URLs admitted to the crawl, seeds included (default unlimited)
+         */
+        public Builder maxPages(long maxPages) {
+            this.maxPages = maxPages;
+            return this;
+        }
+        
+        /**
+         * Larger pages are dropped and counted as fetch errors
+         */
+        public Builder maxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+            return this;
+        }
+        
+        /**
+         * URLs taken from the crawl state into per-host queues ahead of fetching
+         */
+        public Builder maxBufferedUrls(int maxBufferedUrls) {
+            this.maxBufferedUrls = maxBufferedUrls;
+            return this;
+        }
+        
+        public Builder requestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+        
+        /**
+         * How long a host's robots.txt is reused across crawls
+         */
+        public Builder robotsTtl(Duration robotsTtl) {
+            this.robotsTtl = robotsTtl;
+            return this;
+        }
+        
+        public AsyncWebCrawler build() {
+            Objects.requireNonNull(sink, "sink");
+            Objects.requireNonNull(userAgent, "userAgent");
+            if (seedUrls.isEmpty()) {
+                throw new IllegalArgumentException("At least one seed URL is required");
+            }
+            if (rateLimit < 1 || maxConcurrencyPerHost < 1 || maxInFlight < 1 || maxDepth < 0 || maxPages < 1
+                    || maxPageSize < 1 || maxBufferedUrls < 1) {
+                throw new IllegalArgumentException("Crawler limits must be positive");
+            }
+            return new AsyncWebCrawler(this);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,305 @@
+package com.example.connector;
+
+import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtAsyncHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.bedrockagent.BedrockAgentAsyncClient;
+import software.amazon.awssdk.services.bedrockagent.BedrockAgentAsyncClientBuilder;
+import software.amazon.awssdk.services.bedrockagent.BedrockAgentClient;
+import software.amazon.awssdk.services.bedrockagent.BedrockAgentClientBuilder;
+import software.amazon.awssdk.services.bedrockagent.model.ListKnowledgeBasesRequest;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Builds and shares tuned Bedrock Agent clients, one per region and credentials profile.
+ *
+ * Each client gets its own explicitly sized HTTP pool (see ClientProvisioningConfig), so
+ * every connector and manager handed the same client reuses warm connections instead of
+ * paying for TCP and TLS setup. A newly provisioned client is pre-warmed with a few
+ * concurrent ListKnowledgeBases calls. Closing the provider closes every client and HTTP
+ * pool it created; clients obtained from it must not be closed individually.
+ */
+public class BedrockClientProvider implements AutoCloseable {
+    private final ClientProvisioningConfig config;
+    private final Map<String, BedrockAgentClient> clients = new ConcurrentHashMap<>();
+    private final Map<String, BedrockAgentAsyncClient> asyncClients = new ConcurrentHashMap<>();
+    private final List<SdkAutoCloseable> httpClients = new CopyOnWriteArrayList<>();
+    private boolean closed;
+    
+    public BedrockClientProvider() {
+        this(ClientProvisioningConfig.defaultConfig());
+    }
+    
+    public BedrockClientProvider(ClientProvisioningConfig config) {
+        this.config = config;
+    }
+    
+    public ClientProvisioningConfig getConfig() {
+        return config;
+    }
+    
+    /**
+     * Shared client for a region using the default credentials chain (null region = default region chain)
+     */
+    public BedrockAgentClient getClient(String region) {
+        return getClient(region, null);
+    }
+    
+    /**
+     * Shared client for a region and named credentials profile (null profile = default credentials chain)
+     */
+    public BedrockAgentClient getClient(String region, String profile) {
+        String key = key(region, profile);
+        BedrockAgentClient client = clients.get(key);
+        if (client != null) {
+            return client;
+        }
+        synchronized (this) {
+            ensureOpen();
+            client = clients.get(key);
+            if (client != null) {
+                return client;
+            }
+            client = buildClient(region, profile);
+            clients.put(key, client);
+        }
+        prewarm(client, config.getPrewarmConnections());
+        return client;
+    }
+    
+    /**
+     * Shared async client for a region and named credentials profile
+     */
+    public BedrockAgentAsyncClient getAsyncClient(String region, String profile) {
+        String key = key(region, profile);
+        BedrockAgentAsyncClient client = asyncClients.get(key);
+        if (client != null) {
+            return client;
+        }
+        synchronized (this) {
+            ensureOpen();
+            client = asyncClients.get(key);
+            if (client != null) {
+                return client;
+            }
+            client = buildAsyncClient(region, profile);
+            asyncClients.put(key, client);
+        }
+        prewarm(client, config.getPrewarmConnections());
+        return client;
+    }
+    
+    /**
+     * Open up to {@code connections} pooled connections by issuing that many concurrent cheap calls.
+     * Error responses (e.g. missing permissions) still leave a warm connection behind and are ignored.
+     *
+     * @return number of calls that finished within prewarmTimeoutMs
+     */
+    public int prewarm(BedrockAgentClient client, int connections) {
+        if (connections <= 0) {
+            return 0;
+        }
+        ListKnowledgeBasesRequest request = ListKnowledgeBasesRequest.builder().maxResults(1).build();
+        // Release all calls together so they cannot take turns on a single connection
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<?>> calls = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            calls.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                    client.listKnowledgeBases(request);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException ignored) {
+                    // The handshake is what we wanted
+                }
+            }, ConnectorExecutors.background()));
+        }
+        start.countDown();
+        return awaitWarmed(calls);
+    }
+    
+    /**
+     * Async counterpart of {@link #prewarm(BedrockAgentClient, int)}
+     */
+    public int prewarm(BedrockAgentAsyncClient client, int connections) {
+        if (connections <= 0) {
+            return 0;
+        }
+        ListKnowledgeBasesRequest request = ListKnowledgeBasesRequest.builder().maxResults(1).build();
+        List<CompletableFuture<?>> calls = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            calls.add(client.listKnowledgeBases(request).handle((response, error) -> null));
+        }
+        return awaitWarmed(calls);
+    }
+    
+    private int awaitWarmed(List<CompletableFuture<?>> calls) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getPrewarmTimeoutMs());
+        int warmed = 0;
+        for (CompletableFuture<?> call : calls) {
+            try {
+                call.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                warmed++;
+            } catch (TimeoutException e) {
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                // Not warmed; keep counting the rest
+            }
+        }
+        return warmed;
+    }
+    
+    private BedrockAgentClient buildClient(String region, String profile) {
+        SdkHttpClient httpClient = buildHttpClient();
+        httpClients.add(httpClient);
+        BedrockAgentClientBuilder builder = BedrockAgentClient.builder()
+            .httpClient(httpClient)
+            .overrideConfiguration(overrideConfiguration());
+        if (region != null) {
+            builder.region(Region.of(region));
+        }
+        if (profile != null) {
+            builder.credentialsProvider(ProfileCredentialsProvider.create(profile));
+        }
+        return builder.build();
+    }
+    
+    private BedrockAgentAsyncClient buildAsyncClient(String region, String profile) {
+        SdkAsyncHttpClient httpClient = buildAsyncHttpClient();
+        httpClients.add(httpClient);
+        BedrockAgentAsyncClientBuilder builder = BedrockAgentAsyncClient.builder()
+            .httpClient(httpClient)
+            .overrideConfiguration(overrideConfiguration());
+        if (region != null) {
+            builder.region(Region.of(region));
+        }
+        if (profile != null) {
+            builder.credentialsProvider(ProfileCredentialsProvider.create(profile));
+        }
+        return builder.build();
+    }
+    
+    private ClientOverrideConfiguration overrideConfiguration() {
+        ClientOverrideConfiguration.Builder builder = ClientOverrideConfiguration.builder();
+        if (!config.isSdkRetriesEnabled()) {
+            // ControlPlaneInvoker owns retries; SDK retries underneath would multiply attempts
+            builder.retryPolicy(software.amazon.awssdk.core.retry.RetryPolicy.none());
+        }
+        return builder.build();
+    }
+    
+    private SdkHttpClient buildHttpClient() {
+        switch (config.getTransport()) {
+            case URL_CONNECTION:
+                // Pooling is the JVM keep-alive cache (http.maxConnections); pool settings do not apply
+                return UrlConnectionHttpClient.builder()
+                    .connectionTimeout(millis(config.getConnectionTimeoutMs()))
+                    .socketTimeout(millis(config.getSocketTimeoutMs()))
+                    .build();
+            case CRT:
+                AwsCrtHttpClient.Builder crt = AwsCrtHttpClient.builder()
+                    .maxConcurrency(config.getMaxConnections())
+                    .connectionMaxIdleTime(millis(config.getConnectionMaxIdleMs()))
+                    .connectionTimeout(millis(config.getConnectionTimeoutMs()));
+                if (config.isTcpKeepAlive()) {
+                    crt.tcpKeepAliveConfiguration(keepAlive -> keepAlive
+                        .keepAliveInterval(Duration.ofSeconds(30))
+                        .keepAliveTimeout(Duration.ofSeconds(5)));
+                }
+                return crt.build();
+            case APACHE:
+            default:
+                ApacheHttpClient.Builder apache = ApacheHttpClient.builder()
+                    .maxConnections(config.getMaxConnections())
+                    .connectionMaxIdleTime(millis(config.getConnectionMaxIdleMs()))
+                    .useIdleConnectionReaper(config.isReapIdleConnections())
+                    .tcpKeepAlive(config.isTcpKeepAlive())
+                    .connectionTimeout(millis(config.getConnectionTimeoutMs()))
+                    .socketTimeout(millis(config.getSocketTimeoutMs()))
+                    .connectionAcquisitionTimeout(millis(config.getConnectionAcquisitionTimeoutMs()));
+                if (config.getConnectionTtlMs() > 0) {
+                    apache.connectionTimeToLive(millis(config.getConnectionTtlMs()));
+                }
+                return apache.build();
+        }
+    }
+    
+    private SdkAsyncHttpClient buildAsyncHttpClient() {
+        if (config.getTransport() == ClientProvisioningConfig.Transport.CRT) {
+            AwsCrtAsyncHttpClient.Builder crt = AwsCrtAsyncHttpClient.builder()
+                .maxConcurrency(config.getMaxConnections())
+                .connectionMaxIdleTime(millis(config.getConnectionMaxIdleMs()))
+                .connectionTimeout(millis(config.getConnectionTimeoutMs()));
+            if (config.isTcpKeepAlive()) {
+                crt.tcpKeepAliveConfiguration(keepAlive -> keepAlive
+                    .keepAliveInterval(Duration.ofSeconds(30))
+                    .keepAliveTimeout(Duration.ofSeconds(5)));
+            }
+            return crt.build();
+        }
+        // Apache and URL-connection are sync-only; async clients use Netty with the same pool settings
+        NettyNioAsyncHttpClient.Builder netty = NettyNioAsyncHttpClient.builder()
+            .maxConcurrency(config.getMaxConnections())
+            .connectionMaxIdleTime(millis(config.getConnectionMaxIdleMs()))
+            .useIdleConnectionReaper(config.isReapIdleConnections())
+            .tcpKeepAlive(config.isTcpKeepAlive())
+            .connectionTimeout(millis(config.getConnectionTimeoutMs()))
+            .readTimeout(millis(config.getSocketTimeoutMs()))
+            .connectionAcquisitionTimeout(millis(config.getConnectionAcquisitionTimeoutMs()));
+        if (config.getConnectionTtlMs() > 0) {
+            netty.connectionTimeToLive(millis(config.getConnectionTtlMs()));
+        }
+        return netty.build();
+    }
+    
+    private static Duration millis(long ms) {
+        return Duration.ofMillis(ms);
+    }
+    
+    private static String key(String region, String profile) {
+        return (region != null ? region : "") + "/" + (profile != null ? profile : "");
+    }
+    
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("BedrockClientProvider is closed");
+        }
+    }
+    
+    /**
+     * Close every provisioned client and its HTTP pool
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        clients.values().forEach(BedrockAgentClient::close);
+        asyncClients.values().forEach(BedrockAgentAsyncClient::close);
+        // Clients do not close HTTP clients they were handed
+        httpClients.forEach(SdkAutoCloseable::close);
+        clients.clear();
+        asyncClients.clear();
+        httpClients.clear();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,219 @@
+package com.example.connector;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fans a blocking connector or manager call out over many items, e.g.
+ * {@code bulk.execute(dataSourceIds, connector::getDataSource)}.
+ *
+ * On Java 21+ (multi-release jar) every item runs on its own virtual thread; on older JVMs
+ * pooled platform threads are used. Either way at most {@code maxConcurrency} calls are in
+ * flight. A run is structured: execute() returns only after every started call has finished,
+ * with one BulkResult per item in input order. Outstanding work is cancelled (running calls
+ * are interrupted, pending items reported CANCELLED) when the caller is interrupted, the
+ * timeout expires, or, with failFast, any item fails.
+ */
+public class BulkExecutor {
+    private static final long POLL_MS = 50;
+    
+    /**
+     * One blocking call per item; connector and manager methods fit as method references
+     */
+    @FunctionalInterface
+    public interface BulkOperation<T, R> {
+        R apply(T item) throws ConnectorException;
+    }
+    
+    private final int maxConcurrency;
+    private final boolean failFast;
+    private final long timeoutMs;
+    
+    private BulkExecutor(Builder builder) {
+        this.maxConcurrency = builder.maxConcurrency;
+        this.failFast = builder.failFast;
+        this.timeoutMs = builder.timeoutMs;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * True when bulk items run on virtual threads (Java 21+ runtime and multi-release jar)
+     */
+    public static boolean usesVirtualThreads() {
+        return BulkThreads.isVirtual();
+    }
+    
+    /**
+     * Run {@code operation} for every item and wait for all of them.
+     * If the calling thread is interrupted the run is cancelled and the interrupt flag is restored.
+     */
+    public <T, R> List<BulkResult<T, R>> execute(Collection<? extends T> items,
+                                                 BulkOperation<? super T, ? extends R> operation) {
+        Run<T, R> run = new Run<>(new ArrayList<>(items), operation);
+        ExecutorService executor = BulkThreads.newExecutor("connector-bulk");
+        try {
+            run.submitAll(executor);
+            run.awaitCompletion();
+        } finally {
+            executor.shutdown();
+        }
+        return run.results();
+    }
+    
+    private final class Run<T, R> {
+        private final List<T> items;
+        private final BulkOperation<? super T, ? extends R> operation;
+        private final AtomicReferenceArray<BulkResult<T, R>> results;
+        private final Semaphore permits = new Semaphore(maxConcurrency);
+        private final Map<Integer, Thread> active = new ConcurrentHashMap<>();
+        private final long deadlineNanos;
+        private volatile boolean cancelled;
+        private boolean interruptsSent;
+        private boolean callerInterrupted;
+        
+        Run(List<T> items, BulkOperation<? super T, ? extends R> operation) {
+            this.items = items;
+            this.operation = operation;
+            this.results = new AtomicReferenceArray<>(items.size());
+            this.deadlineNanos = timeoutMs > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs) : 0;
+        }
+        
+        void submitAll(ExecutorService executor) {
+            for (int i = 0; i < items.size(); i++) {
+                if (!awaitPermits(1)) {
+                    return;
+                }
+                int index = i;
+                executor.execute(() -> runItem(index));
+            }
+        }
+        
+        /**
+         * Every permit back means every submitted item has finished
+         */
+        void awaitCompletion() {
+            // Returns only with all permits, even after cancellation: interrupted calls still have to return
+            awaitPermits(maxConcurrency);
+            if (callerInterrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        /**
+         * Poll for permits so cancellation and the deadline are noticed; false once cancelled
+         */
+        private boolean awaitPermits(int count) {
+            while (true) {
+                if (deadlineNanos != 0 && System.nanoTime() - deadlineNanos >= 0) {
+                    cancelled = true;
+                }
+                if (cancelled && !interruptsSent) {
+                    interruptsSent = true;
+                    active.values().forEach(Thread::interrupt);
+                }
+                boolean acquired;
+                try {
+                    acquired = permits.tryAcquire(count, POLL_MS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    callerInterrupted = true;
+                    cancelled = true;
+                    continue;
+                }
+                if (acquired) {
+                    if (count == maxConcurrency || !cancelled) {
+                        return true;
+                    }
+                    permits.release(count);
+                    return false;
+                }
+                if (cancelled && count < maxConcurrency) {
+                    return false;
+                }
+            }
+        }
+        
+        private void runItem(int index) {
+            T item = items.get(index);
+            // Register before checking the flag, so a concurrent cancel either sees us or we see it
+            active.put(index, Thread.currentThread());
+            try {
+                if (cancelled) {
+                    results.set(index, BulkResult.cancelled(item));
+                    return;
+                }
+                R value = operation.apply(item);
+                results.set(index, BulkResult.succeeded(item, value));
+            } catch (ConnectorException | RuntimeException e) {
+                if (cancelled) {
+                    results.set(index, BulkResult.cancelled(item));
+                } else {
+                    results.set(index, BulkResult.failed(item, e));
+                    if (failFast) {
+                        cancelled = true;
+                    }
+                }
+            } finally {
+                active.remove(index);
+                // Do not leak a cancellation interrupt into a reused pool thread
+                Thread.interrupted();
+                permits.release();
+            }
+        }
+        
+        List<BulkResult<T, R>> results() {
+            List<BulkResult<T, R>> list = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                BulkResult<T, R> result = results.get(i);
+                list.add(result != null ? result : BulkResult.cancelled(items.get(i)));
+            }
+            return list;
+        }
+    }
+    
+    public static class Builder {
+        private int maxConcurrency = 32;
+        private boolean failFast = false;
+        private long timeoutMs = 0;
+        
+        /**
+         * Calls in flight at once; keep it within the HTTP pool size and the API quota
+         */
+        public Builder maxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+        
+        /**
+         * Cancel the remaining items as soon as one fails
+         */
+        public Builder failFast(boolean failFast) {
+            this.failFast = failFast;
+            return this;
+        }
+        
+        /**
+         * Cancel whatever is still outstanding after this long (0 = no limit)
+         */
+        public Builder timeoutMs(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+            return this;
+        }
+        
+        public BulkExecutor build() {
+            if (maxConcurrency < 1) {
+                throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+            }
+            return new BulkExecutor(this);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.model.DataSourceSummary;
+import software.amazon.awssdk.services.bedrockagent.model.StartIngestionJobResponse;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of DataSourceConnector.startIngestionForAll: one result per data source, in listing order
+ */
+public final class BulkIngestionResult {
+    private final List<BulkResult<DataSourceSummary, StartIngestionJobResponse>> results;
+    private final long wallClockMillis;
+    private final boolean parallel;
+    
+    BulkIngestionResult(List<BulkResult<DataSourceSummary, StartIngestionJobResponse>> results,
+                        long wallClockMillis, boolean parallel) {
+        this.results = Collections.unmodifiableList(results);
+        this.wallClockMillis = wallClockMillis;
+        this.parallel = parallel;
+    }
+    
+    public List<BulkResult<DataSourceSummary, StartIngestionJobResponse>> getResults() { return results; }
+    /** Time from listing the data sources until the last start was admitted and returned */
+    public long getWallClockMillis() { return wallClockMillis; }
+    public boolean isParallel() { return parallel; }
+    
+    public long getStarted() {
+        return results.stream().filter(BulkResult::isSuccess).count();
+    }
+    
+    public long getFailed() {
+        return results.size() - getStarted();
+    }
+    
+    public boolean isAllStarted() {
+        return getFailed() == 0;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("BulkIngestionResult{dataSources=%d, started=%d, failed=%d, wallClockMs=%d, parallel=%s}",
+            results.size(), getStarted(), getFailed(), wallClockMillis, parallel);
+    }
+}
\ No newline at end of file
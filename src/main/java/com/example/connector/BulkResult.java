@@ -0,0 +1,53 @@
+package com.example.connector;
+
+/**
+ * Outcome of one item of a BulkExecutor run
+ */
+public final class BulkResult<T, R> {
+    
+    public enum Status {
+        SUCCEEDED,
+        FAILED,
+        /** Never started, or interrupted because the run was cancelled */
+        CANCELLED
+    }
+    
+    private final T item;
+    private final R value;
+    private final Exception error;
+    private final Status status;
+    
+    private BulkResult(T item, R value, Exception error, Status status) {
+        this.item = item;
+        this.value = value;
+        this.error = error;
+        this.status = status;
+    }
+    
+    static <T, R> BulkResult<T, R> succeeded(T item, R value) {
+        return new BulkResult<>(item, value, null, Status.SUCCEEDED);
+    }
+    
+    static <T, R> BulkResult<T, R> failed(T item, Exception error) {
+        return new BulkResult<>(item, null, error, Status.FAILED);
+    }
+    
+    static <T, R> BulkResult<T, R> cancelled(T item) {
+        return new BulkResult<>(item, null, null, Status.CANCELLED);
+    }
+    
+    public T getItem() { return item; }
+    public R getValue() { return value; }
+    public Exception getError() { return error; }
+    public Status getStatus() { return status; }
+    
+    public boolean isSuccess() {
+        return status == Status.SUCCEEDED;
+    }
+    
+    @Override
+    public String toString() {
+        return "BulkResult{item=" + item + ", status=" + status
+            + (error != null ? ", error=" + error.getMessage() : "") + "}";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.example.connector;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Thread source for BulkExecutor. This Java 11 version uses pooled platform threads; the
+ * multi-release jar replaces it on Java 21+ with one virtual thread per item
+ * (src/main/java21, built by the java21 Maven profile).
+ */
+final class BulkThreads {
+    
+    private BulkThreads() {
+    }
+    
+    /**
+     * Executor for one bulk run; BulkExecutor bounds how many tasks it holds at once
+     */
+    static ExecutorService newExecutor(String name) {
+        return Executors.newCachedThreadPool(ConnectorExecutors.daemonThreadFactory(name));
+    }
+    
+    static boolean isVirtual() {
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,187 @@
+package com.example.connector;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Count-based circuit breaker for one control-plane operation.
+ *
+ * The breaker tracks the failure rate and slow-call rate over the last
+ * {@code circuitWindowSize} calls. When either rate crosses its threshold the circuit
+ * opens and calls fail immediately. After {@code circuitOpenDurationMs} a few half-open
+ * probes are let through; if they succeed the circuit closes, otherwise it reopens.
+ */
+public class CircuitBreaker {
+    
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+    
+    private final String operation;
+    private final int failureRateThreshold;
+    private final long slowCallNanos;
+    private final int slowCallRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+    private final boolean[] failedWindow;
+    private final boolean[] slowWindow;
+    private int windowCount;
+    private int windowIndex;
+    private int failedCount;
+    private int slowCount;
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int probesInFlight;
+    private int probesCompleted;
+    private int probesFailed;
+    
+    CircuitBreaker(String operation, ConnectorConfig config) {
+        this.operation = operation;
+        this.failureRateThreshold = config.getFailureRateThreshold();
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDurationMs());
+        this.slowCallRateThreshold = config.getSlowCallRateThreshold();
+        this.minimumCalls = Math.max(1, config.getCircuitMinimumCalls());
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(config.getCircuitOpenDurationMs());
+        this.halfOpenProbes = Math.max(1, config.getHalfOpenProbes());
+        int windowSize = Math.max(this.minimumCalls, config.getCircuitWindowSize());
+        this.failedWindow = new boolean[windowSize];
+        this.slowWindow = new boolean[windowSize];
+    }
+    
+    /**
+     * Ask to send a call; false means fail fast
+     */
+    synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < openDurationNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            probesCompleted = 0;
+            probesFailed = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight + probesCompleted >= halfOpenProbes) {
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+    
+    /**
+     * Give back a permission that never turned into a call (e.g. interrupted while queued)
+     */
+    synchronized void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+        }
+    }
+    
+    /**
+     * Record the outcome of a permitted call
+     *
+     * @param failed true only for failures that indicate service degradation
+     */
+    synchronized void onResult(long durationNanos, boolean failed) {
+        boolean slow = durationNanos >= slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+            probesCompleted++;
+            if (failed || slow) {
+                probesFailed++;
+            }
+            if (probesCompleted >= halfOpenProbes) {
+                if (probesFailed * 100 >= failureRateThreshold * halfOpenProbes) {
+                    open();
+                } else {
+                    close();
+                }
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        record(failed, slow);
+        if (windowCount >= minimumCalls
+                && (getFailureRate() >= failureRateThreshold || getSlowCallRate() >= slowCallRateThreshold)) {
+            open();
+        }
+    }
+    
+    private void record(boolean failed, boolean slow) {
+        if (windowCount == failedWindow.length) {
+            failedCount -= failedWindow[windowIndex] ? 1 : 0;
+            slowCount -= slowWindow[windowIndex] ? 1 : 0;
+        } else {
+            windowCount++;
+        }
+        failedWindow[windowIndex] = failed;
+        slowWindow[windowIndex] = slow;
+        failedCount += failed ? 1 : 0;
+        slowCount += slow ? 1 : 0;
+        windowIndex = (windowIndex + 1) % failedWindow.length;
+    }
+    
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+    }
+    
+    private void close() {
+        state = State.CLOSED;
+        windowCount = 0;
+        windowIndex = 0;
+        failedCount = 0;
+        slowCount = 0;
+    }
+    
+    public String getOperation() {
+        return operation;
+    }
+    
+    /**
+     * Current state; an open circuit past its open duration reports HALF_OPEN
+     */
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openDurationNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+    
+    /**
+     * Failed calls in the current window, as a percentage
+     */
+    public synchronized double getFailureRate() {
+        return windowCount == 0 ? 0.0 : failedCount * 100.0 / windowCount;
+    }
+    
+    /**
+     * Slow calls in the current window, as a percentage
+     */
+    public synchronized double getSlowCallRate() {
+        return windowCount == 0 ? 0.0 : slowCount * 100.0 / windowCount;
+    }
+    
+    /**
+     * Milliseconds until an open circuit starts probing (0 when not open)
+     */
+    public synchronized long getRemainingOpenMillis() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        long remaining = openDurationNanos - (System.nanoTime() - openedAtNanos);
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(remaining));
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("CircuitBreaker{operation='%s', state=%s, failureRate=%.1f%%, slowCallRate=%.1f%%}",
+            operation, getState(), getFailureRate(), getSlowCallRate());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.connector;
+
+/**
+ * Thrown without calling Bedrock when the circuit for an operation is open
+ */
+public class CircuitBreakerOpenException extends ConnectorException {
+    private final String operation;
+    
+    public CircuitBreakerOpenException(String message, String operation) {
+        super(message);
+        this.operation = operation;
+    }
+    
+    public String getOperation() {
+        return operation;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.example.connector;
+
+/**
+ * HTTP transport settings for Bedrock Agent clients built by BedrockClientProvider
+ */
+public class ClientProvisioningConfig {
+    
+    /**
+     * SDK HTTP implementation backing the sync client
+     */
+    public enum Transport {
+        /** Pooled Apache client; honours every pool setting */
+        APACHE,
+        /** JDK HttpURLConnection; smallest footprint, pooling left to the JVM keep-alive cache */
+        URL_CONNECTION,
+        /** AWS Common Runtime client; native I/O, no TTL setting */
+        CRT
+    }
+    
+    private final Transport transport;
+    private final int maxConnections;
+    private final long connectionTtlMs;
+    private final long connectionMaxIdleMs;
+    private final boolean reapIdleConnections;
+    private final long connectionTimeoutMs;
+    private final long socketTimeoutMs;
+    private final long connectionAcquisitionTimeoutMs;
+    private final boolean tcpKeepAlive;
+    private final boolean sdkRetriesEnabled;
+    private final int prewarmConnections;
+    private final long prewarmTimeoutMs;
+    
+    private ClientProvisioningConfig(Builder builder) {
+        this.transport = builder.transport;
+        this.maxConnections = builder.maxConnections;
+        this.connectionTtlMs = builder.connectionTtlMs;
+        this.connectionMaxIdleMs = builder.connectionMaxIdleMs;
+        this.reapIdleConnections = builder.reapIdleConnections;
+        this.connectionTimeoutMs = builder.connectionTimeoutMs;
+        this.socketTimeoutMs = builder.socketTimeoutMs;
+        this.connectionAcquisitionTimeoutMs = builder.connectionAcquisitionTimeoutMs;
+        this.tcpKeepAlive = builder.tcpKeepAlive;
+        this.sdkRetriesEnabled = builder.sdkRetriesEnabled;
+        this.prewarmConnections = builder.prewarmConnections;
+        this.prewarmTimeoutMs = builder.prewarmTimeoutMs;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    public static ClientProvisioningConfig defaultConfig() {
+        return builder().build();
+    }
+    
+    // Getters
+    public Transport getTransport() { return transport; }
+    public int getMaxConnections() { return maxConnections; }
+    public long getConnectionTtlMs() { return connectionTtlMs; }
+    public long getConnectionMaxIdleMs() { return connectionMaxIdleMs; }
+    public boolean isReapIdleConnections() { return reapIdleConnections; }
+    public long getConnectionTimeoutMs() { return connectionTimeoutMs; }
+    public long getSocketTimeoutMs() { return socketTimeoutMs; }
+    public long getConnectionAcquisitionTimeoutMs() { return connectionAcquisitionTimeoutMs; }
+    public boolean isTcpKeepAlive() { return tcpKeepAlive; }
+    public boolean isSdkRetriesEnabled() { return sdkRetriesEnabled; }
+    public int getPrewarmConnections() { return prewarmConnections; }
+    public long getPrewarmTimeoutMs() { return prewarmTimeoutMs; }
+    
+    public static class Builder {
+        private Transport transport = Transport.APACHE;
+        private int maxConnections = 100;
+        private long connectionTtlMs = 300000;
+        private long connectionMaxIdleMs = 60000;
+        private boolean reapIdleConnections = true;
+        private long connectionTimeoutMs = 2000;
+        private long socketTimeoutMs = 30000;
+        private long connectionAcquisitionTimeoutMs = 10000;
+        private boolean tcpKeepAlive = true;
+        private boolean sdkRetriesEnabled = false;
+        private int prewarmConnections = 4;
+        private long prewarmTimeoutMs = 5000;
+        
+        public Builder transport(Transport transport) {
+            this.transport = transport;
+            return this;
+        }
+        
+        /**
+         * Pool size per client; size it for the widest fan-out (e.g. bulk operations) you run
+         */
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+        
+        /**
+         * Maximum lifetime of a pooled connection, so long-lived pools pick up DNS changes (0 = unlimited)
+         */
+        public Builder connectionTtlMs(long connectionTtlMs) {
+            this.connectionTtlMs = connectionTtlMs;
+            return this;
+        }
+        
+        public Builder connectionMaxIdleMs(long connectionMaxIdleMs) {
+            this.connectionMaxIdleMs = connectionMaxIdleMs;
+            return this;
+        }
+        
+        /**
+         * Close idle connections in the background instead of discovering them stale on the next call
+         */
+        public Builder reapIdleConnections(boolean reapIdleConnections) {
+            this.reapIdleConnections = reapIdleConnections;
+            return this;
+        }
+        
+        public Builder connectionTimeoutMs(long connectionTimeoutMs) {
+            this.connectionTimeoutMs = connectionTimeoutMs;
+            return this;
+        }
+        
+        public Builder socketTimeoutMs(long socketTimeoutMs) {
+            this.socketTimeoutMs = socketTimeoutMs;
+            return this;
+        }
+        
+        /**
+         * How long a call waits for a free pooled connection before failing
+         */
+        public Builder connectionAcquisitionTimeoutMs(long connectionAcquisitionTimeoutMs) {
+            this.connectionAcquisitionTimeoutMs = connectionAcquisitionTimeoutMs;
+            return this;
+        }
+        
+        public Builder tcpKeepAlive(boolean tcpKeepAlive) {
+            this.tcpKeepAlive = tcpKeepAlive;
+            return this;
+        }
+        
+        /**
+         * Keep the SDK's own retries; off by default because ControlPlaneInvoker already retries
+         */
+        public Builder sdkRetriesEnabled(boolean sdkRetriesEnabled) {
+            this.sdkRetriesEnabled = sdkRetriesEnabled;
+            return this;
+        }
+        
+        /**
+         * Connections opened (TLS included) when a client is first provisioned (0 = no pre-warming)
+         */
+        public Builder prewarmConnections(int prewarmConnections) {
+            this.prewarmConnections = prewarmConnections;
+            return this;
+        }
+        
+        public Builder prewarmTimeoutMs(long prewarmTimeoutMs) {
+            this.prewarmTimeoutMs = prewarmTimeoutMs;
+            return this;
+        }
+        
+        public ClientProvisioningConfig build() {
+            if (transport == null) {
+                throw new IllegalArgumentException("Transport is required");
+            }
+            if (maxConnections < 1) {
+                throw new IllegalArgumentException("maxConnections must be positive: " + maxConnections);
+            }
+            if (prewarmConnections < 0 || prewarmConnections > maxConnections) {
+                throw new IllegalArgumentException("prewarmConnections must be between 0 and maxConnections");
+            }
+            return new ClientProvisioningConfig(this);
+        }
+    }
+}
\ No newline at end of file
@@ -20,17 +20,14 @@ public class ConfluenceDataSourceConnector extends DataSourceConnector {
             throw new ConnectorException("Invalid Confluence data source configuration");
         }
         
-        try {
-            CreateDataSourceRequest request = CreateDataSourceRequest.builder()
-                .knowledgeBaseId(knowledgeBaseId)
-                .name(name)
-                .dataSourceConfiguration(dataConfig)
-                .clientToken(UUID.randomUUID().toString())
-                .build();
-            return bedrockClient.createDataSource(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to create Confluence data source: " + name, e);
-        }
+        CreateDataSourceRequest request = CreateDataSourceRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .name(name)
+            .dataSourceConfiguration(dataConfig)
+            .clientToken(UUID.randomUUID().toString())
+            .build();
+        return invoker.invoke("CreateDataSource", () -> bedrockClient.createDataSource(request),
+            "Failed to create Confluence data source: " + name);
     }
     
     @Override
@@ -40,33 +37,36 @@ public class ConfluenceDataSourceConnector extends DataSourceConnector {
             throw new ConnectorException("Invalid Confluence data source configuration");
         }
         
-        try {
-            UpdateDataSourceRequest request = UpdateDataSourceRequest.builder()
-                .knowledgeBaseId(knowledgeBaseId)
-                .dataSourceId(dataSourceId)
-                .dataSourceConfiguration(dataConfig)
-                .build();
-            return bedrockClient.updateDataSource(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to update Confluence data source: " + dataSourceId, e);
-        }
+        UpdateDataSourceRequest request = UpdateDataSourceRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .dataSourceConfiguration(dataConfig)
+            .build();
+        return invokeDataSourceWrite("UpdateDataSource", dataSourceId,
+            () -> bedrockClient.updateDataSource(request),
+            "Failed to update Confluence data source: " + dataSourceId);
     }
     
     @Override
     public DeleteDataSourceResponse deleteDataSource(String dataSourceId) throws ConnectorException {
-        try {
-            DeleteDataSourceRequest request = DeleteDataSourceRequest.builder()
-                .knowledgeBaseId(knowledgeBaseId)
-                .dataSourceId(dataSourceId)
-                .build();
-            return bedrockClient.deleteDataSource(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to delete Confluence data source: " + dataSourceId, e);
-        }
+        DeleteDataSourceRequest request = DeleteDataSourceRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .build();
+        return invokeDataSourceWrite("DeleteDataSource", dataSourceId,
+            () -> bedrockClient.deleteDataSource(request),
+            "Failed to delete Confluence data source: " + dataSourceId);
     }
     
     @Override
     protected boolean validateConfiguration(DataSourceConfiguration config) {
+        return isValidConfiguration(config);
+    }
+    
+    /**
+     * Confluence configuration check, reused by the async connector
+     */
+    static boolean isValidConfiguration(DataSourceConfiguration config) {
         if (config == null || config.type() != DataSourceType.CONFLUENCE) {
             return false;
         }
@@ -1,5 +1,7 @@
 package com.example.connector;
 
+import java.util.Objects;
+
 /**
  * Configuration class for data source connectors
  */
@@ -7,13 +9,43 @@ public class ConnectorConfig {
     private final int maxResults;
     private final int retryAttempts;
     private final long retryDelayMs;
+    private final long maxRetryDelayMs;
+    private final double retryBudgetRatio;
+    private final int minRetriesPerSecond;
     private final boolean enableValidation;
+    private final boolean circuitBreakerEnabled;
+    private final int failureRateThreshold;
+    private final long slowCallDurationMs;
+    private final int slowCallRateThreshold;
+    private final int circuitWindowSize;
+    private final int circuitMinimumCalls;
+    private final long circuitOpenDurationMs;
+    private final int halfOpenProbes;
+    private final boolean hedgingEnabled;
+    private final double hedgeDelayPercentile;
+    private final double hedgeBudgetPercent;
+    private final long minHedgeDelayMs;
     
     private ConnectorConfig(Builder builder) {
         this.maxResults = builder.maxResults;
         this.retryAttempts = builder.retryAttempts;
         this.retryDelayMs = builder.retryDelayMs;
+        this.maxRetryDelayMs = builder.maxRetryDelayMs;
+        this.retryBudgetRatio = builder.retryBudgetRatio;
+        this.minRetriesPerSecond = builder.minRetriesPerSecond;
         this.enableValidation = builder.enableValidation;
+        this.circuitBreakerEnabled = builder.circuitBreakerEnabled;
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallDurationMs = builder.slowCallDurationMs;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.circuitWindowSize = builder.circuitWindowSize;
+        this.circuitMinimumCalls = builder.circuitMinimumCalls;
+        this.circuitOpenDurationMs = builder.circuitOpenDurationMs;
+        this.halfOpenProbes = builder.halfOpenProbes;
+        this.hedgingEnabled = builder.hedgingEnabled;
+        this.hedgeDelayPercentile = builder.hedgeDelayPercentile;
+        this.hedgeBudgetPercent = builder.hedgeBudgetPercent;
+        this.minHedgeDelayMs = builder.minHedgeDelayMs;
     }
     
     public static Builder builder() {
@@ -28,13 +60,81 @@ public class ConnectorConfig {
     public int getMaxResults() { return maxResults; }
     public int getRetryAttempts() { return retryAttempts; }
     public long getRetryDelayMs() { return retryDelayMs; }
+    public long getMaxRetryDelayMs() { return maxRetryDelayMs; }
+    public double getRetryBudgetRatio() { return retryBudgetRatio; }
+    public int getMinRetriesPerSecond() { return minRetriesPerSecond; }
     public boolean isValidationEnabled() { return enableValidation; }
+    public boolean isCircuitBreakerEnabled() { return circuitBreakerEnabled; }
+    public int getFailureRateThreshold() { return failureRateThreshold; }
+    public long getSlowCallDurationMs() { return slowCallDurationMs; }
+    public int getSlowCallRateThreshold() { return slowCallRateThreshold; }
+    public int getCircuitWindowSize() { return circuitWindowSize; }
+    public int getCircuitMinimumCalls() { return circuitMinimumCalls; }
+    public long getCircuitOpenDurationMs() { return circuitOpenDurationMs; }
+    public int getHalfOpenProbes() { return halfOpenProbes; }
+    public boolean isHedgingEnabled() { return hedgingEnabled; }
+    public double getHedgeDelayPercentile() { return hedgeDelayPercentile; }
+    public double getHedgeBudgetPercent() { return hedgeBudgetPercent; }
+    public long getMinHedgeDelayMs() { return minHedgeDelayMs; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ConnectorConfig)) {
+            return false;
+        }
+        ConnectorConfig other = (ConnectorConfig) o;
+        return maxResults == other.maxResults
+            && retryAttempts == other.retryAttempts
+            && retryDelayMs == other.retryDelayMs
+            && maxRetryDelayMs == other.maxRetryDelayMs
+            && Double.compare(retryBudgetRatio, other.retryBudgetRatio) == 0
+            && minRetriesPerSecond == other.minRetriesPerSecond
+            && enableValidation == other.enableValidation
+            && circuitBreakerEnabled == other.circuitBreakerEnabled
+            && failureRateThreshold == other.failureRateThreshold
+            && slowCallDurationMs == other.slowCallDurationMs
+            && slowCallRateThreshold == other.slowCallRateThreshold
+            && circuitWindowSize == other.circuitWindowSize
+            && circuitMinimumCalls == other.circuitMinimumCalls
+            && circuitOpenDurationMs == other.circuitOpenDurationMs
+            && halfOpenProbes == other.halfOpenProbes
+            && hedgingEnabled == other.hedgingEnabled
+            && Double.compare(hedgeDelayPercentile, other.hedgeDelayPercentile) == 0
+            && Double.compare(hedgeBudgetPercent, other.hedgeBudgetPercent) == 0
+            && minHedgeDelayMs == other.minHedgeDelayMs;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxResults, retryAttempts, retryDelayMs, maxRetryDelayMs, retryBudgetRatio,
+            minRetriesPerSecond, enableValidation, circuitBreakerEnabled, failureRateThreshold, slowCallDurationMs,
+            slowCallRateThreshold, circuitWindowSize, circuitMinimumCalls, circuitOpenDurationMs, halfOpenProbes,
+            hedgingEnabled, hedgeDelayPercentile, hedgeBudgetPercent, minHedgeDelayMs);
+    }
     
     public static class Builder {
         private int maxResults = 50;
         private int retryAttempts = 3;
         private long retryDelayMs = 1000;
+        private long maxRetryDelayMs = 20000;
+        private double retryBudgetRatio = 0.2;
+        private int minRetriesPerSecond = 5;
         private boolean enableValidation = true;
+        private boolean circuitBreakerEnabled = true;
+        private int failureRateThreshold = 50;
+        private long slowCallDurationMs = 10000;
+        private int slowCallRateThreshold = 80;
+        private int circuitWindowSize = 20;
+        private int circuitMinimumCalls = 10;
+        private long circuitOpenDurationMs = 30000;
+        private int halfOpenProbes = 3;
+        private boolean hedgingEnabled = false;
+        private double hedgeDelayPercentile = 95.0;
+        private double hedgeBudgetPercent = 5.0;
+        private long minHedgeDelayMs = 10;
         
         public Builder maxResults(int maxResults) {
             this.maxResults = maxResults;
@@ -51,11 +151,125 @@ public class ConnectorConfig {
             return this;
         }
         
+        /**
+         * Upper bound for a single backoff sleep
+         */
+        public Builder maxRetryDelayMs(long maxRetryDelayMs) {
+            this.maxRetryDelayMs = maxRetryDelayMs;
+            return this;
+        }
+        
+        /**
+         * Retries allowed per successful call (0.2 = at most one retry for every five requests)
+         */
+        public Builder retryBudgetRatio(double retryBudgetRatio) {
+            this.retryBudgetRatio = retryBudgetRatio;
+            return this;
+        }
+        
+        /**
+         * Retries always available regardless of traffic volume
+         */
+        public Builder minRetriesPerSecond(int minRetriesPerSecond) {
+            this.minRetriesPerSecond = minRetriesPerSecond;
+            return this;
+        }
+        
         public Builder enableValidation(boolean enableValidation) {
             this.enableValidation = enableValidation;
             return this;
         }
         
+        public Builder circuitBreakerEnabled(boolean enabled) {
+            this.circuitBreakerEnabled = enabled;
+            return this;
+        }
+        
+        /**
+         * Percentage of failed calls in the window that opens the circuit
+         */
+        public Builder failureRateThreshold(int percent) {
+            this.failureRateThreshold = percent;
+            return this;
+        }
+        
+        /**
+         * Calls slower than this count as slow, even when they succeed
+         */
+        public Builder slowCallDurationMs(long slowCallDurationMs) {
+            this.slowCallDurationMs = slowCallDurationMs;
+            return this;
+        }
+        
+        /**
+         * Percentage of slow calls in the window that opens the circuit
+         */
+        public Builder slowCallRateThreshold(int percent) {
+            this.slowCallRateThreshold = percent;
+            return this;
+        }
+        
+        /**
+         * Number of most recent calls per operation used to compute the rates
+         */
+        public Builder circuitWindowSize(int calls) {
+            this.circuitWindowSize = calls;
+            return this;
+        }
+        
+        /**
+         * Calls required in the window before the circuit may open
+         */
+        public Builder circuitMinimumCalls(int calls) {
+            this.circuitMinimumCalls = calls;
+            return this;
+        }
+        
+        /**
+         * How long an open circuit fails fast before sending half-open probes
+         */
+        public Builder circuitOpenDurationMs(long openDurationMs) {
+            this.circuitOpenDurationMs = openDurationMs;
+            return this;
+        }
+        
+        public Builder halfOpenProbes(int probes) {
+            this.halfOpenProbes = probes;
+            return this;
+        }
+        
+        /**
+         * Send a second request for slow idempotent reads (getDataSource, getIngestionJob)
+         */
+        public Builder hedgingEnabled(boolean enabled) {
+            this.hedgingEnabled = enabled;
+            return this;
+        }
+        
+        /**
+         * Observed latency percentile after which a read is hedged
+         */
+        public Builder hedgeDelayPercentile(double percentile) {
+            this.hedgeDelayPercentile = percentile;
+            return this;
+        }
+        
+        /**
+         * Hedged requests allowed, as a percentage of hedgeable reads
+         */
+        public Builder hedgeBudgetPercent(double percent) {
+            this.hedgeBudgetPercent = percent;
+            return this;
+        }
+        
+        /**
+         * Floor for the hedge delay, so fast operations are not hedged on noise
+         */
+        public Builder minHedgeDelayMs(long minHedgeDelayMs) {
+            this.minHedgeDelayMs = minHedgeDelayMs;
+            return this;
+        }
+        
         public ConnectorConfig build() {
             return new ConnectorConfig(this);
         }
@@ -0,0 +1,43 @@
+package com.example.connector;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared daemon thread pools used by connector background work
+ */
+final class ConnectorExecutors {
+    private static final ExecutorService BACKGROUND =
+        Executors.newCachedThreadPool(daemonThreadFactory("connector-background"));
+    private static final ScheduledExecutorService SCHEDULER =
+        Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("connector-scheduler"));
+    
+    private ConnectorExecutors() {
+    }
+    
+    /**
+     * Unbounded pool for short blocking SDK calls issued ahead of the caller (e.g. page prefetch)
+     */
+    static ExecutorService background() {
+        return BACKGROUND;
+    }
+    
+    /**
+     * Single timer thread for delayed hand-offs; scheduled tasks must not block
+     */
+    static ScheduledExecutorService scheduler() {
+        return SCHEDULER;
+    }
+    
+    static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
\ No newline at end of file
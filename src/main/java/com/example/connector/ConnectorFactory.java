@@ -6,13 +6,27 @@ import software.amazon.awssdk.services.bedrockagent.BedrockAgentClient;
  * Factory class for creating Knowledge Base data source connectors
  */
 public class ConnectorFactory {
+    private static volatile AdaptiveRateLimiter sharedRateLimiter = AdaptiveRateLimiter.defaultLimiter();
+    private static volatile MetadataCache sharedMetadataCache;
+    private static volatile IngestionHistory sharedIngestionHistory = IngestionHistory.defaultHistory();
+    private static BedrockClientProvider sharedClientProvider;
     
     public enum ConnectorType {
-        S3,
-        WEB_CRAWLER,
-        SHAREPOINT,
-        CONFLUENCE,
-        KMS_LIGHTHOUSE
+        S3("S3"),
+        WEB_CRAWLER("Web Crawler"),
+        SHAREPOINT("SharePoint"),
+        CONFLUENCE("Confluence"),
+        KMS_LIGHTHOUSE("KMS Lighthouse");
+        
+        private final String displayName;
+        
+        ConnectorType(String displayName) {
+            this.displayName = displayName;
+        }
+        
+        public String getDisplayName() {
+            return displayName;
+        }
     }
     
     /**
@@ -25,26 +39,149 @@ public class ConnectorFactory {
     }
     
     /**
-     * Create a data source connector with custom configuration
+     * Create a data source connector with custom configuration, paced by the shared rate limiter
      */
     public static DataSourceConnector createConnector(ConnectorType type, 
                                                      BedrockAgentClient client, 
                                                      String knowledgeBaseId,
                                                      ConnectorConfig config) {
+        return createConnector(type, client, knowledgeBaseId, config, sharedRateLimiter);
+    }
+    
+    /**
+     * Create a data source connector on the shared, pre-warmed client for a region and profile
+     */
+    public static DataSourceConnector createConnector(ConnectorType type,
+                                                     String region,
+                                                     String profile,
+                                                     String knowledgeBaseId,
+                                                     ConnectorConfig config) {
+        return createConnector(type, getSharedClientProvider().getClient(region, profile), knowledgeBaseId, config);
+    }
+    
+    /**
+     * Create a data source connector with an explicit rate limiter (null disables client-side pacing)
+     */
+    public static DataSourceConnector createConnector(ConnectorType type, 
+                                                     BedrockAgentClient client, 
+                                                     String knowledgeBaseId,
+                                                     ConnectorConfig config,
+                                                     AdaptiveRateLimiter rateLimiter) {
+        DataSourceConnector connector;
         switch (type) {
             case S3:
-                return new S3DataSourceConnector(client, knowledgeBaseId, config);
+                connector = new S3DataSourceConnector(client, knowledgeBaseId, config);
+                break;
             case WEB_CRAWLER:
-                return new WebCrawlerDataSourceConnector(client, knowledgeBaseId, config);
+                connector = new WebCrawlerDataSourceConnector(client, knowledgeBaseId, config);
+                break;
             case SHAREPOINT:
-                return new SharePointDataSourceConnector(client, knowledgeBaseId, config);
+                connector = new SharePointDataSourceConnector(client, knowledgeBaseId, config);
+                break;
             case CONFLUENCE:
-                return new ConfluenceDataSourceConnector(client, knowledgeBaseId, config);
+                connector = new ConfluenceDataSourceConnector(client, knowledgeBaseId, config);
+                break;
             case KMS_LIGHTHOUSE:
-                return new KmsLighthouseConnector(client, knowledgeBaseId, config);
+                connector = new KmsLighthouseConnector(client, knowledgeBaseId, config);
+                break;
             default:
                 throw new IllegalArgumentException("Unsupported connector type: " + type);
         }
+        connector.setRateLimiter(rateLimiter);
+        connector.setMetadataCache(sharedMetadataCache);
+        connector.setIngestionHistory(sharedIngestionHistory);
+        return connector;
+    }
+    
+    /**
+     * Create a knowledge base manager paced by the shared rate limiter
+     */
+    public static KnowledgeBaseManager createKnowledgeBaseManager(BedrockAgentClient client, ConnectorConfig config) {
+        KnowledgeBaseManager manager = new KnowledgeBaseManager(client, config);
+        manager.setRateLimiter(sharedRateLimiter);
+        manager.setMetadataCache(sharedMetadataCache);
+        return manager;
+    }
+    
+    /**
+     * Rate limiter injected into every connector created by the factories
+     */
+    public static AdaptiveRateLimiter getSharedRateLimiter() {
+        return sharedRateLimiter;
+    }
+    
+    /**
+     * Replace the shared limiter (e.g. with account-specific quotas); affects connectors created afterwards
+     */
+    public static void setSharedRateLimiter(AdaptiveRateLimiter rateLimiter) {
+        sharedRateLimiter = rateLimiter;
+    }
+    
+    /**
+     * Metadata cache injected into connectors and managers created by the factory (null = no caching)
+     */
+    public static MetadataCache getSharedMetadataCache() {
+        return sharedMetadataCache;
+    }
+    
+    /**
+     * Turn on read-through metadata caching for connectors and managers created afterwards
+     */
+    public static void setSharedMetadataCache(MetadataCache metadataCache) {
+        sharedMetadataCache = metadataCache;
+    }
+    
+    /**
+     * Ingestion history injected into connectors created by the factory (null = no tracking)
+     */
+    public static IngestionHistory getSharedIngestionHistory() {
+        return sharedIngestionHistory;
+    }
+    
+    /**
+     * Replace the shared ingestion history; affects connectors created afterwards
+     */
+    public static void setSharedIngestionHistory(IngestionHistory ingestionHistory) {
+        sharedIngestionHistory = ingestionHistory;
+    }
+    
+    /**
+     * Client provider behind the region-based factory methods, created with default settings on first use
+     */
+    public static synchronized BedrockClientProvider getSharedClientProvider() {
+        if (sharedClientProvider == null) {
+            sharedClientProvider = new BedrockClientProvider();
+        }
+        return sharedClientProvider;
+    }
+    
+    /**
+     * Replace the shared client provider (e.g. with a tuned pool); the caller owns closing the previous one
+     */
+    public static synchronized void setSharedClientProvider(BedrockClientProvider clientProvider) {
+        sharedClientProvider = clientProvider;
+    }
+    
+    /**
+     * Connector type of an existing connector, or null for connectors not created by this factory
+     */
+    static ConnectorType typeOf(DataSourceConnector connector) {
+        if (connector instanceof S3DataSourceConnector) {
+            return ConnectorType.S3;
+        }
+        if (connector instanceof WebCrawlerDataSourceConnector) {
+            return ConnectorType.WEB_CRAWLER;
+        }
+        if (connector instanceof SharePointDataSourceConnector) {
+            return ConnectorType.SHAREPOINT;
+        }
+        if (connector instanceof ConfluenceDataSourceConnector) {
+            return ConnectorType.CONFLUENCE;
+        }
+        if (connector instanceof KmsLighthouseConnector) {
+            return ConnectorType.KMS_LIGHTHOUSE;
+        }
+        return null;
     }
     
     /**
@@ -0,0 +1,173 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.BedrockAgentClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe cache of connector instances keyed by (ConnectorType, knowledgeBaseId, ConnectorConfig).
+ *
+ * Request handlers call {@link #getConnector} instead of ConnectorFactory.createConnector, so every
+ * request for the same key reuses one warm connector along with its retry budget, circuit
+ * breakers and any other per-connector state. Connectors unused for {@code idleTimeoutMs} are
+ * evicted and closed in the background; closing the registry closes everything it still holds.
+ */
+public class ConnectorRegistry implements AutoCloseable {
+    public static final long DEFAULT_IDLE_TIMEOUT_MS = 600000;
+    
+    private final BedrockAgentClient client;
+    private final AdaptiveRateLimiter rateLimiter;
+    private final long idleTimeoutNanos;
+    private final Map<Key, Entry> connectors = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> sweeper;
+    private volatile boolean closed;
+    
+    public ConnectorRegistry(BedrockAgentClient client) {
+        this(client, DEFAULT_IDLE_TIMEOUT_MS);
+    }
+    
+    public ConnectorRegistry(BedrockAgentClient client, long idleTimeoutMs) {
+        this(client, idleTimeoutMs, ConnectorFactory.getSharedRateLimiter());
+    }
+    
+    /**
+     * @param rateLimiter limiter injected into every connector created here (null disables pacing)
+     */
+    public ConnectorRegistry(BedrockAgentClient client, long idleTimeoutMs, AdaptiveRateLimiter rateLimiter) {
+        if (idleTimeoutMs <= 0) {
+            throw new IllegalArgumentException("idleTimeoutMs must be positive: " + idleTimeoutMs);
+        }
+        this.client = client;
+        this.rateLimiter = rateLimiter;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        long sweepMs = Math.max(1000, Math.min(idleTimeoutMs / 2, 60000));
+        this.sweeper = ConnectorExecutors.scheduler()
+            .scheduleWithFixedDelay(this::evictIdle, sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Shared connector with default configuration
+     */
+    public DataSourceConnector getConnector(ConnectorFactory.ConnectorType type, String knowledgeBaseId) {
+        return getConnector(type, knowledgeBaseId, ConnectorConfig.defaultConfig());
+    }
+    
+    /**
+     * Shared connector for the key, created on first use
+     */
+    public DataSourceConnector getConnector(ConnectorFactory.ConnectorType type,
+                                            String knowledgeBaseId,
+                                            ConnectorConfig config) {
+        if (closed) {
+            throw new IllegalStateException("ConnectorRegistry is closed");
+        }
+        Key key = new Key(type, knowledgeBaseId, config);
+        // compute() serialises with evictIdle(), so a connector is never evicted between lookup and touch
+        Entry entry = connectors.compute(key, (k, existing) -> {
+            if (existing == null) {
+                existing = new Entry(ConnectorFactory.createConnector(type, client, knowledgeBaseId, config,
+                    rateLimiter));
+            }
+            existing.lastAccessNanos = System.nanoTime();
+            return existing;
+        });
+        return entry.connector;
+    }
+    
+    /**
+     * Typed variant, e.g. getConnector(S3, kbId, config, S3DataSourceConnector.class)
+     */
+    public <T extends DataSourceConnector> T getConnector(ConnectorFactory.ConnectorType type,
+                                                          String knowledgeBaseId,
+                                                          ConnectorConfig config,
+                                                          Class<T> connectorClass) {
+        return connectorClass.cast(getConnector(type, knowledgeBaseId, config));
+    }
+    
+    /**
+     * Drop and close the connector for a key, e.g. after its knowledge base was deleted
+     */
+    public void invalidate(ConnectorFactory.ConnectorType type, String knowledgeBaseId, ConnectorConfig config) {
+        Entry entry = connectors.remove(new Key(type, knowledgeBaseId, config));
+        if (entry != null) {
+            entry.connector.close();
+        }
+    }
+    
+    /**
+     * Number of connectors currently held
+     */
+    public int size() {
+        return connectors.size();
+    }
+    
+    private void evictIdle() {
+        long now = System.nanoTime();
+        List<DataSourceConnector> evicted = new ArrayList<>();
+        for (Key key : connectors.keySet()) {
+            connectors.computeIfPresent(key, (k, entry) -> {
+                if (now - entry.lastAccessNanos < idleTimeoutNanos) {
+                    return entry;
+                }
+                evicted.add(entry.connector);
+                return null;
+            });
+        }
+        evicted.forEach(DataSourceConnector::close);
+    }
+    
+    /**
+     * Stop eviction and close every connector; the Bedrock client is left open
+     */
+    @Override
+    public void close() {
+        closed = true;
+        sweeper.cancel(false);
+        List<Entry> remaining = new ArrayList<>(connectors.values());
+        connectors.clear();
+        remaining.forEach(entry -> entry.connector.close());
+    }
+    
+    private static final class Entry {
+        private final DataSourceConnector connector;
+        private volatile long lastAccessNanos;
+        
+        Entry(DataSourceConnector connector) {
+            this.connector = connector;
+        }
+    }
+    
+    private static final class Key {
+        private final ConnectorFactory.ConnectorType type;
+        private final String knowledgeBaseId;
+        private final ConnectorConfig config;
+        
+        Key(ConnectorFactory.ConnectorType type, String knowledgeBaseId, ConnectorConfig config) {
+            this.type = Objects.requireNonNull(type, "type");
+            this.knowledgeBaseId = Objects.requireNonNull(knowledgeBaseId, "knowledgeBaseId");
+            this.config = Objects.requireNonNull(config, "config");
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return type == other.type && knowledgeBaseId.equals(other.knowledgeBaseId) && config.equals(other.config);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, knowledgeBaseId, config);
+        }
+    }
+}
\ No newline at end of file
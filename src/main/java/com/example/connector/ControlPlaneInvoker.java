@@ -0,0 +1,351 @@
+package com.example.connector;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Executes Bedrock Agent control-plane calls on behalf of connectors and managers.
+ * Transient failures are retried according to ConnectorConfig (retryAttempts, retryDelayMs)
+ * with decorrelated-jitter backoff, bounded by a retry budget. Anything else is
+ * surfaced immediately as a ConnectorException carrying the caller's message.
+ * Each operation also has its own circuit breaker, so a degraded operation fails fast
+ * with CircuitBreakerOpenException instead of tying up callers for the full SDK timeout.
+ * Idempotent reads can optionally be hedged (see {@link #invokeHedged}).
+ */
+public final class ControlPlaneInvoker {
+    private final RetryPolicy retryPolicy;
+    private final RetryBudget retryBudget;
+    private final ConnectorConfig config;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Map<String, LatencyTracker> latencyTrackers = new ConcurrentHashMap<>();
+    private final RetryBudget hedgeBudget;
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final SingleFlight singleFlight = new SingleFlight();
+    private volatile AdaptiveRateLimiter rateLimiter;
+    private volatile String tenant;
+    
+    public ControlPlaneInvoker(ConnectorConfig config) {
+        this.config = config;
+        this.retryPolicy = RetryPolicy.fromConfig(config);
+        this.retryBudget = new RetryBudget(config.getRetryBudgetRatio(), config.getMinRetriesPerSecond());
+        // No time-based allowance: hedges are strictly a fraction of hedgeable reads
+        this.hedgeBudget = new RetryBudget(config.getHedgeBudgetPercent() / 100.0, 0);
+    }
+    
+    /**
+     * Pace every attempt through a shared limiter; {@code tenant} selects the fair-share queue
+     */
+    public void setRateLimiter(AdaptiveRateLimiter rateLimiter, String tenant) {
+        this.rateLimiter = rateLimiter;
+        this.tenant = tenant;
+    }
+    
+    public AdaptiveRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+    
+    /**
+     * Run a blocking SDK call, retrying transient failures
+     *
+     * @param operation API operation name, e.g. "GetDataSource"
+     */
+    public <T> T invoke(String operation, Supplier<T> call, String errorMessage) throws ConnectorException {
+        retryBudget.recordRequest();
+        long delayMs = 0;
+        CircuitBreaker breaker = circuitBreaker(operation);
+        for (int retry = 0; ; retry++) {
+            if (breaker != null && !breaker.tryAcquirePermission()) {
+                throw circuitOpen(operation, errorMessage, breaker);
+            }
+            AdaptiveRateLimiter limiter = rateLimiter;
+            if (limiter != null) {
+                try {
+                    limiter.acquire(operation, tenant);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    if (breaker != null) {
+                        breaker.releasePermission();
+                    }
+                    throw new ConnectorException(errorMessage + " (interrupted waiting for " + operation + " permit)",
+                        interrupted);
+                }
+            }
+            long startNanos = System.nanoTime();
+            try {
+                T result = call.get();
+                recordOutcome(operation, limiter, breaker, startNanos, null);
+                return result;
+            } catch (RuntimeException e) {
+                recordOutcome(operation, limiter, breaker, startNanos, e);
+                if (!shouldRetry(retry, e)) {
+                    throw new ConnectorException(errorMessage, e);
+                }
+                delayMs = retryPolicy.nextDelayMs(delayMs);
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new ConnectorException(errorMessage + " (interrupted while retrying " + operation + ")", e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Run an idempotent blocking read with hedging. If the first request has not answered within
+     * the operation's hedgeDelayPercentile latency, a second request is sent and whichever succeeds
+     * first is returned. Hedges draw from a budget of hedgeBudgetPercent of calls; without budget,
+     * latency history or ConnectorConfig.hedgingEnabled this behaves exactly like {@link #invoke}.
+     */
+    public <T> T invokeHedged(String operation, Supplier<T> call, String errorMessage) throws ConnectorException {
+        if (!config.isHedgingEnabled()) {
+            return invoke(operation, call, errorMessage);
+        }
+        LatencyTracker tracker = latencyTrackers.computeIfAbsent(operation, op -> new LatencyTracker());
+        hedgeBudget.recordRequest();
+        long delayNanos = tracker.percentileNanos(config.getHedgeDelayPercentile());
+        if (delayNanos < 0) {
+            long startNanos = System.nanoTime();
+            T result = invoke(operation, call, errorMessage);
+            tracker.record(System.nanoTime() - startNanos);
+            return result;
+        }
+        delayNanos = Math.max(delayNanos, TimeUnit.MILLISECONDS.toNanos(config.getMinHedgeDelayMs()));
+        CompletableFuture<T> primary = submitTracked(tracker, operation, call, errorMessage);
+        try {
+            return primary.get(delayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Slower than usual: hedge below if the budget allows
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectorException(errorMessage + " (interrupted)", e);
+        } catch (ExecutionException e) {
+            throw hedgedFailure(e, errorMessage);
+        }
+        if (!hedgeBudget.tryAcquireRetry()) {
+            return awaitHedged(primary, errorMessage);
+        }
+        hedgesSent.incrementAndGet();
+        CompletableFuture<T> hedge = submitTracked(tracker, operation, call, errorMessage);
+        return awaitHedged(firstSuccessful(primary, hedge), errorMessage);
+    }
+    
+    /**
+     * Run an idempotent read, sharing one in-flight call among concurrent callers with the same
+     * operation and {@code key} (hedged like {@link #invokeHedged} when enabled)
+     */
+    public <T> T invokeCoalesced(String operation, String key, Supplier<T> call, String errorMessage)
+            throws ConnectorException {
+        return singleFlight.execute(operation + "/" + key, () -> invokeHedged(operation, call, errorMessage));
+    }
+    
+    private <T> CompletableFuture<T> submitTracked(LatencyTracker tracker,
+                                                   String operation,
+                                                   Supplier<T> call,
+                                                   String errorMessage) {
+        return CompletableFuture.supplyAsync(() -> {
+            long startNanos = System.nanoTime();
+            try {
+                T result = invoke(operation, call, errorMessage);
+                // Losers are recorded too, so the percentile keeps seeing the real tail
+                tracker.record(System.nanoTime() - startNanos);
+                return result;
+            } catch (ConnectorException e) {
+                throw new CompletionException(e);
+            }
+        }, ConnectorExecutors.background());
+    }
+    
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> primary, CompletableFuture<T> hedge) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> attempt : Arrays.asList(primary, hedge)) {
+            attempt.whenComplete((value, error) -> {
+                if (error == null) {
+                    winner.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        }
+        return winner;
+    }
+    
+    private static <T> T awaitHedged(CompletableFuture<T> future, String errorMessage) throws ConnectorException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectorException(errorMessage + " (interrupted)", e);
+        } catch (ExecutionException e) {
+            throw hedgedFailure(e, errorMessage);
+        }
+    }
+    
+    private static ConnectorException hedgedFailure(ExecutionException e, String errorMessage) {
+        Throwable cause = AsyncCalls.unwrap(e);
+        return cause instanceof ConnectorException
+            ? (ConnectorException) cause
+            : new ConnectorException(errorMessage, cause);
+    }
+    
+    /**
+     * Run an async SDK call, retrying transient failures without blocking a thread during backoff.
+     * Cancelling the returned future cancels the in-flight attempt and any pending retry.
+     */
+    public <T> CompletableFuture<T> invokeAsync(String operation,
+                                                Supplier<CompletableFuture<T>> call,
+                                                String errorMessage) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<?>> inFlight = new AtomicReference<>();
+        result.whenComplete((value, error) -> {
+            CompletableFuture<?> attempt = inFlight.get();
+            if (result.isCancelled() && attempt != null) {
+                attempt.cancel(true);
+            }
+        });
+        retryBudget.recordRequest();
+        attemptAsync(operation, call, errorMessage, 0, 0L, inFlight, result);
+        return result;
+    }
+    
+    private <T> void attemptAsync(String operation,
+                                  Supplier<CompletableFuture<T>> call,
+                                  String errorMessage,
+                                  int retry,
+                                  long previousDelayMs,
+                                  AtomicReference<CompletableFuture<?>> inFlight,
+                                  CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return;
+        }
+        CircuitBreaker breaker = circuitBreaker(operation);
+        if (breaker != null && !breaker.tryAcquirePermission()) {
+            result.completeExceptionally(circuitOpen(operation, errorMessage, breaker));
+            return;
+        }
+        AdaptiveRateLimiter limiter = rateLimiter;
+        CompletableFuture<Void> permit = limiter != null
+            ? limiter.acquireAsync(operation, tenant)
+            : CompletableFuture.completedFuture(null);
+        inFlight.set(permit);
+        permit.whenComplete((granted, permitError) -> {
+            if (result.isDone() || permitError != null) {
+                if (breaker != null) {
+                    breaker.releasePermission();
+                }
+                if (permitError != null) {
+                    result.completeExceptionally(new ConnectorException(errorMessage, AsyncCalls.unwrap(permitError)));
+                }
+                return;
+            }
+            long startNanos = System.nanoTime();
+            CompletableFuture<T> attempt = AsyncCalls.call(call, errorMessage);
+            inFlight.set(attempt);
+            attempt.whenComplete((value, error) -> {
+                Throwable failure = error != null ? AsyncCalls.unwrap(error) : null;
+                recordOutcome(operation, limiter, breaker, startNanos, failure);
+                if (failure == null) {
+                    result.complete(value);
+                    return;
+                }
+                if (!shouldRetry(retry, failure)) {
+                    result.completeExceptionally(failure);
+                    return;
+                }
+                long delayMs = retryPolicy.nextDelayMs(previousDelayMs);
+                CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS).execute(() ->
+                    attemptAsync(operation, call, errorMessage, retry + 1, delayMs, inFlight, result));
+            });
+        });
+    }
+    
+    /**
+     * Feed one attempt's outcome to the limiter and the breaker. Only server-side failures
+     * and timeouts count against the circuit; throttling is the limiter's job and client
+     * errors say nothing about service health.
+     */
+    private void recordOutcome(String operation,
+                               AdaptiveRateLimiter limiter,
+                               CircuitBreaker breaker,
+                               long startNanos,
+                               Throwable failure) {
+        boolean throttled = failure != null && RetryPolicy.isThrottling(failure);
+        if (limiter != null) {
+            if (throttled) {
+                limiter.onThrottle(operation);
+            } else if (failure == null) {
+                limiter.onSuccess(operation);
+            }
+        }
+        if (breaker != null) {
+            boolean degraded = failure != null && !throttled && RetryPolicy.isRetryable(failure);
+            breaker.onResult(System.nanoTime() - startNanos, degraded);
+        }
+    }
+    
+    private CircuitBreaker circuitBreaker(String operation) {
+        if (!config.isCircuitBreakerEnabled()) {
+            return null;
+        }
+        return circuitBreakers.computeIfAbsent(operation, op -> new CircuitBreaker(op, config));
+    }
+    
+    private static CircuitBreakerOpenException circuitOpen(String operation, String errorMessage, CircuitBreaker breaker) {
+        return new CircuitBreakerOpenException(errorMessage + " (circuit open for " + operation + ", retry in "
+            + breaker.getRemainingOpenMillis() + " ms)", operation);
+    }
+    
+    private boolean shouldRetry(int retry, Throwable failure) {
+        return retry < retryPolicy.getMaxRetries()
+            && RetryPolicy.isRetryable(failure)
+            && retryBudget.tryAcquireRetry();
+    }
+    
+    /**
+     * Circuit state of an operation; CLOSED when it has not been called yet
+     */
+    public CircuitBreaker.State getCircuitState(String operation) {
+        CircuitBreaker breaker = circuitBreakers.get(operation);
+        return breaker != null ? breaker.getState() : CircuitBreaker.State.CLOSED;
+    }
+    
+    /**
+     * Breakers of all operations called so far, keyed by operation name
+     */
+    public Map<String, CircuitBreaker> getCircuitBreakers() {
+        return Collections.unmodifiableMap(circuitBreakers);
+    }
+    
+    /**
+     * Hedged (second) requests sent so far
+     */
+    public long getHedgesSent() {
+        return hedgesSent.get();
+    }
+    
+    /**
+     * Reads answered by a concurrent identical call instead of their own request
+     */
+    public long getCoalescedReads() {
+        return singleFlight.getCoalescedCalls();
+    }
+    
+    /**
+     * Retry tokens currently available to this invoker
+     */
+    public double getRetryBudgetBalance() {
+        return retryBudget.getBalance();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.example.connector;
+
+/**
+ * Counters of one AsyncWebCrawler run
+ */
+public final class CrawlResult {
+    private final long pagesFetched;
+    private final long pagesStored;
+    private final long sinkFailures;
+    private final long fetchErrors;
+    private final long robotsDisallowed;
+    private final long filtered;
+    private final long bytesFetched;
+    private final int hosts;
+    private final long elapsedMillis;
+    private final boolean pageLimitReached;
+    
+    CrawlResult(long pagesFetched, long pagesStored, long sinkFailures, long fetchErrors, long robotsDisallowed,
+                long filtered, long bytesFetched, int hosts, long elapsedMillis, boolean pageLimitReached) {
+        this.pagesFetched = pagesFetched;
+        this.pagesStored = pagesStored;
+        this.sinkFailures = sinkFailures;
+        this.fetchErrors = fetchErrors;
+        this.robotsDisallowed = robotsDisallowed;
+        this.filtered = filtered;
+        this.bytesFetched = bytesFetched;
+        this.hosts = hosts;
+        this.elapsedMillis = elapsedMillis;
+        this.pageLimitReached = pageLimitReached;
+    }
+    
+    /** Pages fetched with a 2xx response and handed to the sink */
+    public long getPagesFetched() { return pagesFetched; }
+    /** Pages the sink accepted */
+    public long getPagesStored() { return pagesStored; }
+    public long getSinkFailures() { return sinkFailures; }
+    /** Network errors, timeouts, error statuses and oversized pages */
+    public long getFetchErrors() { return fetchErrors; }
+    /** URLs skipped because robots.txt disallows them */
+    public long getRobotsDisallowed() { return robotsDisallowed; }
+    /** Links dropped by scope, inclusion/exclusion filters or maxDepth */
+    public long getFiltered() { return filtered; }
+    public long getBytesFetched() { return bytesFetched; }
+    /** Hosts contacted; a host dropped while idle and reached again later counts again */
+    public int getHosts() { return hosts; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    /** The crawl stopped discovering pages at maxPages */
+    public boolean isPageLimitReached() { return pageLimitReached; }
+    
+    public double getPagesPerSecond() {
+        return elapsedMillis > 0 ? pagesFetched * 1000.0 / elapsedMillis : 0;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("CrawlResult{fetched=%d, stored=%d, sinkFailures=%d, fetchErrors=%d, robotsDisallowed=%d, "
+            + "filtered=%d, bytes=%d, hosts=%d, elapsedMs=%d, pagesPerSecond=%.1f}", pagesFetched, pagesStored,
+            sinkFailures, fetchErrors, robotsDisallowed, filtered, bytesFetched, hosts, elapsedMillis,
+            getPagesPerSecond());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.example.connector;
+
+/**
+ * Receives every page AsyncWebCrawler fetches, as soon as it is fetched.
+ *
+ * Called from background threads, possibly for several pages at once. Deliveries count against the
+ * crawler's in-flight limit, so a slow sink slows the crawl down instead of piling up pages.
+ */
+@FunctionalInterface
+public interface CrawlSink {
+    
+    /**
+     * Store one page; a failure is counted and the crawl continues
+     */
+    void accept(CrawledPage page) throws ConnectorException;
+}
\ No newline at end of file
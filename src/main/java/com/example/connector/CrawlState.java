@@ -0,0 +1,34 @@
+package com.example.connector;
+
+/**
+ * Visited set and frontier of one AsyncWebCrawler run.
+ *
+ * InMemoryCrawlState suits small sites; DiskCrawlState keeps heap use flat for crawls of tens of
+ * millions of URLs. Implementations report storage failures as UncheckedIOException, which fails
+ * the crawl. Implementations must be thread-safe: the crawler calls them from several threads at
+ * once, outside its own lock. The caller owns the state and closes it after the crawl.
+ */
+public interface CrawlState extends AutoCloseable {
+    
+    /**
+     * Record the URL as seen; false when it had been seen before
+     */
+    boolean markSeen(String url);
+    
+    /**
+     * Add a URL to the frontier
+     */
+    void push(String url, int depth);
+    
+    /**
+     * Next URL to crawl, or null when the frontier is empty
+     */
+    FrontierEntry poll();
+    
+    long getSeenCount();
+    
+    long getFrontierSize();
+    
+    @Override
+    void close();
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.example.connector;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A page fetched by AsyncWebCrawler, handed to its CrawlSink
+ */
+public final class CrawledPage {
+    private final String url;
+    private final int depth;
+    private final String contentType;
+    private final byte[] body;
+    private final List<String> links;
+    private final Instant fetchedAt;
+    
+    CrawledPage(String url, int depth, String contentType, byte[] body, List<String> links, Instant fetchedAt) {
+        this.url = url;
+        this.depth = depth;
+        this.contentType = contentType;
+        this.body = body;
+        this.links = Collections.unmodifiableList(links);
+        this.fetchedAt = fetchedAt;
+    }
+    
+    public String getUrl() { return url; }
+    /** Link hops from the nearest seed URL (seeds are depth 0) */
+    public int getDepth() { return depth; }
+    /** Media type without parameters, or null when the server sent none */
+    public String getContentType() { return contentType; }
+    public long getContentLength() { return body.length; }
+    /** Outgoing links found on the page, before scope and filter checks */
+    public List<String> getLinks() { return links; }
+    public Instant getFetchedAt() { return fetchedAt; }
+    
+    public InputStream openStream() {
+        return new ByteArrayInputStream(body);
+    }
+    
+    public boolean isHtml() {
+        return contentType != null
+            && (contentType.equalsIgnoreCase("text/html") || contentType.equalsIgnoreCase("application/xhtml+xml"));
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("CrawledPage{url=%s, depth=%d, contentType=%s, bytes=%d, links=%d}",
+            url, depth, contentType, body.length, links.size());
+    }
+}
\ No newline at end of file
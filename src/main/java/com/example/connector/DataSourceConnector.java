@@ -2,22 +2,107 @@ package com.example.connector;
 
 import software.amazon.awssdk.services.bedrockagent.BedrockAgentClient;
 import software.amazon.awssdk.services.bedrockagent.model.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Abstract base class for Knowledge Base data source connectors
  * Provides common functionality for managing data sources within Amazon Bedrock Knowledge Bases
  */
-public abstract class DataSourceConnector {
+public abstract class DataSourceConnector implements AutoCloseable {
+    /**
+     * Data sources waiting for admission at once in startIngestionForAll when parallel processing
+     * is enabled
+     */
+    public static final int DEFAULT_BULK_INGESTION_PARALLELISM = 8;
+    
+    /**
+     * Largest document batch IngestKnowledgeBaseDocuments accepts
+     */
+    public static final int MAX_DOCUMENTS_PER_REQUEST = 25;
+    
+    /**
+     * Concurrent IngestKnowledgeBaseDocuments batches used by ingestDocuments by default
+     */
+    public static final int DEFAULT_DOCUMENT_BATCHES_IN_FLIGHT = 4;
+    
     protected final BedrockAgentClient bedrockClient;
     protected final String knowledgeBaseId;
     protected final ConnectorConfig config;
+    protected final ControlPlaneInvoker invoker;
+    private volatile MetadataCache metadataCache;
+    private volatile IngestionHistory ingestionHistory;
     
     public DataSourceConnector(BedrockAgentClient client, String knowledgeBaseId, ConnectorConfig config) {
         this.bedrockClient = client;
         this.knowledgeBaseId = knowledgeBaseId;
         this.config = config;
+        this.invoker = new ControlPlaneInvoker(config);
+    }
+    
+    /**
+     * Pace calls through a shared rate limiter, sharing it fairly with other knowledge bases
+     */
+    public void setRateLimiter(AdaptiveRateLimiter rateLimiter) {
+        invoker.setRateLimiter(rateLimiter, knowledgeBaseId);
+    }
+    
+    /**
+     * Serve getDataSource / dataSourceExists from a shared metadata cache (null disables caching)
+     */
+    public void setMetadataCache(MetadataCache metadataCache) {
+        this.metadataCache = metadataCache;
+    }
+    
+    public MetadataCache getMetadataCache() {
+        return metadataCache;
+    }
+    
+    /**
+     * Record jobs seen to complete by waitForIngestion in this history (null disables tracking)
+     */
+    public void setIngestionHistory(IngestionHistory ingestionHistory) {
+        this.ingestionHistory = ingestionHistory;
+    }
+    
+    public IngestionHistory getIngestionHistory() {
+        return ingestionHistory;
+    }
+    
+    /**
+     * Recent completed runs of the data source, oldest first (empty without an ingestion history)
+     */
+    public List<KmsIngestionStats> getIngestionRuns(String dataSourceId) {
+        IngestionHistory history = ingestionHistory;
+        return history != null ? history.getRuns(knowledgeBaseId, dataSourceId) : Collections.emptyList();
+    }
+    
+    /**
+     * Duration, throughput and failure-rate regressions of the data source's latest completed run
+     */
+    public List<IngestionRegression> getIngestionRegressions(String dataSourceId) {
+        IngestionHistory history = ingestionHistory;
+        return history != null ? history.getRegressions(knowledgeBaseId, dataSourceId) : Collections.emptyList();
+    }
+    
+    /**
+     * Release resources owned by this connector. The Bedrock client is shared and stays open;
+     * a closed connector can still serve calls from callers that already hold it.
+     */
+    @Override
+    public void close() {
     }
     
     /**
@@ -46,85 +131,353 @@ public abstract class DataSourceConnector {
      * List all data sources for the knowledge base
      */
     public ListDataSourcesResponse listDataSources() throws ConnectorException {
-        try {
+        ListDataSourcesRequest request = ListDataSourcesRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .maxResults(config.getMaxResults())
+            .build();
+        return invoker.invoke("ListDataSources", () -> bedrockClient.listDataSources(request),
+            "Failed to list data sources");
+    }
+    
+    /**
+     * Stream every data source in the knowledge base, following nextToken across pages.
+     * The next page is prefetched while the current one is consumed; close the stream
+     * (try-with-resources) to stop early. Failures surface as UncheckedConnectorException.
+     */
+    public Stream<DataSourceSummary> streamDataSources() {
+        return PrefetchingPaginator.stream(nextToken -> {
             ListDataSourcesRequest request = ListDataSourcesRequest.builder()
                 .knowledgeBaseId(knowledgeBaseId)
                 .maxResults(config.getMaxResults())
+                .nextToken(nextToken)
                 .build();
-            return bedrockClient.listDataSources(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to list data sources", e);
-        }
+            ListDataSourcesResponse response = invoker.invoke("ListDataSources",
+                () -> bedrockClient.listDataSources(request), "Failed to list data sources");
+            return new PrefetchingPaginator.Page<>(response.dataSourceSummaries(), response.nextToken());
+        }, "Failed to list data sources");
     }
     
     /**
-     * Get data source details with error handling
+     * Get data source details with error handling. Answers come from the metadata cache when one
+     * is set; otherwise concurrent calls for the same data source share one request, which is
+     * hedged when ConnectorConfig.hedgingEnabled is set.
      */
     public GetDataSourceResponse getDataSource(String dataSourceId) throws ConnectorException {
+        MetadataCache cache = metadataCache;
+        String cacheKey = dataSourceCacheKey(knowledgeBaseId, dataSourceId);
+        if (cache != null) {
+            MetadataCache.Entry cached = cache.get(cacheKey);
+            if (cached != null) {
+                if (cached.isNotFound()) {
+                    throw new ConnectorException("Data source not found: " + dataSourceId, cached.getNotFoundCause());
+                }
+                return (GetDataSourceResponse) cached.getValue();
+            }
+        }
+        GetDataSourceRequest request = GetDataSourceRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .build();
+        long generation = cache != null ? cache.generation(cacheKey) : 0;
         try {
-            GetDataSourceRequest request = GetDataSourceRequest.builder()
-                .knowledgeBaseId(knowledgeBaseId)
-                .dataSourceId(dataSourceId)
-                .build();
-            return bedrockClient.getDataSource(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to get data source: " + dataSourceId, e);
+            GetDataSourceResponse response = invoker.invokeCoalesced("GetDataSource", dataSourceId,
+                () -> bedrockClient.getDataSource(request),
+                "Failed to get data source: " + dataSourceId);
+            if (cache != null) {
+                cache.put(cacheKey, response, generation);
+            }
+            return response;
+        } catch (ConnectorException e) {
+            if (cache != null && RetryPolicy.isNotFound(e)) {
+                cache.putNotFound(cacheKey, RetryPolicy.notFoundCause(e), generation);
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Run an update or delete of a data source and drop its cached metadata. The entry is
+     * dropped even when the call fails, since a timed-out write may still have been applied.
+     */
+    protected <T> T invokeDataSourceWrite(String operation, String dataSourceId, Supplier<T> call, String errorMessage)
+            throws ConnectorException {
+        try {
+            return invoker.invoke(operation, call, errorMessage);
+        } finally {
+            MetadataCache cache = metadataCache;
+            if (cache != null) {
+                cache.invalidate(dataSourceCacheKey(knowledgeBaseId, dataSourceId));
+            }
         }
     }
     
+    static String dataSourceCacheKey(String knowledgeBaseId, String dataSourceId) {
+        return "DataSource/" + knowledgeBaseId + "/" + dataSourceId;
+    }
+    
     /**
      * Start ingestion job with monitoring
      */
     public StartIngestionJobResponse startIngestion(String dataSourceId, String clientToken) throws ConnectorException {
+        // A fixed token keeps retried attempts idempotent instead of starting duplicate jobs
+        StartIngestionJobRequest request = StartIngestionJobRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .clientToken(clientToken != null ? clientToken : UUID.randomUUID().toString())
+            .build();
+        return invoker.invoke("StartIngestionJob", () -> bedrockClient.startIngestionJob(request),
+            "Failed to start ingestion for data source: " + dataSourceId);
+    }
+    
+    /**
+     * Start ingestion for every data source in the knowledge base
+     */
+    public BulkIngestionResult startIngestionForAll(KmsIngestionOptions options) throws ConnectorException {
+        return startIngestionForAll(summary -> true, options, DEFAULT_BULK_INGESTION_PARALLELISM);
+    }
+    
+    /**
+     * Start ingestion for each data source of the knowledge base accepted by the filter, queued
+     * through an IngestionScheduler created for this call with its default job limits (one running
+     * job per knowledge base, five per account) and closed when every start has been admitted
+     *
+     * @throws ConnectorException if the data sources cannot be listed
+     */
+    public BulkIngestionResult startIngestionForAll(Predicate<DataSourceSummary> filter, KmsIngestionOptions options,
+                                                    int maxParallelism) throws ConnectorException {
+        try (IngestionMonitor monitor = IngestionMonitor.builder().client(bedrockClient).config(config).build();
+             IngestionScheduler scheduler = IngestionScheduler.builder().monitor(monitor).build()) {
+            return startIngestionForAll(filter, options, maxParallelism, scheduler);
+        }
+    }
+    
+    /**
+     * Start ingestion for each data source of the knowledge base accepted by the filter. Every start
+     * is submitted to the scheduler, which holds it until the knowledge base and the account are
+     * below their job limits, so starts queue instead of failing with a conflict. With
+     * options.isParallelProcessingEnabled() up to maxParallelism data sources wait for admission at
+     * once; otherwise each is submitted once the previous one has started, in listing order. A client
+     * token in the options is suffixed with each data source ID so every start stays idempotent.
+     *
+     * Blocks until every start has been admitted; with one job per knowledge base that is once all
+     * but the last data source have finished ingesting. Failed starts are reported per data source,
+     * not thrown.
+     *
+     * @throws ConnectorException if the data sources cannot be listed
+     */
+    public BulkIngestionResult startIngestionForAll(Predicate<DataSourceSummary> filter, KmsIngestionOptions options,
+                                                    int maxParallelism, IngestionScheduler scheduler)
+            throws ConnectorException {
+        long startNanos = System.nanoTime();
+        List<DataSourceSummary> dataSources;
+        try (Stream<DataSourceSummary> stream = streamDataSources()) {
+            dataSources = stream.filter(filter).collect(Collectors.toList());
+        } catch (UncheckedConnectorException e) {
+            throw e.getCause();
+        }
+        boolean parallel = options.isParallelProcessingEnabled();
+        BulkExecutor executor = BulkExecutor.builder()
+            .maxConcurrency(parallel ? Math.max(1, maxParallelism) : 1)
+            .build();
+        String clientToken = options.getClientToken();
+        List<BulkResult<DataSourceSummary, StartIngestionJobResponse>> results = executor.execute(dataSources,
+            summary -> awaitAdmission(summary.dataSourceId(), scheduler.submit(this, summary.dataSourceId(),
+                clientToken != null ? clientToken + "-" + summary.dataSourceId() : null, 0, null)));
+        return new BulkIngestionResult(results, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+            parallel);
+    }
+    
+    private static StartIngestionJobResponse awaitAdmission(String dataSourceId,
+                                                            CompletableFuture<StartIngestionJobResponse> start)
+            throws ConnectorException {
         try {
-            StartIngestionJobRequest.Builder requestBuilder = StartIngestionJobRequest.builder()
-                .knowledgeBaseId(knowledgeBaseId)
-                .dataSourceId(dataSourceId);
-                
-            if (clientToken != null) {
-                requestBuilder.clientToken(clientToken);
+            return start.get();
+        } catch (InterruptedException e) {
+            start.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new ConnectorException("Interrupted while waiting to start ingestion for data source: "
+                + dataSourceId, e);
+        } catch (ExecutionException e) {
+            Throwable cause = AsyncCalls.unwrap(e);
+            if (cause instanceof ConnectorException) {
+                throw (ConnectorException) cause;
+            }
+            throw new ConnectorException("Failed to start ingestion for data source: " + dataSourceId, cause);
+        }
+    }
+    
+    /**
+     * Push documents straight into a data source without an ingestion job, using
+     * DEFAULT_DOCUMENT_BATCHES_IN_FLIGHT concurrent batches
+     */
+    public List<BulkResult<KnowledgeBaseDocument, KnowledgeBaseDocumentDetail>> ingestDocuments(
+            String dataSourceId, List<KnowledgeBaseDocument> documents, KmsIngestionOptions options) {
+        return ingestDocuments(dataSourceId, documents, options, DEFAULT_DOCUMENT_BATCHES_IN_FLIGHT);
+    }
+    
+    /**
+     * Push documents (see KnowledgeBaseDocuments) straight into a data source with
+     * IngestKnowledgeBaseDocuments, in batches of options.getBatchSize() (capped at the API's
+     * MAX_DOCUMENTS_PER_REQUEST). At most batchesInFlight batches are outstanding; further batches
+     * wait for a free slot, so a large push cannot outrun the rate limiter or flood the service.
+     *
+     * Returns one result per document in input order. A succeeded result carries the service's
+     * status detail (indexing continues asynchronously, e.g. STARTING or IN_PROGRESS); a failed
+     * result carries the error of its batch.
+     */
+    public List<BulkResult<KnowledgeBaseDocument, KnowledgeBaseDocumentDetail>> ingestDocuments(
+            String dataSourceId, List<KnowledgeBaseDocument> documents, KmsIngestionOptions options,
+            int batchesInFlight) {
+        int batchSize = Math.max(1, Math.min(options.getBatchSize(), MAX_DOCUMENTS_PER_REQUEST));
+        List<List<KnowledgeBaseDocument>> batches = new ArrayList<>();
+        List<Integer> batchIndexes = new ArrayList<>();
+        for (int from = 0; from < documents.size(); from += batchSize) {
+            batchIndexes.add(batches.size());
+            batches.add(documents.subList(from, Math.min(documents.size(), from + batchSize)));
+        }
+        String clientToken = options.getClientToken();
+        BulkExecutor executor = BulkExecutor.builder()
+            .maxConcurrency(Math.max(1, batchesInFlight))
+            .build();
+        List<BulkResult<Integer, IngestKnowledgeBaseDocumentsResponse>> batchResults =
+            executor.execute(batchIndexes, index -> {
+                List<KnowledgeBaseDocument> batch = batches.get(index);
+                IngestKnowledgeBaseDocumentsRequest request = IngestKnowledgeBaseDocumentsRequest.builder()
+                    .knowledgeBaseId(knowledgeBaseId)
+                    .dataSourceId(dataSourceId)
+                    .clientToken(clientToken != null
+                        ? clientToken + "-" + index : UUID.randomUUID().toString())
+                    .documents(batch)
+                    .build();
+                return invoker.invoke("IngestKnowledgeBaseDocuments",
+                    () -> bedrockClient.ingestKnowledgeBaseDocuments(request),
+                    "Failed to ingest " + batch.size() + " documents into data source: " + dataSourceId);
+            });
+        
+        List<BulkResult<KnowledgeBaseDocument, KnowledgeBaseDocumentDetail>> results = new ArrayList<>();
+        for (BulkResult<Integer, IngestKnowledgeBaseDocumentsResponse> batchResult : batchResults) {
+            Map<String, KnowledgeBaseDocumentDetail> details = new HashMap<>();
+            if (batchResult.isSuccess()) {
+                for (KnowledgeBaseDocumentDetail detail : batchResult.getValue().documentDetails()) {
+                    details.put(KnowledgeBaseDocuments.identityOf(detail.identifier()), detail);
+                }
+            }
+            for (KnowledgeBaseDocument document : batches.get(batchResult.getItem())) {
+                KnowledgeBaseDocumentDetail detail = details.get(KnowledgeBaseDocuments.identityOf(document));
+                if (detail != null) {
+                    results.add(BulkResult.succeeded(document, detail));
+                } else if (batchResult.getStatus() == BulkResult.Status.CANCELLED) {
+                    results.add(BulkResult.cancelled(document));
+                } else {
+                    results.add(BulkResult.failed(document, batchResult.isSuccess()
+                        ? new ConnectorException("No status returned for document: "
+                            + KnowledgeBaseDocuments.identityOf(document))
+                        : batchResult.getError()));
+                }
             }
-            
-            return bedrockClient.startIngestionJob(requestBuilder.build());
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to start ingestion for data source: " + dataSourceId, e);
         }
+        return results;
     }
     
     /**
-     * Get ingestion job status
+     * Get ingestion job status. Concurrent calls for the same job share one request,
+     * which is hedged when ConnectorConfig.hedgingEnabled is set.
      */
     public GetIngestionJobResponse getIngestionJob(String dataSourceId, String ingestionJobId) throws ConnectorException {
+        GetIngestionJobRequest request = GetIngestionJobRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .ingestionJobId(ingestionJobId)
+            .build();
+        return invoker.invokeCoalesced("GetIngestionJob", dataSourceId + "/" + ingestionJobId,
+            () -> bedrockClient.getIngestionJob(request),
+            "Failed to get ingestion job status");
+    }
+    
+    /**
+     * Block until the ingestion job is COMPLETE, FAILED or STOPPED, polling with
+     * IngestionWaitOptions.defaultOptions()
+     */
+    public GetIngestionJobResponse waitForIngestion(String dataSourceId, String ingestionJobId)
+            throws ConnectorException {
+        return waitForIngestion(dataSourceId, ingestionJobId, IngestionWaitOptions.defaultOptions());
+    }
+    
+    /**
+     * Block until the ingestion job is COMPLETE, FAILED or STOPPED and return its final state.
+     * Interrupting the caller stops polling.
+     *
+     * @throws ConnectorException if a poll fails, the job outlives maxWaitMs, or the caller is interrupted
+     */
+    public GetIngestionJobResponse waitForIngestion(String dataSourceId, String ingestionJobId,
+                                                    IngestionWaitOptions options) throws ConnectorException {
+        CompletableFuture<GetIngestionJobResponse> future =
+            waitForIngestionAsync(dataSourceId, ingestionJobId, options);
         try {
-            GetIngestionJobRequest request = GetIngestionJobRequest.builder()
-                .knowledgeBaseId(knowledgeBaseId)
-                .dataSourceId(dataSourceId)
-                .ingestionJobId(ingestionJobId)
-                .build();
-            return bedrockClient.getIngestionJob(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to get ingestion job status", e);
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new ConnectorException("Interrupted while waiting for ingestion job: " + ingestionJobId, e);
+        } catch (ExecutionException e) {
+            Throwable cause = AsyncCalls.unwrap(e);
+            if (cause instanceof ConnectorException) {
+                throw (ConnectorException) cause;
+            }
+            throw new ConnectorException("Failed to wait for ingestion job: " + ingestionJobId, cause);
         }
     }
     
+    /**
+     * Wait for the ingestion job without holding a thread. The future completes with the final
+     * state or a ConnectorException; cancel it to stop polling. A completed job is added to the
+     * ingestion history before the future completes.
+     */
+    public CompletableFuture<GetIngestionJobResponse> waitForIngestionAsync(String dataSourceId,
+                                                                             String ingestionJobId,
+                                                                             IngestionWaitOptions options) {
+        return IngestionWaiter.start(() -> {
+            GetIngestionJobResponse response = getIngestionJob(dataSourceId, ingestionJobId);
+            IngestionHistory history = ingestionHistory;
+            if (history != null && response.ingestionJob() != null) {
+                history.record(response.ingestionJob());
+            }
+            return response;
+        }, options, "ingestion job " + ingestionJobId);
+    }
+    
     /**
      * List ingestion jobs for a data source
      */
     public ListIngestionJobsResponse listIngestionJobs(String dataSourceId) throws ConnectorException {
-        try {
+        ListIngestionJobsRequest request = ListIngestionJobsRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .maxResults(config.getMaxResults())
+            .build();
+        return invoker.invoke("ListIngestionJobs", () -> bedrockClient.listIngestionJobs(request),
+            "Failed to list ingestion jobs");
+    }
+    
+    /**
+     * Stream every ingestion job of a data source across all pages, with background prefetch
+     */
+    public Stream<IngestionJobSummary> streamIngestionJobs(String dataSourceId) {
+        return PrefetchingPaginator.stream(nextToken -> {
             ListIngestionJobsRequest request = ListIngestionJobsRequest.builder()
                 .knowledgeBaseId(knowledgeBaseId)
                 .dataSourceId(dataSourceId)
                 .maxResults(config.getMaxResults())
+                .nextToken(nextToken)
                 .build();
-            return bedrockClient.listIngestionJobs(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to list ingestion jobs", e);
-        }
+            ListIngestionJobsResponse response = invoker.invoke("ListIngestionJobs",
+                () -> bedrockClient.listIngestionJobs(request), "Failed to list ingestion jobs");
+            return new PrefetchingPaginator.Page<>(response.ingestionJobSummaries(), response.nextToken());
+        }, "Failed to list ingestion jobs");
     }
     
     /**
-     * Check if data source exists
+     * Check if data source exists (served from the metadata cache when one is set)
      */
     public boolean dataSourceExists(String dataSourceId) {
         try {
@@ -135,6 +488,34 @@ public abstract class DataSourceConnector {
         }
     }
     
+    /**
+     * Circuit breaker state of one operation, e.g. getCircuitState("GetDataSource")
+     */
+    public CircuitBreaker.State getCircuitState(String operation) {
+        return invoker.getCircuitState(operation);
+    }
+    
+    /**
+     * Circuit breakers of every operation this connector has called
+     */
+    public Map<String, CircuitBreaker> getCircuitBreakers() {
+        return invoker.getCircuitBreakers();
+    }
+    
+    /**
+     * Hedged read requests this connector has sent
+     */
+    public long getHedgesSent() {
+        return invoker.getHedgesSent();
+    }
+    
+    /**
+     * Reads served by sharing another caller's identical in-flight request
+     */
+    public long getCoalescedReads() {
+        return invoker.getCoalescedReads();
+    }
+    
     // Getters
     public String getKnowledgeBaseId() {
         return knowledgeBaseId;
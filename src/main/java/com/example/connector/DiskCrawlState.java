@@ -0,0 +1,182 @@
+package com.example.connector;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Crawl state for crawls of tens of millions of URLs, with heap use that does not grow with the
+ * crawl.
+ *
+ * The visited set is a memory-mapped Bloom filter in front of an exact on-disk URL set
+ * (UrlFingerprintStore). A Bloom miss proves a URL new, so it is appended without reading the disk.
+ * A hit, which is either a real duplicate or a false positive, is settled by the exact set. The
+ * frontier is a DiskFrontier with one level per crawl depth, so shallow pages are crawled first,
+ * and blocks beyond the in-memory buffers spill to segment files.
+ *
+ * Files live under the given directory and are deleted on close. Heap use is about
+ * tableEntries * 32 bytes plus frontierLevels * 2 * frontierBufferEntries entries.
+ */
+public class DiskCrawlState implements CrawlState {
+    private final Path directory;
+    private final MappedBloomFilter bloomFilter;
+    private final UrlFingerprintStore urls;
+    private final DiskFrontier frontier;
+    private long bloomHits;
+    private long bloomFalsePositives;
+    
+    private DiskCrawlState(Builder builder) throws IOException {
+        this.directory = Files.createDirectories(builder.directory);
+        this.bloomFilter = new MappedBloomFilter(directory.resolve("seen.bloom"), builder.expectedUrls,
+            builder.falsePositiveRate);
+        this.urls = new UrlFingerprintStore(directory, builder.tableEntries);
+        this.frontier = new DiskFrontier(directory, builder.frontierLevels, builder.frontierBufferEntries);
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    @Override
+    public synchronized boolean markSeen(String url) {
+        byte[] bytes = url.getBytes(StandardCharsets.UTF_8);
+        long fingerprint = UrlFingerprintStore.fingerprint(bytes);
+        try {
+            if (bloomFilter.mightContain(fingerprint)) {
+                bloomHits++;
+                if (urls.contains(fingerprint, bytes)) {
+                    return false;
+                }
+                bloomFalsePositives++;
+            } else {
+                bloomFilter.put(fingerprint);
+            }
+            urls.insert(fingerprint, bytes);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Crawl state visited set failed in " + directory, e);
+        }
+    }
+    
+    @Override
+    public synchronized void push(String url, int depth) {
+        try {
+            frontier.push(url, depth, depth);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Crawl frontier failed in " + directory, e);
+        }
+    }
+    
+    @Override
+    public synchronized FrontierEntry poll() {
+        try {
+            return frontier.poll();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Crawl frontier failed in " + directory, e);
+        }
+    }
+    
+    @Override
+    public synchronized long getSeenCount() {
+        return urls.size();
+    }
+    
+    @Override
+    public synchronized long getFrontierSize() {
+        return frontier.size();
+    }
+    
+    /** Size of the memory-mapped Bloom filter */
+    public long getBloomFilterBytes() { return bloomFilter.getSizeBytes(); }
+    /** URL log and sorted runs of the exact visited set */
+    public synchronized long getVisitedSetDiskBytes() { return urls.getDiskBytes(); }
+    public synchronized long getFrontierSpilledBytes() { return frontier.getSpilledBytes(); }
+    /** markSeen calls the Bloom filter could not answer alone */
+    public synchronized long getBloomHits() { return bloomHits; }
+    /** Bloom hits that turned out to be new URLs */
+    public synchronized long getBloomFalsePositives() { return bloomFalsePositives; }
+    
+    /**
+     * Delete the state's files; the directory itself is left in place
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            urls.close();
+            frontier.close();
+            Files.deleteIfExists(directory.resolve("seen.bloom"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete crawl state in " + directory, e);
+        }
+    }
+    
+    public static class Builder {
+        private Path directory;
+        private long expectedUrls = 10_000_000;
+        private double falsePositiveRate = 0.01;
+        private int tableEntries = 1 << 18;
+        private int frontierLevels = 8;
+        private int frontierBufferEntries = 4096;
+        
+        /**
+         * Directory for the state's files (created if missing); use local disk
+         */
+        public Builder directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+        
+        /**
+         * URLs the Bloom filter is sized for; beyond it lookups hit the disk more often
+         */
+        public Builder expectedUrls(long expectedUrls) {
+            this.expectedUrls = expectedUrls;
+            return this;
+        }
+        
+        public Builder falsePositiveRate(double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+            return this;
+        }
+        
+        /**
+         * URLs buffered in memory before a sorted run is written
+         */
+        public Builder tableEntries(int tableEntries) {
+            this.tableEntries = tableEntries;
+            return this;
+        }
+        
+        /**
+         * Frontier priority levels, one per depth; deeper URLs share the last level
+         */
+        public Builder frontierLevels(int frontierLevels) {
+            this.frontierLevels = frontierLevels;
+            return this;
+        }
+        
+        /**
+         * Frontier entries held in memory per block
+         */
+        public Builder frontierBufferEntries(int frontierBufferEntries) {
+            this.frontierBufferEntries = frontierBufferEntries;
+            return this;
+        }
+        
+        public DiskCrawlState build() throws ConnectorException {
+            Objects.requireNonNull(directory, "directory");
+            if (expectedUrls < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1 || tableEntries < 1
+                    || frontierLevels < 1 || frontierBufferEntries < 1) {
+                throw new IllegalArgumentException("Invalid crawl state sizing");
+            }
+            try {
+                return new DiskCrawlState(this);
+            } catch (IOException e) {
+                throw new ConnectorException("Failed to create crawl state in " + directory, e);
+            }
+        }
+    }
+}
\ No newline at end of file
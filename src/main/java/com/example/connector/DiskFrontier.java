@@ -0,0 +1,151 @@
+package com.example.connector;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Priority frontier that spills to disk.
+ *
+ * One FIFO queue per priority level (0 is served first). Each queue keeps at most two blocks of
+ * bufferEntries in memory, the oldest entries for polling and the newest for appending; full blocks
+ * in between are written to segment files and read back in order. Heap use is bounded by
+ * levels * 2 * bufferEntries entries however long the frontier grows.
+ */
+final class DiskFrontier implements Closeable {
+    private final Path directory;
+    private final int bufferEntries;
+    private final SpillQueue[] levels;
+    private long segmentSequence;
+    private long size;
+    private long spilledBytes;
+    
+    DiskFrontier(Path directory, int levelCount, int bufferEntries) {
+        this.directory = directory;
+        this.bufferEntries = bufferEntries;
+        this.levels = new SpillQueue[levelCount];
+        for (int i = 0; i < levelCount; i++) {
+            levels[i] = new SpillQueue();
+        }
+    }
+    
+    /**
+     * Append a URL; priorities past the last level share it
+     */
+    void push(String url, int depth, int priority) throws IOException {
+        levels[Math.max(0, Math.min(priority, levels.length - 1))].add(new FrontierEntry(url, depth));
+        size++;
+    }
+    
+    FrontierEntry poll() throws IOException {
+        for (SpillQueue level : levels) {
+            FrontierEntry entry = level.poll();
+            if (entry != null) {
+                size--;
+                return entry;
+            }
+        }
+        return null;
+    }
+    
+    long size() {
+        return size;
+    }
+    
+    /**
+     * Bytes currently held in segment files
+     */
+    long getSpilledBytes() {
+        return spilledBytes;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        for (SpillQueue level : levels) {
+            for (Segment segment : level.segments) {
+                Files.deleteIfExists(segment.file);
+            }
+            level.segments.clear();
+        }
+    }
+    
+    private static final class Segment {
+        private final Path file;
+        private final long bytes;
+        
+        Segment(Path file, long bytes) {
+            this.file = file;
+            this.bytes = bytes;
+        }
+    }
+    
+    private final class SpillQueue {
+        private final ArrayDeque<FrontierEntry> head = new ArrayDeque<>();
+        private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+        private List<FrontierEntry> tail = new ArrayList<>();
+        
+        void add(FrontierEntry entry) throws IOException {
+            tail.add(entry);
+            if (tail.size() < bufferEntries) {
+                return;
+            }
+            if (head.isEmpty() && segments.isEmpty()) {
+                head.addAll(tail);
+            } else {
+                spill(tail);
+            }
+            tail = new ArrayList<>();
+        }
+        
+        FrontierEntry poll() throws IOException {
+            if (head.isEmpty()) {
+                if (!segments.isEmpty()) {
+                    load(segments.poll());
+                } else if (!tail.isEmpty()) {
+                    head.addAll(tail);
+                    tail = new ArrayList<>();
+                }
+            }
+            return head.poll();
+        }
+        
+        private void spill(List<FrontierEntry> entries) throws IOException {
+            Path file = directory.resolve(String.format("frontier-%08d.seg", segmentSequence++));
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                out.writeInt(entries.size());
+                for (FrontierEntry entry : entries) {
+                    byte[] url = entry.getUrl().getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(entry.getDepth());
+                    out.writeInt(url.length);
+                    out.write(url);
+                }
+            }
+            long bytes = Files.size(file);
+            segments.add(new Segment(file, bytes));
+            spilledBytes += bytes;
+        }
+        
+        private void load(Segment segment) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment.file)))) {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    int depth = in.readInt();
+                    byte[] url = new byte[in.readInt()];
+                    in.readFully(url);
+                    head.add(new FrontierEntry(new String(url, StandardCharsets.UTF_8), depth));
+                }
+            }
+            Files.delete(segment.file);
+            spilledBytes -= segment.bytes;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.example.connector;
+
+/**
+ * A URL waiting in a crawl frontier
+ */
+public final class FrontierEntry {
+    private final String url;
+    private final int depth;
+    
+    public FrontierEntry(String url, int depth) {
+        this.url = url;
+        this.depth = depth;
+    }
+    
+    public String getUrl() { return url; }
+    /** Link hops from the nearest seed URL */
+    public int getDepth() { return depth; }
+    
+    @Override
+    public String toString() {
+        return "FrontierEntry{url=" + url + ", depth=" + depth + "}";
+    }
+}
\ No newline at end of file
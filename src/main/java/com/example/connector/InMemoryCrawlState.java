@@ -0,0 +1,45 @@
+package com.example.connector;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Heap-only crawl state: a hash set of visited URLs and a FIFO frontier. Heap use grows with every
+ * URL discovered, so use DiskCrawlState beyond a few million URLs.
+ */
+public class InMemoryCrawlState implements CrawlState {
+    private final Set<String> seen = new HashSet<>();
+    private final ArrayDeque<FrontierEntry> frontier = new ArrayDeque<>();
+    
+    @Override
+    public synchronized boolean markSeen(String url) {
+        return seen.add(url);
+    }
+    
+    @Override
+    public synchronized void push(String url, int depth) {
+        frontier.add(new FrontierEntry(url, depth));
+    }
+    
+    @Override
+    public synchronized FrontierEntry poll() {
+        return frontier.poll();
+    }
+    
+    @Override
+    public synchronized long getSeenCount() {
+        return seen.size();
+    }
+    
+    @Override
+    public synchronized long getFrontierSize() {
+        return frontier.size();
+    }
+    
+    @Override
+    public synchronized void close() {
+        seen.clear();
+        frontier.clear();
+    }
+}
\ No newline at end of file
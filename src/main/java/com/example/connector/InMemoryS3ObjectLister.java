@@ -0,0 +1,46 @@
+package com.example.connector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Heap-only S3ObjectLister over objects put into it, listed in key order like ListObjectsV2.
+ * Lets S3ChangeDetector run in tests and dry runs without a bucket.
+ */
+public class InMemoryS3ObjectLister implements S3ObjectLister {
+    private final Map<String, TreeMap<String, S3ObjectEntry>> buckets = new HashMap<>();
+    
+    /**
+     * Add an object, replacing any with the same key
+     */
+    public synchronized InMemoryS3ObjectLister put(String bucketName, S3ObjectEntry entry) {
+        buckets.computeIfAbsent(bucketName, name -> new TreeMap<>()).put(entry.getKey(), entry);
+        return this;
+    }
+    
+    public synchronized boolean remove(String bucketName, String key) {
+        TreeMap<String, S3ObjectEntry> objects = buckets.get(bucketName);
+        return objects != null && objects.remove(key) != null;
+    }
+    
+    @Override
+    public synchronized Stream<S3ObjectEntry> list(String bucketName, String prefix) {
+        TreeMap<String, S3ObjectEntry> objects = buckets.get(bucketName);
+        if (objects == null) {
+            return Stream.empty();
+        }
+        String from = prefix != null ? prefix : "";
+        List<S3ObjectEntry> entries = new ArrayList<>();
+        for (S3ObjectEntry entry : objects.tailMap(from, true).values()) {
+            if (!entry.getKey().startsWith(from)) {
+                break;
+            }
+            entries.add(entry);
+        }
+        return entries.stream();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.example.connector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Heap-only StagingStore keeping each staged object's bytes and content type. Lets
+ * KmsLighthousePipeline and StagingCrawlSink run in tests and dry runs without a bucket.
+ */
+public class InMemoryStagingStore implements StagingStore {
+    private final ConcurrentSkipListMap<String, StagedObject> objects = new ConcurrentSkipListMap<>();
+    
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType)
+            throws ConnectorException {
+        try {
+            objects.put(key, new StagedObject(content.readAllBytes(), contentType));
+        } catch (IOException e) {
+            throw new ConnectorException("Failed to stage " + key, e);
+        }
+    }
+    
+    @Override
+    public List<String> list(String prefix) {
+        List<String> keys = new ArrayList<>();
+        for (String key : objects.tailMap(prefix, true).keySet()) {
+            if (!key.startsWith(prefix)) {
+                break;
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
+    
+    @Override
+    public void delete(Collection<String> keys) {
+        objects.keySet().removeAll(keys);
+    }
+    
+    /**
+     * Bytes staged under the key, or null
+     */
+    public byte[] get(String key) {
+        StagedObject object = objects.get(key);
+        return object != null ? object.content : null;
+    }
+    
+    /**
+     * Content type the key was staged with, or null
+     */
+    public String getContentType(String key) {
+        StagedObject object = objects.get(key);
+        return object != null ? object.contentType : null;
+    }
+    
+    private static final class StagedObject {
+        final byte[] content;
+        final String contentType;
+        
+        StagedObject(byte[] content, String contentType) {
+            this.content = content;
+            this.contentType = contentType;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.model.IngestionJob;
+import java.time.Instant;
+
+/**
+ * A change of one ingestion job, as published by IngestionEventPublisher
+ */
+public final class IngestionEvent {
+    
+    public enum Type {
+        /** First observation of a running job */
+        STARTED,
+        /** Status or statistics changed while running */
+        PROGRESS,
+        COMPLETED,
+        FAILED,
+        STOPPED
+    }
+    
+    private final Type type;
+    private final ConnectorFactory.ConnectorType connectorType;
+    private final IngestionJob job;
+    private final KmsIngestionStats stats;
+    private final Instant observedAt;
+    
+    IngestionEvent(Type type, ConnectorFactory.ConnectorType connectorType, IngestionJob job,
+                   KmsIngestionStats stats, Instant observedAt) {
+        this.type = type;
+        this.connectorType = connectorType;
+        this.job = job;
+        this.stats = stats;
+        this.observedAt = observedAt;
+    }
+    
+    /**
+     * Classify a job change reported by IngestionMonitor; stats come from the job's progress tracker
+     */
+    static IngestionEvent of(ConnectorFactory.ConnectorType connectorType, IngestionJob previous, IngestionJob current,
+                             IngestionProgressTracker tracker) {
+        Instant observedAt = Instant.now();
+        Type type;
+        switch (String.valueOf(current.statusAsString())) {
+            case "COMPLETE":
+                type = Type.COMPLETED;
+                break;
+            case "FAILED":
+                type = Type.FAILED;
+                break;
+            case "STOPPED":
+                type = Type.STOPPED;
+                break;
+            default:
+                type = previous == null ? Type.STARTED : Type.PROGRESS;
+        }
+        return new IngestionEvent(type, connectorType, current, tracker.update(current, observedAt), observedAt);
+    }
+    
+    public Type getType() { return type; }
+    /** Connector type the job was watched with, or null */
+    public ConnectorFactory.ConnectorType getConnectorType() { return connectorType; }
+    public String getKnowledgeBaseId() { return job.knowledgeBaseId(); }
+    public String getDataSourceId() { return job.dataSourceId(); }
+    public String getIngestionJobId() { return job.ingestionJobId(); }
+    public IngestionJob getJob() { return job; }
+    public KmsIngestionStats getStats() { return stats; }
+    public Instant getObservedAt() { return observedAt; }
+    
+    public boolean isTerminal() {
+        return type == Type.COMPLETED || type == Type.FAILED || type == Type.STOPPED;
+    }
+    
+    @Override
+    public String toString() {
+        return "IngestionEvent{" + type + ", job=" + getIngestionJobId() + ", dataSource=" + getDataSourceId()
+            + ", status=" + stats.getStatus() + "}";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.example.connector;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Per-subscriber selection of ingestion events; unset criteria match everything
+ */
+public final class IngestionEventFilter implements Predicate<IngestionEvent> {
+    private final Set<String> knowledgeBaseIds;
+    private final Set<String> dataSourceIds;
+    private final Set<ConnectorFactory.ConnectorType> connectorTypes;
+    private final Set<IngestionEvent.Type> eventTypes;
+    
+    private IngestionEventFilter(Builder builder) {
+        this.knowledgeBaseIds = Collections.unmodifiableSet(new HashSet<>(builder.knowledgeBaseIds));
+        this.dataSourceIds = Collections.unmodifiableSet(new HashSet<>(builder.dataSourceIds));
+        this.connectorTypes = Collections.unmodifiableSet(EnumSet.copyOf(builder.connectorTypes));
+        this.eventTypes = Collections.unmodifiableSet(EnumSet.copyOf(builder.eventTypes));
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    public static IngestionEventFilter all() {
+        return builder().build();
+    }
+    
+    @Override
+    public boolean test(IngestionEvent event) {
+        return (knowledgeBaseIds.isEmpty() || knowledgeBaseIds.contains(event.getKnowledgeBaseId()))
+            && (dataSourceIds.isEmpty() || dataSourceIds.contains(event.getDataSourceId()))
+            && (connectorTypes.isEmpty() || connectorTypes.contains(event.getConnectorType()))
+            && (eventTypes.isEmpty() || eventTypes.contains(event.getType()));
+    }
+    
+    public static class Builder {
+        private final Set<String> knowledgeBaseIds = new HashSet<>();
+        private final Set<String> dataSourceIds = new HashSet<>();
+        private final Set<ConnectorFactory.ConnectorType> connectorTypes =
+            EnumSet.noneOf(ConnectorFactory.ConnectorType.class);
+        private final Set<IngestionEvent.Type> eventTypes = EnumSet.noneOf(IngestionEvent.Type.class);
+        
+        public Builder knowledgeBaseId(String knowledgeBaseId) {
+            this.knowledgeBaseIds.add(knowledgeBaseId);
+            return this;
+        }
+        
+        public Builder dataSourceId(String dataSourceId) {
+            this.dataSourceIds.add(dataSourceId);
+            return this;
+        }
+        
+        public Builder connectorType(ConnectorFactory.ConnectorType connectorType) {
+            this.connectorTypes.add(connectorType);
+            return this;
+        }
+        
+        /**
+         * Only deliver these event types, e.g. COMPLETED and FAILED for a notifier
+         */
+        public Builder eventType(IngestionEvent.Type eventType) {
+            this.eventTypes.add(eventType);
+            return this;
+        }
+        
+        public IngestionEventFilter build() {
+            return new IngestionEventFilter(this);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,144 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.model.IngestionJob;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flow.Publisher of ingestion events fed by one IngestionMonitor, so any number of consumers
+ * share a single poller instead of each polling Bedrock.
+ *
+ * Every subscriber gets its own filter and its own bounded buffer, and is driven at the pace of
+ * its own request(n) calls on the background pool. The monitor's poll threads never wait for a
+ * consumer: an event that does not fit in a subscriber's full buffer is dropped for that subscriber
+ * and counted in getDroppedEvents(). Use the monitor's watch() futures where the final state
+ * must not be missed. Each event's stats carry the job's live progress (rate, ETA, phase timings)
+ * as of that event.
+ */
+public class IngestionEventPublisher implements Flow.Publisher<IngestionEvent>, AutoCloseable {
+    private final IngestionMonitor monitor;
+    private final int bufferCapacity;
+    private final IngestionMonitor.Listener listener = this::publish;
+    private final List<Channel> channels = new CopyOnWriteArrayList<>();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final Map<String, IngestionProgressTracker> progressTrackers = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+    
+    public IngestionEventPublisher(IngestionMonitor monitor) {
+        this(monitor, Flow.defaultBufferSize());
+    }
+    
+    /**
+     * @param bufferCapacity events buffered per subscriber (rounded up to a power of two)
+     */
+    public IngestionEventPublisher(IngestionMonitor monitor, int bufferCapacity) {
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException("bufferCapacity must be positive: " + bufferCapacity);
+        }
+        this.monitor = monitor;
+        this.bufferCapacity = bufferCapacity;
+        monitor.addListener(listener);
+    }
+    
+    /**
+     * Subscribe to every event
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super IngestionEvent> subscriber) {
+        subscribe(subscriber, IngestionEventFilter.all());
+    }
+    
+    /**
+     * Subscribe to the events matching the filter
+     */
+    public void subscribe(Flow.Subscriber<? super IngestionEvent> subscriber, IngestionEventFilter filter) {
+        if (closed) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+                
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onComplete();
+            return;
+        }
+        SubmissionPublisher<IngestionEvent> publisher =
+            new SubmissionPublisher<>(ConnectorExecutors.background(), bufferCapacity);
+        Channel channel = new Channel(filter, publisher);
+        publisher.subscribe(subscriber);
+        channels.add(channel);
+    }
+    
+    /**
+     * Start watching a job through the monitor; its changes are published as events
+     */
+    public CompletableFuture<IngestionJob> track(ConnectorFactory.ConnectorType connectorType,
+                                                 String knowledgeBaseId, String dataSourceId, String ingestionJobId) {
+        return monitor.watch(connectorType, knowledgeBaseId, dataSourceId, ingestionJobId);
+    }
+    
+    private void publish(ConnectorFactory.ConnectorType connectorType, IngestionJob previous, IngestionJob current) {
+        String key = current.knowledgeBaseId() + "/" + current.dataSourceId() + "/" + current.ingestionJobId();
+        IngestionEvent event = IngestionEvent.of(connectorType, previous, current,
+            progressTrackers.computeIfAbsent(key, k -> new IngestionProgressTracker()));
+        if (event.isTerminal()) {
+            progressTrackers.remove(key);
+        }
+        for (Channel channel : channels) {
+            if (!channel.publisher.hasSubscribers()) {
+                // subscriber cancelled or failed
+                channels.remove(channel);
+                channel.publisher.close();
+            } else if (channel.filter.test(event)) {
+                channel.publisher.offer(event, (subscriber, dropped) -> {
+                    droppedEvents.incrementAndGet();
+                    return false;
+                });
+            }
+        }
+    }
+    
+    public int getSubscriberCount() {
+        return channels.size();
+    }
+    
+    /**
+     * Events dropped because a subscriber's buffer was full
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+    
+    /**
+     * Stop publishing and complete every subscriber; the monitor keeps running
+     */
+    @Override
+    public void close() {
+        closed = true;
+        monitor.removeListener(listener);
+        for (Channel channel : channels) {
+            channel.publisher.close();
+        }
+        channels.clear();
+        progressTrackers.clear();
+    }
+    
+    private static final class Channel {
+        private final IngestionEventFilter filter;
+        private final SubmissionPublisher<IngestionEvent> publisher;
+        
+        Channel(IngestionEventFilter filter, SubmissionPublisher<IngestionEvent> publisher) {
+            this.filter = filter;
+            this.publisher = publisher;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,295 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.model.IngestionJob;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Bounded history of completed ingestion runs per data source, with regression detection.
+ *
+ * Each data source keeps its last capacity COMPLETE runs in a ring buffer. When a run is recorded,
+ * its duration, throughput (documents scanned per second, which stays comparable between full and
+ * incremental syncs) and failure rate are compared with the median of the preceding baselineRuns
+ * runs. A metric regresses when its robust z-score (distance from the median in units of the scaled
+ * median absolute deviation, so one outlier in the baseline does not mask or fake a regression)
+ * reaches zThreshold and the change is also large in practical terms: a factor of at least
+ * 1 + minRelativeChange for duration and throughput, or minFailureRateIncrease more failures.
+ *
+ * Runs reach the history through DataSourceConnector.waitForIngestion, or by registering the
+ * history as an IngestionMonitor listener. A job recorded twice counts once.
+ */
+public class IngestionHistory implements IngestionMonitor.Listener {
+    private static final double MAD_SCALE = 1.4826;
+    
+    /**
+     * Receives each regression as the run that shows it is recorded
+     */
+    public interface Listener {
+        void onRegression(IngestionRegression regression);
+    }
+    
+    private final int capacity;
+    private final int baselineRuns;
+    private final int minBaselineRuns;
+    private final double zThreshold;
+    private final double minRelativeChange;
+    private final double minFailureRateIncrease;
+    private final Map<String, Ring> rings = new HashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    
+    private IngestionHistory(Builder builder) {
+        this.capacity = builder.capacity;
+        this.baselineRuns = builder.baselineRuns;
+        this.minBaselineRuns = builder.minBaselineRuns;
+        this.zThreshold = builder.zThreshold;
+        this.minRelativeChange = builder.minRelativeChange;
+        this.minFailureRateIncrease = builder.minFailureRateIncrease;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    public static IngestionHistory defaultHistory() {
+        return builder().build();
+    }
+    
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Record a finished job; only COMPLETE jobs enter the history
+     *
+     * @return the regressions this run shows, empty when none or when it was not recorded
+     */
+    public List<IngestionRegression> record(IngestionJob job) {
+        if (!"COMPLETE".equals(job.statusAsString())) {
+            return Collections.emptyList();
+        }
+        Instant end = job.updatedAt() != null ? job.updatedAt() : Instant.now();
+        return record(job.knowledgeBaseId(), job.dataSourceId(), new IngestionProgressTracker().update(job, end));
+    }
+    
+    /**
+     * Record the stats of a completed run
+     *
+     * @return the regressions this run shows, empty when none or when it was not recorded
+     */
+    public List<IngestionRegression> record(String knowledgeBaseId, String dataSourceId, KmsIngestionStats stats) {
+        if (!stats.isSuccessful()) {
+            return Collections.emptyList();
+        }
+        List<IngestionRegression> regressions;
+        synchronized (this) {
+            Ring ring = rings.computeIfAbsent(knowledgeBaseId + "/" + dataSourceId, k -> new Ring(capacity));
+            if (ring.contains(stats.getJobId())) {
+                return Collections.emptyList();
+            }
+            List<KmsIngestionStats> baseline = ring.latest(baselineRuns);
+            regressions = baseline.size() >= minBaselineRuns
+                ? detect(knowledgeBaseId, dataSourceId, stats, baseline)
+                : Collections.emptyList();
+            ring.add(stats, regressions);
+        }
+        for (IngestionRegression regression : regressions) {
+            for (Listener listener : listeners) {
+                listener.onRegression(regression);
+            }
+        }
+        return regressions;
+    }
+    
+    @Override
+    public void onChange(ConnectorFactory.ConnectorType connectorType, IngestionJob previous, IngestionJob current) {
+        record(current);
+    }
+    
+    private List<IngestionRegression> detect(String knowledgeBaseId, String dataSourceId, KmsIngestionStats run,
+                                             List<KmsIngestionStats> baseline) {
+        List<IngestionRegression> regressions = new ArrayList<>();
+        for (IngestionRegression.Metric metric : IngestionRegression.Metric.values()) {
+            double observed = value(metric, run);
+            double[] values = baseline.stream().mapToDouble(stats -> value(metric, stats))
+                .filter(v -> !Double.isNaN(v)).toArray();
+            if (Double.isNaN(observed) || values.length < minBaselineRuns) {
+                continue;
+            }
+            double median = median(values);
+            double[] deviations = Arrays.stream(values).map(v -> Math.abs(v - median)).toArray();
+            double spread = MAD_SCALE * median(deviations);
+            // positive when worse
+            double delta = metric == IngestionRegression.Metric.THROUGHPUT ? median - observed : observed - median;
+            if (delta <= 0) {
+                continue;
+            }
+            double score = spread > 0 ? delta / spread : Double.POSITIVE_INFINITY;
+            boolean material;
+            if (metric == IngestionRegression.Metric.FAILURE_RATE) {
+                material = delta >= minFailureRateIncrease;
+            } else {
+                material = delta >= minRelativeChange * (metric == IngestionRegression.Metric.THROUGHPUT
+                    ? observed : median);
+            }
+            if (score >= zThreshold && material) {
+                regressions.add(new IngestionRegression(metric, knowledgeBaseId, dataSourceId, run.getJobId(),
+                    observed, median, values.length, score));
+            }
+        }
+        return regressions;
+    }
+    
+    private static double value(IngestionRegression.Metric metric, KmsIngestionStats stats) {
+        long seconds = stats.getProcessingDurationSeconds();
+        switch (metric) {
+            case DURATION:
+                return seconds;
+            case THROUGHPUT:
+                return seconds > 0 ? (double) stats.getDocumentsProcessed() / seconds : Double.NaN;
+            default:
+                return stats.getDocumentsProcessed() > 0
+                    ? (double) stats.getDocumentsFailed() / stats.getDocumentsProcessed() : 0.0;
+        }
+    }
+    
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+    
+    /**
+     * Completed runs of the data source, oldest first
+     */
+    public synchronized List<KmsIngestionStats> getRuns(String knowledgeBaseId, String dataSourceId) {
+        Ring ring = rings.get(knowledgeBaseId + "/" + dataSourceId);
+        return ring != null ? ring.latest(capacity) : Collections.emptyList();
+    }
+    
+    /**
+     * Regressions shown by the data source's most recent run
+     */
+    public synchronized List<IngestionRegression> getRegressions(String knowledgeBaseId, String dataSourceId) {
+        Ring ring = rings.get(knowledgeBaseId + "/" + dataSourceId);
+        return ring != null ? ring.lastRegressions : Collections.emptyList();
+    }
+    
+    /**
+     * Fixed-size circular buffer of one data source's runs
+     */
+    private static final class Ring {
+        private final KmsIngestionStats[] runs;
+        private int next;
+        private int size;
+        private List<IngestionRegression> lastRegressions = Collections.emptyList();
+        
+        Ring(int capacity) {
+            this.runs = new KmsIngestionStats[capacity];
+        }
+        
+        void add(KmsIngestionStats stats, List<IngestionRegression> regressions) {
+            runs[next] = stats;
+            next = (next + 1) % runs.length;
+            size = Math.min(size + 1, runs.length);
+            lastRegressions = Collections.unmodifiableList(regressions);
+        }
+        
+        boolean contains(String jobId) {
+            for (int i = 0; i < size; i++) {
+                if (runs[i].getJobId() != null && runs[i].getJobId().equals(jobId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        /**
+         * Up to count most recent runs, oldest first
+         */
+        List<KmsIngestionStats> latest(int count) {
+            int n = Math.min(count, size);
+            List<KmsIngestionStats> result = new ArrayList<>(n);
+            for (int i = n; i > 0; i--) {
+                result.add(runs[Math.floorMod(next - i, runs.length)]);
+            }
+            return result;
+        }
+    }
+    
+    public static class Builder {
+        private int capacity = 50;
+        private int baselineRuns = 20;
+        private int minBaselineRuns = 5;
+        private double zThreshold = 3.5;
+        private double minRelativeChange = 0.5;
+        private double minFailureRateIncrease = 0.05;
+        
+        /**
+         * Completed runs kept per data source
+         */
+        public Builder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+        
+        /**
+         * Most recent runs a new run is compared with
+         */
+        public Builder baselineRuns(int baselineRuns) {
+            this.baselineRuns = baselineRuns;
+            return this;
+        }
+        
+        /**
+         * Runs needed before anything is flagged
+         */
+        public Builder minBaselineRuns(int minBaselineRuns) {
+            this.minBaselineRuns = minBaselineRuns;
+            return this;
+        }
+        
+        /**
+         * Robust z-score a run must reach to be flagged
+         */
+        public Builder zThreshold(double zThreshold) {
+            this.zThreshold = zThreshold;
+            return this;
+        }
+        
+        /**
+         * Smallest slowdown worth flagging for duration and throughput, e.g. 0.5 for 1.5x
+         */
+        public Builder minRelativeChange(double minRelativeChange) {
+            this.minRelativeChange = minRelativeChange;
+            return this;
+        }
+        
+        /**
+         * Smallest failure rate increase worth flagging, e.g. 0.05 for five more failures per hundred documents
+         */
+        public Builder minFailureRateIncrease(double minFailureRateIncrease) {
+            this.minFailureRateIncrease = minFailureRateIncrease;
+            return this;
+        }
+        
+        public IngestionHistory build() {
+            if (capacity < 2 || baselineRuns < 1 || baselineRuns > capacity || minBaselineRuns < 1
+                    || minBaselineRuns > baselineRuns) {
+                throw new IllegalArgumentException("Invalid history sizes: capacity=" + capacity
+                    + ", baselineRuns=" + baselineRuns + ", minBaselineRuns=" + minBaselineRuns);
+            }
+            return new IngestionHistory(this);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,379 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.BedrockAgentClient;
+import software.amazon.awssdk.services.bedrockagent.model.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Watches any number of ingestion jobs from one scheduled poll loop.
+ *
+ * Each tick groups the watched jobs by data source. A data source with several watched jobs is
+ * covered by one ListIngestionJobs call filtered to running statuses and sorted newest first
+ * (paging stops once every watched job has been seen); a job missing from that list has finished
+ * and is fetched once with GetIngestionJob for its final state. A data source with a single
+ * watched job is polled with GetIngestionJob directly, as is any data source whose list call fails.
+ * Poll cost therefore grows with the number of data sources, not the number of watchers, and no
+ * thread is held per job. Listeners (e.g. IngestionEventPublisher) see every observed change,
+ * concurrently across data sources.
+ */
+public class IngestionMonitor implements AutoCloseable {
+    /**
+     * Rate limiter tenant key for monitor polls
+     */
+    static final String MONITOR_TENANT = "monitor";
+    
+    private static final List<String> RUNNING_STATUSES = Arrays.asList("STARTING", "IN_PROGRESS", "STOPPING");
+    
+    private final BedrockAgentClient bedrockClient;
+    private final ControlPlaneInvoker invoker;
+    private final BulkExecutor pollExecutor;
+    private final int maxResults;
+    private final Map<String, Watch> watches = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private final AtomicLong listCalls = new AtomicLong();
+    private final AtomicLong getCalls = new AtomicLong();
+    private final ScheduledFuture<?> pollTask;
+    
+    private IngestionMonitor(Builder builder) {
+        this.bedrockClient = builder.client;
+        this.invoker = new ControlPlaneInvoker(builder.config);
+        AdaptiveRateLimiter limiter = builder.rateLimiter != null
+            ? builder.rateLimiter : ConnectorFactory.getSharedRateLimiter();
+        if (limiter != null) {
+            invoker.setRateLimiter(limiter, MONITOR_TENANT);
+        }
+        this.pollExecutor = BulkExecutor.builder()
+            .maxConcurrency(builder.maxConcurrentPolls)
+            .build();
+        this.maxResults = builder.config.getMaxResults();
+        this.pollTask = ConnectorExecutors.scheduler().scheduleWithFixedDelay(this::schedulePoll,
+            builder.pollIntervalMs, builder.pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * Receives each change of a watched job's status or statistics. Data sources are polled in
+     * parallel, so onChange may be called concurrently from up to maxConcurrentPolls pool threads
+     * and implementations must be thread-safe; changes of one job arrive in order, one at a time.
+     * Implementations must not block, as they hold up the poll of their data source.
+     */
+    public interface Listener {
+        /**
+         * @param connectorType type given to watch(), or null
+         * @param previous      last observed state, or null on the first observation
+         */
+        void onChange(ConnectorFactory.ConnectorType connectorType, IngestionJob previous, IngestionJob current);
+    }
+    
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Watch a job until it is COMPLETE, FAILED or STOPPED. The future completes with its final
+     * state, or a ConnectorException if the job cannot be found or the monitor is closed.
+     * Cancelling the future stops watching for this caller only.
+     */
+    public CompletableFuture<IngestionJob> watch(String knowledgeBaseId, String dataSourceId, String ingestionJobId) {
+        return watch(null, knowledgeBaseId, dataSourceId, ingestionJobId);
+    }
+    
+    /**
+     * Watch a job and tag its listener callbacks with the connector type that owns the data source
+     */
+    public CompletableFuture<IngestionJob> watch(ConnectorFactory.ConnectorType connectorType,
+                                                 String knowledgeBaseId, String dataSourceId, String ingestionJobId) {
+        CompletableFuture<IngestionJob> waiter = new CompletableFuture<>();
+        String key = knowledgeBaseId + "/" + dataSourceId + "/" + ingestionJobId;
+        watches.compute(key, (k, watch) -> {
+            Watch current = watch != null ? watch : new Watch(k, knowledgeBaseId, dataSourceId, ingestionJobId);
+            if (current.connectorType == null) {
+                current.connectorType = connectorType;
+            }
+            current.waiters.add(waiter);
+            return current;
+        });
+        waiter.whenComplete((value, error) -> {
+            if (waiter.isCancelled()) {
+                watches.computeIfPresent(key, (k, watch) -> {
+                    watch.waiters.remove(waiter);
+                    return watch.waiters.isEmpty() ? null : watch;
+                });
+            }
+        });
+        return waiter;
+    }
+    
+    /**
+     * Last observed state of a watched job, or null if it is not watched or not yet polled
+     */
+    public IngestionJob getLatest(String knowledgeBaseId, String dataSourceId, String ingestionJobId) {
+        Watch watch = watches.get(knowledgeBaseId + "/" + dataSourceId + "/" + ingestionJobId);
+        return watch != null ? watch.latest : null;
+    }
+    
+    public int getWatchedJobs() {
+        return watches.size();
+    }
+    
+    /**
+     * ListIngestionJobs calls issued so far
+     */
+    public long getListCalls() {
+        return listCalls.get();
+    }
+    
+    /**
+     * GetIngestionJob calls issued so far
+     */
+    public long getGetCalls() {
+        return getCalls.get();
+    }
+    
+    private void schedulePoll() {
+        if (!watches.isEmpty() && polling.compareAndSet(false, true)) {
+            ConnectorExecutors.background().execute(() -> {
+                try {
+                    pollOnce();
+                } finally {
+                    polling.set(false);
+                }
+            });
+        }
+    }
+    
+    /**
+     * One pass over every watched data source
+     */
+    void pollOnce() {
+        Map<String, List<Watch>> byDataSource = new LinkedHashMap<>();
+        for (Watch watch : watches.values()) {
+            byDataSource.computeIfAbsent(watch.knowledgeBaseId + "/" + watch.dataSourceId, k -> new ArrayList<>())
+                .add(watch);
+        }
+        pollExecutor.execute(byDataSource.values(), group -> {
+            if (group.size() == 1) {
+                pollIndividually(group.get(0));
+            } else {
+                pollGroup(group);
+            }
+            return null;
+        });
+    }
+    
+    private void pollGroup(List<Watch> group) {
+        Map<String, Watch> pending = new LinkedHashMap<>();
+        for (Watch watch : group) {
+            pending.put(watch.ingestionJobId, watch);
+        }
+        Set<String> running = new HashSet<>();
+        Watch first = group.get(0);
+        try {
+            String nextToken = null;
+            do {
+                ListIngestionJobsRequest request = ListIngestionJobsRequest.builder()
+                    .knowledgeBaseId(first.knowledgeBaseId)
+                    .dataSourceId(first.dataSourceId)
+                    .filters(IngestionJobFilter.builder()
+                        .attribute(IngestionJobFilterAttribute.STATUS)
+                        .operator(IngestionJobFilterOperator.EQ)
+                        .values(RUNNING_STATUSES)
+                        .build())
+                    .sortBy(IngestionJobSortBy.builder()
+                        .attribute(IngestionJobSortByAttribute.STARTED_AT)
+                        .order(SortOrder.DESCENDING)
+                        .build())
+                    .maxResults(maxResults)
+                    .nextToken(nextToken)
+                    .build();
+                listCalls.incrementAndGet();
+                ListIngestionJobsResponse response = invoker.invoke("ListIngestionJobs",
+                    () -> bedrockClient.listIngestionJobs(request),
+                    "Failed to list ingestion jobs for data source: " + first.dataSourceId);
+                for (IngestionJobSummary summary : response.ingestionJobSummaries()) {
+                    Watch watch = pending.get(summary.ingestionJobId());
+                    if (watch != null) {
+                        update(watch, toIngestionJob(summary));
+                        running.add(summary.ingestionJobId());
+                    }
+                }
+                nextToken = running.size() < pending.size() ? response.nextToken() : null;
+            } while (nextToken != null);
+        } catch (ConnectorException e) {
+            // list unavailable for this data source: fall back to one get per job this tick
+            group.forEach(this::pollIndividually);
+            return;
+        }
+        for (Watch watch : group) {
+            if (!running.contains(watch.ingestionJobId)) {
+                // no longer running (or started after the list was taken): fetch its final state once
+                pollIndividually(watch);
+            }
+        }
+    }
+    
+    private void pollIndividually(Watch watch) {
+        GetIngestionJobRequest request = GetIngestionJobRequest.builder()
+            .knowledgeBaseId(watch.knowledgeBaseId)
+            .dataSourceId(watch.dataSourceId)
+            .ingestionJobId(watch.ingestionJobId)
+            .build();
+        try {
+            getCalls.incrementAndGet();
+            IngestionJob job = invoker.invoke("GetIngestionJob", () -> bedrockClient.getIngestionJob(request),
+                "Failed to get ingestion job: " + watch.ingestionJobId).ingestionJob();
+            update(watch, job);
+            if (IngestionWaiter.isTerminal(job.statusAsString())) {
+                finish(watch, job, null);
+            }
+        } catch (ConnectorException e) {
+            if (RetryPolicy.isNotFound(e)) {
+                finish(watch, null, e);
+            }
+            // other failures: keep watching, the next tick retries
+        }
+    }
+    
+    private void update(Watch watch, IngestionJob job) {
+        IngestionJob previous = watch.latest;
+        watch.latest = job;
+        if (previous != null
+                && Objects.equals(previous.statusAsString(), job.statusAsString())
+                && Objects.equals(previous.statistics(), job.statistics())) {
+            return;
+        }
+        for (Listener listener : listeners) {
+            try {
+                listener.onChange(watch.connectorType, previous, job);
+            } catch (RuntimeException e) {
+                // a failing listener must not stop polling for the others
+            }
+        }
+    }
+    
+    private void finish(Watch watch, IngestionJob job, ConnectorException error) {
+        if (!watches.remove(watch.key, watch)) {
+            return;
+        }
+        for (CompletableFuture<IngestionJob> waiter : watch.waiters) {
+            if (error == null) {
+                waiter.complete(job);
+            } else {
+                waiter.completeExceptionally(error);
+            }
+        }
+    }
+    
+    static IngestionJob toIngestionJob(IngestionJobSummary summary) {
+        return IngestionJob.builder()
+            .knowledgeBaseId(summary.knowledgeBaseId())
+            .dataSourceId(summary.dataSourceId())
+            .ingestionJobId(summary.ingestionJobId())
+            .description(summary.description())
+            .status(summary.statusAsString())
+            .statistics(summary.statistics())
+            .startedAt(summary.startedAt())
+            .updatedAt(summary.updatedAt())
+            .build();
+    }
+    
+    /**
+     * Stop polling and fail every outstanding watch
+     */
+    @Override
+    public void close() {
+        pollTask.cancel(false);
+        for (Watch watch : new ArrayList<>(watches.values())) {
+            finish(watch, null, new ConnectorException("Ingestion monitor closed"));
+        }
+    }
+    
+    private static final class Watch {
+        private final String key;
+        private final String knowledgeBaseId;
+        private final String dataSourceId;
+        private final String ingestionJobId;
+        private final Set<CompletableFuture<IngestionJob>> waiters = ConcurrentHashMap.newKeySet();
+        private volatile IngestionJob latest;
+        private volatile ConnectorFactory.ConnectorType connectorType;
+        
+        Watch(String key, String knowledgeBaseId, String dataSourceId, String ingestionJobId) {
+            this.key = key;
+            this.knowledgeBaseId = knowledgeBaseId;
+            this.dataSourceId = dataSourceId;
+            this.ingestionJobId = ingestionJobId;
+        }
+    }
+    
+    public static class Builder {
+        private BedrockAgentClient client;
+        private ConnectorConfig config = ConnectorConfig.defaultConfig();
+        private long pollIntervalMs = 10000;
+        private int maxConcurrentPolls = 8;
+        private AdaptiveRateLimiter rateLimiter;
+        
+        public Builder client(BedrockAgentClient client) {
+            this.client = client;
+            return this;
+        }
+        
+        public Builder config(ConnectorConfig config) {
+            this.config = config;
+            return this;
+        }
+        
+        /**
+         * Delay between the end of one poll pass and the start of the next
+         */
+        public Builder pollIntervalMs(long pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+            return this;
+        }
+        
+        /**
+         * Data sources polled in parallel within one pass
+         */
+        public Builder maxConcurrentPolls(int maxConcurrentPolls) {
+            this.maxConcurrentPolls = maxConcurrentPolls;
+            return this;
+        }
+        
+        /**
+         * Limiter for monitor polls (defaults to ConnectorFactory's shared limiter)
+         */
+        public Builder rateLimiter(AdaptiveRateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
+        
+        public IngestionMonitor build() {
+            Objects.requireNonNull(client, "client");
+            if (pollIntervalMs <= 0) {
+                throw new IllegalArgumentException("pollIntervalMs must be positive: " + pollIntervalMs);
+            }
+            return new IngestionMonitor(this);
+        }
+    }
+}
\ No newline at end of file
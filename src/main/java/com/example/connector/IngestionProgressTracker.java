@@ -0,0 +1,139 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.model.IngestionJob;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Turns successive polls of one ingestion job into KmsIngestionStats with live progress.
+ *
+ * The processing rate is an exponentially weighted moving average of documents indexed or failed
+ * per second; samples are weighted by the time between polls, so irregular polling does not skew
+ * it and a stalled job's rate decays towards zero. The ETA divides the scanned documents not yet
+ * indexed or failed by that rate. Documents that are unchanged since the last sync are scanned but
+ * never indexed, so for incremental syncs the ETA is an upper bound. Time in each status is
+ * attributed using the job's updatedAt when a status change is seen.
+ */
+public final class IngestionProgressTracker {
+    public static final Duration DEFAULT_RATE_HALF_LIFE = Duration.ofSeconds(60);
+    
+    private final double halfLifeMillis;
+    private final Map<String, Long> phaseMillis = new LinkedHashMap<>();
+    private String status;
+    private Instant statusSince;
+    private Instant lastObservedAt;
+    private long lastHandled;
+    private double rate = Double.NaN;
+    private KmsIngestionStats latest;
+    
+    public IngestionProgressTracker() {
+        this(DEFAULT_RATE_HALF_LIFE);
+    }
+    
+    /**
+     * @param rateHalfLife age at which a rate sample counts half as much as a fresh one
+     */
+    public IngestionProgressTracker(Duration rateHalfLife) {
+        if (rateHalfLife.isNegative() || rateHalfLife.isZero()) {
+            throw new IllegalArgumentException("rateHalfLife must be positive");
+        }
+        this.halfLifeMillis = rateHalfLife.toMillis();
+    }
+    
+    public KmsIngestionStats update(IngestionJob job) {
+        return update(job, Instant.now());
+    }
+    
+    /**
+     * Fold in one poll of the job, read at observedAt
+     */
+    public synchronized KmsIngestionStats update(IngestionJob job, Instant observedAt) {
+        KmsIngestionStats.Builder builder = KmsIngestionStats.builder()
+            .jobId(job.ingestionJobId())
+            .status(job.statusAsString())
+            .startTime(job.startedAt())
+            .statistics(job.statistics())
+            .observedAt(observedAt);
+        KmsIngestionStats counts = builder.build();
+        long handled = counts.getDocumentsSuccessful() + counts.getDocumentsFailed();
+        boolean terminal = IngestionWaiter.isTerminal(job.statusAsString());
+        
+        updateRate(job, handled, observedAt);
+        updatePhases(job, observedAt);
+        lastObservedAt = observedAt;
+        lastHandled = handled;
+        
+        Duration remaining = null;
+        if (terminal) {
+            remaining = Duration.ZERO;
+        } else if (!Double.isNaN(rate) && rate > 0) {
+            long pending = Math.max(0, counts.getDocumentsProcessed() - handled);
+            remaining = Duration.ofMillis((long) (pending / rate * 1000));
+        }
+        latest = builder
+            .endTime(terminal ? job.updatedAt() : null)
+            .processingRate(Double.isNaN(rate) ? 0.0 : rate)
+            .estimatedTimeRemaining(remaining)
+            .phaseDurations(phaseDurations(observedAt, terminal))
+            .build();
+        return latest;
+    }
+    
+    private void updateRate(IngestionJob job, long handled, Instant observedAt) {
+        if (lastObservedAt == null) {
+            // first poll: average since the job started
+            if (job.startedAt() != null && observedAt.isAfter(job.startedAt()) && handled > 0) {
+                rate = handled * 1000.0 / Duration.between(job.startedAt(), observedAt).toMillis();
+            }
+            return;
+        }
+        long elapsedMillis = Duration.between(lastObservedAt, observedAt).toMillis();
+        if (elapsedMillis <= 0) {
+            return;
+        }
+        double sample = Math.max(0, handled - lastHandled) * 1000.0 / elapsedMillis;
+        double weight = 1 - Math.pow(0.5, elapsedMillis / halfLifeMillis);
+        rate = Double.isNaN(rate) ? sample : rate + weight * (sample - rate);
+    }
+    
+    private void updatePhases(IngestionJob job, Instant observedAt) {
+        String current = job.statusAsString();
+        if (status == null) {
+            status = current;
+            statusSince = job.startedAt() != null && job.startedAt().isBefore(observedAt) ? job.startedAt() : observedAt;
+            return;
+        }
+        if (current == null || current.equals(status)) {
+            return;
+        }
+        // the change happened after the previous poll and no later than this one
+        Instant changedAt = job.updatedAt() != null ? job.updatedAt() : observedAt;
+        if (changedAt.isBefore(lastObservedAt)) {
+            changedAt = lastObservedAt;
+        } else if (changedAt.isAfter(observedAt)) {
+            changedAt = observedAt;
+        }
+        phaseMillis.merge(status, Math.max(0, Duration.between(statusSince, changedAt).toMillis()), Long::sum);
+        status = current;
+        statusSince = changedAt;
+    }
+    
+    private Map<String, Duration> phaseDurations(Instant observedAt, boolean terminal) {
+        Map<String, Duration> durations = new LinkedHashMap<>();
+        phaseMillis.forEach((phase, millis) -> durations.put(phase, Duration.ofMillis(millis)));
+        if (status != null && !terminal) {
+            long open = Math.max(0, Duration.between(statusSince, observedAt).toMillis());
+            durations.merge(status, Duration.ofMillis(open), Duration::plus);
+        }
+        return durations;
+    }
+    
+    /**
+     * Stats from the most recent update, or null before the first one
+     */
+    public synchronized KmsIngestionStats getLatest() {
+        return latest;
+    }
+}
\ No newline at end of file
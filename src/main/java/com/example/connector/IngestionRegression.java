@@ -0,0 +1,68 @@
+package com.example.connector;
+
+/**
+ * A completed ingestion run that is significantly worse than its data source's recent baseline
+ */
+public final class IngestionRegression {
+    
+    public enum Metric {
+        /** Wall-clock seconds from start to completion; higher is worse */
+        DURATION,
+        /** Documents scanned per second; lower is worse */
+        THROUGHPUT,
+        /** Failed documents per scanned document; higher is worse */
+        FAILURE_RATE
+    }
+    
+    private final Metric metric;
+    private final String knowledgeBaseId;
+    private final String dataSourceId;
+    private final String ingestionJobId;
+    private final double observed;
+    private final double baseline;
+    private final int baselineRuns;
+    private final double score;
+    
+    IngestionRegression(Metric metric, String knowledgeBaseId, String dataSourceId, String ingestionJobId,
+                        double observed, double baseline, int baselineRuns, double score) {
+        this.metric = metric;
+        this.knowledgeBaseId = knowledgeBaseId;
+        this.dataSourceId = dataSourceId;
+        this.ingestionJobId = ingestionJobId;
+        this.observed = observed;
+        this.baseline = baseline;
+        this.baselineRuns = baselineRuns;
+        this.score = score;
+    }
+    
+    public Metric getMetric() { return metric; }
+    public String getKnowledgeBaseId() { return knowledgeBaseId; }
+    public String getDataSourceId() { return dataSourceId; }
+    public String getIngestionJobId() { return ingestionJobId; }
+    public double getObserved() { return observed; }
+    /** Median of the metric over the baseline runs */
+    public double getBaseline() { return baseline; }
+    public int getBaselineRuns() { return baselineRuns; }
+    /** Robust z-score against the baseline (infinite when the baseline never varied) */
+    public double getScore() { return score; }
+    
+    /**
+     * How many times worse than the baseline, e.g. 2.0 for a run that took twice as long
+     * or ran at half the throughput
+     */
+    public double getFactor() {
+        switch (metric) {
+            case THROUGHPUT:
+                return observed > 0 ? baseline / observed : Double.POSITIVE_INFINITY;
+            default:
+                return baseline > 0 ? observed / baseline : Double.POSITIVE_INFINITY;
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("IngestionRegression{%s, dataSource=%s/%s, job=%s, observed=%.3f, baseline=%.3f, "
+            + "factor=%.2f, score=%.1f, baselineRuns=%d}", metric, knowledgeBaseId, dataSourceId, ingestionJobId,
+            observed, baseline, getFactor(), score, baselineRuns);
+    }
+}
\ No newline at end of file
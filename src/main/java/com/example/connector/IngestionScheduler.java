@@ -0,0 +1,340 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.model.IngestionJob;
+import software.amazon.awssdk.services.bedrockagent.model.StartIngestionJobResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for StartIngestionJob.
+ *
+ * Start requests are queued and admitted while the account, their knowledge base and their data
+ * source are below the configured number of running jobs. The queue is ordered by priority
+ * (higher first), then by deadline (earliest first, none last), then by arrival; a request whose
+ * knowledge base is full does not hold back requests for other knowledge bases. An admitted job
+ * keeps its slot until the IngestionMonitor sees it finish, at which point the next request is
+ * started at once. A start refused for concurrency (e.g. because of jobs started outside the
+ * scheduler) is put back in the queue. ServiceQuotaExceededException holds back every request for
+ * retryDelayMs; ConflictException only defers that request, until retryDelayMs has passed or a job
+ * of its knowledge base finishes, whichever comes first.
+ */
+public class IngestionScheduler implements AutoCloseable {
+    private final IngestionMonitor monitor;
+    private final int maxJobsPerAccount;
+    private final int maxJobsPerKnowledgeBase;
+    private final int maxJobsPerDataSource;
+    private final long retryDelayMs;
+    private final PriorityQueue<Request> queue = new PriorityQueue<>();
+    private final Map<String, Integer> runningPerKnowledgeBase = new HashMap<>();
+    private final Map<String, Integer> runningPerDataSource = new HashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private int running;
+    private boolean accountHeld;
+    private long holdUntilNanos;
+    private boolean closed;
+    
+    private IngestionScheduler(Builder builder) {
+        this.monitor = builder.monitor;
+        this.maxJobsPerAccount = builder.maxJobsPerAccount;
+        this.maxJobsPerKnowledgeBase = builder.maxJobsPerKnowledgeBase;
+        this.maxJobsPerDataSource = builder.maxJobsPerDataSource;
+        this.retryDelayMs = builder.retryDelayMs;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * Queue a start with normal priority and no deadline
+     */
+    public CompletableFuture<StartIngestionJobResponse> submit(DataSourceConnector connector, String dataSourceId) {
+        return submit(connector, dataSourceId, null, 0, null);
+    }
+    
+    /**
+     * Queue an ingestion start. The future completes with the StartIngestionJob response once the
+     * job has been admitted and started, or with a ConnectorException if the start fails for
+     * another reason. Cancelling it before admission removes the request from the queue.
+     *
+     * @param clientToken idempotency token reused across re-queued attempts (generated when null)
+     * @param priority    higher runs first
+     * @param deadline    orders requests of equal priority, earliest first (null = no deadline)
+     */
+    public CompletableFuture<StartIngestionJobResponse> submit(DataSourceConnector connector, String dataSourceId,
+                                                              String clientToken, int priority, Instant deadline) {
+        Request request = new Request(connector, dataSourceId,
+            clientToken != null ? clientToken : UUID.randomUUID().toString(),
+            priority, deadline, sequence.incrementAndGet());
+        synchronized (this) {
+            if (closed) {
+                request.result.completeExceptionally(new ConnectorException("Ingestion scheduler closed"));
+                return request.result;
+            }
+            queue.add(request);
+        }
+        request.result.whenComplete((value, error) -> {
+            if (request.result.isCancelled()) {
+                synchronized (this) {
+                    queue.remove(request);
+                }
+            }
+        });
+        drain();
+        return request.result;
+    }
+    
+    /**
+     * Admit as many queued requests as the limits allow and start them off the caller's thread
+     */
+    private void drain() {
+        List<Request> admitted = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (closed || (accountHeld && now - holdUntilNanos < 0)) {
+                return;
+            }
+            List<Request> blocked = new ArrayList<>();
+            while (running < maxJobsPerAccount && !queue.isEmpty()) {
+                Request request = queue.poll();
+                if (request.result.isDone()) {
+                    continue;
+                }
+                if (request.deferred && now - request.notBeforeNanos < 0) {
+                    blocked.add(request);
+                    continue;
+                }
+                if (count(runningPerKnowledgeBase, request.knowledgeBaseId()) >= maxJobsPerKnowledgeBase
+                        || count(runningPerDataSource, request.dataSourceKey()) >= maxJobsPerDataSource) {
+                    blocked.add(request);
+                    continue;
+                }
+                acquire(request);
+                admitted.add(request);
+            }
+            queue.addAll(blocked);
+        }
+        for (Request request : admitted) {
+            ConnectorExecutors.background().execute(() -> start(request));
+        }
+    }
+    
+    private void start(Request request) {
+        StartIngestionJobResponse response;
+        try {
+            response = request.connector.startIngestion(request.dataSourceId, request.clientToken);
+        } catch (ConnectorException e) {
+            release(request);
+            if (RetryPolicy.isConcurrencyLimit(e)) {
+                requeueLater(request, RetryPolicy.isQuotaExceeded(e));
+                // a deferred request must not hold up requests for other data sources
+                drain();
+            } else {
+                request.result.completeExceptionally(e);
+                drain();
+            }
+            return;
+        }
+        IngestionJob job = response.ingestionJob();
+        monitor.watch(ConnectorFactory.typeOf(request.connector),
+                request.knowledgeBaseId(), request.dataSourceId, job.ingestionJobId())
+            .whenComplete((finished, error) -> {
+                release(request);
+                resumeDeferred(request.knowledgeBaseId());
+                drain();
+            });
+        request.result.complete(response);
+    }
+    
+    /**
+     * Put a refused request back in the queue, holding back the whole account when its quota was
+     * exceeded and only this request when its data source or knowledge base is busy
+     */
+    private void requeueLater(Request request, boolean accountWide) {
+        synchronized (this) {
+            if (closed) {
+                request.result.completeExceptionally(new ConnectorException("Ingestion scheduler closed"));
+                return;
+            }
+            long notBefore = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryDelayMs);
+            if (accountWide) {
+                accountHeld = true;
+                holdUntilNanos = notBefore;
+            } else {
+                request.deferred = true;
+                request.notBeforeNanos = notBefore;
+            }
+            queue.add(request);
+        }
+        ConnectorExecutors.scheduler().schedule(
+            () -> ConnectorExecutors.background().execute(this::drain), retryDelayMs, TimeUnit.MILLISECONDS);
+    }
+    
+    private void acquire(Request request) {
+        running++;
+        runningPerKnowledgeBase.merge(request.knowledgeBaseId(), 1, Integer::sum);
+        runningPerDataSource.merge(request.dataSourceKey(), 1, Integer::sum);
+    }
+    
+    private synchronized void release(Request request) {
+        running--;
+        runningPerKnowledgeBase.computeIfPresent(request.knowledgeBaseId(), (k, n) -> n > 1 ? n - 1 : null);
+        runningPerDataSource.computeIfPresent(request.dataSourceKey(), (k, n) -> n > 1 ? n - 1 : null);
+    }
+    
+    /**
+     * A finished job frees its knowledge base, so requests deferred by a conflict there may retry
+     */
+    private synchronized void resumeDeferred(String knowledgeBaseId) {
+        for (Request request : queue) {
+            if (request.deferred && request.knowledgeBaseId().equals(knowledgeBaseId)) {
+                request.deferred = false;
+            }
+        }
+    }
+    
+    private static int count(Map<String, Integer> counts, String key) {
+        return counts.getOrDefault(key, 0);
+    }
+    
+    public synchronized int getQueued() {
+        return queue.size();
+    }
+    
+    public synchronized int getRunning() {
+        return running;
+    }
+    
+    public synchronized int getRunning(String knowledgeBaseId) {
+        return count(runningPerKnowledgeBase, knowledgeBaseId);
+    }
+    
+    /**
+     * Fail every queued request; admitted jobs keep running
+     */
+    @Override
+    public void close() {
+        List<Request> pending;
+        synchronized (this) {
+            closed = true;
+            pending = new ArrayList<>(queue);
+            queue.clear();
+        }
+        for (Request request : pending) {
+            request.result.completeExceptionally(new ConnectorException("Ingestion scheduler closed"));
+        }
+    }
+    
+    private static final class Request implements Comparable<Request> {
+        private final DataSourceConnector connector;
+        private final String dataSourceId;
+        private final String clientToken;
+        private final int priority;
+        private final Instant deadline;
+        private final long sequence;
+        private final CompletableFuture<StartIngestionJobResponse> result = new CompletableFuture<>();
+        // set after a ConflictException; guarded by the scheduler's lock
+        private boolean deferred;
+        private long notBeforeNanos;
+        
+        Request(DataSourceConnector connector, String dataSourceId, String clientToken,
+                int priority, Instant deadline, long sequence) {
+            this.connector = connector;
+            this.dataSourceId = dataSourceId;
+            this.clientToken = clientToken;
+            this.priority = priority;
+            this.deadline = deadline;
+            this.sequence = sequence;
+        }
+        
+        String knowledgeBaseId() {
+            return connector.getKnowledgeBaseId();
+        }
+        
+        String dataSourceKey() {
+            return connector.getKnowledgeBaseId() + "/" + dataSourceId;
+        }
+        
+        @Override
+        public int compareTo(Request other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            if (!Objects.equals(deadline, other.deadline)) {
+                if (deadline == null) {
+                    return 1;
+                }
+                if (other.deadline == null) {
+                    return -1;
+                }
+                return deadline.compareTo(other.deadline);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+    
+    public static class Builder {
+        private IngestionMonitor monitor;
+        private int maxJobsPerAccount = 5;
+        private int maxJobsPerKnowledgeBase = 1;
+        private int maxJobsPerDataSource = 1;
+        private long retryDelayMs = 30000;
+        
+        /**
+         * Monitor that reports when admitted jobs finish and free their slot
+         */
+        public Builder monitor(IngestionMonitor monitor) {
+            this.monitor = monitor;
+            return this;
+        }
+        
+        /**
+         * Concurrent ingestion jobs allowed in the account (Bedrock default quota: 5)
+         */
+        public Builder maxJobsPerAccount(int maxJobsPerAccount) {
+            this.maxJobsPerAccount = maxJobsPerAccount;
+            return this;
+        }
+        
+        /**
+         * Concurrent ingestion jobs allowed per knowledge base (Bedrock default quota: 1)
+         */
+        public Builder maxJobsPerKnowledgeBase(int maxJobsPerKnowledgeBase) {
+            this.maxJobsPerKnowledgeBase = maxJobsPerKnowledgeBase;
+            return this;
+        }
+        
+        /**
+         * Concurrent ingestion jobs allowed per data source (Bedrock default quota: 1)
+         */
+        public Builder maxJobsPerDataSource(int maxJobsPerDataSource) {
+            this.maxJobsPerDataSource = maxJobsPerDataSource;
+            return this;
+        }
+        
+        /**
+         * Pause before retrying a start that was refused for concurrency
+         */
+        public Builder retryDelayMs(long retryDelayMs) {
+            this.retryDelayMs = retryDelayMs;
+            return this;
+        }
+        
+        public IngestionScheduler build() {
+            Objects.requireNonNull(monitor, "monitor");
+            if (maxJobsPerAccount < 1 || maxJobsPerKnowledgeBase < 1 || maxJobsPerDataSource < 1) {
+                throw new IllegalArgumentException("Concurrency limits must be positive");
+            }
+            return new IngestionScheduler(this);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,258 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.model.IngestionJob;
+import software.amazon.awssdk.services.bedrockagent.model.StartIngestionJobResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collapses repeated ingestion triggers (cron, webhooks, operators) for the same data source.
+ *
+ * An idle data source starts a job for the first trigger. Triggers that arrive while that job is
+ * starting or running are parked as one follow-up run, started when the IngestionMonitor sees the
+ * current job finish, so any number of back-to-back triggers produce at most two jobs. Each trigger's
+ * future completes with the job that serves it once that job has started. Starts go through the
+ * IngestionScheduler when one is set; otherwise a start refused for concurrency (e.g. a job started
+ * outside the coalescer) is retried after retryDelayMs with its triggers still parked.
+ */
+public class IngestionTriggerCoalescer implements AutoCloseable {
+    private final IngestionMonitor monitor;
+    private final IngestionScheduler scheduler;
+    private final long retryDelayMs;
+    private final Map<String, Lane> lanes = new HashMap<>();
+    private final AtomicLong triggers = new AtomicLong();
+    private final AtomicLong jobsStarted = new AtomicLong();
+    private boolean closed;
+    
+    private IngestionTriggerCoalescer(Builder builder) {
+        this.monitor = builder.monitor;
+        this.scheduler = builder.scheduler;
+        this.retryDelayMs = builder.retryDelayMs;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * Trigger ingestion with a generated trigger ID
+     */
+    public CompletableFuture<IngestionTriggerResult> trigger(DataSourceConnector connector, String dataSourceId) {
+        return trigger(connector, dataSourceId, null);
+    }
+    
+    /**
+     * Request an ingestion run for the data source. The future completes once the job serving this
+     * trigger has started, or with a ConnectorException if its start fails.
+     *
+     * @param triggerId caller's label for the trigger, e.g. "webhook-8812" (generated when null)
+     */
+    public CompletableFuture<IngestionTriggerResult> trigger(DataSourceConnector connector, String dataSourceId,
+                                                             String triggerId) {
+        Trigger trigger = new Trigger(triggerId != null ? triggerId : UUID.randomUUID().toString());
+        triggers.incrementAndGet();
+        Lane launch = null;
+        synchronized (this) {
+            if (closed) {
+                trigger.result.completeExceptionally(new ConnectorException("Ingestion trigger coalescer closed"));
+                return trigger.result;
+            }
+            Lane lane = lanes.computeIfAbsent(connector.getKnowledgeBaseId() + "/" + dataSourceId,
+                key -> new Lane(key, connector, dataSourceId));
+            lane.pending.add(trigger);
+            if (!lane.busy) {
+                lane.busy = true;
+                launch = lane;
+            }
+        }
+        if (launch != null) {
+            startNext(launch);
+        }
+        return trigger.result;
+    }
+    
+    /**
+     * Start one job for every trigger parked on the lane; an empty lane goes idle
+     */
+    private void startNext(Lane lane) {
+        List<Trigger> batch;
+        boolean stop;
+        synchronized (this) {
+            batch = lane.pending;
+            lane.pending = new ArrayList<>();
+            stop = closed || batch.isEmpty();
+            if (stop) {
+                lane.busy = false;
+                lanes.remove(lane.key);
+            }
+        }
+        if (stop) {
+            for (Trigger trigger : batch) {
+                trigger.result.completeExceptionally(new ConnectorException("Ingestion trigger coalescer closed"));
+            }
+            return;
+        }
+        String clientToken = UUID.randomUUID().toString();
+        start(lane, clientToken).whenComplete((response, error) -> {
+            if (error == null) {
+                started(lane, batch, response.ingestionJob());
+                return;
+            }
+            Throwable cause = AsyncCalls.unwrap(error);
+            if (cause instanceof UncheckedConnectorException) {
+                cause = cause.getCause();
+            }
+            if (scheduler == null && RetryPolicy.isConcurrencyLimit(cause)) {
+                retryLater(lane, batch);
+                return;
+            }
+            for (Trigger trigger : batch) {
+                trigger.result.completeExceptionally(cause);
+            }
+            finished(lane);
+        });
+    }
+    
+    private CompletableFuture<StartIngestionJobResponse> start(Lane lane, String clientToken) {
+        if (scheduler != null) {
+            return scheduler.submit(lane.connector, lane.dataSourceId, clientToken, 0, null);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return lane.connector.startIngestion(lane.dataSourceId, clientToken);
+            } catch (ConnectorException e) {
+                throw new UncheckedConnectorException(e);
+            }
+        }, ConnectorExecutors.background());
+    }
+    
+    private void started(Lane lane, List<Trigger> batch, IngestionJob job) {
+        jobsStarted.incrementAndGet();
+        String lead = batch.get(0).id;
+        for (Trigger trigger : batch) {
+            trigger.result.complete(new IngestionTriggerResult(trigger.id, lead, job, batch.size()));
+        }
+        monitor.watch(ConnectorFactory.typeOf(lane.connector), lane.connector.getKnowledgeBaseId(),
+                lane.dataSourceId, job.ingestionJobId())
+            .whenComplete((finished, error) -> finished(lane));
+    }
+    
+    private void retryLater(Lane lane, List<Trigger> batch) {
+        synchronized (this) {
+            // keep arrival order so the earliest trigger stays the lead
+            batch.addAll(lane.pending);
+            lane.pending = batch;
+        }
+        ConnectorExecutors.scheduler().schedule(
+            () -> ConnectorExecutors.background().execute(() -> startNext(lane)), retryDelayMs, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * The lane's job ended (or never started): run the parked follow-up, if any
+     */
+    private void finished(Lane lane) {
+        startNext(lane);
+    }
+    
+    /**
+     * Triggers parked for the data source's follow-up run
+     */
+    public synchronized int getPending(String knowledgeBaseId, String dataSourceId) {
+        Lane lane = lanes.get(knowledgeBaseId + "/" + dataSourceId);
+        return lane != null ? lane.pending.size() : 0;
+    }
+    
+    public long getTriggers() {
+        return triggers.get();
+    }
+    
+    public long getJobsStarted() {
+        return jobsStarted.get();
+    }
+    
+    /**
+     * Fail every parked trigger; jobs already started keep running
+     */
+    @Override
+    public void close() {
+        List<Trigger> parked = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            for (Lane lane : lanes.values()) {
+                parked.addAll(lane.pending);
+                lane.pending.clear();
+            }
+        }
+        for (Trigger trigger : parked) {
+            trigger.result.completeExceptionally(new ConnectorException("Ingestion trigger coalescer closed"));
+        }
+    }
+    
+    private static final class Trigger {
+        private final String id;
+        private final CompletableFuture<IngestionTriggerResult> result = new CompletableFuture<>();
+        
+        Trigger(String id) {
+            this.id = id;
+        }
+    }
+    
+    /**
+     * Per data source state; busy from the first start until the last job of the lane finishes
+     */
+    private static final class Lane {
+        private final String key;
+        private final DataSourceConnector connector;
+        private final String dataSourceId;
+        private List<Trigger> pending = new ArrayList<>();
+        private boolean busy;
+        
+        Lane(String key, DataSourceConnector connector, String dataSourceId) {
+            this.key = key;
+            this.connector = connector;
+            this.dataSourceId = dataSourceId;
+        }
+    }
+    
+    public static class Builder {
+        private IngestionMonitor monitor;
+        private IngestionScheduler scheduler;
+        private long retryDelayMs = 30000;
+        
+        /**
+         * Monitor that reports when a data source's job finishes
+         */
+        public Builder monitor(IngestionMonitor monitor) {
+            this.monitor = monitor;
+            return this;
+        }
+        
+        /**
+         * Admit coalesced starts through this scheduler (optional)
+         */
+        public Builder scheduler(IngestionScheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+        
+        /**
+         * Pause before retrying a start that was refused for concurrency (without a scheduler)
+         */
+        public Builder retryDelayMs(long retryDelayMs) {
+            this.retryDelayMs = retryDelayMs;
+            return this;
+        }
+        
+        public IngestionTriggerCoalescer build() {
+            Objects.requireNonNull(monitor, "monitor");
+            return new IngestionTriggerCoalescer(this);
+        }
+    }
+}
\ No newline at end of file
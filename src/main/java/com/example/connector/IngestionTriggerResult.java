@@ -0,0 +1,41 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.model.IngestionJob;
+
+/**
+ * What became of one ingestion trigger: the job that serves it, and whether it started that job
+ * or was merged into a run started for an earlier trigger
+ */
+public final class IngestionTriggerResult {
+    private final String triggerId;
+    private final String leadTriggerId;
+    private final IngestionJob ingestionJob;
+    private final int triggersServed;
+    
+    IngestionTriggerResult(String triggerId, String leadTriggerId, IngestionJob ingestionJob, int triggersServed) {
+        this.triggerId = triggerId;
+        this.leadTriggerId = leadTriggerId;
+        this.ingestionJob = ingestionJob;
+        this.triggersServed = triggersServed;
+    }
+    
+    public String getTriggerId() { return triggerId; }
+    /** Trigger the job was started for */
+    public String getLeadTriggerId() { return leadTriggerId; }
+    public IngestionJob getIngestionJob() { return ingestionJob; }
+    public String getIngestionJobId() { return ingestionJob.ingestionJobId(); }
+    public String getKnowledgeBaseId() { return ingestionJob.knowledgeBaseId(); }
+    public String getDataSourceId() { return ingestionJob.dataSourceId(); }
+    /** Number of triggers collapsed into this job, including the lead */
+    public int getTriggersServed() { return triggersServed; }
+    
+    public boolean isMerged() {
+        return !triggerId.equals(leadTriggerId);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("IngestionTriggerResult{trigger=%s, job=%s, merged=%s, lead=%s, served=%d}",
+            triggerId, getIngestionJobId(), isMerged(), leadTriggerId, triggersServed);
+    }
+}
\ No newline at end of file
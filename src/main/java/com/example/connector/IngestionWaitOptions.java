@@ -0,0 +1,119 @@
+package com.example.connector;
+
+/**
+ * Polling settings for DataSourceConnector.waitForIngestion.
+ *
+ * The poll interval follows the job: while documents are being processed the next poll is set
+ * to a fraction of the estimated time remaining, and while nothing moves (STARTING, scanning a
+ * large source) it backs off geometrically. Every delay is clamped to [minPollMs, maxPollMs] and
+ * spread by +/- jitter so many waiters do not poll in lockstep.
+ */
+public class IngestionWaitOptions {
+    private final long initialPollMs;
+    private final long minPollMs;
+    private final long maxPollMs;
+    private final double backoffMultiplier;
+    private final double etaFraction;
+    private final double jitter;
+    private final long maxWaitMs;
+    
+    private IngestionWaitOptions(Builder builder) {
+        this.initialPollMs = builder.initialPollMs;
+        this.minPollMs = builder.minPollMs;
+        this.maxPollMs = builder.maxPollMs;
+        this.backoffMultiplier = builder.backoffMultiplier;
+        this.etaFraction = builder.etaFraction;
+        this.jitter = builder.jitter;
+        this.maxWaitMs = builder.maxWaitMs;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    public static IngestionWaitOptions defaultOptions() {
+        return builder().build();
+    }
+    
+    public long getInitialPollMs() { return initialPollMs; }
+    public long getMinPollMs() { return minPollMs; }
+    public long getMaxPollMs() { return maxPollMs; }
+    public double getBackoffMultiplier() { return backoffMultiplier; }
+    public double getEtaFraction() { return etaFraction; }
+    public double getJitter() { return jitter; }
+    public long getMaxWaitMs() { return maxWaitMs; }
+    
+    public static class Builder {
+        private long initialPollMs = 5000;
+        private long minPollMs = 2000;
+        private long maxPollMs = 60000;
+        private double backoffMultiplier = 1.5;
+        private double etaFraction = 0.5;
+        private double jitter = 0.2;
+        private long maxWaitMs = 3600000;
+        
+        /**
+         * Delay after the first poll, before any progress has been observed
+         */
+        public Builder initialPollMs(long initialPollMs) {
+            this.initialPollMs = initialPollMs;
+            return this;
+        }
+        
+        public Builder minPollMs(long minPollMs) {
+            this.minPollMs = minPollMs;
+            return this;
+        }
+        
+        public Builder maxPollMs(long maxPollMs) {
+            this.maxPollMs = maxPollMs;
+            return this;
+        }
+        
+        /**
+         * Growth of the interval between polls that show no progress
+         */
+        public Builder backoffMultiplier(double backoffMultiplier) {
+            this.backoffMultiplier = backoffMultiplier;
+            return this;
+        }
+        
+        /**
+         * Fraction of the estimated remaining time to wait before the next poll
+         */
+        public Builder etaFraction(double etaFraction) {
+            this.etaFraction = etaFraction;
+            return this;
+        }
+        
+        /**
+         * Random spread applied to every delay, e.g. 0.2 for +/- 20%
+         */
+        public Builder jitter(double jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+        
+        /**
+         * Give up (ConnectorException) if the job is still running after this long
+         */
+        public Builder maxWaitMs(long maxWaitMs) {
+            this.maxWaitMs = maxWaitMs;
+            return this;
+        }
+        
+        public IngestionWaitOptions build() {
+            if (minPollMs <= 0 || maxPollMs < minPollMs) {
+                throw new IllegalArgumentException("Require 0 < minPollMs <= maxPollMs");
+            }
+            if (backoffMultiplier < 1.0 || etaFraction <= 0.0 || jitter < 0.0 || jitter >= 1.0) {
+                throw new IllegalArgumentException(
+                    "Require backoffMultiplier >= 1, etaFraction > 0 and 0 <= jitter < 1");
+            }
+            if (maxWaitMs <= 0) {
+                throw new IllegalArgumentException("maxWaitMs must be positive: " + maxWaitMs);
+            }
+            return new IngestionWaitOptions(this);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.model.GetIngestionJobResponse;
+import software.amazon.awssdk.services.bedrockagent.model.IngestionJob;
+import software.amazon.awssdk.services.bedrockagent.model.IngestionJobStatistics;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls one ingestion job until it is COMPLETE, FAILED or STOPPED. Delays are timed on the
+ * shared scheduler and polls run on the background pool, so a waiting caller holds no thread;
+ * cancelling the returned future stops polling.
+ */
+final class IngestionWaiter {
+    
+    /**
+     * One status read, normally DataSourceConnector.getIngestionJob
+     */
+    interface Poll {
+        GetIngestionJobResponse poll() throws ConnectorException;
+    }
+    
+    private final Poll poll;
+    private final IngestionWaitOptions options;
+    private final String description;
+    private final long deadlineNanos;
+    private final CompletableFuture<GetIngestionJobResponse> result = new CompletableFuture<>();
+    private volatile ScheduledFuture<?> pending;
+    private long delayMs;
+    private long lastProcessed = -1;
+    private long lastSampleNanos;
+    
+    private IngestionWaiter(Poll poll, IngestionWaitOptions options, String description) {
+        this.poll = poll;
+        this.options = options;
+        this.description = description;
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.getMaxWaitMs());
+        this.delayMs = options.getInitialPollMs();
+    }
+    
+    /**
+     * Start polling at once; the future completes with the terminal response or a ConnectorException
+     */
+    static CompletableFuture<GetIngestionJobResponse> start(Poll poll, IngestionWaitOptions options,
+                                                            String description) {
+        IngestionWaiter waiter = new IngestionWaiter(poll, options, description);
+        waiter.result.whenComplete((value, error) -> {
+            ScheduledFuture<?> scheduled = waiter.pending;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        });
+        ConnectorExecutors.background().execute(waiter::pollOnce);
+        return waiter.result;
+    }
+    
+    static boolean isTerminal(String status) {
+        return "COMPLETE".equals(status) || "FAILED".equals(status) || "STOPPED".equals(status);
+    }
+    
+    private void pollOnce() {
+        if (result.isDone()) {
+            return;
+        }
+        GetIngestionJobResponse response;
+        try {
+            response = poll.poll();
+        } catch (ConnectorException e) {
+            result.completeExceptionally(e);
+            return;
+        } catch (RuntimeException e) {
+            result.completeExceptionally(new ConnectorException("Failed to poll " + description, e));
+            return;
+        }
+        IngestionJob job = response.ingestionJob();
+        if (isTerminal(job.statusAsString())) {
+            result.complete(response);
+            return;
+        }
+        long now = System.nanoTime();
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - now);
+        if (remainingMs <= 0) {
+            result.completeExceptionally(new ConnectorException("Timed out after " + options.getMaxWaitMs()
+                + " ms waiting for " + description + " (last status " + job.statusAsString() + ")"));
+            return;
+        }
+        long next = Math.min(jittered(nextDelayMs(job, now)), remainingMs);
+        pending = ConnectorExecutors.scheduler().schedule(
+            () -> ConnectorExecutors.background().execute(this::pollOnce), next, TimeUnit.MILLISECONDS);
+        if (result.isDone()) {
+            pending.cancel(false);
+        }
+    }
+    
+    /**
+     * Aim the next poll at a fraction of the projected time to finish; back off while nothing moves
+     */
+    long nextDelayMs(IngestionJob job, long nowNanos) {
+        IngestionJobStatistics stats = job.statistics();
+        long scanned = stats != null ? count(stats.numberOfDocumentsScanned()) : 0;
+        long processed = stats != null
+            ? count(stats.numberOfNewDocumentsIndexed()) + count(stats.numberOfModifiedDocumentsIndexed())
+                + count(stats.numberOfDocumentsDeleted()) + count(stats.numberOfDocumentsFailed())
+            : 0;
+        if ("STOPPING".equals(job.statusAsString())) {
+            delayMs = options.getMinPollMs();
+        } else if (lastProcessed >= 0 && processed > lastProcessed) {
+            if (scanned > processed) {
+                double perMs = (processed - lastProcessed) / (double) TimeUnit.NANOSECONDS.toMillis(
+                    Math.max(nowNanos - lastSampleNanos, TimeUnit.MILLISECONDS.toNanos(1)));
+                delayMs = (long) ((scanned - processed) / perMs * options.getEtaFraction());
+            }
+        } else if (lastProcessed >= 0) {
+            delayMs = (long) (delayMs * options.getBackoffMultiplier());
+        }
+        lastProcessed = processed;
+        lastSampleNanos = nowNanos;
+        delayMs = Math.max(options.getMinPollMs(), Math.min(options.getMaxPollMs(), delayMs));
+        return delayMs;
+    }
+    
+    private long jittered(long delay) {
+        double jitter = options.getJitter();
+        if (jitter == 0.0) {
+            return delay;
+        }
+        return Math.max(1L, (long) (delay * (1.0 - jitter + 2.0 * jitter * ThreadLocalRandom.current().nextDouble())));
+    }
+    
+    private static long count(Long value) {
+        return value != null ? value : 0L;
+    }
+}
\ No newline at end of file
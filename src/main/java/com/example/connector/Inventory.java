@@ -0,0 +1,466 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.BedrockAgentClient;
+import software.amazon.awssdk.services.bedrockagent.model.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inventory of knowledge bases, data sources and their latest ingestion jobs, persisted
+ * as an InventorySnapshot so a restarted process is warm immediately instead of crawling every
+ * List* API again.
+ *
+ * start() loads the snapshot and begins revalidating the loaded records in the background at a
+ * low, fixed rate through the shared rate limiter; records that come back "not found" are dropped.
+ * A new snapshot is written periodically while records change and once more on close() (and,
+ * optionally, at JVM shutdown). Without a snapshot, rebuild() does the full crawl once. Snapshot
+ * records are served only through this class's queries; the metadata cache is filled only with
+ * the full responses fetched during revalidation.
+ */
+public class Inventory implements AutoCloseable {
+    /**
+     * Rate limiter tenant key for revalidation and rebuild traffic
+     */
+    static final String INVENTORY_TENANT = "inventory";
+    
+    private final BedrockAgentClient bedrockClient;
+    private final ControlPlaneInvoker invoker;
+    private final Path snapshotFile;
+    private final long snapshotIntervalMs;
+    private final double revalidationsPerSecond;
+    private final MetadataCache metadataCache;
+    private final boolean writeOnShutdown;
+    private final Map<String, InventoryRecord> records = new ConcurrentHashMap<>();
+    private final Queue<String> pendingRevalidation = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private volatile ScheduledFuture<?> revalidationTask;
+    private volatile ScheduledFuture<?> snapshotTask;
+    private volatile Thread shutdownHook;
+    private volatile long loadedSnapshotMillis;
+    
+    private Inventory(Builder builder) {
+        this.bedrockClient = builder.client;
+        this.invoker = new ControlPlaneInvoker(builder.config);
+        AdaptiveRateLimiter limiter = builder.rateLimiter != null
+            ? builder.rateLimiter : ConnectorFactory.getSharedRateLimiter();
+        if (limiter != null) {
+            invoker.setRateLimiter(limiter, INVENTORY_TENANT);
+        }
+        this.snapshotFile = builder.snapshotFile;
+        this.snapshotIntervalMs = builder.snapshotIntervalMs;
+        this.revalidationsPerSecond = builder.revalidationsPerSecond;
+        this.metadataCache = builder.metadataCache != null
+            ? builder.metadataCache : ConnectorFactory.getSharedMetadataCache();
+        this.writeOnShutdown = builder.writeOnShutdown;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * Load the snapshot and start background revalidation and snapshots.
+     * A missing or unreadable snapshot is a cold start; call rebuild() in that case.
+     *
+     * @return number of records loaded from the snapshot
+     */
+    public synchronized int start() {
+        if (revalidationTask != null) {
+            throw new IllegalStateException("Inventory already started");
+        }
+        int loaded = 0;
+        if (Files.exists(snapshotFile)) {
+            try {
+                InventorySnapshot snapshot = InventorySnapshot.read(snapshotFile);
+                loadedSnapshotMillis = snapshot.getCreatedAtMillis();
+                for (InventoryRecord record : snapshot.getRecords()) {
+                    records.put(record.key(), record);
+                    if (!record.isTerminal()) {
+                        pendingRevalidation.add(record.key());
+                    }
+                }
+                loaded = snapshot.getRecords().size();
+            } catch (IOException e) {
+                records.clear();
+                pendingRevalidation.clear();
+            }
+        }
+        long revalidationPeriodMs = Math.max(1L, (long) (1000 / revalidationsPerSecond));
+        revalidationTask = ConnectorExecutors.scheduler().scheduleAtFixedRate(this::scheduleRevalidation,
+            revalidationPeriodMs, revalidationPeriodMs, TimeUnit.MILLISECONDS);
+        snapshotTask = ConnectorExecutors.scheduler().scheduleWithFixedDelay(this::scheduleSnapshot,
+            snapshotIntervalMs, snapshotIntervalMs, TimeUnit.MILLISECONDS);
+        if (writeOnShutdown) {
+            Thread hook = new Thread(this::writeQuietly, "inventory-shutdown");
+            Runtime.getRuntime().addShutdownHook(hook);
+            shutdownHook = hook;
+        }
+        return loaded;
+    }
+    
+    /**
+     * Crawl every knowledge base, data source and latest ingestion job and replace the inventory
+     */
+    public void rebuild() throws ConnectorException {
+        Map<String, InventoryRecord> crawled = new HashMap<>();
+        for (KnowledgeBaseSummary kb : listKnowledgeBases()) {
+            InventoryRecord kbRecord = InventoryRecord.of(kb);
+            crawled.put(kbRecord.key(), kbRecord);
+            for (DataSourceSummary ds : listDataSources(kb.knowledgeBaseId())) {
+                InventoryRecord dsRecord = InventoryRecord.of(ds);
+                crawled.put(dsRecord.key(), dsRecord);
+                IngestionJobSummary latest = latestIngestionJob(kb.knowledgeBaseId(), ds.dataSourceId());
+                if (latest != null) {
+                    InventoryRecord jobRecord = InventoryRecord.of(latest);
+                    crawled.put(jobRecord.key(), jobRecord);
+                }
+            }
+        }
+        records.keySet().retainAll(crawled.keySet());
+        records.putAll(crawled);
+        pendingRevalidation.clear();
+        dirty.set(true);
+    }
+    
+    private List<KnowledgeBaseSummary> listKnowledgeBases() throws ConnectorException {
+        List<KnowledgeBaseSummary> all = new ArrayList<>();
+        String nextToken = null;
+        do {
+            ListKnowledgeBasesRequest request = ListKnowledgeBasesRequest.builder()
+                .nextToken(nextToken)
+                .build();
+            ListKnowledgeBasesResponse response = invoker.invoke("ListKnowledgeBases",
+                () -> bedrockClient.listKnowledgeBases(request), "Failed to list knowledge bases");
+            all.addAll(response.knowledgeBaseSummaries());
+            nextToken = response.nextToken();
+        } while (nextToken != null);
+        return all;
+    }
+    
+    private List<DataSourceSummary> listDataSources(String knowledgeBaseId) throws ConnectorException {
+        List<DataSourceSummary> all = new ArrayList<>();
+        String nextToken = null;
+        do {
+            ListDataSourcesRequest request = ListDataSourcesRequest.builder()
+                .knowledgeBaseId(knowledgeBaseId)
+                .nextToken(nextToken)
+                .build();
+            ListDataSourcesResponse response = invoker.invoke("ListDataSources",
+                () -> bedrockClient.listDataSources(request),
+                "Failed to list data sources for knowledge base: " + knowledgeBaseId);
+            all.addAll(response.dataSourceSummaries());
+            nextToken = response.nextToken();
+        } while (nextToken != null);
+        return all;
+    }
+    
+    private IngestionJobSummary latestIngestionJob(String knowledgeBaseId, String dataSourceId)
+            throws ConnectorException {
+        ListIngestionJobsRequest request = ListIngestionJobsRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .sortBy(IngestionJobSortBy.builder()
+                .attribute(IngestionJobSortByAttribute.STARTED_AT)
+                .order(SortOrder.DESCENDING)
+                .build())
+            .maxResults(1)
+            .build();
+        ListIngestionJobsResponse response = invoker.invoke("ListIngestionJobs",
+            () -> bedrockClient.listIngestionJobs(request),
+            "Failed to list ingestion jobs for data source: " + dataSourceId);
+        List<IngestionJobSummary> jobs = response.ingestionJobSummaries();
+        return jobs.isEmpty() ? null : jobs.get(0);
+    }
+    
+    /**
+     * Feed a fresh observation (e.g. after a create or StartIngestionJob) into the inventory
+     */
+    public void record(InventoryRecord record) {
+        records.put(record.key(), record);
+        dirty.set(true);
+    }
+    
+    /**
+     * Drop a knowledge base with its data sources and jobs, or a data source with its job
+     */
+    public void remove(String knowledgeBaseId, String dataSourceId) {
+        String suffix = dataSourceId == null ? knowledgeBaseId : knowledgeBaseId + "/" + dataSourceId;
+        if (dataSourceId == null) {
+            records.remove("KnowledgeBase/" + knowledgeBaseId);
+            records.keySet().removeIf(key -> key.startsWith("DataSource/" + suffix + "/")
+                || key.startsWith("IngestionJob/" + suffix + "/"));
+        } else {
+            records.remove("DataSource/" + suffix);
+            records.remove("IngestionJob/" + suffix);
+        }
+        dirty.set(true);
+    }
+    
+    public List<InventoryRecord> getKnowledgeBases() {
+        return select(record -> record.getKind() == InventoryRecord.Kind.KNOWLEDGE_BASE);
+    }
+    
+    public List<InventoryRecord> getDataSources(String knowledgeBaseId) {
+        return select(record -> record.getKind() == InventoryRecord.Kind.DATA_SOURCE
+            && record.getKnowledgeBaseId().equals(knowledgeBaseId));
+    }
+    
+    /**
+     * Latest known ingestion job of the data source, or null
+     */
+    public InventoryRecord getLatestIngestionJob(String knowledgeBaseId, String dataSourceId) {
+        return records.get("IngestionJob/" + knowledgeBaseId + "/" + dataSourceId);
+    }
+    
+    private List<InventoryRecord> select(Predicate<InventoryRecord> filter) {
+        return records.values().stream()
+            .filter(filter)
+            .sorted(Comparator.comparing(InventoryRecord::key))
+            .collect(Collectors.toList());
+    }
+    
+    public int size() {
+        return records.size();
+    }
+    
+    /**
+     * Loaded records still waiting for their first background revalidation
+     */
+    public int getPendingRevalidations() {
+        return pendingRevalidation.size();
+    }
+    
+    /**
+     * Creation time of the snapshot loaded by start(), or 0 after a cold start
+     */
+    public long getLoadedSnapshotMillis() {
+        return loadedSnapshotMillis;
+    }
+    
+    /**
+     * Write the current inventory to the snapshot file now
+     */
+    public void writeSnapshot() throws IOException {
+        dirty.set(false);
+        try {
+            new InventorySnapshot(System.currentTimeMillis(), records.values()).write(snapshotFile);
+        } catch (IOException e) {
+            dirty.set(true);
+            throw e;
+        }
+    }
+    
+    private void writeQuietly() {
+        if (!writing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            writeSnapshot();
+        } catch (IOException e) {
+            // keep the previous snapshot; the next interval retries
+        } finally {
+            writing.set(false);
+        }
+    }
+    
+    private void scheduleSnapshot() {
+        if (dirty.get()) {
+            ConnectorExecutors.background().execute(this::writeQuietly);
+        }
+    }
+    
+    private void scheduleRevalidation() {
+        if (!pendingRevalidation.isEmpty() && revalidating.compareAndSet(false, true)) {
+            ConnectorExecutors.background().execute(() -> {
+                try {
+                    revalidateNext();
+                } finally {
+                    revalidating.set(false);
+                }
+            });
+        }
+    }
+    
+    private void revalidateNext() {
+        String key = pendingRevalidation.poll();
+        InventoryRecord record = key != null ? records.get(key) : null;
+        if (record == null) {
+            return;
+        }
+        try {
+            record(revalidate(record));
+        } catch (ConnectorException e) {
+            if (RetryPolicy.isNotFound(e) && record.getKind() == InventoryRecord.Kind.INGESTION_JOB) {
+                // an expired job says nothing about its data source, which stays in the inventory
+                if (records.remove(key, record)) {
+                    dirty.set(true);
+                }
+            } else if (RetryPolicy.isNotFound(e)) {
+                remove(record.getKnowledgeBaseId(),
+                    record.getKind() == InventoryRecord.Kind.KNOWLEDGE_BASE ? null : record.getDataSourceId());
+            } else {
+                pendingRevalidation.add(key);
+            }
+        }
+    }
+    
+    private InventoryRecord revalidate(InventoryRecord record) throws ConnectorException {
+        String kbId = record.getKnowledgeBaseId();
+        String dsId = record.getDataSourceId();
+        switch (record.getKind()) {
+            case KNOWLEDGE_BASE: {
+                GetKnowledgeBaseRequest request = GetKnowledgeBaseRequest.builder()
+                    .knowledgeBaseId(kbId)
+                    .build();
+                String cacheKey = KnowledgeBaseManager.knowledgeBaseCacheKey(kbId);
+                long generation = metadataCache != null ? metadataCache.generation(cacheKey) : 0;
+                GetKnowledgeBaseResponse response = invoker.invoke("GetKnowledgeBase",
+                    () -> bedrockClient.getKnowledgeBase(request), "Failed to get knowledge base: " + kbId);
+                if (metadataCache != null) {
+                    metadataCache.put(cacheKey, response, generation);
+                }
+                return InventoryRecord.of(response.knowledgeBase());
+            }
+            case DATA_SOURCE: {
+                GetDataSourceRequest request = GetDataSourceRequest.builder()
+                    .knowledgeBaseId(kbId)
+                    .dataSourceId(dsId)
+                    .build();
+                String cacheKey = DataSourceConnector.dataSourceCacheKey(kbId, dsId);
+                long generation = metadataCache != null ? metadataCache.generation(cacheKey) : 0;
+                GetDataSourceResponse response = invoker.invoke("GetDataSource",
+                    () -> bedrockClient.getDataSource(request), "Failed to get data source: " + dsId);
+                if (metadataCache != null) {
+                    metadataCache.put(cacheKey, response, generation);
+                }
+                return InventoryRecord.of(response.dataSource());
+            }
+            default: {
+                GetIngestionJobRequest request = GetIngestionJobRequest.builder()
+                    .knowledgeBaseId(kbId)
+                    .dataSourceId(dsId)
+                    .ingestionJobId(record.getIngestionJobId())
+                    .build();
+                GetIngestionJobResponse response = invoker.invoke("GetIngestionJob",
+                    () -> bedrockClient.getIngestionJob(request),
+                    "Failed to get ingestion job: " + record.getIngestionJobId());
+                return InventoryRecord.of(response.ingestionJob());
+            }
+        }
+    }
+    
+    /**
+     * Stop background work and write a final snapshot
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (revalidationTask != null) {
+            revalidationTask.cancel(false);
+            snapshotTask.cancel(false);
+        }
+        Thread hook = shutdownHook;
+        if (hook != null) {
+            shutdownHook = null;
+            try {
+                Runtime.getRuntime().removeShutdownHook(hook);
+            } catch (IllegalStateException e) {
+                // already shutting down; the hook writes the snapshot
+                return;
+            }
+        }
+        writeSnapshot();
+    }
+    
+    public static class Builder {
+        private BedrockAgentClient client;
+        private ConnectorConfig config = ConnectorConfig.defaultConfig();
+        private Path snapshotFile;
+        private long snapshotIntervalMs = 300000;
+        private double revalidationsPerSecond = 2.0;
+        private MetadataCache metadataCache;
+        private AdaptiveRateLimiter rateLimiter;
+        private boolean writeOnShutdown = true;
+        
+        public Builder client(BedrockAgentClient client) {
+            this.client = client;
+            return this;
+        }
+        
+        public Builder config(ConnectorConfig config) {
+            this.config = config;
+            return this;
+        }
+        
+        public Builder snapshotFile(Path snapshotFile) {
+            this.snapshotFile = snapshotFile;
+            return this;
+        }
+        
+        /**
+         * How often a changed inventory is written to disk
+         */
+        public Builder snapshotIntervalMs(long snapshotIntervalMs) {
+            this.snapshotIntervalMs = snapshotIntervalMs;
+            return this;
+        }
+        
+        /**
+         * Background revalidation pace; keep it low so warm-up does not compete with real traffic
+         */
+        public Builder revalidationsPerSecond(double revalidationsPerSecond) {
+            this.revalidationsPerSecond = revalidationsPerSecond;
+            return this;
+        }
+        
+        /**
+         * Cache refreshed with the full responses fetched during revalidation (defaults to
+         * ConnectorFactory's shared cache)
+         */
+        public Builder metadataCache(MetadataCache metadataCache) {
+            this.metadataCache = metadataCache;
+            return this;
+        }
+        
+        /**
+         * Limiter for revalidation and rebuild calls (defaults to ConnectorFactory's shared limiter)
+         */
+        public Builder rateLimiter(AdaptiveRateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
+        
+        /**
+         * Also write a snapshot from a JVM shutdown hook if close() was never called
+         */
+        public Builder writeOnShutdown(boolean writeOnShutdown) {
+            this.writeOnShutdown = writeOnShutdown;
+            return this;
+        }
+        
+        public Inventory build() {
+            Objects.requireNonNull(client, "client");
+            Objects.requireNonNull(snapshotFile, "snapshotFile");
+            if (snapshotIntervalMs <= 0 || revalidationsPerSecond <= 0) {
+                throw new IllegalArgumentException("snapshotIntervalMs and revalidationsPerSecond must be positive");
+            }
+            return new Inventory(this);
+        }
+    }
+}
\ No newline at end of file
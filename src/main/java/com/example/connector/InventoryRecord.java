@@ -0,0 +1,132 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.model.*;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * One entry of the knowledge base inventory: a knowledge base, a data source, or the latest
+ * ingestion job of a data source. Only identifiers, name, status and last update are kept,
+ * which is what orchestration needs and what fits a compact snapshot.
+ */
+public final class InventoryRecord {
+    
+    public enum Kind {
+        KNOWLEDGE_BASE,
+        DATA_SOURCE,
+        /** Latest ingestion job of a data source */
+        INGESTION_JOB
+    }
+    
+    private final Kind kind;
+    private final String knowledgeBaseId;
+    private final String dataSourceId;
+    private final String ingestionJobId;
+    private final String name;
+    private final String status;
+    private final long updatedAtMillis;
+    
+    InventoryRecord(Kind kind, String knowledgeBaseId, String dataSourceId, String ingestionJobId,
+                    String name, String status, long updatedAtMillis) {
+        this.kind = Objects.requireNonNull(kind, "kind");
+        this.knowledgeBaseId = Objects.requireNonNull(knowledgeBaseId, "knowledgeBaseId");
+        this.dataSourceId = dataSourceId;
+        this.ingestionJobId = ingestionJobId;
+        this.name = name;
+        this.status = status;
+        this.updatedAtMillis = updatedAtMillis;
+    }
+    
+    public static InventoryRecord of(KnowledgeBase kb) {
+        return new InventoryRecord(Kind.KNOWLEDGE_BASE, kb.knowledgeBaseId(), null, null,
+            kb.name(), kb.statusAsString(), millis(kb.updatedAt()));
+    }
+    
+    public static InventoryRecord of(KnowledgeBaseSummary kb) {
+        return new InventoryRecord(Kind.KNOWLEDGE_BASE, kb.knowledgeBaseId(), null, null,
+            kb.name(), kb.statusAsString(), millis(kb.updatedAt()));
+    }
+    
+    public static InventoryRecord of(DataSource ds) {
+        return new InventoryRecord(Kind.DATA_SOURCE, ds.knowledgeBaseId(), ds.dataSourceId(), null,
+            ds.name(), ds.statusAsString(), millis(ds.updatedAt()));
+    }
+    
+    public static InventoryRecord of(DataSourceSummary ds) {
+        return new InventoryRecord(Kind.DATA_SOURCE, ds.knowledgeBaseId(), ds.dataSourceId(), null,
+            ds.name(), ds.statusAsString(), millis(ds.updatedAt()));
+    }
+    
+    public static InventoryRecord of(IngestionJob job) {
+        return new InventoryRecord(Kind.INGESTION_JOB, job.knowledgeBaseId(), job.dataSourceId(),
+            job.ingestionJobId(), null, job.statusAsString(), millis(job.updatedAt()));
+    }
+    
+    public static InventoryRecord of(IngestionJobSummary job) {
+        return new InventoryRecord(Kind.INGESTION_JOB, job.knowledgeBaseId(), job.dataSourceId(),
+            job.ingestionJobId(), null, job.statusAsString(), millis(job.updatedAt()));
+    }
+    
+    private static long millis(Instant instant) {
+        return instant != null ? instant.toEpochMilli() : 0L;
+    }
+    
+    /**
+     * Identity within the inventory; an ingestion job shares its data source's slot, so only the latest is kept
+     */
+    public String key() {
+        switch (kind) {
+            case KNOWLEDGE_BASE:
+                return "KnowledgeBase/" + knowledgeBaseId;
+            case DATA_SOURCE:
+                return "DataSource/" + knowledgeBaseId + "/" + dataSourceId;
+            default:
+                return "IngestionJob/" + knowledgeBaseId + "/" + dataSourceId;
+        }
+    }
+    
+    /**
+     * True for ingestion jobs that can no longer change (COMPLETE, FAILED, STOPPED)
+     */
+    public boolean isTerminal() {
+        return kind == Kind.INGESTION_JOB
+            && ("COMPLETE".equals(status) || "FAILED".equals(status) || "STOPPED".equals(status));
+    }
+    
+    public Kind getKind() { return kind; }
+    public String getKnowledgeBaseId() { return knowledgeBaseId; }
+    public String getDataSourceId() { return dataSourceId; }
+    public String getIngestionJobId() { return ingestionJobId; }
+    public String getName() { return name; }
+    public String getStatus() { return status; }
+    public long getUpdatedAtMillis() { return updatedAtMillis; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InventoryRecord)) {
+            return false;
+        }
+        InventoryRecord other = (InventoryRecord) o;
+        return kind == other.kind
+            && updatedAtMillis == other.updatedAtMillis
+            && knowledgeBaseId.equals(other.knowledgeBaseId)
+            && Objects.equals(dataSourceId, other.dataSourceId)
+            && Objects.equals(ingestionJobId, other.ingestionJobId)
+            && Objects.equals(name, other.name)
+            && Objects.equals(status, other.status);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, knowledgeBaseId, dataSourceId, ingestionJobId, name, status, updatedAtMillis);
+    }
+    
+    @Override
+    public String toString() {
+        return "InventoryRecord{" + key() + (ingestionJobId != null ? "#" + ingestionJobId : "")
+            + ", status=" + status + "}";
+    }
+}
\ No newline at end of file
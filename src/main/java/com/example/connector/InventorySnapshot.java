@@ -0,0 +1,167 @@
+package com.example.connector;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Point-in-time copy of the inventory in a compact binary file.
+ *
+ * Layout: magic, version, creation time, a string table (IDs, names and statuses are stored once
+ * and referenced by index, so knowledge base IDs repeated across thousands of data sources cost
+ * four bytes each), the records, and a CRC32 trailer. Files are written to a temporary sibling and
+ * atomically moved into place, and read back through a memory-mapped buffer.
+ */
+public final class InventorySnapshot {
+    private static final int MAGIC = 0x4B42494E;
+    private static final short VERSION = 1;
+    private static final int NONE = -1;
+    
+    private final long createdAtMillis;
+    private final List<InventoryRecord> records;
+    
+    public InventorySnapshot(long createdAtMillis, Collection<InventoryRecord> records) {
+        this.createdAtMillis = createdAtMillis;
+        this.records = Collections.unmodifiableList(new ArrayList<>(records));
+    }
+    
+    public long getCreatedAtMillis() { return createdAtMillis; }
+    public List<InventoryRecord> getRecords() { return records; }
+    
+    /**
+     * Write the snapshot atomically; readers never see a partially written file
+     */
+    public void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            try (OutputStream fileOut = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(new CheckedOutputStream(fileOut, crc)))) {
+                writeBody(out);
+                out.flush();
+                fileOut.write(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    private void writeBody(DataOutputStream out) throws IOException {
+        Map<String, Integer> index = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (InventoryRecord record : records) {
+            intern(record.getKnowledgeBaseId(), index, strings);
+            intern(record.getDataSourceId(), index, strings);
+            intern(record.getIngestionJobId(), index, strings);
+            intern(record.getName(), index, strings);
+            intern(record.getStatus(), index, strings);
+        }
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(createdAtMillis);
+        out.writeInt(strings.size());
+        for (String value : strings) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        out.writeInt(records.size());
+        for (InventoryRecord record : records) {
+            out.writeByte(record.getKind().ordinal());
+            out.writeInt(ref(record.getKnowledgeBaseId(), index));
+            out.writeInt(ref(record.getDataSourceId(), index));
+            out.writeInt(ref(record.getIngestionJobId(), index));
+            out.writeInt(ref(record.getName(), index));
+            out.writeInt(ref(record.getStatus(), index));
+            out.writeLong(record.getUpdatedAtMillis());
+        }
+    }
+    
+    private static void intern(String value, Map<String, Integer> index, List<String> strings) {
+        if (value != null && !index.containsKey(value)) {
+            index.put(value, strings.size());
+            strings.add(value);
+        }
+    }
+    
+    private static int ref(String value, Map<String, Integer> index) {
+        return value != null ? index.get(value) : NONE;
+    }
+    
+    /**
+     * Map a snapshot file and decode it
+     *
+     * @throws IOException if the file is missing, truncated, from another version or fails its checksum
+     */
+    public static InventorySnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 22 || size > Integer.MAX_VALUE) {
+                throw new IOException("Not an inventory snapshot: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer body = buffer.duplicate();
+            body.limit((int) size - 4);
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != buffer.getInt((int) size - 4)) {
+                throw new IOException("Inventory snapshot checksum mismatch: " + file);
+            }
+            return decode(body, file);
+        } catch (RuntimeException e) {
+            // BufferUnderflowException, bad indexes: treat as corruption
+            throw new IOException("Corrupt inventory snapshot: " + file, e);
+        }
+    }
+    
+    private static InventorySnapshot decode(ByteBuffer in, Path file) throws IOException {
+        if (in.getInt() != MAGIC) {
+            throw new IOException("Not an inventory snapshot: " + file);
+        }
+        short version = in.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported inventory snapshot version " + version + ": " + file);
+        }
+        long createdAt = in.getLong();
+        String[] strings = new String[in.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        InventoryRecord.Kind[] kinds = InventoryRecord.Kind.values();
+        int count = in.getInt();
+        List<InventoryRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            InventoryRecord.Kind kind = kinds[in.get()];
+            records.add(new InventoryRecord(kind, str(strings, in.getInt()), str(strings, in.getInt()),
+                str(strings, in.getInt()), str(strings, in.getInt()), str(strings, in.getInt()), in.getLong()));
+        }
+        return new InventorySnapshot(createdAt, records);
+    }
+    
+    private static String str(String[] strings, int ref) {
+        return ref == NONE ? null : strings[ref];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.example.connector;
+
+import java.util.Objects;
+
+/**
+ * A document announced by a KMS Lighthouse listing endpoint
+ */
+public final class KmsDocumentRef {
+    private final String id;
+    private final String url;
+    private final String title;
+    private final String contentType;
+    private final long size;
+    
+    /**
+     * @param size bytes as announced by the listing, or -1 when unknown
+     */
+    public KmsDocumentRef(String id, String url, String title, String contentType, long size) {
+        this.id = id;
+        this.url = Objects.requireNonNull(url, "url");
+        this.title = title;
+        this.contentType = contentType;
+        this.size = size;
+    }
+    
+    public String getId() { return id; }
+    public String getUrl() { return url; }
+    public String getTitle() { return title; }
+    public String getContentType() { return contentType; }
+    public long getSize() { return size; }
+    
+    @Override
+    public String toString() {
+        return "KmsDocumentRef{id='" + id + "', url='" + url + "', size=" + size + "}";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.example.connector;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Applies KmsAuthenticationConfig credentials (and the configured API key) to requests made
+ * directly against the KMS Lighthouse REST API. OAuth2 uses the client-credentials grant; the
+ * token is cached until shortly before it expires or until the API rejects it.
+ */
+final class KmsHttpAuthenticator {
+    private static final long TOKEN_REFRESH_MARGIN_MS = 30000;
+    private static final long DEFAULT_TOKEN_LIFETIME_SECONDS = 3600;
+    
+    private final KmsAuthenticationConfig auth;
+    private final String apiKey;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private String accessToken;
+    private long tokenExpiresAtMillis;
+    
+    KmsHttpAuthenticator(KmsAuthenticationConfig auth, String apiKey, HttpClient httpClient, Duration requestTimeout) {
+        this.auth = auth;
+        this.apiKey = apiKey;
+        this.httpClient = httpClient;
+        this.requestTimeout = requestTimeout;
+    }
+    
+    void apply(HttpRequest.Builder request) throws ConnectorException {
+        if (apiKey != null && !apiKey.isEmpty()) {
+            request.setHeader("X-API-Key", apiKey);
+        }
+        if (auth == null) {
+            return;
+        }
+        for (Map.Entry<String, String> header : auth.getCustomHeaders().entrySet()) {
+            request.setHeader(header.getKey(), header.getValue());
+        }
+        switch (auth.getType()) {
+            case BASIC:
+                String credentials = auth.getUsername() + ":" + auth.getPassword();
+                request.setHeader("Authorization",
+                    "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+                break;
+            case BEARER_TOKEN:
+                request.setHeader("Authorization", "Bearer " + auth.getBearerToken());
+                break;
+            case OAUTH2:
+                request.setHeader("Authorization", "Bearer " + oauthToken());
+                break;
+            case AWS_SECRETS_MANAGER:
+                throw new ConnectorException("KMS Lighthouse credentials stored in " + auth.getSecretArn()
+                    + " must be resolved into basic, bearer or OAuth2 credentials before pulling documents");
+            default:
+                break;
+        }
+    }
+    
+    /**
+     * Forget the cached OAuth2 token, e.g. after a 401
+     */
+    synchronized void invalidate() {
+        accessToken = null;
+    }
+    
+    private synchronized String oauthToken() throws ConnectorException {
+        if (accessToken != null && System.currentTimeMillis() < tokenExpiresAtMillis - TOKEN_REFRESH_MARGIN_MS) {
+            return accessToken;
+        }
+        String clientCredentials = auth.getOauthClientId() + ":" + auth.getOauthClientSecret();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(auth.getOauthTokenUrl()))
+            .timeout(requestTimeout)
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .header("Accept", "application/json")
+            .header("Authorization", "Basic "
+                + Base64.getEncoder().encodeToString(clientCredentials.getBytes(StandardCharsets.UTF_8)))
+            .POST(HttpRequest.BodyPublishers.ofString("grant_type="
+                + URLEncoder.encode("client_credentials", StandardCharsets.UTF_8)))
+            .build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new ConnectorException("OAuth2 token request failed with HTTP " + response.statusCode());
+            }
+            Object body = MiniJson.parse(response.body());
+            Object token = body instanceof Map ? ((Map<?, ?>) body).get("access_token") : null;
+            if (!(token instanceof String)) {
+                throw new ConnectorException("OAuth2 token response has no access_token");
+            }
+            Object expiresIn = ((Map<?, ?>) body).get("expires_in");
+            long lifetimeSeconds = expiresIn instanceof Number
+                ? ((Number) expiresIn).longValue() : DEFAULT_TOKEN_LIFETIME_SECONDS;
+            accessToken = (String) token;
+            tokenExpiresAtMillis = System.currentTimeMillis() + lifetimeSeconds * 1000;
+            return accessToken;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ConnectorException("Failed to obtain OAuth2 token from " + auth.getOauthTokenUrl(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectorException("Interrupted while obtaining OAuth2 token", e);
+        }
+    }
+}
\ No newline at end of file
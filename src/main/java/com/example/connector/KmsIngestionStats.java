@@ -1,10 +1,16 @@
 package com.example.connector;
 
 import software.amazon.awssdk.services.bedrockagent.model.IngestionJobStatistics;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
- * Statistics and status information for KMS Lighthouse ingestion jobs
+ * Statistics and status information for KMS Lighthouse ingestion jobs.
+ * Stats built by IngestionProgressTracker also carry the live progress model: a smoothed
+ * processing rate, an ETA and the time spent in each job status.
  */
 public class KmsIngestionStats {
     private final String jobId;
@@ -15,7 +21,13 @@ public class KmsIngestionStats {
     private final long documentsProcessed;
     private final long documentsSuccessful;
     private final long documentsFailed;
+    private final long newDocuments;
+    private final long modifiedDocuments;
+    private final long deletedDocuments;
     private final double processingRate;
+    private final Duration estimatedTimeRemaining;
+    private final Map<String, Duration> phaseDurations;
+    private final Instant observedAt;
     
     private KmsIngestionStats(Builder builder) {
         this.jobId = builder.jobId;
@@ -26,7 +38,13 @@ public class KmsIngestionStats {
         this.documentsProcessed = builder.documentsProcessed;
         this.documentsSuccessful = builder.documentsSuccessful;
         this.documentsFailed = builder.documentsFailed;
+        this.newDocuments = builder.newDocuments;
+        this.modifiedDocuments = builder.modifiedDocuments;
+        this.deletedDocuments = builder.deletedDocuments;
         this.processingRate = builder.processingRate;
+        this.estimatedTimeRemaining = builder.estimatedTimeRemaining;
+        this.phaseDurations = Collections.unmodifiableMap(new LinkedHashMap<>(builder.phaseDurations));
+        this.observedAt = builder.observedAt;
     }
     
     public static Builder builder() {
@@ -42,16 +60,27 @@ public class KmsIngestionStats {
     public long getDocumentsProcessed() { return documentsProcessed; }
     public long getDocumentsSuccessful() { return documentsSuccessful; }
     public long getDocumentsFailed() { return documentsFailed; }
+    public long getNewDocuments() { return newDocuments; }
+    public long getModifiedDocuments() { return modifiedDocuments; }
+    public long getDeletedDocuments() { return deletedDocuments; }
+    /** Documents indexed or failed per second, smoothed across polls (0 until measured) */
     public double getProcessingRate() { return processingRate; }
+    /** Time until the scanned documents are processed at the current rate, or null when unknown */
+    public Duration getEstimatedTimeRemaining() { return estimatedTimeRemaining; }
+    /** Time spent in each job status so far, in the order the statuses were seen */
+    public Map<String, Duration> getPhaseDurations() { return phaseDurations; }
+    /** When the job state behind these stats was read, or null */
+    public Instant getObservedAt() { return observedAt; }
     
     /**
-     * Get processing duration in seconds
+     * Get processing duration in seconds; a running job is measured up to the time it was observed
      */
     public long getProcessingDurationSeconds() {
-        if (startTime != null && endTime != null) {
-            return endTime.getEpochSecond() - startTime.getEpochSecond();
+        if (startTime == null) {
+            return 0;
         }
-        return 0;
+        Instant end = endTime != null ? endTime : observedAt != null ? observedAt : Instant.now();
+        return Math.max(0, end.getEpochSecond() - startTime.getEpochSecond());
     }
     
     /**
@@ -83,8 +112,10 @@ public class KmsIngestionStats {
     @Override
     public String toString() {
         return String.format(
-            "KmsIngestionStats{jobId='%s', status='%s', processed=%d, successful=%d, failed=%d, successRate=%.2f%%}",
-            jobId, status, documentsProcessed, documentsSuccessful, documentsFailed, getSuccessRate()
+            "KmsIngestionStats{jobId='%s', status='%s', processed=%d, successful=%d, failed=%d, successRate=%.2f%%, "
+                + "rate=%.1f/s, eta=%s}",
+            jobId, status, documentsProcessed, documentsSuccessful, documentsFailed, getSuccessRate(),
+            processingRate, estimatedTimeRemaining != null ? estimatedTimeRemaining.getSeconds() + "s" : "unknown"
         );
     }
     
@@ -97,7 +128,13 @@ public class KmsIngestionStats {
         private long documentsProcessed;
         private long documentsSuccessful;
         private long documentsFailed;
+        private long newDocuments;
+        private long modifiedDocuments;
+        private long deletedDocuments;
         private double processingRate;
+        private Duration estimatedTimeRemaining;
+        private Map<String, Duration> phaseDurations = Collections.emptyMap();
+        private Instant observedAt;
         
         public Builder jobId(String jobId) {
             this.jobId = jobId;
@@ -122,16 +159,20 @@ public class KmsIngestionStats {
         public Builder statistics(IngestionJobStatistics statistics) {
             this.statistics = statistics;
             if (statistics != null) {
-                this.documentsProcessed = statistics.numberOfDocumentsScanned() != null ? 
-                    statistics.numberOfDocumentsScanned() : 0;
-                this.documentsSuccessful = statistics.numberOfDocumentsIndexed() != null ? 
-                    statistics.numberOfDocumentsIndexed() : 0;
-                this.documentsFailed = statistics.numberOfDocumentsFailed() != null ? 
-                    statistics.numberOfDocumentsFailed() : 0;
+                this.documentsProcessed = count(statistics.numberOfDocumentsScanned());
+                this.newDocuments = count(statistics.numberOfNewDocumentsIndexed());
+                this.modifiedDocuments = count(statistics.numberOfModifiedDocumentsIndexed());
+                this.deletedDocuments = count(statistics.numberOfDocumentsDeleted());
+                this.documentsSuccessful = newDocuments + modifiedDocuments;
+                this.documentsFailed = count(statistics.numberOfDocumentsFailed());
             }
             return this;
         }
         
+        private static long count(Long value) {
+            return value != null ? value : 0;
+        }
+        
         public Builder documentsProcessed(long processed) {
             this.documentsProcessed = processed;
             return this;
@@ -152,6 +193,21 @@ public class KmsIngestionStats {
             return this;
         }
         
+        public Builder estimatedTimeRemaining(Duration estimatedTimeRemaining) {
+            this.estimatedTimeRemaining = estimatedTimeRemaining;
+            return this;
+        }
+        
+        public Builder phaseDurations(Map<String, Duration> phaseDurations) {
+            this.phaseDurations = phaseDurations;
+            return this;
+        }
+        
+        public Builder observedAt(Instant observedAt) {
+            this.observedAt = observedAt;
+            return this;
+        }
+        
         public KmsIngestionStats build() {
             return new KmsIngestionStats(this);
         }
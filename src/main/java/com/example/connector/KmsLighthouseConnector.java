@@ -3,6 +3,8 @@ package com.example.connector;
 import software.amazon.awssdk.services.bedrockagent.BedrockAgentClient;
 import software.amazon.awssdk.services.bedrockagent.model.*;
 import java.util.UUID;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -11,6 +13,19 @@ import java.util.Map;
  * Integrates with KMS Lighthouse document management system
  */
 public class KmsLighthouseConnector extends DataSourceConnector {
+    /**
+     * Jobs whose progress is tracked at once; the least recently polled is dropped beyond this, so
+     * jobs that are never polled to completion do not accumulate
+     */
+    private static final int MAX_TRACKED_JOBS = 256;
+    
+    private final Map<String, IngestionProgressTracker> progressTrackers = Collections.synchronizedMap(
+        new LinkedHashMap<String, IngestionProgressTracker>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IngestionProgressTracker> eldest) {
+                return size() > MAX_TRACKED_JOBS;
+            }
+        });
     
     public KmsLighthouseConnector(BedrockAgentClient client, String knowledgeBaseId, ConnectorConfig config) {
         super(client, knowledgeBaseId, config);
@@ -27,17 +42,14 @@ public class KmsLighthouseConnector extends DataSourceConnector {
             throw new ConnectorException("Invalid KMS Lighthouse data source configuration");
         }
         
-        try {
-            CreateDataSourceRequest request = CreateDataSourceRequest.builder()
-                .knowledgeBaseId(knowledgeBaseId)
-                .name(name)
-                .dataSourceConfiguration(dataConfig)
-                .clientToken(UUID.randomUUID().toString())
-                .build();
-            return bedrockClient.createDataSource(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to create KMS Lighthouse data source: " + name, e);
-        }
+        CreateDataSourceRequest request = CreateDataSourceRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .name(name)
+            .dataSourceConfiguration(dataConfig)
+            .clientToken(UUID.randomUUID().toString())
+            .build();
+        return invoker.invoke("CreateDataSource", () -> bedrockClient.createDataSource(request),
+            "Failed to create KMS Lighthouse data source: " + name);
     }
     
     @Override
@@ -47,33 +59,36 @@ public class KmsLighthouseConnector extends DataSourceConnector {
             throw new ConnectorException("Invalid KMS Lighthouse data source configuration");
         }
         
-        try {
-            UpdateDataSourceRequest request = UpdateDataSourceRequest.builder()
-                .knowledgeBaseId(knowledgeBaseId)
-                .dataSourceId(dataSourceId)
-                .dataSourceConfiguration(dataConfig)
-                .build();
-            return bedrockClient.updateDataSource(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to update KMS Lighthouse data source: " + dataSourceId, e);
-        }
+        UpdateDataSourceRequest request = UpdateDataSourceRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .dataSourceConfiguration(dataConfig)
+            .build();
+        return invokeDataSourceWrite("UpdateDataSource", dataSourceId,
+            () -> bedrockClient.updateDataSource(request),
+            "Failed to update KMS Lighthouse data source: " + dataSourceId);
     }
     
     @Override
     public DeleteDataSourceResponse deleteDataSource(String dataSourceId) throws ConnectorException {
-        try {
-            DeleteDataSourceRequest request = DeleteDataSourceRequest.builder()
-                .knowledgeBaseId(knowledgeBaseId)
-                .dataSourceId(dataSourceId)
-                .build();
-            return bedrockClient.deleteDataSource(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to delete KMS Lighthouse data source: " + dataSourceId, e);
-        }
+        DeleteDataSourceRequest request = DeleteDataSourceRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .build();
+        return invokeDataSourceWrite("DeleteDataSource", dataSourceId,
+            () -> bedrockClient.deleteDataSource(request),
+            "Failed to delete KMS Lighthouse data source: " + dataSourceId);
     }
     
     @Override
     protected boolean validateConfiguration(DataSourceConfiguration config) {
+        return isValidConfiguration(config);
+    }
+    
+    /**
+     * KMS Lighthouse sources are web sources, so this mirrors the web crawler check
+     */
+    static boolean isValidConfiguration(DataSourceConfiguration config) {
         if (config == null || config.type() != DataSourceType.WEB) {
             return false;
         }
@@ -119,12 +134,8 @@ public class KmsLighthouseConnector extends DataSourceConnector {
             .build();
         crawlerBuilder.crawlerLimits(limits);
         
-        // Configure authentication if provided
-        if (kmsConfig.getAuthenticationConfig() != null) {
-            // Note: In a real implementation, you would configure authentication
-            // This might involve setting up custom headers or OAuth tokens
-            // For now, we'll use the basic crawler configuration
-        }
+        // The web crawler cannot send KmsAuthenticationConfig credentials; authenticated
+        // repositories are pulled into an S3 data source with KmsLighthousePipeline instead
         
         WebDataSourceConfiguration webConfig = WebDataSourceConfiguration.builder()
             .sourceConfiguration(sourceConfig)
@@ -229,19 +240,22 @@ public class KmsLighthouseConnector extends DataSourceConnector {
     }
     
     /**
-     * Get KMS Lighthouse specific ingestion statistics
+     * Get KMS Lighthouse specific ingestion statistics. Repeated calls for a running job feed one
+     * IngestionProgressTracker, so the processing rate, ETA and phase timings sharpen with each poll;
+     * the tracker is dropped once the job is finished, or when it is the least recently polled of
+     * more than 256 tracked jobs.
      */
     public KmsIngestionStats getIngestionStats(String dataSourceId, String ingestionJobId) 
             throws ConnectorException {
         GetIngestionJobResponse response = getIngestionJob(dataSourceId, ingestionJobId);
         IngestionJob job = response.ingestionJob();
         
-        return KmsIngestionStats.builder()
-            .jobId(ingestionJobId)
-            .status(job.status().toString())
-            .startTime(job.startedAt())
-            .endTime(job.updatedAt())
-            .statistics(job.statistics())
-            .build();
+        String key = dataSourceId + "/" + ingestionJobId;
+        KmsIngestionStats stats = progressTrackers.computeIfAbsent(key, k -> new IngestionProgressTracker())
+            .update(job);
+        if (stats.isComplete()) {
+            progressTrackers.remove(key);
+        }
+        return stats;
     }
 }
\ No newline at end of file
@@ -0,0 +1,594 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.model.StartIngestionJobResponse;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Pull-mode KMS Lighthouse ingestion: documents are fetched from the Lighthouse REST API with the
+ * configured credentials, copied into an S3 staging prefix and picked up by an S3 data source sync.
+ *
+ * Unlike the web crawler configuration built by KmsLighthouseConnector, this sends the
+ * KmsAuthenticationConfig credentials and only fetches documents, not API pages. Each document
+ * endpoint is read as a JSON listing: an array of documents, or an object with a "documents",
+ * "items", "results" or "data" array and an optional "next" / "nextPage" URL. A document needs a
+ * "downloadUrl", "contentUrl", "url" or "href" and may carry "id", "title" / "name", "contentType" /
+ * "mimeType" and "size" / "contentLength". Document URLs are matched against the inclusion and
+ * exclusion patterns like the crawler's URL filters.
+ *
+ * Documents larger than maxDocumentSize are skipped before download, using the listed size or a
+ * HEAD request, and are cut off if the body turns out larger. Bodies are streamed into the
+ * StagingStore without being held in memory. Requests are paced at the configured rateLimit (per
+ * minute); 429 and 5xx responses are retried with backoff.
+ *
+ * The staging prefix is owned by the pipeline: after a run in which every included document was
+ * staged (or skipped for its size), objects under the prefix that this run did not write are
+ * deleted, so documents removed from Lighthouse or newly excluded by the patterns leave the data
+ * source at the next sync. A run with failed documents, or one whose listings were empty, deletes
+ * nothing.
+ *
+ * Credentials are only sent to the origins (scheme, host and port) of the base URL and the document
+ * endpoints; redirects are followed here rather than by the HttpClient, so a hop to a CDN or a
+ * presigned S3 URL goes out without them.
+ */
+public class KmsLighthousePipeline {
+    private static final String OPERATION = "KmsLighthouseGet";
+    private static final String[] LIST_FIELDS = {"documents", "items", "results", "data"};
+    private static final String[] NEXT_FIELDS = {"next", "nextPage", "nextPageUrl"};
+    private static final String[] URL_FIELDS = {"downloadUrl", "contentUrl", "url", "href"};
+    private static final int MAX_REDIRECTS = 5;
+    private final KmsLighthouseConfig kmsConfig;
+    private final StagingStore stagingStore;
+    private final String stagingPrefix;
+    private final S3DataSourceConnector connector;
+    private final String dataSourceId;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final int maxConcurrentDownloads;
+    private final int maxAttempts;
+    private final boolean removeStale;
+    private final List<Pattern> inclusionPatterns;
+    private final List<Pattern> exclusionPatterns;
+    private final KmsHttpAuthenticator authenticator;
+    private final Set<String> credentialedOrigins = new HashSet<>();
+    private final AdaptiveRateLimiter rateLimiter;
+    
+    private KmsLighthousePipeline(Builder builder) {
+        this.kmsConfig = builder.kmsConfig;
+        this.stagingStore = builder.stagingStore;
+        this.stagingPrefix = builder.stagingPrefix;
+        this.connector = builder.connector;
+        this.dataSourceId = builder.dataSourceId;
+        this.httpClient = builder.httpClient != null ? builder.httpClient : HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(builder.requestTimeout)
+            .build();
+        this.requestTimeout = builder.requestTimeout;
+        this.maxConcurrentDownloads = builder.maxConcurrentDownloads;
+        this.maxAttempts = builder.maxAttempts;
+        this.removeStale = builder.removeStale;
+        this.inclusionPatterns = compile(kmsConfig.getInclusionPatterns());
+        this.exclusionPatterns = compile(kmsConfig.getExclusionPatterns());
+        this.authenticator = new KmsHttpAuthenticator(kmsConfig.getAuthenticationConfig(), kmsConfig.getApiKey(),
+            httpClient, requestTimeout);
+        credentialedOrigins.add(origin(URI.create(kmsConfig.getBaseUrl())));
+        for (String endpoint : kmsConfig.getDocumentEndpoints()) {
+            credentialedOrigins.add(origin(URI.create(endpoint)));
+        }
+        double perSecond = Math.max(kmsConfig.getRateLimit(), 1) / 60.0;
+        this.rateLimiter = AdaptiveRateLimiter.builder()
+            .initialRate(perSecond)
+            .maxRate(perSecond)
+            .minRate(Math.min(0.05, perSecond))
+            .build();
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * List, filter and stage every document, remove stale staged objects, then start the S3 data
+     * source sync if anything was staged or removed and a connector is set
+     */
+    public KmsPullResult run(KmsIngestionOptions options) throws ConnectorException {
+        List<KmsDocumentRef> discovered = listDocuments();
+        List<KmsDocumentRef> included = discovered.stream()
+            .filter(document -> isIncluded(document.getUrl()))
+            .collect(Collectors.toList());
+        List<KmsDocumentRef> oversized = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong bytesStaged = new AtomicLong();
+        
+        List<BulkResult<KmsDocumentRef, String>> results = BulkExecutor.builder()
+            .maxConcurrency(maxConcurrentDownloads)
+            .build()
+            .execute(included, document -> stage(document, oversized, bytesStaged));
+        // a null key marks a document skipped for its size
+        results.removeIf(result -> result.isSuccess() && result.getValue() == null);
+        int removed = 0;
+        if (removeStale && !discovered.isEmpty() && results.stream().allMatch(BulkResult::isSuccess)) {
+            removed = removeStale(results);
+        }
+        
+        StartIngestionJobResponse ingestion = null;
+        if (connector != null && (removed > 0 || results.stream().anyMatch(BulkResult::isSuccess))) {
+            String clientToken = options.getClientToken() != null
+                ? options.getClientToken() : "kms-lighthouse-pull-" + System.currentTimeMillis();
+            ingestion = connector.startIngestion(dataSourceId, clientToken);
+        }
+        return new KmsPullResult(discovered.size(), discovered.size() - included.size(),
+            new ArrayList<>(oversized), results, bytesStaged.get(), removed, ingestion);
+    }
+    
+    /**
+     * Delete every object under the staging prefix that is neither a document staged by this run
+     * nor its metadata sidecar
+     */
+    private int removeStale(List<BulkResult<KmsDocumentRef, String>> staged) throws ConnectorException {
+        Set<String> current = new HashSet<>();
+        for (BulkResult<KmsDocumentRef, String> result : staged) {
+            current.add(result.getValue());
+            current.add(result.getValue() + ".metadata.json");
+        }
+        List<String> stale = stagingStore.list(stagingPrefix).stream()
+            .filter(key -> !current.contains(key))
+            .collect(Collectors.toList());
+        if (!stale.isEmpty()) {
+            stagingStore.delete(stale);
+        }
+        return stale.size();
+    }
+    
+    /**
+     * Every document announced by the document endpoints, following pagination, deduplicated by URL
+     */
+    public List<KmsDocumentRef> listDocuments() throws ConnectorException {
+        Map<String, KmsDocumentRef> documents = new LinkedHashMap<>();
+        for (String endpoint : kmsConfig.getDocumentEndpoints()) {
+            Set<String> pages = new HashSet<>();
+            String page = endpoint;
+            while (page != null && pages.add(page)) {
+                URI uri = URI.create(page);
+                HttpResponse<String> response = send("GET", uri, "application/json",
+                    HttpResponse.BodyHandlers.ofString());
+                Object body;
+                try {
+                    body = MiniJson.parse(response.body());
+                } catch (IllegalArgumentException e) {
+                    throw new ConnectorException("Unreadable KMS Lighthouse listing: " + page, e);
+                }
+                for (KmsDocumentRef document : parseListing(body, uri)) {
+                    documents.putIfAbsent(document.getUrl(), document);
+                }
+                String next = body instanceof Map ? firstString((Map<?, ?>) body, NEXT_FIELDS) : null;
+                page = next != null && !next.isEmpty() ? uri.resolve(next).toString() : null;
+            }
+        }
+        return new ArrayList<>(documents.values());
+    }
+    
+    static List<KmsDocumentRef> parseListing(Object body, URI base) {
+        Object items = body;
+        if (body instanceof Map) {
+            items = null;
+            for (String field : LIST_FIELDS) {
+                Object value = ((Map<?, ?>) body).get(field);
+                if (value instanceof List) {
+                    items = value;
+                    break;
+                }
+            }
+        }
+        if (!(items instanceof List)) {
+            return Collections.emptyList();
+        }
+        List<KmsDocumentRef> documents = new ArrayList<>();
+        for (Object item : (List<?>) items) {
+            if (!(item instanceof Map)) {
+                continue;
+            }
+            Map<?, ?> fields = (Map<?, ?>) item;
+            String url = firstString(fields, URL_FIELDS);
+            if (url == null) {
+                continue;
+            }
+            Object id = fields.get("id");
+            Object size = fields.containsKey("size") ? fields.get("size") : fields.get("contentLength");
+            documents.add(new KmsDocumentRef(
+                id != null ? id.toString() : null,
+                base.resolve(url).toString(),
+                firstString(fields, "title", "name"),
+                firstString(fields, "contentType", "mimeType"),
+                size instanceof Number ? ((Number) size).longValue() : -1));
+        }
+        return documents;
+    }
+    
+    private static String firstString(Map<?, ?> fields, String... names) {
+        for (String name : names) {
+            Object value = fields.get(name);
+            if (value instanceof String) {
+                return (String) value;
+            }
+        }
+        return null;
+    }
+    
+    boolean isIncluded(String url) {
+        if (!inclusionPatterns.isEmpty() && inclusionPatterns.stream().noneMatch(p -> p.matcher(url).matches())) {
+            return false;
+        }
+        return exclusionPatterns.stream().noneMatch(p -> p.matcher(url).matches());
+    }
+    
+    /**
+     * Copy one document into staging; returns its key, or null when it is over the size limit
+     */
+    private String stage(KmsDocumentRef document, List<KmsDocumentRef> oversized, AtomicLong bytesStaged)
+            throws ConnectorException {
+        long maxSize = kmsConfig.getMaxDocumentSize();
+        long size = document.getSize() >= 0 ? document.getSize() : headContentLength(document.getUrl());
+        if (size > maxSize) {
+            oversized.add(document);
+            return null;
+        }
+        HttpResponse<InputStream> response = send("GET", URI.create(document.getUrl()), null,
+            HttpResponse.BodyHandlers.ofInputStream());
+        long contentLength = response.headers().firstValueAsLong("Content-Length").orElse(-1L);
+        String contentType = document.getContentType() != null ? document.getContentType()
+            : response.headers().firstValue("Content-Type").map(v -> v.split(";")[0].trim()).orElse(null);
+        String key = stagingKey(document, contentType);
+        try (LimitedInputStream body = new LimitedInputStream(response.body(), maxSize)) {
+            if (contentLength > maxSize) {
+                oversized.add(document);
+                return null;
+            }
+            stagingStore.put(key, body, contentLength, contentType);
+            bytesStaged.addAndGet(body.count);
+        } catch (ConnectorException e) {
+            if (isTooLarge(e)) {
+                oversized.add(document);
+                return null;
+            }
+            throw e;
+        } catch (IOException e) {
+            throw new ConnectorException("Failed to read KMS Lighthouse document: " + document.getUrl(), e);
+        }
+        if (kmsConfig.isMetadataExtractionEnabled()) {
+            byte[] metadata = metadataJson(document).getBytes(StandardCharsets.UTF_8);
+            stagingStore.put(key + ".metadata.json", new ByteArrayInputStream(metadata), metadata.length,
+                "application/json");
+        }
+        return key;
+    }
+    
+    /**
+     * The SDK may wrap the stream's failure more than once before it reaches the staging store
+     */
+    private static boolean isTooLarge(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DocumentTooLargeException) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Size announced by a HEAD request, or -1 when unknown. Download endpoints often refuse HEAD
+     * (403, 404, 405); the GET that follows still enforces maxDocumentSize.
+     */
+    private long headContentLength(String url) throws ConnectorException {
+        try {
+            HttpResponse<Void> response = send("HEAD", URI.create(url), null, HttpResponse.BodyHandlers.discarding());
+            return response.headers().firstValueAsLong("Content-Length").orElse(-1L);
+        } catch (ConnectorException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw e;
+            }
+            return -1;
+        }
+    }
+    
+    /**
+     * Send with pacing, credentials and retries of throttled or failed attempts, following up to
+     * MAX_REDIRECTS redirects; each hop carries credentials only if its origin is a configured one
+     */
+    private <T> HttpResponse<T> send(String method, URI uri, String accept, HttpResponse.BodyHandler<T> handler)
+            throws ConnectorException {
+        for (int attempt = 1; ; attempt++) {
+            HttpResponse<T> response;
+            boolean credentialed;
+            URI target = uri;
+            int redirects = 0;
+            while (true) {
+                HttpRequest.Builder request = HttpRequest.newBuilder(target)
+                    .method(method, HttpRequest.BodyPublishers.noBody())
+                    .timeout(requestTimeout);
+                if (accept != null) {
+                    request.header("Accept", accept);
+                }
+                credentialed = credentialedOrigins.contains(origin(target));
+                try {
+                    rateLimiter.acquire(OPERATION, kmsConfig.getBaseUrl());
+                    if (credentialed) {
+                        authenticator.apply(request);
+                    }
+                    response = httpClient.send(request.build(), handler);
+                } catch (IOException e) {
+                    response = null;
+                    if (attempt >= maxAttempts) {
+                        throw new ConnectorException("KMS Lighthouse request failed: " + target, e);
+                    }
+                    break;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ConnectorException("Interrupted while calling KMS Lighthouse: " + target, e);
+                }
+                String location = isRedirect(response.statusCode())
+                    ? response.headers().firstValue("Location").orElse(null) : null;
+                if (location == null) {
+                    break;
+                }
+                discard(response);
+                if (++redirects > MAX_REDIRECTS) {
+                    throw new ConnectorException("Too many KMS Lighthouse redirects: " + uri);
+                }
+                target = target.resolve(location);
+            }
+            if (response == null) {
+                backoff(attempt, null);
+                continue;
+            }
+            int status = response.statusCode();
+            if (status < 300) {
+                rateLimiter.onSuccess(OPERATION);
+                return response;
+            }
+            discard(response);
+            if (status == 401 && credentialed && attempt == 1) {
+                // an expired OAuth2 token is fetched again; other credentials fail the same way twice
+                authenticator.invalidate();
+                continue;
+            }
+            boolean retryable = status == 429 || status >= 500;
+            if (status == 429) {
+                rateLimiter.onThrottle(OPERATION);
+            }
+            if (!retryable || attempt >= maxAttempts) {
+                throw new ConnectorException("KMS Lighthouse returned HTTP " + status + " for " + target);
+            }
+            backoff(attempt, response.headers().firstValueAsLong("Retry-After").orElse(-1L));
+        }
+    }
+    
+    private static boolean isRedirect(int status) {
+        return status == 301 || status == 302 || status == 303 || status == 307 || status == 308;
+    }
+    
+    /**
+     * scheme://host:port with the scheme's default port filled in, for comparing origins
+     */
+    static String origin(URI uri) {
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase() : "";
+        int port = uri.getPort() >= 0 ? uri.getPort() : "https".equals(scheme) ? 443 : "http".equals(scheme) ? 80 : -1;
+        String host = uri.getHost() != null ? uri.getHost().toLowerCase() : "";
+        return scheme + "://" + host + ":" + port;
+    }
+    
+    private static void backoff(int attempt, Long retryAfterSeconds) throws ConnectorException {
+        long delayMs = retryAfterSeconds != null && retryAfterSeconds >= 0
+            ? retryAfterSeconds * 1000 : 500L << Math.min(attempt - 1, 6);
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectorException("Interrupted while backing off from KMS Lighthouse", e);
+        }
+    }
+    
+    private static void discard(HttpResponse<?> response) {
+        if (response.body() instanceof InputStream) {
+            try {
+                ((InputStream) response.body()).close();
+            } catch (IOException e) {
+                // connection is dropped either way
+            }
+        }
+    }
+    
+    /**
+     * Staging key: the prefix, the document ID (or a hash of its URL) and a file extension Bedrock
+     * can parse, taken from the URL or the content type
+     */
+    String stagingKey(KmsDocumentRef document, String contentType) {
+        String name = document.getId() != null
+            ? document.getId().replaceAll("[^A-Za-z0-9._-]", "_") : StagingKeys.urlHash(document.getUrl());
+        String extension = StagingKeys.extension(document.getUrl(), contentType);
+        return stagingPrefix + (name.endsWith(extension) ? name : name + extension);
+    }
+    
+    private static String metadataJson(KmsDocumentRef document) {
+        StringBuilder json = new StringBuilder("{\"metadataAttributes\":{\"source_url\":")
+            .append(MiniJson.quote(document.getUrl()));
+        if (document.getId() != null) {
+            json.append(",\"kms_document_id\":").append(MiniJson.quote(document.getId()));
+        }
+        if (document.getTitle() != null) {
+            json.append(",\"title\":").append(MiniJson.quote(document.getTitle()));
+        }
+        return json.append("}}").toString();
+    }
+    
+    
+    private static List<Pattern> compile(List<String> patterns) {
+        return patterns.stream().map(Pattern::compile).collect(Collectors.toList());
+    }
+    
+    /**
+     * Thrown by LimitedInputStream once a body exceeds maxDocumentSize
+     */
+    private static final class DocumentTooLargeException extends IOException {
+        DocumentTooLargeException(long limit) {
+            super("Document exceeds " + limit + " bytes");
+        }
+    }
+    
+    /**
+     * Counts the bytes read and fails once more than the limit have been read
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+        
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                advance(1);
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                advance(n);
+            }
+            return n;
+        }
+        
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+        
+        private void advance(int n) throws DocumentTooLargeException {
+            count += n;
+            if (count > limit) {
+                throw new DocumentTooLargeException(limit);
+            }
+        }
+    }
+    
+    public static class Builder {
+        private KmsLighthouseConfig kmsConfig;
+        private StagingStore stagingStore;
+        private String stagingPrefix = "kms-lighthouse/";
+        private S3DataSourceConnector connector;
+        private String dataSourceId;
+        private HttpClient httpClient;
+        private Duration requestTimeout = Duration.ofSeconds(60);
+        private int maxConcurrentDownloads = 4;
+        private int maxAttempts = 3;
+        private boolean removeStale = true;
+        
+        /**
+         * Endpoints, credentials, URL patterns, rate limit and maxDocumentSize
+         */
+        public Builder kmsConfig(KmsLighthouseConfig kmsConfig) {
+            this.kmsConfig = kmsConfig;
+            return this;
+        }
+        
+        /**
+         * Where documents are copied: an S3StagingStore, or an InMemoryStagingStore
+         */
+        public Builder stagingStore(StagingStore stagingStore) {
+            this.stagingStore = stagingStore;
+            return this;
+        }
+        
+        /**
+         * Key prefix of staged documents; the S3 data source should include exactly this prefix
+         */
+        public Builder stagingPrefix(String stagingPrefix) {
+            this.stagingPrefix = stagingPrefix;
+            return this;
+        }
+        
+        /**
+         * S3 data source synced after staging (unset = stage only)
+         */
+        public Builder dataSource(S3DataSourceConnector connector, String dataSourceId) {
+            this.connector = connector;
+            this.dataSourceId = dataSourceId;
+            return this;
+        }
+        
+        /**
+         * Client for every KMS Lighthouse call; it should not follow redirects itself
+         * (HttpClient.Redirect.NEVER, the default's setting), since credentials are only kept
+         * off other origins when redirects are followed by the pipeline
+         */
+        public Builder httpClient(HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+        
+        public Builder requestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+        
+        public Builder maxConcurrentDownloads(int maxConcurrentDownloads) {
+            this.maxConcurrentDownloads = maxConcurrentDownloads;
+            return this;
+        }
+        
+        /**
+         * Attempts per request, including the first
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+        
+        /**
+         * Delete staged objects this run did not write (default true); turn off when the staging
+         * prefix is shared with other writers
+         */
+        public Builder removeStale(boolean removeStale) {
+            this.removeStale = removeStale;
+            return this;
+        }
+        
+        public KmsLighthousePipeline build() {
+            Objects.requireNonNull(kmsConfig, "kmsConfig");
+            Objects.requireNonNull(stagingStore, "stagingStore");
+            Objects.requireNonNull(stagingPrefix, "stagingPrefix");
+            if (connector != null) {
+                Objects.requireNonNull(dataSourceId, "dataSourceId");
+            }
+            if (maxConcurrentDownloads < 1 || maxAttempts < 1) {
+                throw new IllegalArgumentException("maxConcurrentDownloads and maxAttempts must be positive");
+            }
+            return new KmsLighthousePipeline(this);
+        }
+    }
+}
\ No newline at end of file
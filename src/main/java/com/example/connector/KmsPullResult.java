@@ -0,0 +1,59 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.model.StartIngestionJobResponse;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of one KmsLighthousePipeline run
+ */
+public final class KmsPullResult {
+    private final int discovered;
+    private final int filtered;
+    private final List<KmsDocumentRef> oversized;
+    private final List<BulkResult<KmsDocumentRef, String>> results;
+    private final long bytesStaged;
+    private final int removed;
+    private final StartIngestionJobResponse ingestion;
+    
+    KmsPullResult(int discovered, int filtered, List<KmsDocumentRef> oversized,
+                  List<BulkResult<KmsDocumentRef, String>> results, long bytesStaged, int removed,
+                  StartIngestionJobResponse ingestion) {
+        this.discovered = discovered;
+        this.filtered = filtered;
+        this.oversized = Collections.unmodifiableList(oversized);
+        this.results = Collections.unmodifiableList(results);
+        this.bytesStaged = bytesStaged;
+        this.removed = removed;
+        this.ingestion = ingestion;
+    }
+    
+    /** Documents listed by the document endpoints */
+    public int getDiscovered() { return discovered; }
+    /** Documents rejected by the inclusion/exclusion patterns */
+    public int getFiltered() { return filtered; }
+    /** Documents skipped for exceeding maxDocumentSize */
+    public List<KmsDocumentRef> getOversized() { return oversized; }
+    /** One result per copied document; the value is the staging key */
+    public List<BulkResult<KmsDocumentRef, String>> getResults() { return results; }
+    public long getBytesStaged() { return bytesStaged; }
+    /** Stale objects (documents and metadata sidecars) deleted from the staging prefix */
+    public int getRemoved() { return removed; }
+    /** The S3 data source sync started after staging, or null when none was started */
+    public StartIngestionJobResponse getIngestion() { return ingestion; }
+    
+    public long getStaged() {
+        return results.stream().filter(BulkResult::isSuccess).count();
+    }
+    
+    public long getFailed() {
+        return results.size() - getStaged();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("KmsPullResult{discovered=%d, filtered=%d, oversized=%d, staged=%d, failed=%d, bytes=%d, "
+            + "removed=%d, ingestionJob=%s}", discovered, filtered, oversized.size(), getStaged(), getFailed(),
+            bytesStaged, removed, ingestion != null ? ingestion.ingestionJob().ingestionJobId() : "none");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.bedrockagent.model.*;
+
+/**
+ * Builders for documents pushed with DataSourceConnector.ingestDocuments
+ */
+public final class KnowledgeBaseDocuments {
+    
+    private KnowledgeBaseDocuments() {
+    }
+    
+    /**
+     * Inline text document for a custom data source
+     */
+    public static KnowledgeBaseDocument inlineText(String documentId, String text) {
+        return custom(CustomContent.builder()
+            .customDocumentIdentifier(CustomDocumentIdentifier.builder().id(documentId).build())
+            .sourceType(CustomSourceType.IN_LINE)
+            .inlineContent(InlineContent.builder()
+                .type(InlineContentType.TEXT)
+                .textContent(TextContentDoc.builder().data(text).build())
+                .build())
+            .build());
+    }
+    
+    /**
+     * Custom data source document whose content is read from an S3 object
+     */
+    public static KnowledgeBaseDocument s3Reference(String documentId, String s3Uri, String bucketOwnerAccountId) {
+        return custom(CustomContent.builder()
+            .customDocumentIdentifier(CustomDocumentIdentifier.builder().id(documentId).build())
+            .sourceType(CustomSourceType.S3_LOCATION)
+            .s3Location(CustomS3Location.builder()
+                .uri(s3Uri)
+                .bucketOwnerAccountId(bucketOwnerAccountId)
+                .build())
+            .build());
+    }
+    
+    /**
+     * Object of an S3 data source, identified by its URI
+     */
+    public static KnowledgeBaseDocument s3Object(String s3Uri) {
+        return KnowledgeBaseDocument.builder()
+            .content(DocumentContent.builder()
+                .dataSourceType(ContentDataSourceType.S3)
+                .s3(S3Content.builder().s3Location(S3Location.builder().uri(s3Uri).build()).build())
+                .build())
+            .build();
+    }
+    
+    private static KnowledgeBaseDocument custom(CustomContent content) {
+        return KnowledgeBaseDocument.builder()
+            .content(DocumentContent.builder()
+                .dataSourceType(ContentDataSourceType.CUSTOM)
+                .custom(content)
+                .build())
+            .build();
+    }
+    
+    /**
+     * Identity used to match a document to its status detail: the custom ID or the S3 URI
+     */
+    static String identityOf(KnowledgeBaseDocument document) {
+        DocumentContent content = document.content();
+        if (content == null) {
+            return null;
+        }
+        if (content.custom() != null && content.custom().customDocumentIdentifier() != null) {
+            return content.custom().customDocumentIdentifier().id();
+        }
+        if (content.s3() != null && content.s3().s3Location() != null) {
+            return content.s3().s3Location().uri();
+        }
+        return null;
+    }
+    
+    static String identityOf(DocumentIdentifier identifier) {
+        if (identifier == null) {
+            return null;
+        }
+        if (identifier.custom() != null) {
+            return identifier.custom().id();
+        }
+        return identifier.s3() != null ? identifier.s3().uri() : null;
+    }
+}
\ No newline at end of file
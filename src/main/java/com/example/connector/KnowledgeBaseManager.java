@@ -2,16 +2,52 @@ package com.example.connector;
 
 import software.amazon.awssdk.services.bedrockagent.BedrockAgentClient;
 import software.amazon.awssdk.services.bedrockagent.model.*;
+import java.util.Map;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Manager class for Knowledge Base operations
  */
 public class KnowledgeBaseManager {
+    /**
+     * Rate limiter tenant key for account-level knowledge base operations
+     */
+    static final String ACCOUNT_TENANT = "account";
+    
     private final BedrockAgentClient bedrockClient;
+    private final ConnectorConfig config;
+    private final ControlPlaneInvoker invoker;
+    private volatile MetadataCache metadataCache;
     
     public KnowledgeBaseManager(BedrockAgentClient client) {
+        this(client, ConnectorConfig.defaultConfig());
+    }
+    
+    public KnowledgeBaseManager(BedrockAgentClient client, ConnectorConfig config) {
         this.bedrockClient = client;
+        this.config = config;
+        this.invoker = new ControlPlaneInvoker(config);
+    }
+    
+    /**
+     * Pace calls through a shared rate limiter
+     */
+    public void setRateLimiter(AdaptiveRateLimiter rateLimiter) {
+        invoker.setRateLimiter(rateLimiter, ACCOUNT_TENANT);
+    }
+    
+    /**
+     * Serve getKnowledgeBase from a metadata cache; share it with the connectors so that
+     * deleting a knowledge base also drops its cached data sources
+     */
+    public void setMetadataCache(MetadataCache metadataCache) {
+        this.metadataCache = metadataCache;
+    }
+    
+    public MetadataCache getMetadataCache() {
+        return metadataCache;
     }
     
     /**
@@ -22,31 +58,51 @@ public class KnowledgeBaseManager {
                                                           KnowledgeBaseConfiguration config,
                                                           StorageConfiguration storageConfig) 
             throws ConnectorException {
-        try {
-            CreateKnowledgeBaseRequest request = CreateKnowledgeBaseRequest.builder()
-                .name(name)
-                .description(description)
-                .roleArn(roleArn)
-                .knowledgeBaseConfiguration(config)
-                .storageConfiguration(storageConfig)
-                .build();
-            return bedrockClient.createKnowledgeBase(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to create knowledge base: " + name, e);
-        }
+        CreateKnowledgeBaseRequest request = CreateKnowledgeBaseRequest.builder()
+            .name(name)
+            .description(description)
+            .roleArn(roleArn)
+            .knowledgeBaseConfiguration(config)
+            .storageConfiguration(storageConfig)
+            .clientToken(UUID.randomUUID().toString())
+            .build();
+        return invoker.invoke("CreateKnowledgeBase", () -> bedrockClient.createKnowledgeBase(request),
+            "Failed to create knowledge base: " + name);
     }
     
     /**
-     * Get Knowledge Base details
+     * Get Knowledge Base details; served from the metadata cache when one is set, otherwise
+     * concurrent calls for the same knowledge base share one request
      */
     public GetKnowledgeBaseResponse getKnowledgeBase(String knowledgeBaseId) throws ConnectorException {
+        MetadataCache cache = metadataCache;
+        String cacheKey = knowledgeBaseCacheKey(knowledgeBaseId);
+        if (cache != null) {
+            MetadataCache.Entry cached = cache.get(cacheKey);
+            if (cached != null) {
+                if (cached.isNotFound()) {
+                    throw new ConnectorException("Knowledge base not found: " + knowledgeBaseId, cached.getNotFoundCause());
+                }
+                return (GetKnowledgeBaseResponse) cached.getValue();
+            }
+        }
+        GetKnowledgeBaseRequest request = GetKnowledgeBaseRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .build();
+        long generation = cache != null ? cache.generation(cacheKey) : 0;
         try {
-            GetKnowledgeBaseRequest request = GetKnowledgeBaseRequest.builder()
-                .knowledgeBaseId(knowledgeBaseId)
-                .build();
-            return bedrockClient.getKnowledgeBase(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to get knowledge base: " + knowledgeBaseId, e);
+            GetKnowledgeBaseResponse response = invoker.invokeCoalesced("GetKnowledgeBase", knowledgeBaseId,
+                () -> bedrockClient.getKnowledgeBase(request),
+                "Failed to get knowledge base: " + knowledgeBaseId);
+            if (cache != null) {
+                cache.put(cacheKey, response, generation);
+            }
+            return response;
+        } catch (ConnectorException e) {
+            if (cache != null && RetryPolicy.isNotFound(e)) {
+                cache.putNotFound(cacheKey, RetryPolicy.notFoundCause(e), generation);
+            }
+            throw e;
         }
     }
     
@@ -54,30 +110,77 @@ public class KnowledgeBaseManager {
      * List all Knowledge Bases
      */
     public ListKnowledgeBasesResponse listKnowledgeBases() throws ConnectorException {
-        try {
+        ListKnowledgeBasesRequest request = ListKnowledgeBasesRequest.builder()
+            .maxResults(config.getMaxResults())
+            .build();
+        return invoker.invoke("ListKnowledgeBases", () -> bedrockClient.listKnowledgeBases(request),
+            "Failed to list knowledge bases");
+    }
+    
+    /**
+     * Stream every Knowledge Base in the account, prefetching the next page in the background.
+     * Close the stream to stop early.
+     */
+    public Stream<KnowledgeBaseSummary> streamKnowledgeBases() {
+        return PrefetchingPaginator.stream(nextToken -> {
             ListKnowledgeBasesRequest request = ListKnowledgeBasesRequest.builder()
-                .maxResults(50)
+                .maxResults(config.getMaxResults())
+                .nextToken(nextToken)
                 .build();
-            return bedrockClient.listKnowledgeBases(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to list knowledge bases", e);
-        }
+            ListKnowledgeBasesResponse response = invoker.invoke("ListKnowledgeBases",
+                () -> bedrockClient.listKnowledgeBases(request), "Failed to list knowledge bases");
+            return new PrefetchingPaginator.Page<>(response.knowledgeBaseSummaries(), response.nextToken());
+        }, "Failed to list knowledge bases");
     }
     
     /**
      * Delete Knowledge Base
      */
     public DeleteKnowledgeBaseResponse deleteKnowledgeBase(String knowledgeBaseId) throws ConnectorException {
+        DeleteKnowledgeBaseRequest request = DeleteKnowledgeBaseRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .build();
         try {
-            DeleteKnowledgeBaseRequest request = DeleteKnowledgeBaseRequest.builder()
-                .knowledgeBaseId(knowledgeBaseId)
-                .build();
-            return bedrockClient.deleteKnowledgeBase(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to delete knowledge base: " + knowledgeBaseId, e);
+            return invoker.invoke("DeleteKnowledgeBase", () -> bedrockClient.deleteKnowledgeBase(request),
+                "Failed to delete knowledge base: " + knowledgeBaseId);
+        } finally {
+            MetadataCache cache = metadataCache;
+            if (cache != null) {
+                cache.invalidate(knowledgeBaseCacheKey(knowledgeBaseId));
+                cache.invalidatePrefix(DataSourceConnector.dataSourceCacheKey(knowledgeBaseId, ""));
+            }
         }
     }
     
+    static String knowledgeBaseCacheKey(String knowledgeBaseId) {
+        return "KnowledgeBase/" + knowledgeBaseId;
+    }
+    
+    /**
+     * Circuit breaker state of one operation, e.g. getCircuitState("GetDataSource")
+     */
+    public CircuitBreaker.State getCircuitState(String operation) {
+        return invoker.getCircuitState(operation);
+    }
+    
+    /**
+     * Circuit breakers of every operation this manager has called
+     */
+    public Map<String, CircuitBreaker> getCircuitBreakers() {
+        return invoker.getCircuitBreakers();
+    }
+    
+    /**
+     * Reads served by sharing another caller's identical in-flight request
+     */
+    public long getCoalescedReads() {
+        return invoker.getCoalescedReads();
+    }
+    
+    public ConnectorConfig getConfig() {
+        return config;
+    }
+    
     /**
      * Create default OpenSearch Serverless storage configuration
      */
@@ -86,6 +189,14 @@ public class KnowledgeBaseManager {
                                                                String textField,
                                                                String vectorField,
                                                                String metadataField) {
+        return openSearchServerlessConfig(collectionArn, vectorIndexName, textField, vectorField, metadataField);
+    }
+    
+    static StorageConfiguration openSearchServerlessConfig(String collectionArn, 
+                                                           String vectorIndexName,
+                                                           String textField,
+                                                           String vectorField,
+                                                           String metadataField) {
         OpenSearchServerlessFieldMapping fieldMapping = OpenSearchServerlessFieldMapping.builder()
             .textField(textField)
             .vectorField(vectorField)
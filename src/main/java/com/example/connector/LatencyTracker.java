@@ -0,0 +1,43 @@
+package com.example.connector;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of recent call latencies for one operation, used to pick the hedge delay.
+ * Percentiles are computed from a sorted snapshot that is refreshed every few samples,
+ * so lookups on the request path stay cheap.
+ */
+final class LatencyTracker {
+    private static final int WINDOW = 256;
+    private static final int MIN_SAMPLES = 20;
+    private static final int RESORT_INTERVAL = 16;
+    
+    private final long[] samples = new long[WINDOW];
+    private int count;
+    private int index;
+    private int sinceSort;
+    private long[] sorted = new long[0];
+    
+    synchronized void record(long durationNanos) {
+        samples[index] = durationNanos;
+        index = (index + 1) % WINDOW;
+        count = Math.min(WINDOW, count + 1);
+        sinceSort++;
+    }
+    
+    /**
+     * Latency at the given percentile (0-100), or -1 while there are too few samples
+     */
+    synchronized long percentileNanos(double percentile) {
+        if (count < MIN_SAMPLES) {
+            return -1;
+        }
+        if (sinceSort >= RESORT_INTERVAL || sorted.length != count) {
+            sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            sinceSort = 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+    }
+}
\ No newline at end of file
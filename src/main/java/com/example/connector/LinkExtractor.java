@@ -0,0 +1,113 @@
+package com.example.connector;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Link extraction and URL normalisation for the crawler.
+ *
+ * A regex scan of anchor, area and frame tags rather than a full HTML parse: crawled pages only need
+ * their outgoing links, and the scan is linear in the page size without building a DOM.
+ */
+final class LinkExtractor {
+    private static final Pattern LINK = Pattern.compile(
+        "<(?:a|area|frame|iframe)\\s[^>]*?\\b(?:href|src)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s>]+))",
+        Pattern.CASE_INSENSITIVE);
+    private static final Pattern BASE = Pattern.compile(
+        "<base\\s[^>]*?\\bhref\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s>]+))", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NOFOLLOW = Pattern.compile(
+        "<meta\\s[^>]*?name\\s*=\\s*[\"']?robots[\"']?[^>]*?content\\s*=\\s*[\"'][^\"']*nofollow",
+        Pattern.CASE_INSENSITIVE);
+    
+    private LinkExtractor() {
+    }
+    
+    /**
+     * Absolute, normalised http(s) links of an HTML page, in document order without duplicates;
+     * none when the page asks robots not to follow its links
+     */
+    static List<String> extract(String html, URI pageUri) {
+        if (NOFOLLOW.matcher(html).find()) {
+            return new ArrayList<>();
+        }
+        URI base = pageUri;
+        Matcher baseTag = BASE.matcher(html);
+        if (baseTag.find()) {
+            URI declared = resolve(pageUri, group(baseTag));
+            if (declared != null) {
+                base = declared;
+            }
+        }
+        Set<String> links = new LinkedHashSet<>();
+        Matcher link = LINK.matcher(html);
+        while (link.find()) {
+            String normalized = absolute(base, group(link));
+            if (normalized != null) {
+                links.add(normalized);
+            }
+        }
+        return new ArrayList<>(links);
+    }
+    
+    /**
+     * Canonical form used for deduplication: lower-case scheme and host, no default port, no
+     * fragment, "/" for an empty path. Returns null for anything but http and https.
+     */
+    static String normalize(URI uri) {
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : null;
+        if ((!"http".equals(scheme) && !"https".equals(scheme)) || uri.getHost() == null) {
+            return null;
+        }
+        int port = uri.getPort();
+        if ((port == 80 && scheme.equals("http")) || (port == 443 && scheme.equals("https"))) {
+            port = -1;
+        }
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        StringBuilder url = new StringBuilder(scheme).append("://").append(uri.getHost().toLowerCase(Locale.ROOT));
+        if (port >= 0) {
+            url.append(':').append(port);
+        }
+        url.append(path);
+        if (uri.getRawQuery() != null) {
+            url.append('?').append(uri.getRawQuery());
+        }
+        return url.toString();
+    }
+    
+    /**
+     * Normalised absolute form of a link or Location header, or null when it is not http(s)
+     */
+    static String absolute(URI base, String href) {
+        URI resolved = resolve(base, href);
+        return resolved != null ? normalize(resolved) : null;
+    }
+    
+    private static URI resolve(URI base, String href) {
+        String value = href.trim().replace("&amp;", "&");
+        if (value.isEmpty() || value.startsWith("#") || value.regionMatches(true, 0, "javascript:", 0, 11)
+                || value.regionMatches(true, 0, "mailto:", 0, 7)) {
+            return null;
+        }
+        try {
+            return base.resolve(new URI(value.replace(" ", "%20"))).normalize();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private static String group(Matcher matcher) {
+        for (int i = 1; i <= matcher.groupCount(); i++) {
+            if (matcher.group(i) != null) {
+                return matcher.group(i);
+            }
+        }
+        return "";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,157 @@
+package com.example.connector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded LRU MetadataCache with separate time-to-live for found and not-found entries.
+ *
+ * Generations are kept per stripe of keys rather than per key, so they stay bounded after keys are
+ * evicted; an invalidation in the same stripe only costs a skipped fill.
+ */
+public class LruMetadataCache implements MetadataCache {
+    private static final int GENERATION_STRIPES = 256;
+    
+    private final long ttlNanos;
+    private final long notFoundTtlNanos;
+    private final Map<String, Slot> entries;
+    private final long[] generations = new long[GENERATION_STRIPES];
+    private long hits;
+    private long misses;
+    
+    private LruMetadataCache(Builder builder) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(builder.ttlMs);
+        this.notFoundTtlNanos = TimeUnit.MILLISECONDS.toNanos(builder.notFoundTtlMs);
+        int maximumSize = builder.maximumSize;
+        this.entries = new LinkedHashMap<String, Slot>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Slot> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    @Override
+    public synchronized Entry get(String key) {
+        Slot slot = entries.get(key);
+        if (slot == null) {
+            misses++;
+            return null;
+        }
+        if (System.nanoTime() - slot.expiresAtNanos >= 0) {
+            entries.remove(key);
+            misses++;
+            return null;
+        }
+        hits++;
+        return slot.entry;
+    }
+    
+    @Override
+    public synchronized long generation(String key) {
+        return generations[stripe(key)];
+    }
+    
+    @Override
+    public synchronized void put(String key, Object value, long generation) {
+        if (generations[stripe(key)] == generation) {
+            entries.put(key, new Slot(Entry.of(value), System.nanoTime() + ttlNanos));
+        }
+    }
+    
+    @Override
+    public synchronized void putNotFound(String key, Exception cause, long generation) {
+        if (generations[stripe(key)] == generation) {
+            entries.put(key, new Slot(Entry.notFound(cause), System.nanoTime() + notFoundTtlNanos));
+        }
+    }
+    
+    @Override
+    public synchronized void invalidate(String key) {
+        entries.remove(key);
+        generations[stripe(key)]++;
+    }
+    
+    @Override
+    public synchronized void invalidatePrefix(String prefix) {
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+        bumpAll();
+    }
+    
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        bumpAll();
+    }
+    
+    private void bumpAll() {
+        for (int i = 0; i < generations.length; i++) {
+            generations[i]++;
+        }
+    }
+    
+    private static int stripe(String key) {
+        return (key.hashCode() & 0x7fffffff) % GENERATION_STRIPES;
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Fraction of lookups answered from the cache
+     */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+    
+    private static final class Slot {
+        private final Entry entry;
+        private final long expiresAtNanos;
+        
+        Slot(Entry entry, long expiresAtNanos) {
+            this.entry = entry;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+    
+    public static class Builder {
+        private int maximumSize = 10000;
+        private long ttlMs = 60000;
+        private long notFoundTtlMs = 10000;
+        
+        public Builder maximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+        
+        /**
+         * How long a found resource is served from the cache
+         */
+        public Builder ttlMs(long ttlMs) {
+            this.ttlMs = ttlMs;
+            return this;
+        }
+        
+        /**
+         * How long a "not found" answer is remembered; keep it short so new resources appear quickly
+         */
+        public Builder notFoundTtlMs(long notFoundTtlMs) {
+            this.notFoundTtlMs = notFoundTtlMs;
+            return this;
+        }
+        
+        public LruMetadataCache build() {
+            if (maximumSize < 1) {
+                throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+            }
+            return new LruMetadataCache(this);
+        }
+    }
+}
\ No newline at end of file
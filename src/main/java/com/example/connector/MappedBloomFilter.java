@@ -0,0 +1,65 @@
+package com.example.connector;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bloom filter whose bit array is a memory-mapped file, so a filter for 100 million URLs (about
+ * 120 MB at 1% false positives) adds nothing to the heap. Keys are 64-bit hashes; the probe
+ * positions come from double hashing. Sized for an expected number of keys: the false positive
+ * rate rises gradually past it.
+ */
+final class MappedBloomFilter {
+    private final MappedLongs words;
+    private final long bitCount;
+    private final int hashCount;
+    
+    MappedBloomFilter(Path file, long expectedKeys, double falsePositiveRate) throws IOException {
+        long bits = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        long wordCount = Math.max(1, (bits + 63) / 64);
+        this.bitCount = wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedKeys * Math.log(2)));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the mapping stays valid after the channel is closed; untouched pages stay sparse on disk
+            this.words = MappedLongs.map(channel, FileChannel.MapMode.READ_WRITE, wordCount);
+        }
+    }
+    
+    boolean mightContain(long hash) {
+        long h2 = secondHash(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = ((hash + i * h2) & Long.MAX_VALUE) % bitCount;
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    void put(long hash) {
+        long h2 = secondHash(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = ((hash + i * h2) & Long.MAX_VALUE) % bitCount;
+            long word = words.get(bit >>> 6);
+            if ((word & (1L << bit)) == 0) {
+                words.set(bit >>> 6, word | (1L << bit));
+            }
+        }
+    }
+    
+    long getSizeBytes() {
+        return bitCount / 8;
+    }
+    
+    int getHashCount() {
+        return hashCount;
+    }
+    
+    private static long secondHash(long hash) {
+        long h = Long.rotateLeft(hash, 31) * 0x9E3779B97F4A7C15L;
+        return (h ^ (h >>> 29)) | 1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.example.connector;
+
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A long array backed by a memory-mapped file, mapped in 1 GiB segments so it can exceed the 2 GiB
+ * limit of a single mapping. Values live in the page cache, not on the heap.
+ */
+final class MappedLongs {
+    private static final int SEGMENT_SHIFT = 27;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+    
+    private final LongBuffer[] segments;
+    private final long length;
+    
+    private MappedLongs(LongBuffer[] segments, long length) {
+        this.segments = segments;
+        this.length = length;
+    }
+    
+    /**
+     * Map the first length longs of the channel's file; READ_WRITE grows the file as needed
+     */
+    static MappedLongs map(FileChannel channel, FileChannel.MapMode mode, long length) throws IOException {
+        int count = (int) ((length + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        LongBuffer[] segments = new LongBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = (long) i << SEGMENT_SHIFT;
+            long size = Math.min(1L << SEGMENT_SHIFT, length - start);
+            segments[i] = channel.map(mode, start * Long.BYTES, size * Long.BYTES).asLongBuffer();
+        }
+        return new MappedLongs(segments, length);
+    }
+    
+    long get(long index) {
+        return segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
+    }
+    
+    void set(long index, long value) {
+        segments[(int) (index >>> SEGMENT_SHIFT)].put((int) (index & SEGMENT_MASK), value);
+    }
+    
+    long length() {
+        return length;
+    }
+}
\ No newline at end of file
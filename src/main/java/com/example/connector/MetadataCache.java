@@ -0,0 +1,83 @@
+package com.example.connector;
+
+import java.util.Objects;
+
+/**
+ * Read-through cache for rarely changing control-plane metadata (data sources, knowledge bases).
+ *
+ * Connectors and KnowledgeBaseManager consult it before GetDataSource / GetKnowledgeBase,
+ * fill it after a successful or "not found" response, and invalidate it on their own updates
+ * and deletes. Fills are conditional on the key's generation, so a read that races a write cannot
+ * put the old answer back. LruMetadataCache is the built-in implementation; anything else (e.g. an adapter
+ * over a W-TinyLFU cache library) can be plugged in through this interface. Implementations
+ * must be thread-safe and apply their own expiry.
+ */
+public interface MetadataCache {
+    
+    /**
+     * Cached lookup result; a null value means the resource was cached as not found
+     */
+    final class Entry {
+        private final Object value;
+        private final Exception notFoundCause;
+        
+        private Entry(Object value, Exception notFoundCause) {
+            this.value = value;
+            this.notFoundCause = notFoundCause;
+        }
+        
+        public static Entry of(Object value) {
+            return new Entry(Objects.requireNonNull(value, "value"), null);
+        }
+        
+        /**
+         * @param cause the service's not-found error (e.g. ResourceNotFoundException), rethrown
+         *              wrapped on every cached miss so callers can still tell it is a not-found
+         */
+        public static Entry notFound(Exception cause) {
+            return new Entry(null, Objects.requireNonNull(cause, "cause"));
+        }
+        
+        public Object getValue() {
+            return value;
+        }
+        
+        public boolean isNotFound() {
+            return value == null;
+        }
+        
+        public Exception getNotFoundCause() {
+            return notFoundCause;
+        }
+    }
+    
+    /**
+     * Cached entry for the key, or null on a miss (absent or expired)
+     */
+    Entry get(String key);
+    
+    /**
+     * Stamp that changes whenever the key is invalidated. Read it before fetching and pass it to
+     * put, so a response fetched before an update or delete is not cached after it.
+     */
+    long generation(String key);
+    
+    /**
+     * Cache the value unless the key has been invalidated since the generation was read
+     */
+    void put(String key, Object value, long generation);
+    
+    /**
+     * Remember that the resource does not exist (negative caching), under the same rule as put
+     */
+    void putNotFound(String key, Exception cause, long generation);
+    
+    void invalidate(String key);
+    
+    /**
+     * Drop every key starting with the prefix, e.g. all data sources of a deleted knowledge base
+     */
+    void invalidatePrefix(String prefix);
+    
+    void clear();
+}
\ No newline at end of file
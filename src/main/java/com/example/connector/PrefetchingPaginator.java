@@ -0,0 +1,131 @@
+package com.example.connector;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy iterator over a nextToken-paginated list operation.
+ * While the caller consumes one page, the next page is fetched in the background,
+ * so at most two pages are held in memory. Closing the iterator (or the stream
+ * returned by {@link #stream}) stops further requests.
+ */
+final class PrefetchingPaginator<T> implements Iterator<T>, AutoCloseable {
+    
+    /**
+     * Fetch one page; a null token requests the first page
+     */
+    @FunctionalInterface
+    interface PageFetcher<T> {
+        Page<T> fetch(String nextToken) throws Exception;
+    }
+    
+    static final class Page<T> {
+        private final List<T> items;
+        private final String nextToken;
+        
+        Page(List<T> items, String nextToken) {
+            this.items = items != null ? items : Collections.emptyList();
+            this.nextToken = nextToken;
+        }
+    }
+    
+    private final PageFetcher<T> fetcher;
+    private final Executor executor;
+    private final String errorMessage;
+    private Iterator<T> current = Collections.emptyIterator();
+    private CompletableFuture<Page<T>> pending;
+    private boolean started;
+    private volatile boolean closed;
+    
+    PrefetchingPaginator(PageFetcher<T> fetcher, Executor executor, String errorMessage) {
+        this.fetcher = fetcher;
+        this.executor = executor;
+        this.errorMessage = errorMessage;
+    }
+    
+    /**
+     * Stream every item of every page; close the stream to stop early
+     */
+    static <T> Stream<T> stream(PageFetcher<T> fetcher, String errorMessage) {
+        PrefetchingPaginator<T> paginator =
+            new PrefetchingPaginator<>(fetcher, ConnectorExecutors.background(), errorMessage);
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(
+            paginator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(paginator::close);
+    }
+    
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (closed) {
+                return false;
+            }
+            if (!started) {
+                started = true;
+                pending = fetchAsync(null);
+            }
+            if (pending == null) {
+                return false;
+            }
+            Page<T> page = await(pending);
+            pending = page.nextToken != null && !page.nextToken.isEmpty() ? fetchAsync(page.nextToken) : null;
+            current = page.items.iterator();
+        }
+        return true;
+    }
+    
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+    
+    @Override
+    public void close() {
+        closed = true;
+        current = Collections.emptyIterator();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+    
+    private CompletableFuture<Page<T>> fetchAsync(String nextToken) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return fetcher.fetch(nextToken);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+    
+    private Page<T> await(CompletableFuture<Page<T>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new UncheckedConnectorException(new ConnectorException(errorMessage + " (interrupted)", e));
+        } catch (ExecutionException | CompletionException e) {
+            close();
+            Throwable cause = AsyncCalls.unwrap(e);
+            if (cause instanceof ConnectorException) {
+                throw new UncheckedConnectorException((ConnectorException) cause);
+            }
+            throw new UncheckedConnectorException(new ConnectorException(errorMessage, cause));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.example.connector;
+
+/**
+ * Token bucket that bounds retries relative to request volume.
+ * Every first attempt deposits {@code ratio} tokens and every retry withdraws one,
+ * so under sustained throttling retries settle at ratio x traffic instead of
+ * multiplying it. A small time-based allowance keeps low-traffic callers retrying.
+ */
+final class RetryBudget {
+    private final double ratio;
+    private final double minPerSecond;
+    private final double maxBalance;
+    private double balance;
+    private long lastRefillNanos;
+    
+    RetryBudget(double ratio, int minPerSecond) {
+        this.ratio = Math.max(0.0, ratio);
+        this.minPerSecond = Math.max(0, minPerSecond);
+        this.maxBalance = Math.max(10.0, this.minPerSecond * 10.0);
+        this.balance = this.minPerSecond;
+        this.lastRefillNanos = System.nanoTime();
+    }
+    
+    synchronized void recordRequest() {
+        refill();
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+    
+    synchronized boolean tryAcquireRetry() {
+        refill();
+        if (balance >= 1.0) {
+            balance -= 1.0;
+            return true;
+        }
+        return false;
+    }
+    
+    synchronized double getBalance() {
+        refill();
+        return balance;
+    }
+    
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+        lastRefillNanos = now;
+        balance = Math.min(maxBalance, balance + elapsedSeconds * minPerSecond);
+    }
+}
\ No newline at end of file
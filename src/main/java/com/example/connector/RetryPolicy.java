@@ -0,0 +1,154 @@
+package com.example.connector;
+
+import software.amazon.awssdk.core.exception.ApiCallAttemptTimeoutException;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.services.bedrockagent.model.AccessDeniedException;
+import software.amazon.awssdk.services.bedrockagent.model.ConflictException;
+import software.amazon.awssdk.services.bedrockagent.model.InternalServerException;
+import software.amazon.awssdk.services.bedrockagent.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.bedrockagent.model.ServiceQuotaExceededException;
+import software.amazon.awssdk.services.bedrockagent.model.ThrottlingException;
+import software.amazon.awssdk.services.bedrockagent.model.ValidationException;
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry classification and backoff derived from ConnectorConfig.
+ * Backoff uses decorrelated jitter: each sleep is drawn from [base, 3 x previous sleep],
+ * capped at maxRetryDelayMs.
+ */
+final class RetryPolicy {
+    private final int maxRetries;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    
+    RetryPolicy(int maxRetries, long baseDelayMs, long maxDelayMs) {
+        this.maxRetries = Math.max(0, maxRetries);
+        this.baseDelayMs = Math.max(1, baseDelayMs);
+        this.maxDelayMs = Math.max(this.baseDelayMs, maxDelayMs);
+    }
+    
+    static RetryPolicy fromConfig(ConnectorConfig config) {
+        return new RetryPolicy(config.getRetryAttempts(), config.getRetryDelayMs(), config.getMaxRetryDelayMs());
+    }
+    
+    int getMaxRetries() {
+        return maxRetries;
+    }
+    
+    /**
+     * Next backoff; pass 0 for the first retry
+     */
+    long nextDelayMs(long previousDelayMs) {
+        long upper = Math.max(baseDelayMs, previousDelayMs) * 3;
+        long delay = ThreadLocalRandom.current().nextLong(baseDelayMs, upper + 1);
+        return Math.min(maxDelayMs, delay);
+    }
+    
+    /**
+     * Only throttling, server-side (5xx) and transport/timeouts are retried.
+     * Client errors such as validation, not-found, access or quota errors never are.
+     */
+    static boolean isRetryable(Throwable error) {
+        Throwable cause = rootOfWrappers(error);
+        if (cause instanceof ValidationException
+                || cause instanceof ResourceNotFoundException
+                || cause instanceof AccessDeniedException
+                || cause instanceof ConflictException
+                || cause instanceof ServiceQuotaExceededException) {
+            return false;
+        }
+        if (cause instanceof ThrottlingException || cause instanceof InternalServerException) {
+            return true;
+        }
+        if (cause instanceof SdkServiceException) {
+            SdkServiceException serviceException = (SdkServiceException) cause;
+            return serviceException.isThrottlingException()
+                || serviceException.statusCode() == 429
+                || serviceException.statusCode() >= 500;
+        }
+        if (cause instanceof ApiCallAttemptTimeoutException || cause instanceof ApiCallTimeoutException) {
+            return true;
+        }
+        if (cause instanceof SdkClientException) {
+            return ((SdkClientException) cause).retryable() || hasIoCause(cause);
+        }
+        return cause instanceof IOException;
+    }
+    
+    /**
+     * True when the failure is a throttling response rather than any other retryable error
+     */
+    static boolean isThrottling(Throwable error) {
+        Throwable cause = rootOfWrappers(error);
+        if (cause instanceof ThrottlingException) {
+            return true;
+        }
+        if (cause instanceof SdkServiceException) {
+            SdkServiceException serviceException = (SdkServiceException) cause;
+            return serviceException.isThrottlingException() || serviceException.statusCode() == 429;
+        }
+        return false;
+    }
+    
+    /**
+     * True when a start was refused because too many jobs are already running (a conflicting job
+     * on the data source or an exceeded concurrency quota); it may succeed once a slot frees up
+     */
+    static boolean isConcurrencyLimit(Throwable error) {
+        Throwable cause = rootOfWrappers(error);
+        return cause instanceof ConflictException || cause instanceof ServiceQuotaExceededException;
+    }
+    
+    /**
+     * True when a start was refused by the account-wide concurrency quota rather than by a
+     * conflicting job on its own data source
+     */
+    static boolean isQuotaExceeded(Throwable error) {
+        return rootOfWrappers(error) instanceof ServiceQuotaExceededException;
+    }
+    
+    /**
+     * True when the service reported that the resource does not exist
+     */
+    static boolean isNotFound(Throwable error) {
+        Throwable cause = rootOfWrappers(error);
+        if (cause instanceof ResourceNotFoundException) {
+            return true;
+        }
+        return cause instanceof SdkServiceException && ((SdkServiceException) cause).statusCode() == 404;
+    }
+    
+    /**
+     * The service exception behind a not-found error, kept for negative cache entries
+     */
+    static Exception notFoundCause(Throwable error) {
+        Throwable cause = rootOfWrappers(error);
+        return cause instanceof Exception ? (Exception) cause : new ConnectorException(error.getMessage(), error);
+    }
+    
+    private static Throwable rootOfWrappers(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof ConnectorException
+                || current instanceof UncheckedConnectorException
+                || current instanceof CompletionException
+                || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+    
+    private static boolean hasIoCause(Throwable error) {
+        for (Throwable t = error.getCause(); t != null && t != t.getCause(); t = t.getCause()) {
+            if (t instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
\ No newline at end of file
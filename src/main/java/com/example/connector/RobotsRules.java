@@ -0,0 +1,181 @@
+package com.example.connector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed robots.txt rules for one user agent (RFC 9309).
+ *
+ * The groups naming the crawler's product token are merged; without one the "*" group applies. The
+ * longest matching rule wins and allow wins a tie. Rules support the "*" wildcard and the "$" end
+ * anchor. Crawl-delay is not part of RFC 9309 but is honoured when present.
+ */
+final class RobotsRules {
+    private static final RobotsRules ALLOW_ALL = new RobotsRules(Collections.emptyList(), 0);
+    private static final RobotsRules DISALLOW_ALL =
+        new RobotsRules(Collections.singletonList(new Rule(false, "/")), 0);
+    
+    private final List<Rule> rules;
+    private final long crawlDelayMillis;
+    
+    private RobotsRules(List<Rule> rules, long crawlDelayMillis) {
+        this.rules = rules;
+        this.crawlDelayMillis = crawlDelayMillis;
+    }
+    
+    /**
+     * Rules when robots.txt is missing (4xx)
+     */
+    static RobotsRules allowAll() {
+        return ALLOW_ALL;
+    }
+    
+    /**
+     * Rules when robots.txt is unreachable (5xx, network error)
+     */
+    static RobotsRules disallowAll() {
+        return DISALLOW_ALL;
+    }
+    
+    /**
+     * Parse a robots.txt body for the crawler's User-Agent header value
+     */
+    static RobotsRules parse(String robotsTxt, String userAgent) {
+        String token = productToken(userAgent);
+        List<Rule> specific = new ArrayList<>();
+        List<Rule> wildcard = new ArrayList<>();
+        long specificDelay = -1;
+        long wildcardDelay = -1;
+        boolean matchesToken = false;
+        boolean matchesWildcard = false;
+        boolean inAgentLines = false;
+        
+        for (String rawLine : robotsTxt.split("\r\n|\r|\n")) {
+            int comment = rawLine.indexOf('#');
+            String line = (comment >= 0 ? rawLine.substring(0, comment) : rawLine).trim();
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            String field = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            if (field.equals("user-agent")) {
+                if (!inAgentLines) {
+                    // a user-agent line after rules starts a new group
+                    matchesToken = false;
+                    matchesWildcard = false;
+                    inAgentLines = true;
+                }
+                String agent = value.toLowerCase(Locale.ROOT);
+                matchesToken |= !token.isEmpty() && agent.equals(token);
+                matchesWildcard |= agent.equals("*");
+                continue;
+            }
+            inAgentLines = false;
+            if (field.equals("allow") || field.equals("disallow")) {
+                if (value.isEmpty()) {
+                    continue;
+                }
+                Rule rule = new Rule(field.equals("allow"), value);
+                if (matchesToken) {
+                    specific.add(rule);
+                }
+                if (matchesWildcard) {
+                    wildcard.add(rule);
+                }
+            } else if (field.equals("crawl-delay")) {
+                long delay = parseDelayMillis(value);
+                if (matchesToken) {
+                    specificDelay = Math.max(specificDelay, delay);
+                }
+                if (matchesWildcard) {
+                    wildcardDelay = Math.max(wildcardDelay, delay);
+                }
+            }
+        }
+        boolean useSpecific = !specific.isEmpty() || specificDelay >= 0;
+        return new RobotsRules(useSpecific ? specific : wildcard,
+            Math.max(0, useSpecific ? specificDelay : wildcardDelay));
+    }
+    
+    /**
+     * Whether the path (with query) may be fetched
+     */
+    boolean isAllowed(String pathAndQuery) {
+        if (pathAndQuery.equals("/robots.txt")) {
+            return true;
+        }
+        Rule best = null;
+        for (Rule rule : rules) {
+            if (rule.matches(pathAndQuery) && (best == null || rule.length > best.length
+                    || (rule.length == best.length && rule.allow && !best.allow))) {
+                best = rule;
+            }
+        }
+        return best == null || best.allow;
+    }
+    
+    long getCrawlDelayMillis() {
+        return crawlDelayMillis;
+    }
+    
+    private static String productToken(String userAgent) {
+        String token = userAgent == null ? "" : userAgent.trim();
+        int end = 0;
+        while (end < token.length()
+                && (Character.isLetter(token.charAt(end)) || token.charAt(end) == '-' || token.charAt(end) == '_')) {
+            end++;
+        }
+        return token.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+    
+    private static long parseDelayMillis(String value) {
+        try {
+            double seconds = Double.parseDouble(value);
+            return seconds > 0 ? (long) (seconds * 1000) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    private static final class Rule {
+        private final boolean allow;
+        private final int length;
+        private final Pattern pattern;
+        private final String prefix;
+        
+        Rule(boolean allow, String path) {
+            this.allow = allow;
+            this.length = path.length();
+            if (path.indexOf('*') < 0 && !path.endsWith("$")) {
+                this.prefix = path;
+                this.pattern = null;
+                return;
+            }
+            boolean anchored = path.endsWith("$");
+            String body = anchored ? path.substring(0, path.length() - 1) : path;
+            StringBuilder regex = new StringBuilder();
+            String[] parts = body.split("\\*", -1);
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) {
+                    regex.append(".*");
+                }
+                if (!parts[i].isEmpty()) {
+                    regex.append(Pattern.quote(parts[i]));
+                }
+            }
+            if (anchored) {
+                regex.append('$');
+            }
+            this.prefix = null;
+            this.pattern = Pattern.compile(regex.toString(), Pattern.DOTALL);
+        }
+        
+        boolean matches(String pathAndQuery) {
+            return prefix != null ? pathAndQuery.startsWith(prefix) : pattern.matcher(pathAndQuery).lookingAt();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.example.connector;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Decides whether an S3 data source needs a sync by listing its objects and comparing them with
+ * the manifest recorded at the last successful start.
+ *
+ * The listing covers the inclusion prefixes of the S3ConfigBuilder (the whole bucket when there
+ * are none; prefixes nested in another one are listed once) and skips keys under an exclusion
+ * prefix, so it sees the same objects a Bedrock sync would. detectChanges() does not move the
+ * manifest forward; commit() does, once the ingestion job it justified has started, so a failed
+ * start is detected again on the next run.
+ */
+public class S3ChangeDetector {
+    private final S3ObjectLister lister;
+    private final S3ConfigBuilder source;
+    private final Path manifestFile;
+    private S3Manifest manifest;
+    private volatile S3ChangeSet lastChanges;
+    
+    private S3ChangeDetector(Builder builder) {
+        this.lister = builder.lister;
+        this.source = builder.source;
+        this.manifestFile = builder.manifestFile;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * List the data source's objects and diff them against the manifest
+     */
+    public synchronized S3ChangeSet detectChanges() throws ConnectorException {
+        S3Manifest base = loadManifest();
+        long started = System.currentTimeMillis();
+        List<S3ObjectEntry> entries = new ArrayList<>();
+        List<String> exclusions = orEmpty(source.getExclusionPrefixes());
+        for (String prefix : scanPrefixes(orEmpty(source.getInclusionPrefixes()))) {
+            try (Stream<S3ObjectEntry> objects = lister.list(source.getBucketName(), prefix)) {
+                objects.filter(entry -> !isExcluded(entry.getKey(), exclusions))
+                    .forEach(entries::add);
+            } catch (UncheckedConnectorException e) {
+                throw e.getCause();
+            }
+        }
+        long now = System.currentTimeMillis();
+        S3ChangeSet changes = S3ChangeSet.diff(base, S3Manifest.of(entries, now), now - started);
+        lastChanges = changes;
+        return changes;
+    }
+    
+    /**
+     * Adopt the listing of a change set as the new manifest and persist it
+     */
+    public synchronized void commit(S3ChangeSet changes) throws ConnectorException {
+        manifest = changes.getListing();
+        if (manifestFile != null) {
+            try {
+                manifest.write(manifestFile);
+            } catch (IOException e) {
+                throw new ConnectorException("Failed to write S3 manifest: " + manifestFile, e);
+            }
+        }
+    }
+    
+    /**
+     * Forget the manifest (e.g. after the started job failed) so the next detection reports every
+     * object as added
+     */
+    public synchronized void reset() throws ConnectorException {
+        manifest = S3Manifest.empty();
+        if (manifestFile != null) {
+            try {
+                Files.deleteIfExists(manifestFile);
+            } catch (IOException e) {
+                throw new ConnectorException("Failed to delete S3 manifest: " + manifestFile, e);
+            }
+        }
+    }
+    
+    /**
+     * Result of the most recent detectChanges(), or null before the first one
+     */
+    public S3ChangeSet getLastChanges() {
+        return lastChanges;
+    }
+    
+    public synchronized int getTrackedObjects() {
+        return loadManifest().size();
+    }
+    
+    private S3Manifest loadManifest() {
+        if (manifest == null) {
+            manifest = S3Manifest.empty();
+            if (manifestFile != null && Files.exists(manifestFile)) {
+                try {
+                    manifest = S3Manifest.read(manifestFile);
+                } catch (IOException e) {
+                    // an unreadable manifest only costs one full sync
+                }
+            }
+        }
+        return manifest;
+    }
+    
+    /**
+     * Sorted prefixes with those covered by a shorter one removed; the empty prefix lists everything
+     */
+    static List<String> scanPrefixes(List<String> inclusionPrefixes) {
+        if (inclusionPrefixes.isEmpty()) {
+            return Collections.singletonList("");
+        }
+        List<String> sorted = new ArrayList<>(inclusionPrefixes);
+        Collections.sort(sorted);
+        List<String> prefixes = new ArrayList<>();
+        for (String prefix : sorted) {
+            if (prefixes.isEmpty() || !prefix.startsWith(prefixes.get(prefixes.size() - 1))) {
+                prefixes.add(prefix);
+            }
+        }
+        return prefixes;
+    }
+    
+    private static boolean isExcluded(String key, List<String> exclusionPrefixes) {
+        for (String prefix : exclusionPrefixes) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static List<String> orEmpty(List<String> values) {
+        return values != null ? values : Collections.emptyList();
+    }
+    
+    public static class Builder {
+        private S3ObjectLister lister;
+        private S3ConfigBuilder source;
+        private Path manifestFile;
+        
+        /**
+         * Where objects are listed from: an SdkS3ObjectLister, or a local stand-in
+         */
+        public Builder lister(S3ObjectLister lister) {
+            this.lister = lister;
+            return this;
+        }
+        
+        /**
+         * Bucket and prefixes of the data source, as used to create it
+         */
+        public Builder source(S3ConfigBuilder source) {
+            this.source = source;
+            return this;
+        }
+        
+        /**
+         * File the manifest survives restarts in (null = kept in memory only)
+         */
+        public Builder manifestFile(Path manifestFile) {
+            this.manifestFile = manifestFile;
+            return this;
+        }
+        
+        public S3ChangeDetector build() {
+            Objects.requireNonNull(lister, "lister");
+            Objects.requireNonNull(source, "source");
+            Objects.requireNonNull(source.getBucketName(), "source bucket name");
+            return new S3ChangeDetector(this);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.example.connector;
+
+/**
+ * Difference between an S3 listing and the manifest of the last ingested state
+ */
+public final class S3ChangeSet {
+    private final S3Manifest base;
+    private final S3Manifest listing;
+    private final int added;
+    private final int changed;
+    private final int deleted;
+    private final long listingMillis;
+    
+    S3ChangeSet(S3Manifest base, S3Manifest listing, int added, int changed, int deleted, long listingMillis) {
+        this.base = base;
+        this.listing = listing;
+        this.added = added;
+        this.changed = changed;
+        this.deleted = deleted;
+        this.listingMillis = listingMillis;
+    }
+    
+    /**
+     * Compare a new listing with the base manifest in one pass over both sorted key arrays
+     */
+    static S3ChangeSet diff(S3Manifest base, S3Manifest listing, long listingMillis) {
+        int added = 0;
+        int changed = 0;
+        int deleted = 0;
+        int i = 0;
+        int j = 0;
+        while (i < base.size() || j < listing.size()) {
+            int order = i == base.size() ? 1 : j == listing.size() ? -1 : base.keyAt(i).compareTo(listing.keyAt(j));
+            if (order < 0) {
+                deleted++;
+                i++;
+            } else if (order > 0) {
+                added++;
+                j++;
+            } else {
+                if (!base.sameVersion(i, listing, j)) {
+                    changed++;
+                }
+                i++;
+                j++;
+            }
+        }
+        return new S3ChangeSet(base, listing, added, changed, deleted, listingMillis);
+    }
+    
+    S3Manifest getBase() { return base; }
+    S3Manifest getListing() { return listing; }
+    
+    public int getAdded() { return added; }
+    public int getChanged() { return changed; }
+    public int getDeleted() { return deleted; }
+    /** Objects in the data source's prefixes at listing time */
+    public int getScanned() { return listing.size(); }
+    /** Time spent listing the bucket */
+    public long getListingMillis() { return listingMillis; }
+    
+    public boolean isEmpty() {
+        return added == 0 && changed == 0 && deleted == 0;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("S3ChangeSet{scanned=%d, added=%d, changed=%d, deleted=%d, listingMs=%d}",
+            getScanned(), added, changed, deleted, listingMillis);
+    }
+}
\ No newline at end of file
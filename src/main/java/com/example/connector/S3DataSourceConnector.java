@@ -3,6 +3,7 @@ package com.example.connector;
 import software.amazon.awssdk.services.bedrockagent.BedrockAgentClient;
 import software.amazon.awssdk.services.bedrockagent.model.*;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -25,17 +26,14 @@ public class S3DataSourceConnector extends DataSourceConnector {
             throw new ConnectorException("Invalid S3 data source configuration");
         }
         
-        try {
-            CreateDataSourceRequest request = CreateDataSourceRequest.builder()
-                .knowledgeBaseId(knowledgeBaseId)
-                .name(name)
-                .dataSourceConfiguration(dataConfig)
-                .clientToken(UUID.randomUUID().toString())
-                .build();
-            return bedrockClient.createDataSource(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to create S3 data source: " + name, e);
-        }
+        CreateDataSourceRequest request = CreateDataSourceRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .name(name)
+            .dataSourceConfiguration(dataConfig)
+            .clientToken(UUID.randomUUID().toString())
+            .build();
+        return invoker.invoke("CreateDataSource", () -> bedrockClient.createDataSource(request),
+            "Failed to create S3 data source: " + name);
     }
     
     @Override
@@ -45,33 +43,55 @@ public class S3DataSourceConnector extends DataSourceConnector {
             throw new ConnectorException("Invalid S3 data source configuration");
         }
         
-        try {
-            UpdateDataSourceRequest request = UpdateDataSourceRequest.builder()
-                .knowledgeBaseId(knowledgeBaseId)
-                .dataSourceId(dataSourceId)
-                .dataSourceConfiguration(dataConfig)
-                .build();
-            return bedrockClient.updateDataSource(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to update S3 data source: " + dataSourceId, e);
-        }
+        UpdateDataSourceRequest request = UpdateDataSourceRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .dataSourceConfiguration(dataConfig)
+            .build();
+        return invokeDataSourceWrite("UpdateDataSource", dataSourceId,
+            () -> bedrockClient.updateDataSource(request),
+            "Failed to update S3 data source: " + dataSourceId);
     }
     
     @Override
     public DeleteDataSourceResponse deleteDataSource(String dataSourceId) throws ConnectorException {
-        try {
-            DeleteDataSourceRequest request = DeleteDataSourceRequest.builder()
-                .knowledgeBaseId(knowledgeBaseId)
-                .dataSourceId(dataSourceId)
-                .build();
-            return bedrockClient.deleteDataSource(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to delete S3 data source: " + dataSourceId, e);
+        DeleteDataSourceRequest request = DeleteDataSourceRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .build();
+        return invokeDataSourceWrite("DeleteDataSource", dataSourceId,
+            () -> bedrockClient.deleteDataSource(request),
+            "Failed to delete S3 data source: " + dataSourceId);
+    }
+    
+    /**
+     * Start ingestion only when the bucket changed since the last start. The detector's manifest
+     * moves forward only after StartIngestionJob succeeds; the counts of the check are available
+     * from detector.getLastChanges().
+     *
+     * @return the started job, or empty when no object was added, changed or deleted
+     */
+    public Optional<StartIngestionJobResponse> startIngestionIfChanged(String dataSourceId, String clientToken,
+                                                                       S3ChangeDetector detector)
+            throws ConnectorException {
+        S3ChangeSet changes = detector.detectChanges();
+        if (changes.isEmpty()) {
+            return Optional.empty();
         }
+        StartIngestionJobResponse response = startIngestion(dataSourceId, clientToken);
+        detector.commit(changes);
+        return Optional.of(response);
     }
     
     @Override
     protected boolean validateConfiguration(DataSourceConfiguration config) {
+        return isValidConfiguration(config);
+    }
+    
+    /**
+     * Check that an S3 configuration has a bucket ARN (used by the async connector too)
+     */
+    static boolean isValidConfiguration(DataSourceConfiguration config) {
         if (config == null || config.type() != DataSourceType.S3) {
             return false;
         }
@@ -88,7 +108,7 @@ public class S3DataSourceConnector extends DataSourceConnector {
     public DataSourceConfiguration createS3Configuration(S3ConfigBuilder configBuilder) {
         S3DataSourceConfiguration.Builder s3Builder = S3DataSourceConfiguration.builder()
             .bucketArn(configBuilder.getBucketArn());
-            
+        
         if (configBuilder.getInclusionPrefixes() != null && !configBuilder.getInclusionPrefixes().isEmpty()) {
             s3Builder.inclusionPrefixes(configBuilder.getInclusionPrefixes());
         }
@@ -125,7 +145,7 @@ public class S3DataSourceConnector extends DataSourceConnector {
                                                         List<String> exclusionPrefixes) {
         S3ConfigBuilder builder = S3ConfigBuilder.builder()
             .bucketName(bucketName);
-            
+        
         if (inclusionPrefixes != null) {
             builder.inclusionPrefixes(inclusionPrefixes);
         }
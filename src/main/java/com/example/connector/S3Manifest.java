@@ -0,0 +1,209 @@
+package com.example.connector;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compact key to ETag/size/lastModified map of the objects behind an S3 data source.
+ *
+ * Entries are held in key order in parallel arrays, with the ETag reduced to a 64-bit hash, so a
+ * million objects cost their key strings plus 24 bytes each. The file stores the keys front-coded
+ * (bytes shared with the previous key are not repeated), is written to a temporary sibling and
+ * atomically moved into place, and carries a CRC32 trailer like InventorySnapshot.
+ */
+public final class S3Manifest {
+    private static final int MAGIC = 0x53334D46;
+    private static final short VERSION = 1;
+    private static final S3Manifest EMPTY = new S3Manifest(0L, new String[0], new long[0], new long[0], new long[0]);
+    
+    private final long createdAtMillis;
+    private final String[] keys;
+    private final long[] eTagHashes;
+    private final long[] sizes;
+    private final long[] lastModifiedMillis;
+    
+    private S3Manifest(long createdAtMillis, String[] keys, long[] eTagHashes, long[] sizes, long[] lastModifiedMillis) {
+        this.createdAtMillis = createdAtMillis;
+        this.keys = keys;
+        this.eTagHashes = eTagHashes;
+        this.sizes = sizes;
+        this.lastModifiedMillis = lastModifiedMillis;
+    }
+    
+    static S3Manifest empty() {
+        return EMPTY;
+    }
+    
+    /**
+     * Manifest of a listing; keys must be unique
+     */
+    static S3Manifest of(List<S3ObjectEntry> entries, long createdAtMillis) {
+        S3ObjectEntry[] sorted = entries.toArray(new S3ObjectEntry[0]);
+        Arrays.sort(sorted, Comparator.comparing(S3ObjectEntry::getKey));
+        int n = sorted.length;
+        String[] keys = new String[n];
+        long[] eTagHashes = new long[n];
+        long[] sizes = new long[n];
+        long[] lastModified = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = sorted[i].getKey();
+            eTagHashes[i] = hashETag(sorted[i].getETag());
+            sizes[i] = sorted[i].getSize();
+            lastModified[i] = sorted[i].getLastModifiedMillis();
+        }
+        return new S3Manifest(createdAtMillis, keys, eTagHashes, sizes, lastModified);
+    }
+    
+    /**
+     * 64-bit FNV-1a of the ETag; quotes are kept, they are the same in every listing
+     */
+    static long hashETag(String eTag) {
+        if (eTag == null) {
+            return 0L;
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < eTag.length(); i++) {
+            hash ^= eTag.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+    
+    public long getCreatedAtMillis() { return createdAtMillis; }
+    
+    public int size() {
+        return keys.length;
+    }
+    
+    public boolean contains(String key) {
+        return Arrays.binarySearch(keys, key) >= 0;
+    }
+    
+    String keyAt(int index) {
+        return keys[index];
+    }
+    
+    /**
+     * Whether entry i of this manifest and entry j of the other describe the same object version
+     */
+    boolean sameVersion(int i, S3Manifest other, int j) {
+        return eTagHashes[i] == other.eTagHashes[j]
+            && sizes[i] == other.sizes[j]
+            && lastModifiedMillis[i] == other.lastModifiedMillis[j];
+    }
+    
+    /**
+     * Write the manifest atomically; readers never see a partially written file
+     */
+    public void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            try (OutputStream fileOut = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(new CheckedOutputStream(fileOut, crc)))) {
+                writeBody(out);
+                out.flush();
+                fileOut.write(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    private void writeBody(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(createdAtMillis);
+        out.writeInt(keys.length);
+        byte[] previous = new byte[0];
+        for (int i = 0; i < keys.length; i++) {
+            byte[] key = keys[i].getBytes(StandardCharsets.UTF_8);
+            int shared = 0;
+            int max = Math.min(previous.length, key.length);
+            while (shared < max && previous[shared] == key[shared]) {
+                shared++;
+            }
+            out.writeShort(shared);
+            out.writeShort(key.length - shared);
+            out.write(key, shared, key.length - shared);
+            out.writeLong(eTagHashes[i]);
+            out.writeLong(sizes[i]);
+            out.writeLong(lastModifiedMillis[i]);
+            previous = key;
+        }
+    }
+    
+    /**
+     * Map a manifest file and decode it
+     *
+     * @throws IOException if the file is missing, truncated, from another version or fails its checksum
+     */
+    public static S3Manifest read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 22 || size > Integer.MAX_VALUE) {
+                throw new IOException("Not an S3 manifest: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer body = buffer.duplicate();
+            body.limit((int) size - 4);
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != buffer.getInt((int) size - 4)) {
+                throw new IOException("S3 manifest checksum mismatch: " + file);
+            }
+            return decode(body, file);
+        } catch (RuntimeException e) {
+            // BufferUnderflowException, bad prefix lengths: treat as corruption
+            throw new IOException("Corrupt S3 manifest: " + file, e);
+        }
+    }
+    
+    private static S3Manifest decode(ByteBuffer in, Path file) throws IOException {
+        if (in.getInt() != MAGIC) {
+            throw new IOException("Not an S3 manifest: " + file);
+        }
+        short version = in.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported S3 manifest version " + version + ": " + file);
+        }
+        long createdAt = in.getLong();
+        int count = in.getInt();
+        String[] keys = new String[count];
+        long[] eTagHashes = new long[count];
+        long[] sizes = new long[count];
+        long[] lastModified = new long[count];
+        byte[] previous = new byte[0];
+        for (int i = 0; i < count; i++) {
+            int shared = Short.toUnsignedInt(in.getShort());
+            int suffix = Short.toUnsignedInt(in.getShort());
+            byte[] key = Arrays.copyOf(previous, shared + suffix);
+            in.get(key, shared, suffix);
+            keys[i] = new String(key, StandardCharsets.UTF_8);
+            eTagHashes[i] = in.getLong();
+            sizes[i] = in.getLong();
+            lastModified[i] = in.getLong();
+            previous = key;
+        }
+        return new S3Manifest(createdAt, keys, eTagHashes, sizes, lastModified);
+    }
+}
\ No newline at end of file
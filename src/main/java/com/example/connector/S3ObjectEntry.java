@@ -0,0 +1,31 @@
+package com.example.connector;
+
+import java.util.Objects;
+
+/**
+ * One object as reported by an S3 listing: the fields change detection compares
+ */
+public final class S3ObjectEntry {
+    private final String key;
+    private final String eTag;
+    private final long size;
+    private final long lastModifiedMillis;
+    
+    public S3ObjectEntry(String key, String eTag, long size, long lastModifiedMillis) {
+        this.key = Objects.requireNonNull(key, "key");
+        this.eTag = eTag;
+        this.size = size;
+        this.lastModifiedMillis = lastModifiedMillis;
+    }
+    
+    public String getKey() { return key; }
+    public String getETag() { return eTag; }
+    public long getSize() { return size; }
+    public long getLastModifiedMillis() { return lastModifiedMillis; }
+    
+    @Override
+    public String toString() {
+        return String.format("S3ObjectEntry{key='%s', eTag=%s, size=%d, lastModified=%d}",
+            key, eTag, size, lastModifiedMillis);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.connector;
+
+import java.util.stream.Stream;
+
+/**
+ * Source of S3 object listings for S3ChangeDetector. SdkS3ObjectLister reads a real bucket;
+ * InMemoryS3ObjectLister stands in for one in tests and dry runs.
+ */
+@FunctionalInterface
+public interface S3ObjectLister {
+    
+    /**
+     * Every object whose key starts with the prefix (all objects for an empty prefix). Close the
+     * stream to stop early; failures surface as UncheckedConnectorException.
+     */
+    Stream<S3ObjectEntry> list(String bucketName, String prefix);
+}
\ No newline at end of file
@@ -0,0 +1,210 @@
+package com.example.connector;
+
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * StagingStore writing to an S3 bucket. A stream of known length up to partSize is sent with one
+ * PutObject straight from the stream; anything larger or of unknown length is sent as a multipart
+ * upload one part at a time, so at most one part is held in memory. A failed multipart upload is
+ * aborted. Deletes go out as DeleteObjects calls of up to 1000 keys.
+ */
+public class S3StagingStore implements StagingStore {
+    /** Smallest part S3 accepts for all but the last part of a multipart upload */
+    public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+    
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+    
+    private final S3Client s3Client;
+    private final String bucketName;
+    private final String expectedBucketOwner;
+    private final int partSize;
+    
+    public S3StagingStore(S3Client s3Client, String bucketName) {
+        this(s3Client, bucketName, null, 8 * 1024 * 1024);
+    }
+    
+    /**
+     * @param expectedBucketOwner account that must own the bucket (null = not checked)
+     * @param partSize            multipart part size in bytes, at least MIN_PART_SIZE
+     */
+    public S3StagingStore(S3Client s3Client, String bucketName, String expectedBucketOwner, int partSize) {
+        if (partSize < MIN_PART_SIZE) {
+            throw new IllegalArgumentException("partSize must be at least " + MIN_PART_SIZE + ": " + partSize);
+        }
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+        this.expectedBucketOwner = expectedBucketOwner;
+        this.partSize = partSize;
+    }
+    
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType)
+            throws ConnectorException {
+        try {
+            if (contentLength >= 0 && contentLength <= partSize) {
+                putObject(key, RequestBody.fromInputStream(content, contentLength), contentLength, contentType);
+                return;
+            }
+            byte[] buffer = new byte[partSize];
+            int first = readFully(content, buffer);
+            if (first < partSize) {
+                putObject(key, RequestBody.fromBytes(Arrays.copyOf(buffer, first)), first, contentType);
+                return;
+            }
+            multipartUpload(key, content, buffer, contentType);
+        } catch (IOException | SdkException e) {
+            throw new ConnectorException("Failed to stage s3://" + bucketName + "/" + key, e);
+        }
+    }
+    
+    @Override
+    public List<String> list(String prefix) throws ConnectorException {
+        List<String> keys = new ArrayList<>();
+        String continuationToken = null;
+        try {
+            do {
+                ListObjectsV2Response response = s3Client.listObjectsV2(ListObjectsV2Request.builder()
+                    .bucket(bucketName)
+                    .prefix(prefix)
+                    .continuationToken(continuationToken)
+                    .expectedBucketOwner(expectedBucketOwner)
+                    .build());
+                for (S3Object object : response.contents()) {
+                    keys.add(object.key());
+                }
+                continuationToken = Boolean.TRUE.equals(response.isTruncated()) ? response.nextContinuationToken() : null;
+            } while (continuationToken != null);
+        } catch (SdkException e) {
+            throw new ConnectorException("Failed to list s3://" + bucketName + "/" + prefix, e);
+        }
+        return keys;
+    }
+    
+    @Override
+    public void delete(Collection<String> keys) throws ConnectorException {
+        List<ObjectIdentifier> objects = keys.stream()
+            .map(key -> ObjectIdentifier.builder().key(key).build())
+            .collect(Collectors.toList());
+        for (int from = 0; from < objects.size(); from += MAX_KEYS_PER_DELETE) {
+            List<ObjectIdentifier> batch = objects.subList(from, Math.min(objects.size(), from + MAX_KEYS_PER_DELETE));
+            DeleteObjectsResponse response;
+            try {
+                response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                    .bucket(bucketName)
+                    .delete(Delete.builder().objects(batch).quiet(true).build())
+                    .expectedBucketOwner(expectedBucketOwner)
+                    .build());
+            } catch (SdkException e) {
+                throw new ConnectorException("Failed to delete staged objects from s3://" + bucketName, e);
+            }
+            if (response.hasErrors() && !response.errors().isEmpty()) {
+                S3Error error = response.errors().get(0);
+                throw new ConnectorException("Failed to delete s3://" + bucketName + "/" + error.key() + ": "
+                    + error.message());
+            }
+        }
+    }
+    
+    private void putObject(String key, RequestBody body, long contentLength, String contentType) {
+        s3Client.putObject(PutObjectRequest.builder()
+            .bucket(bucketName)
+            .key(key)
+            .contentType(contentType)
+            .contentLength(contentLength)
+            .expectedBucketOwner(expectedBucketOwner)
+            .build(), body);
+    }
+    
+    /**
+     * Upload the full first part already in the buffer, then the rest of the stream part by part
+     */
+    private void multipartUpload(String key, InputStream content, byte[] buffer, String contentType)
+            throws IOException {
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+            .bucket(bucketName)
+            .key(key)
+            .contentType(contentType)
+            .expectedBucketOwner(expectedBucketOwner)
+            .build()).uploadId();
+        List<CompletedPart> parts = new ArrayList<>();
+        try {
+            int length = buffer.length;
+            while (length > 0) {
+                int partNumber = parts.size() + 1;
+                String eTag = s3Client.uploadPart(UploadPartRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .partNumber(partNumber)
+                    .contentLength((long) length)
+                    .expectedBucketOwner(expectedBucketOwner)
+                    .build(), RequestBody.fromBytes(length == buffer.length ? buffer : Arrays.copyOf(buffer, length)))
+                    .eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+                length = readFully(content, buffer);
+            }
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                .expectedBucketOwner(expectedBucketOwner)
+                .build());
+        } catch (IOException | RuntimeException e) {
+            try {
+                s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .expectedBucketOwner(expectedBucketOwner)
+                    .build());
+            } catch (RuntimeException abortError) {
+                e.addSuppressed(abortError);
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Fill the buffer unless the stream ends first; returns the bytes read
+     */
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        int total = 0;
+        while (total < buffer.length) {
+            int n = in.read(buffer, total, buffer.length - total);
+            if (n < 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+    
+    public String getBucketName() {
+        return bucketName;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.example.connector;
+
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * S3ObjectLister backed by ListObjectsV2. Pages are prefetched like the Bedrock list calls and
+ * each call goes through a ControlPlaneInvoker, so throttling is retried with backoff.
+ */
+public class SdkS3ObjectLister implements S3ObjectLister {
+    private final S3Client s3Client;
+    private final String expectedBucketOwner;
+    private final ControlPlaneInvoker invoker;
+    
+    public SdkS3ObjectLister(S3Client s3Client, ConnectorConfig config) {
+        this(s3Client, config, null);
+    }
+    
+    /**
+     * @param expectedBucketOwner account that must own the bucket (null = not checked)
+     */
+    public SdkS3ObjectLister(S3Client s3Client, ConnectorConfig config, String expectedBucketOwner) {
+        this.s3Client = s3Client;
+        this.expectedBucketOwner = expectedBucketOwner;
+        this.invoker = new ControlPlaneInvoker(config);
+    }
+    
+    @Override
+    public Stream<S3ObjectEntry> list(String bucketName, String prefix) {
+        String errorMessage = "Failed to list s3://" + bucketName + "/" + (prefix != null ? prefix : "");
+        return PrefetchingPaginator.stream(continuationToken -> {
+            ListObjectsV2Request request = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix != null && !prefix.isEmpty() ? prefix : null)
+                .continuationToken(continuationToken)
+                .expectedBucketOwner(expectedBucketOwner)
+                .build();
+            ListObjectsV2Response response = invoker.invoke("ListObjectsV2",
+                () -> s3Client.listObjectsV2(request), errorMessage);
+            List<S3ObjectEntry> entries = response.contents().stream()
+                .map(SdkS3ObjectLister::toEntry)
+                .collect(Collectors.toList());
+            String next = Boolean.TRUE.equals(response.isTruncated()) ? response.nextContinuationToken() : null;
+            return new PrefetchingPaginator.Page<>(entries, next);
+        }, errorMessage);
+    }
+    
+    private static S3ObjectEntry toEntry(S3Object object) {
+        return new S3ObjectEntry(object.key(), object.eTag(),
+            object.size() != null ? object.size() : 0L,
+            object.lastModified() != null ? object.lastModified().toEpochMilli() : 0L);
+    }
+}
\ No newline at end of file
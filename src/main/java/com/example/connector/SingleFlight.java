@@ -0,0 +1,71 @@
+package com.example.connector;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces identical concurrent calls: the first caller for a key runs the call on its own
+ * thread, and callers arriving while it is in flight wait for and share its result (or failure).
+ * Nothing is cached once the call completes, so results are never staler than the call itself.
+ */
+final class SingleFlight {
+    
+    @FunctionalInterface
+    interface Call<V> {
+        V call() throws ConnectorException;
+    }
+    
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+    
+    @SuppressWarnings("unchecked")
+    <V> V execute(String key, Call<V> call) throws ConnectorException {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.incrementAndGet();
+            return (V) await(leader);
+        }
+        try {
+            V result = call.call();
+            mine.complete(result);
+            return result;
+        } catch (Throwable t) {
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+    
+    private static Object await(CompletableFuture<Object> leader) throws ConnectorException {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectorException("Interrupted waiting for a shared in-flight call", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ConnectorException) {
+                throw (ConnectorException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ConnectorException("Shared in-flight call failed", cause);
+        }
+    }
+    
+    /**
+     * Calls answered by another caller's in-flight request instead of going to the network
+     */
+    long getCoalescedCalls() {
+        return coalesced.get();
+    }
+}
\ No newline at end of file
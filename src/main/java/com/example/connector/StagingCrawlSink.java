@@ -0,0 +1,58 @@
+package com.example.connector;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * CrawlSink that writes pages into a StagingStore (e.g. S3StagingStore) for an S3 data source.
+ *
+ * Keys are the prefix, the host and a hash of the URL, so a re-crawl overwrites the same objects.
+ * With metadata enabled each page gets a Bedrock ".metadata.json" sidecar carrying its source URL.
+ */
+public class StagingCrawlSink implements CrawlSink {
+    private final StagingStore store;
+    private final String prefix;
+    private final boolean writeMetadata;
+    
+    public StagingCrawlSink(StagingStore store, String prefix) {
+        this(store, prefix, true);
+    }
+    
+    public StagingCrawlSink(StagingStore store, String prefix, boolean writeMetadata) {
+        this.store = Objects.requireNonNull(store, "store");
+        this.prefix = Objects.requireNonNull(prefix, "prefix");
+        this.writeMetadata = writeMetadata;
+    }
+    
+    @Override
+    public void accept(CrawledPage page) throws ConnectorException {
+        String key = keyOf(page);
+        try (InputStream body = page.openStream()) {
+            store.put(key, body, page.getContentLength(), page.getContentType());
+        } catch (IOException e) {
+            throw new ConnectorException("Failed to stage crawled page: " + page.getUrl(), e);
+        }
+        if (writeMetadata) {
+            byte[] metadata = ("{\"metadataAttributes\":{\"source_url\":" + MiniJson.quote(page.getUrl()) + "}}")
+                .getBytes(StandardCharsets.UTF_8);
+            store.put(key + ".metadata.json", new ByteArrayInputStream(metadata), metadata.length,
+                "application/json");
+        }
+    }
+    
+    /**
+     * Staging key of a page: prefix + host + "/" + URL hash + extension
+     */
+    String keyOf(CrawledPage page) {
+        String host = URI.create(page.getUrl()).getHost();
+        return prefix + host + "/" + StagingKeys.urlHash(page.getUrl()) + extensionOf(page);
+    }
+    
+    private static String extensionOf(CrawledPage page) {
+        return page.isHtml() ? ".html" : StagingKeys.extension(page.getUrl(), page.getContentType());
+    }
+}
\ No newline at end of file
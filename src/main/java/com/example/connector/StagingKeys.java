@@ -0,0 +1,65 @@
+package com.example.connector;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Naming helpers shared by the writers of staged objects (KmsLighthousePipeline, StagingCrawlSink):
+ * stable URL hashes and file extensions Bedrock can parse.
+ */
+final class StagingKeys {
+    private static final Map<String, String> EXTENSIONS = new LinkedHashMap<>();
+    
+    static {
+        EXTENSIONS.put("application/pdf", ".pdf");
+        EXTENSIONS.put("application/msword", ".doc");
+        EXTENSIONS.put("application/vnd.openxmlformats-officedocument.wordprocessingml.document", ".docx");
+        EXTENSIONS.put("text/plain", ".txt");
+        EXTENSIONS.put("text/markdown", ".md");
+        EXTENSIONS.put("text/html", ".html");
+        EXTENSIONS.put("text/csv", ".csv");
+    }
+    
+    private StagingKeys() {
+    }
+    
+    /**
+     * First 32 hex digits of the SHA-256 of a URL
+     */
+    static String urlHash(String url) {
+        return sha256Hex(url).substring(0, 32);
+    }
+    
+    /**
+     * Extension of the URL's last path segment (lower-cased, at most five characters), else the
+     * one registered for the content type, else ""
+     */
+    static String extension(String url, String contentType) {
+        String path = URI.create(url).getPath();
+        int dot = path != null ? path.lastIndexOf('.') : -1;
+        if (dot >= 0 && dot > path.lastIndexOf('/') && path.length() - dot <= 6) {
+            return path.substring(dot).toLowerCase();
+        }
+        if (contentType != null) {
+            return EXTENSIONS.getOrDefault(contentType.split(";")[0].trim().toLowerCase(), "");
+        }
+        return "";
+    }
+    
+    private static String sha256Hex(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.connector;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Destination for documents staged ahead of an S3 data source sync. S3StagingStore writes to a
+ * bucket; InMemoryStagingStore stands in for one in tests and dry runs.
+ */
+public interface StagingStore {
+    
+    /**
+     * Copy the stream to the key, reading it once and without holding the whole document in memory
+     *
+     * @param contentLength bytes in the stream, or -1 when unknown
+     */
+    void put(String key, InputStream content, long contentLength, String contentType) throws ConnectorException;
+    
+    /**
+     * Every key under the prefix
+     */
+    List<String> list(String prefix) throws ConnectorException;
+    
+    /**
+     * Remove the keys; keys that do not exist are ignored
+     */
+    void delete(Collection<String> keys) throws ConnectorException;
+}
\ No newline at end of file
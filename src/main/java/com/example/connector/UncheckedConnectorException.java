@@ -0,0 +1,17 @@
+package com.example.connector;
+
+/**
+ * Unchecked wrapper for ConnectorException, thrown where a checked exception
+ * cannot be declared (iterators, streams, callbacks)
+ */
+public class UncheckedConnectorException extends RuntimeException {
+    
+    public UncheckedConnectorException(ConnectorException cause) {
+        super(cause.getMessage(), cause);
+    }
+    
+    @Override
+    public synchronized ConnectorException getCause() {
+        return (ConnectorException) super.getCause();
+    }
+}
\ No newline at end of file
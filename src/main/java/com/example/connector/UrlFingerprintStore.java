@@ -0,0 +1,306 @@
+package com.example.connector;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Exact on-disk URL set, log-structured so inserts never read the disk.
+ *
+ * URLs are appended to a log. Their 64-bit fingerprints and log offsets go into a fixed-size
+ * in-memory table which, when full, is written out as a sorted run file and memory-mapped. Runs of
+ * similar size are merged, so a store of n URLs has O(log n) runs. A lookup probes the table, then
+ * binary-searches each run, and compares the full URL from the log on a fingerprint match, so
+ * fingerprint collisions never merge two URLs. Heap use is the table and a few I/O buffers,
+ * whatever the number of URLs.
+ */
+final class UrlFingerprintStore implements Closeable {
+    private static final int LOG_BUFFER_BYTES = 64 * 1024;
+    
+    private final Path directory;
+    private final FileChannel log;
+    private final ByteBuffer logBuffer = ByteBuffer.allocate(LOG_BUFFER_BYTES);
+    private final ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+    private long logFlushed;
+    private final long[] tableFingerprints;
+    private final long[] tableOffsets;
+    private final int tableMask;
+    private final int tableLimit;
+    private int tableCount;
+    private final List<Run> runs = new ArrayList<>();
+    private int runSequence;
+    private long size;
+    
+    /**
+     * @param tableEntries URLs buffered in memory before a run is written (16 bytes each, twice over)
+     */
+    UrlFingerprintStore(Path directory, int tableEntries) throws IOException {
+        this.directory = directory;
+        this.log = FileChannel.open(directory.resolve("urls.log"), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int capacity = Integer.highestOneBit(Math.max(16, tableEntries) * 2 - 1) << 1;
+        this.tableFingerprints = new long[capacity];
+        this.tableOffsets = new long[capacity];
+        this.tableMask = capacity - 1;
+        this.tableLimit = capacity / 2;
+    }
+    
+    /**
+     * 64-bit FNV-1a of the URL bytes with a murmur3 finaliser; never 0, which marks an empty slot
+     */
+    static long fingerprint(byte[] url) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : url) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h != 0 ? h : 1;
+    }
+    
+    boolean contains(long fingerprint, byte[] url) throws IOException {
+        for (int slot = (int) fingerprint & tableMask; tableFingerprints[slot] != 0; slot = (slot + 1) & tableMask) {
+            if (tableFingerprints[slot] == fingerprint && urlEquals(tableOffsets[slot], url)) {
+                return true;
+            }
+        }
+        for (int i = runs.size() - 1; i >= 0; i--) {
+            Run run = runs.get(i);
+            for (long entry = run.lowerBound(fingerprint);
+                    entry < run.count && run.fingerprint(entry) == fingerprint; entry++) {
+                if (urlEquals(run.offset(entry), url)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Add a URL known to be absent (a Bloom filter miss or a failed contains)
+     */
+    void insert(long fingerprint, byte[] url) throws IOException {
+        long offset = append(url);
+        int slot = (int) fingerprint & tableMask;
+        while (tableFingerprints[slot] != 0) {
+            slot = (slot + 1) & tableMask;
+        }
+        tableFingerprints[slot] = fingerprint;
+        tableOffsets[slot] = offset;
+        size++;
+        if (++tableCount >= tableLimit) {
+            flushTable();
+        }
+    }
+    
+    long size() {
+        return size;
+    }
+    
+    /**
+     * Bytes on disk: the URL log plus the run files
+     */
+    long getDiskBytes() {
+        long bytes = logFlushed + logBuffer.position();
+        for (Run run : runs) {
+            bytes += run.count * 2 * Long.BYTES;
+        }
+        return bytes;
+    }
+    
+    int getRunCount() {
+        return runs.size();
+    }
+    
+    private long append(byte[] url) throws IOException {
+        int recordLength = Integer.BYTES + url.length;
+        if (logBuffer.remaining() < recordLength) {
+            flushLog();
+        }
+        long offset = logFlushed + logBuffer.position();
+        if (recordLength > logBuffer.capacity()) {
+            ByteBuffer record = ByteBuffer.allocate(recordLength).putInt(url.length).put(url);
+            record.flip();
+            writeFully(record, logFlushed);
+            logFlushed += recordLength;
+        } else {
+            logBuffer.putInt(url.length).put(url);
+        }
+        return offset;
+    }
+    
+    private void flushLog() throws IOException {
+        logBuffer.flip();
+        int bytes = logBuffer.remaining();
+        writeFully(logBuffer, logFlushed);
+        logFlushed += bytes;
+        logBuffer.clear();
+    }
+    
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += log.write(buffer, position);
+        }
+    }
+    
+    private boolean urlEquals(long offset, byte[] url) throws IOException {
+        if (offset >= logFlushed) {
+            flushLog();
+        }
+        lengthBuffer.clear();
+        readFully(lengthBuffer, offset);
+        if (lengthBuffer.getInt(0) != url.length) {
+            return false;
+        }
+        ByteBuffer stored = ByteBuffer.allocate(url.length);
+        readFully(stored, offset + Integer.BYTES);
+        return Arrays.equals(stored.array(), url);
+    }
+    
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = log.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("URL log truncated at " + position);
+            }
+            position += read;
+        }
+    }
+    
+    /**
+     * Write the table as a sorted run, then merge runs while the newest is at least half the size
+     * of the one before it
+     */
+    private void flushTable() throws IOException {
+        long[] sorted = new long[tableCount];
+        int n = 0;
+        for (long fingerprint : tableFingerprints) {
+            if (fingerprint != 0) {
+                sorted[n++] = fingerprint;
+            }
+        }
+        Arrays.sort(sorted);
+        Path file = nextRunFile();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file),
+                LOG_BUFFER_BYTES))) {
+            for (int i = 0; i < n; i++) {
+                if (i > 0 && sorted[i] == sorted[i - 1]) {
+                    continue;
+                }
+                // every table entry with this fingerprint, usually exactly one
+                long fingerprint = sorted[i];
+                for (int slot = (int) fingerprint & tableMask; tableFingerprints[slot] != 0;
+                        slot = (slot + 1) & tableMask) {
+                    if (tableFingerprints[slot] == fingerprint) {
+                        out.writeLong(fingerprint);
+                        out.writeLong(tableOffsets[slot]);
+                    }
+                }
+            }
+        }
+        runs.add(Run.open(file, n));
+        Arrays.fill(tableFingerprints, 0);
+        tableCount = 0;
+        
+        while (runs.size() >= 2 && runs.get(runs.size() - 1).count * 2 >= runs.get(runs.size() - 2).count) {
+            Run newer = runs.remove(runs.size() - 1);
+            Run older = runs.remove(runs.size() - 1);
+            runs.add(merge(older, newer));
+        }
+    }
+    
+    private Run merge(Run a, Run b) throws IOException {
+        Path file = nextRunFile();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file),
+                LOG_BUFFER_BYTES))) {
+            long i = 0;
+            long j = 0;
+            while (i < a.count || j < b.count) {
+                Run from;
+                long entry;
+                if (j >= b.count || (i < a.count && Long.compare(a.fingerprint(i), b.fingerprint(j)) <= 0)) {
+                    from = a;
+                    entry = i++;
+                } else {
+                    from = b;
+                    entry = j++;
+                }
+                out.writeLong(from.fingerprint(entry));
+                out.writeLong(from.offset(entry));
+            }
+        }
+        Files.deleteIfExists(a.file);
+        Files.deleteIfExists(b.file);
+        return Run.open(file, a.count + b.count);
+    }
+    
+    private Path nextRunFile() {
+        return directory.resolve(String.format("urls-%06d.run", runSequence++));
+    }
+    
+    @Override
+    public void close() throws IOException {
+        log.close();
+        Files.deleteIfExists(directory.resolve("urls.log"));
+        for (Run run : runs) {
+            Files.deleteIfExists(run.file);
+        }
+        runs.clear();
+    }
+    
+    /**
+     * A sorted, memory-mapped file of (fingerprint, log offset) pairs
+     */
+    private static final class Run {
+        private final Path file;
+        private final MappedLongs entries;
+        private final long count;
+        
+        private Run(Path file, MappedLongs entries, long count) {
+            this.file = file;
+            this.entries = entries;
+            this.count = count;
+        }
+        
+        static Run open(Path file, long count) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return new Run(file, MappedLongs.map(channel, FileChannel.MapMode.READ_ONLY, count * 2), count);
+            }
+        }
+        
+        long fingerprint(long entry) {
+            return entries.get(entry * 2);
+        }
+        
+        long offset(long entry) {
+            return entries.get(entry * 2 + 1);
+        }
+        
+        long lowerBound(long fingerprint) {
+            long low = 0;
+            long high = count;
+            while (low < high) {
+                long mid = (low + high) >>> 1;
+                if (fingerprint(mid) < fingerprint) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
\ No newline at end of file
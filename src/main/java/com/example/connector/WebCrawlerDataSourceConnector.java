@@ -21,17 +21,14 @@ public class WebCrawlerDataSourceConnector extends DataSourceConnector {
             throw new ConnectorException("Invalid Web Crawler data source configuration");
         }
         
-        try {
-            CreateDataSourceRequest request = CreateDataSourceRequest.builder()
-                .knowledgeBaseId(knowledgeBaseId)
-                .name(name)
-                .dataSourceConfiguration(dataConfig)
-                .clientToken(UUID.randomUUID().toString())
-                .build();
-            return bedrockClient.createDataSource(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to create Web Crawler data source: " + name, e);
-        }
+        CreateDataSourceRequest request = CreateDataSourceRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .name(name)
+            .dataSourceConfiguration(dataConfig)
+            .clientToken(UUID.randomUUID().toString())
+            .build();
+        return invoker.invoke("CreateDataSource", () -> bedrockClient.createDataSource(request),
+            "Failed to create Web Crawler data source: " + name);
     }
     
     @Override
@@ -41,33 +38,36 @@ public class WebCrawlerDataSourceConnector extends DataSourceConnector {
             throw new ConnectorException("Invalid Web Crawler data source configuration");
         }
         
-        try {
-            UpdateDataSourceRequest request = UpdateDataSourceRequest.builder()
-                .knowledgeBaseId(knowledgeBaseId)
-                .dataSourceId(dataSourceId)
-                .dataSourceConfiguration(dataConfig)
-                .build();
-            return bedrockClient.updateDataSource(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to update Web Crawler data source: " + dataSourceId, e);
-        }
+        UpdateDataSourceRequest request = UpdateDataSourceRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .dataSourceConfiguration(dataConfig)
+            .build();
+        return invokeDataSourceWrite("UpdateDataSource", dataSourceId,
+            () -> bedrockClient.updateDataSource(request),
+            "Failed to update Web Crawler data source: " + dataSourceId);
     }
     
     @Override
     public DeleteDataSourceResponse deleteDataSource(String dataSourceId) throws ConnectorException {
-        try {
-            DeleteDataSourceRequest request = DeleteDataSourceRequest.builder()
-                .knowledgeBaseId(knowledgeBaseId)
-                .dataSourceId(dataSourceId)
-                .build();
-            return bedrockClient.deleteDataSource(request);
-        } catch (Exception e) {
-            throw new ConnectorException("Failed to delete Web Crawler data source: " + dataSourceId, e);
-        }
+        DeleteDataSourceRequest request = DeleteDataSourceRequest.builder()
+            .knowledgeBaseId(knowledgeBaseId)
+            .dataSourceId(dataSourceId)
+            .build();
+        return invokeDataSourceWrite("DeleteDataSource", dataSourceId,
+            () -> bedrockClient.deleteDataSource(request),
+            "Failed to delete Web Crawler data source: " + dataSourceId);
     }
     
     @Override
     protected boolean validateConfiguration(DataSourceConfiguration config) {
+        return isValidConfiguration(config);
+    }
+    
+    /**
+     * Check that a web configuration carries seed URLs; reused by the async connector
+     */
+    static boolean isValidConfiguration(DataSourceConfiguration config) {
         if (config == null || config.type() != DataSourceType.WEB) {
             return false;
         }
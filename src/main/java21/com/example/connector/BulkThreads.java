@@ -0,0 +1,23 @@
+package com.example.connector;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Java 21+ thread source for BulkExecutor (META-INF/versions/21 of the multi-release jar):
+ * every bulk item runs on its own virtual thread, so thousands of blocking SDK calls cost
+ * no more than the concurrency limit allows in flight.
+ */
+final class BulkThreads {
+    
+    private BulkThreads() {
+    }
+    
+    static ExecutorService newExecutor(String name) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+    }
+    
+    static boolean isVirtual() {
+        return true;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,210 @@
+package com.example.connector;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.example.connector.LighthouseStubServer.authorized;
+import static com.example.connector.LighthouseStubServer.json;
+import static com.example.connector.LighthouseStubServer.ok;
+import static com.example.connector.LighthouseStubServer.redirect;
+import static com.example.connector.LighthouseStubServer.status;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KmsLighthousePipelineTest {
+    private static final String BEARER = "Bearer lighthouse-token";
+    
+    private LighthouseStubServer lighthouse;
+    private LighthouseStubServer cdn;
+    private InMemoryStagingStore store;
+    
+    @BeforeEach
+    void startServers() throws IOException {
+        lighthouse = new LighthouseStubServer();
+        cdn = new LighthouseStubServer();
+        store = new InMemoryStagingStore();
+    }
+    
+    @AfterEach
+    void stopServers() {
+        lighthouse.close();
+        cdn.close();
+    }
+    
+    @Test
+    void redirectsKeepCredentialsOnlyOnConfiguredOrigins() throws ConnectorException {
+        lighthouse.route("/api/docs", authorized(BEARER, json("{\"documents\":["
+                + "{\"id\":\"presigned\",\"url\":\"/files/presigned.txt\",\"size\":10},"
+                + "{\"id\":\"moved\",\"url\":\"/files/moved.pdf\",\"size\":10}]}")))
+            .route("/files/presigned.txt", authorized(BEARER,
+                redirect(302, cdn.url("/object?X-Amz-Signature=abc"))))
+            .route("/files/moved.pdf", authorized(BEARER, redirect(301, "/files/current.pdf")))
+            .route("/files/current.pdf", authorized(BEARER, ok("application/pdf", bytes("current"))));
+        cdn.route("/object?X-Amz-Signature=abc", ok("text/plain", bytes("from-cdn")));
+        
+        KmsPullResult result = pipeline(config()
+            .authenticationConfig(KmsAuthenticationConfig.builder().bearerToken("lighthouse-token").build()))
+            .run(KmsIngestionOptions.defaultOptions());
+        
+        assertEquals(2, result.getStaged());
+        assertArrayEquals(bytes("from-cdn"), store.get("kms-lighthouse/presigned.txt"));
+        assertArrayEquals(bytes("current"), store.get("kms-lighthouse/moved.pdf"));
+        assertEquals(1, cdn.requests().size());
+        assertNull(cdn.requests().get(0).authorization, "credentials must not follow a redirect to another origin");
+        assertEquals(BEARER, lighthouse.requests("/files/current.pdf").get(0).authorization);
+    }
+    
+    @Test
+    void skipsDocumentsOverTheSizeLimitBeforeDownloading() throws ConnectorException {
+        lighthouse.route("/api/docs", json("{\"documents\":["
+                + "{\"id\":\"listed\",\"url\":\"/files/listed.bin\",\"size\":5000},"
+                + "{\"id\":\"headed\",\"url\":\"/files/headed.bin\"},"
+                + "{\"id\":\"small\",\"url\":\"/files/small.txt\"}]}"))
+            .route("/files/listed.bin", ok("application/octet-stream", new byte[5000]))
+            .route("/files/headed.bin", ok("application/octet-stream", new byte[5000]))
+            .route("/files/small.txt", ok("text/plain", bytes("small")));
+        
+        KmsPullResult result = pipeline(config()).run(KmsIngestionOptions.defaultOptions());
+        
+        assertEquals(urls("/files/listed.bin", "/files/headed.bin"), oversizedUrls(result));
+        assertTrue(lighthouse.requests("/files/listed.bin").isEmpty());
+        assertEquals(Collections.singletonList("HEAD"), methods("/files/headed.bin"));
+        assertEquals(Collections.singletonList("kms-lighthouse/small.txt"), store.list(""));
+    }
+    
+    @Test
+    void cutsOffBodiesLargerThanAnnounced() throws ConnectorException {
+        lighthouse.route("/api/docs", json("{\"documents\":["
+                + "{\"id\":\"unannounced\",\"url\":\"/files/unannounced.txt\"},"
+                + "{\"id\":\"nohead\",\"url\":\"/files/nohead.txt\"}]}"))
+            .route("/files/unannounced.txt", exchange -> {
+                // neither HEAD nor GET announces a length; the body is chunked
+                exchange.getResponseHeaders().set("Content-Type", "text/plain");
+                if ("HEAD".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(200, -1);
+                    return;
+                }
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(new byte[3000]);
+                } catch (IOException e) {
+                    // the pipeline hangs up once the limit is passed
+                }
+            })
+            .route("/files/nohead.txt", exchange -> {
+                if ("HEAD".equals(exchange.getRequestMethod())) {
+                    status(405).handle(exchange);
+                } else {
+                    ok("text/plain", bytes("no head")).handle(exchange);
+                }
+            });
+        
+        KmsPullResult result = pipeline(config()).run(KmsIngestionOptions.defaultOptions());
+        
+        assertEquals(urls("/files/unannounced.txt"), oversizedUrls(result));
+        assertNull(store.get("kms-lighthouse/unannounced.txt"));
+        assertArrayEquals(bytes("no head"), store.get("kms-lighthouse/nohead.txt"));
+        assertEquals(0, result.getFailed());
+    }
+    
+    @Test
+    void refreshesOAuth2TokenAfter401() throws ConnectorException {
+        AtomicInteger tokensIssued = new AtomicInteger();
+        lighthouse.route("/oauth/token", exchange -> json("{\"access_token\":\"token-"
+                + tokensIssued.incrementAndGet() + "\",\"expires_in\":3600}").handle(exchange))
+            .route("/api/docs", authorized("Bearer token-2",
+                json("{\"documents\":[{\"id\":\"a\",\"url\":\"/files/a.txt\",\"size\":1}]}")))
+            .route("/files/a.txt", authorized("Bearer token-2", ok("text/plain", bytes("a"))));
+        
+        KmsPullResult result = pipeline(config().authenticationConfig(KmsAuthenticationConfig.builder()
+                .oauth2("client", "secret", lighthouse.url("/oauth/token"))
+                .build()))
+            .run(KmsIngestionOptions.defaultOptions());
+        
+        assertEquals(2, tokensIssued.get(), "token-1 is rejected once, then token-2 is used for every call");
+        assertEquals(Arrays.asList("Bearer token-1", "Bearer token-2"),
+            lighthouse.requests("/api/docs").stream().map(r -> r.authorization).collect(Collectors.toList()));
+        assertEquals(1, result.getStaged());
+    }
+    
+    @Test
+    void removesStagedObjectsNoLongerListed() throws ConnectorException {
+        stage("kms-lighthouse/old.pdf");
+        stage("kms-lighthouse/old.pdf.metadata.json");
+        stage("other/keep.txt");
+        lighthouse.route("/api/docs", json("{\"documents\":[{\"id\":\"a\",\"url\":\"/files/a.pdf\",\"size\":1}]}"))
+            .route("/files/a.pdf", ok("application/pdf", bytes("a")));
+        
+        KmsPullResult result = pipeline(config().enableMetadataExtraction(true))
+            .run(KmsIngestionOptions.defaultOptions());
+        
+        assertEquals(2, result.getRemoved());
+        assertEquals(Arrays.asList("kms-lighthouse/a.pdf", "kms-lighthouse/a.pdf.metadata.json", "other/keep.txt"),
+            store.list(""));
+    }
+    
+    @Test
+    void keepsStagedObjectsWhenADocumentFails() throws ConnectorException {
+        stage("kms-lighthouse/old.pdf");
+        lighthouse.route("/api/docs", json("{\"documents\":["
+                + "{\"id\":\"a\",\"url\":\"/files/a.pdf\",\"size\":1},"
+                + "{\"id\":\"gone\",\"url\":\"/files/gone.pdf\",\"size\":1}]}"))
+            .route("/files/a.pdf", ok("application/pdf", bytes("a")));
+        
+        KmsPullResult result = pipeline(config()).run(KmsIngestionOptions.defaultOptions());
+        
+        assertEquals(1, result.getFailed());
+        assertEquals(0, result.getRemoved());
+        assertEquals(Arrays.asList("kms-lighthouse/a.pdf", "kms-lighthouse/old.pdf"), store.list(""));
+    }
+    
+    private KmsLighthouseConfig.Builder config() {
+        return KmsLighthouseConfig.builder()
+            .baseUrl(lighthouse.url("/"))
+            .addDocumentEndpoint(lighthouse.url("/api/docs"))
+            .rateLimit(60000)
+            .maxDocumentSize(1000)
+            .enableMetadataExtraction(false);
+    }
+    
+    private KmsLighthousePipeline pipeline(KmsLighthouseConfig.Builder config) {
+        return KmsLighthousePipeline.builder()
+            .kmsConfig(config.build())
+            .stagingStore(store)
+            .build();
+    }
+    
+    private void stage(String key) throws ConnectorException {
+        byte[] content = bytes(key);
+        store.put(key, new ByteArrayInputStream(content), content.length, "text/plain");
+    }
+    
+    private List<String> methods(String path) {
+        return lighthouse.requests(path).stream().map(r -> r.method).collect(Collectors.toList());
+    }
+    
+    private Set<String> urls(String... paths) {
+        return Arrays.stream(paths).map(lighthouse::url).collect(Collectors.toSet());
+    }
+    
+    private static Set<String> oversizedUrls(KmsPullResult result) {
+        return result.getOversized().stream().map(KmsDocumentRef::getUrl).collect(Collectors.toSet());
+    }
+    
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
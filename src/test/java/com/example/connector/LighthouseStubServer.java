@@ -0,0 +1,137 @@
+package com.example.connector;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Loopback HttpServer standing in for the KMS Lighthouse API or a CDN. Routes are matched on the
+ * raw path and query; every request is recorded with its method and Authorization header.
+ */
+final class LighthouseStubServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    
+    @FunctionalInterface
+    interface Route {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+    
+    static final class Request {
+        final String method;
+        final String path;
+        final String authorization;
+        
+        Request(String method, String path, String authorization) {
+            this.method = method;
+            this.path = path;
+            this.authorization = authorization;
+        }
+    }
+    
+    LighthouseStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::dispatch);
+        server.setExecutor(executor);
+        server.start();
+    }
+    
+    String url(String path) {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path;
+    }
+    
+    LighthouseStubServer route(String pathAndQuery, Route route) {
+        routes.put(pathAndQuery, route);
+        return this;
+    }
+    
+    /**
+     * Requests received for a path and query, in arrival order
+     */
+    List<Request> requests(String pathAndQuery) {
+        return requests.stream().filter(request -> request.path.equals(pathAndQuery)).collect(Collectors.toList());
+    }
+    
+    List<Request> requests() {
+        return requests;
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+    
+    private void dispatch(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().toString();
+        requests.add(new Request(exchange.getRequestMethod(), path,
+            exchange.getRequestHeaders().getFirst("Authorization")));
+        exchange.getRequestBody().readAllBytes();
+        Route route = routes.get(path);
+        try {
+            if (route == null) {
+                status(404).handle(exchange);
+            } else {
+                route.handle(exchange);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    static Route json(String body) {
+        return ok("application/json", body.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    static Route ok(String contentType, byte[] body) {
+        return exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(body.length));
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        };
+    }
+    
+    static Route status(int status) {
+        return exchange -> exchange.sendResponseHeaders(status, -1);
+    }
+    
+    static Route redirect(int status, String location) {
+        return exchange -> {
+            exchange.getResponseHeaders().set("Location", location);
+            exchange.sendResponseHeaders(status, -1);
+        };
+    }
+    
+    /**
+     * Answer with the route when the request carries the Authorization header value, else 401
+     */
+    static Route authorized(String authorization, Route route) {
+        return exchange -> {
+            if (authorization.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                route.handle(exchange);
+            } else {
+                status(401).handle(exchange);
+            }
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.example.connector;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class S3ChangeDetectorTest {
+    private static final String BUCKET = "docs";
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void scanPrefixesDropsPrefixesNestedInAnother() {
+        assertEquals(Arrays.asList("a/", "b/"),
+            S3ChangeDetector.scanPrefixes(Arrays.asList("b/", "a/x/", "a/", "b/c/d")));
+    }
+    
+    @Test
+    void scanPrefixesCoversWholeBucketWithoutInclusions() {
+        assertEquals(Collections.singletonList(""), S3ChangeDetector.scanPrefixes(Collections.emptyList()));
+    }
+    
+    @Test
+    void listsInclusionPrefixesOnceAndSkipsExclusions() throws ConnectorException {
+        InMemoryS3ObjectLister lister = new InMemoryS3ObjectLister()
+            .put(BUCKET, object("a/1.pdf", "e1"))
+            .put(BUCKET, object("a/x/2.pdf", "e2"))
+            .put(BUCKET, object("a/drafts/3.pdf", "e3"))
+            .put(BUCKET, object("b/4.pdf", "e4"))
+            .put(BUCKET, object("c/5.pdf", "e5"));
+        List<String> listed = new ArrayList<>();
+        S3ChangeDetector detector = S3ChangeDetector.builder()
+            .lister((bucket, prefix) -> {
+                listed.add(prefix);
+                return lister.list(bucket, prefix);
+            })
+            .source(S3ConfigBuilder.builder()
+                .bucketName(BUCKET)
+                .inclusionPrefixes(Arrays.asList("a/", "a/x/", "b/"))
+                .addExclusionPrefix("a/drafts/"))
+            .build();
+        
+        S3ChangeSet changes = detector.detectChanges();
+        
+        assertEquals(Arrays.asList("a/", "b/"), listed);
+        assertEquals(3, changes.getScanned());
+        assertEquals(3, changes.getAdded());
+        assertTrue(changes.getListing().contains("a/x/2.pdf"));
+        assertFalse(changes.getListing().contains("a/drafts/3.pdf"));
+        assertFalse(changes.getListing().contains("c/5.pdf"));
+    }
+    
+    @Test
+    void manifestMovesForwardOnlyOnCommit() throws ConnectorException {
+        InMemoryS3ObjectLister lister = new InMemoryS3ObjectLister().put(BUCKET, object("a.txt", "e1"));
+        S3ChangeDetector detector = detector(lister, null);
+        
+        assertEquals(1, detector.detectChanges().getAdded());
+        S3ChangeSet changes = detector.detectChanges();
+        assertEquals(1, changes.getAdded(), "uncommitted changes are reported again");
+        
+        detector.commit(changes);
+        assertTrue(detector.detectChanges().isEmpty());
+        assertTrue(detector.getLastChanges().isEmpty());
+        
+        lister.put(BUCKET, object("a.txt", "e2"));
+        assertEquals(1, detector.detectChanges().getChanged());
+    }
+    
+    @Test
+    void committedManifestSurvivesRestart() throws ConnectorException {
+        Path manifestFile = tempDir.resolve("source.manifest");
+        InMemoryS3ObjectLister lister = new InMemoryS3ObjectLister()
+            .put(BUCKET, object("a.txt", "e1"))
+            .put(BUCKET, object("b.txt", "e2"));
+        S3ChangeDetector first = detector(lister, manifestFile);
+        first.commit(first.detectChanges());
+        
+        S3ChangeDetector restarted = detector(lister, manifestFile);
+        assertEquals(2, restarted.getTrackedObjects());
+        assertTrue(restarted.detectChanges().isEmpty());
+        
+        restarted.reset();
+        assertFalse(manifestFile.toFile().exists());
+        assertEquals(2, restarted.detectChanges().getAdded());
+    }
+    
+    @Test
+    void listingFailureSurfacesAsConnectorException() {
+        ConnectorException failure = new ConnectorException("Access denied");
+        S3ChangeDetector detector = S3ChangeDetector.builder()
+            .lister((bucket, prefix) -> {
+                throw new UncheckedConnectorException(failure);
+            })
+            .source(S3ConfigBuilder.builder().bucketName(BUCKET))
+            .build();
+        
+        assertSame(failure, assertThrows(ConnectorException.class, detector::detectChanges));
+    }
+    
+    private static S3ChangeDetector detector(S3ObjectLister lister, Path manifestFile) {
+        return S3ChangeDetector.builder()
+            .lister(lister)
+            .source(S3ConfigBuilder.builder().bucketName(BUCKET))
+            .manifestFile(manifestFile)
+            .build();
+    }
+    
+    private static S3ObjectEntry object(String key, String eTag) {
+        return new S3ObjectEntry(key, eTag, 100L, 1_700_000_000_000L);
+    }
+}
\ No newline at end of file
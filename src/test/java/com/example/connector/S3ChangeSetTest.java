@@ -0,0 +1,58 @@
+package com.example.connector;
+
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class S3ChangeSetTest {
+    
+    @Test
+    void countsAddedChangedAndDeletedObjects() {
+        S3Manifest base = S3Manifest.of(Arrays.asList(
+            new S3ObjectEntry("a", "\"1\"", 10, 1000),
+            new S3ObjectEntry("b", "\"2\"", 10, 1000),
+            new S3ObjectEntry("c", "\"3\"", 10, 1000),
+            new S3ObjectEntry("d", "\"4\"", 10, 1000),
+            new S3ObjectEntry("f", "\"6\"", 10, 1000)), 1L);
+        S3Manifest listing = S3Manifest.of(Arrays.asList(
+            new S3ObjectEntry("f", "\"6\"", 10, 2000),
+            new S3ObjectEntry("e", "\"5\"", 10, 1000),
+            new S3ObjectEntry("d", "\"4\"", 11, 1000),
+            new S3ObjectEntry("c", "\"3x\"", 10, 1000),
+            new S3ObjectEntry("b", "\"2\"", 10, 1000),
+            new S3ObjectEntry("0", "\"0\"", 10, 1000)), 2L);
+        
+        S3ChangeSet changes = S3ChangeSet.diff(base, listing, 5L);
+        
+        assertEquals(2, changes.getAdded());
+        assertEquals(3, changes.getChanged());
+        assertEquals(1, changes.getDeleted());
+        assertEquals(6, changes.getScanned());
+        assertEquals(5L, changes.getListingMillis());
+        assertFalse(changes.isEmpty());
+    }
+    
+    @Test
+    void identicalListingIsEmpty() {
+        S3Manifest listing = S3Manifest.of(Collections.singletonList(new S3ObjectEntry("a", "\"1\"", 10, 1000)), 1L);
+        
+        assertTrue(S3ChangeSet.diff(listing, listing, 0L).isEmpty());
+        assertTrue(S3ChangeSet.diff(S3Manifest.empty(), S3Manifest.empty(), 0L).isEmpty());
+    }
+    
+    @Test
+    void everythingIsDeletedFromAnEmptyListing() {
+        S3Manifest base = S3Manifest.of(Arrays.asList(
+            new S3ObjectEntry("a", "\"1\"", 10, 1000),
+            new S3ObjectEntry("b", "\"2\"", 10, 1000)), 1L);
+        
+        S3ChangeSet changes = S3ChangeSet.diff(base, S3Manifest.empty(), 0L);
+        
+        assertEquals(0, changes.getAdded());
+        assertEquals(2, changes.getDeleted());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.example.connector;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.bedrockagent.BedrockAgentClient;
+import software.amazon.awssdk.services.bedrockagent.model.StartIngestionJobRequest;
+import software.amazon.awssdk.services.bedrockagent.model.StartIngestionJobResponse;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class S3DataSourceConnectorTest {
+    private static final String BUCKET = "docs";
+    
+    @Test
+    void doesNotStartIngestionWhenNothingChanged() throws ConnectorException {
+        StartCountingClient client = new StartCountingClient(false);
+        S3DataSourceConnector connector = new S3DataSourceConnector(client, "KB1");
+        InMemoryS3ObjectLister lister = new InMemoryS3ObjectLister()
+            .put(BUCKET, new S3ObjectEntry("a.txt", "\"1\"", 1, 1));
+        S3ChangeDetector detector = detector(lister);
+        
+        assertTrue(connector.startIngestionIfChanged("DS1", "token-1", detector).isPresent());
+        Optional<StartIngestionJobResponse> second = connector.startIngestionIfChanged("DS1", "token-2", detector);
+        
+        assertFalse(second.isPresent());
+        assertEquals(1, client.starts.get());
+        assertTrue(detector.getLastChanges().isEmpty());
+    }
+    
+    @Test
+    void commitsManifestOnlyAfterSuccessfulStart() throws ConnectorException {
+        StartCountingClient client = new StartCountingClient(true);
+        S3DataSourceConnector connector = new S3DataSourceConnector(client, "KB1");
+        InMemoryS3ObjectLister lister = new InMemoryS3ObjectLister()
+            .put(BUCKET, new S3ObjectEntry("a.txt", "\"1\"", 1, 1));
+        S3ChangeDetector detector = detector(lister);
+        
+        assertThrows(ConnectorException.class, () -> connector.startIngestionIfChanged("DS1", "token-1", detector));
+        assertEquals(0, detector.getTrackedObjects());
+        
+        client.failing = false;
+        assertTrue(connector.startIngestionIfChanged("DS1", "token-2", detector).isPresent());
+        assertEquals(1, detector.getTrackedObjects());
+        assertEquals(2, client.starts.get());
+    }
+    
+    private static S3ChangeDetector detector(S3ObjectLister lister) {
+        return S3ChangeDetector.builder()
+            .lister(lister)
+            .source(S3ConfigBuilder.builder().bucketName(BUCKET))
+            .build();
+    }
+    
+    private static final class StartCountingClient implements BedrockAgentClient {
+        final AtomicInteger starts = new AtomicInteger();
+        volatile boolean failing;
+        
+        StartCountingClient(boolean failing) {
+            this.failing = failing;
+        }
+        
+        @Override
+        public StartIngestionJobResponse startIngestionJob(StartIngestionJobRequest request) {
+            starts.incrementAndGet();
+            if (failing) {
+                throw new IllegalStateException("StartIngestionJob rejected");
+            }
+            return StartIngestionJobResponse.builder().build();
+        }
+        
+        @Override
+        public String serviceName() {
+            return "bedrock-agent";
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.example.connector;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class S3ManifestTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void writeThenReadRoundTrips() throws IOException {
+        S3Manifest manifest = S3Manifest.of(Arrays.asList(
+            new S3ObjectEntry("reports/2024/q1.pdf", "\"a1\"", 1024, 1000),
+            new S3ObjectEntry("reports/2024/q2.pdf", "\"a2\"", 2048, 2000),
+            new S3ObjectEntry("reports/2023/\u00fcbersicht.docx", null, 0, 3000),
+            new S3ObjectEntry("readme.txt", "\"a3\"", 5, 4000)), 42L);
+        Path file = tempDir.resolve("source.manifest");
+        
+        manifest.write(file);
+        S3Manifest read = S3Manifest.read(file);
+        
+        assertEquals(42L, read.getCreatedAtMillis());
+        assertEquals(4, read.size());
+        assertTrue(read.contains("reports/2023/\u00fcbersicht.docx"));
+        assertTrue(S3ChangeSet.diff(manifest, read, 0L).isEmpty());
+        for (int i = 0; i < manifest.size(); i++) {
+            assertEquals(manifest.keyAt(i), read.keyAt(i));
+            assertTrue(manifest.sameVersion(i, read, i));
+        }
+    }
+    
+    @Test
+    void rewriteReplacesFileWithoutLeavingTemporaries() throws IOException {
+        Path file = tempDir.resolve("source.manifest");
+        S3Manifest.of(Arrays.asList(new S3ObjectEntry("a", "\"1\"", 1, 1)), 1L).write(file);
+        S3Manifest.empty().write(file);
+        
+        assertEquals(0, S3Manifest.read(file).size());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+    
+    @Test
+    void rejectsCorruptedFile() throws IOException {
+        Path file = tempDir.resolve("source.manifest");
+        S3Manifest.of(Arrays.asList(
+            new S3ObjectEntry("a", "\"1\"", 1, 1),
+            new S3ObjectEntry("b", "\"2\"", 2, 2)), 1L).write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(file, bytes);
+        
+        IOException e = assertThrows(IOException.class, () -> S3Manifest.read(file));
+        assertTrue(e.getMessage().contains("checksum"));
+    }
+    
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        Path file = tempDir.resolve("source.manifest");
+        S3Manifest.of(Arrays.asList(new S3ObjectEntry("a", "\"1\"", 1, 1)), 1L).write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+        
+        assertThrows(IOException.class, () -> S3Manifest.read(file));
+        assertThrows(IOException.class, () -> S3Manifest.read(tempDir.resolve("missing.manifest")));
+    }
+}
\ No newline at end of file
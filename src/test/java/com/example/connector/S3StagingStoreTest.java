@@ -0,0 +1,221 @@
+package com.example.connector;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class S3StagingStoreTest {
+    private static final int PART_SIZE = S3StagingStore.MIN_PART_SIZE;
+    
+    @Test
+    void knownLengthUpToPartSizeIsOnePutObject() throws ConnectorException {
+        RecordingS3Client s3 = new RecordingS3Client();
+        byte[] content = randomBytes(PART_SIZE);
+        
+        store(s3).put("doc.pdf", new ByteArrayInputStream(content), content.length, "application/pdf");
+        
+        assertEquals(1, s3.puts.size());
+        assertEquals(Long.valueOf(content.length), s3.puts.get(0).contentLength());
+        assertEquals("application/pdf", s3.puts.get(0).contentType());
+        assertArrayEquals(content, s3.putBodies.get(0));
+        assertEquals(0, s3.createdUploads);
+    }
+    
+    @Test
+    void shortStreamOfUnknownLengthIsOnePutObject() throws ConnectorException {
+        RecordingS3Client s3 = new RecordingS3Client();
+        byte[] content = randomBytes(1024);
+        
+        store(s3).put("page.html", new ByteArrayInputStream(content), -1, "text/html");
+        
+        assertEquals(1, s3.puts.size());
+        assertEquals(Long.valueOf(content.length), s3.puts.get(0).contentLength());
+        assertArrayEquals(content, s3.putBodies.get(0));
+        assertEquals(0, s3.createdUploads);
+    }
+    
+    @Test
+    void largeStreamIsUploadedInParts() throws ConnectorException {
+        RecordingS3Client s3 = new RecordingS3Client();
+        byte[] content = randomBytes(2 * PART_SIZE + 1000);
+        
+        store(s3).put("video.bin", new ByteArrayInputStream(content), -1, "application/octet-stream");
+        
+        assertTrue(s3.puts.isEmpty());
+        assertEquals(1, s3.createdUploads);
+        assertEquals(List.of(1, 2, 3),
+            s3.parts.stream().map(UploadPartRequest::partNumber).collect(Collectors.toList()));
+        assertEquals(List.of((long) PART_SIZE, (long) PART_SIZE, 1000L),
+            s3.parts.stream().map(UploadPartRequest::contentLength).collect(Collectors.toList()));
+        assertArrayEquals(content, s3.uploadedBytes());
+        assertEquals(3, s3.completed.get(0).multipartUpload().parts().size());
+        assertEquals(0, s3.aborted.size());
+    }
+    
+    @Test
+    void knownLengthOverPartSizeIsUploadedInParts() throws ConnectorException {
+        RecordingS3Client s3 = new RecordingS3Client();
+        byte[] content = randomBytes(PART_SIZE + 1);
+        
+        store(s3).put("big.pdf", new ByteArrayInputStream(content), content.length, "application/pdf");
+        
+        assertTrue(s3.puts.isEmpty());
+        assertEquals(2, s3.parts.size());
+        assertArrayEquals(content, s3.uploadedBytes());
+    }
+    
+    @Test
+    void failedPartAbortsTheUpload() {
+        RecordingS3Client s3 = new RecordingS3Client();
+        InputStream failing = new InputStream() {
+            private int remaining = PART_SIZE;
+            
+            @Override
+            public int read() throws IOException {
+                if (remaining-- > 0) {
+                    return 0;
+                }
+                throw new IOException("connection reset");
+            }
+        };
+        
+        ConnectorException e = assertThrows(ConnectorException.class,
+            () -> store(s3).put("broken.bin", failing, -1, null));
+        
+        assertTrue(e.getCause() instanceof IOException);
+        assertEquals(1, s3.parts.size());
+        assertEquals(1, s3.aborted.size());
+        assertTrue(s3.completed.isEmpty());
+    }
+    
+    @Test
+    void deletesInBatchesOfAThousandKeys() throws ConnectorException {
+        RecordingS3Client s3 = new RecordingS3Client();
+        List<String> keys = IntStream.range(0, 2500).mapToObj(i -> "kms/" + i + ".pdf").collect(Collectors.toList());
+        
+        store(s3).delete(keys);
+        
+        assertEquals(List.of(1000, 1000, 500),
+            s3.deletes.stream().map(d -> d.delete().objects().size()).collect(Collectors.toList()));
+        assertTrue(s3.deletes.get(0).delete().quiet());
+    }
+    
+    private static S3StagingStore store(S3Client s3) {
+        return new S3StagingStore(s3, "staging-bucket", null, PART_SIZE);
+    }
+    
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+    
+    /**
+     * Records every write and reads each request body the way the SDK would
+     */
+    private static final class RecordingS3Client implements S3Client {
+        final List<PutObjectRequest> puts = new ArrayList<>();
+        final List<byte[]> putBodies = new ArrayList<>();
+        final List<UploadPartRequest> parts = new ArrayList<>();
+        final List<byte[]> partBodies = new ArrayList<>();
+        final List<CompleteMultipartUploadRequest> completed = new ArrayList<>();
+        final List<AbortMultipartUploadRequest> aborted = new ArrayList<>();
+        final List<DeleteObjectsRequest> deletes = new ArrayList<>();
+        int createdUploads;
+        
+        @Override
+        public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+            puts.add(request);
+            putBodies.add(read(body));
+            return PutObjectResponse.builder().build();
+        }
+        
+        @Override
+        public CreateMultipartUploadResponse createMultipartUpload(CreateMultipartUploadRequest request) {
+            createdUploads++;
+            return CreateMultipartUploadResponse.builder().uploadId("upload-" + createdUploads).build();
+        }
+        
+        @Override
+        public UploadPartResponse uploadPart(UploadPartRequest request, RequestBody body) {
+            parts.add(request);
+            partBodies.add(read(body));
+            return UploadPartResponse.builder().eTag("\"part-" + request.partNumber() + "\"").build();
+        }
+        
+        @Override
+        public CompleteMultipartUploadResponse completeMultipartUpload(CompleteMultipartUploadRequest request) {
+            completed.add(request);
+            List<String> eTags = new ArrayList<>();
+            for (CompletedPart part : request.multipartUpload().parts()) {
+                eTags.add(part.eTag());
+            }
+            assertEquals(parts.stream().map(p -> "\"part-" + p.partNumber() + "\"").collect(Collectors.toList()),
+                eTags);
+            return CompleteMultipartUploadResponse.builder().build();
+        }
+        
+        @Override
+        public AbortMultipartUploadResponse abortMultipartUpload(AbortMultipartUploadRequest request) {
+            aborted.add(request);
+            return AbortMultipartUploadResponse.builder().build();
+        }
+        
+        @Override
+        public DeleteObjectsResponse deleteObjects(DeleteObjectsRequest request) {
+            deletes.add(request);
+            return DeleteObjectsResponse.builder().build();
+        }
+        
+        @Override
+        public String serviceName() {
+            return "s3";
+        }
+        
+        @Override
+        public void close() {
+        }
+        
+        byte[] uploadedBytes() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            partBodies.forEach(out::writeBytes);
+            return out.toByteArray();
+        }
+        
+        private static byte[] read(RequestBody body) {
+            try (InputStream in = body.contentStreamProvider().newStream()) {
+                return in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
\ No newline at end of file